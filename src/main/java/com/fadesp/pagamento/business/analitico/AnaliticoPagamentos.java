@@ -0,0 +1,413 @@
+package com.fadesp.pagamento.business.analitico;
+
+import com.fadesp.pagamento.business.dto.out.AtualizacaoFotoDTO;
+import com.fadesp.pagamento.business.dto.out.DesempenhoMetodoDTO;
+import com.fadesp.pagamento.business.dto.out.FaixaValorDTO;
+import com.fadesp.pagamento.business.dto.out.PagadorVolumeDTO;
+import com.fadesp.pagamento.business.dto.out.ResultadoAnaliticoDTO;
+import com.fadesp.pagamento.business.dto.out.TotalStatusDTO;
+import com.fadesp.pagamento.business.evento.PagamentosArquivadosEvent;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoAnalitico;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análises sobre uma foto colunar dos pagamentos ativos ({@link FotoPagamentos}), para perguntas
+ * sobre dezenas de milhões de linhas que não cabem em consultas por entidade: histograma de valores,
+ * taxa de sucesso por método e maiores pagadores por volume, sempre do tenant da requisição.
+ * <p>
+ * A foto é carregada na subida, em lotes de {@code tamanho-lote} por keyset em projeção (sem entidades),
+ * e atualizada a cada {@code intervalo-atualizacao-ms} apenas com os pagamentos alterados desde a foto
+ * anterior (menos {@code margem-ms}, para commits que terminam depois da marca), intercalados por id
+ * numa cópia das colunas; quem está consultando continua na foto antiga. Pagamentos inativados saem
+ * na atualização seguinte; os arquivados por esta instância também, e os arquivados por outras
+ * réplicas só na próxima recarga completa.
+ * <p>
+ * As agregações rodam em um {@link ForkJoinPool} próprio, com {@code paralelismo} threads, para não
+ * disputar o pool comum.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.analitico.enabled", havingValue = "true")
+public class AnaliticoPagamentos implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliticoPagamentos.class);
+    private static final StatusPagamentoEnum[] STATUS = StatusPagamentoEnum.values();
+    private static final MetodoPagamentoEnum[] METODOS = MetodoPagamentoEnum.values();
+    private static final int MAXIMO_LIMITES = 50;
+    private static final int MAXIMO_PAGADORES = 1000;
+
+    private final PagamentoRepository pagamentoRepository;
+    private final ForkJoinPool pool;
+    private final int tamanhoLote;
+    private final long margemMs;
+    private final Timer recargas;
+    private final Timer atualizacoes;
+
+    /** Tenants nunca saem do dicionário: os ids continuam válidos em qualquer foto. */
+    private final Map<String, Short> idsTenant = new ConcurrentHashMap<>();
+    /** Ids removidos da tabela por arquivamento, aplicados na próxima atualização. */
+    private final LongOpenHashSet arquivados = new LongOpenHashSet();
+
+    private volatile FotoPagamentos foto;
+    private OffsetDateTime marca;
+    private Dicionario dicionario = new Dicionario();
+
+    public AnaliticoPagamentos(PagamentoRepository pagamentoRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${pagamento.analitico.paralelismo:0}") int paralelismo,
+                               @Value("${pagamento.analitico.tamanho-lote:10000}") int tamanhoLote,
+                               @Value("${pagamento.analitico.margem-ms:5000}") long margemMs) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.tamanhoLote = tamanhoLote;
+        this.margemMs = margemMs;
+        this.recargas = Timer.builder("pagamento.analitico.atualizacao").tag("tipo", "completa").register(meterRegistry);
+        this.atualizacoes = Timer.builder("pagamento.analitico.atualizacao").tag("tipo", "incremental").register(meterRegistry);
+        Gauge.builder("pagamento.analitico.linhas", this, a -> a.foto == null ? 0 : a.foto.tamanho)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarEmSegundoPlano() {
+        Thread thread = new Thread(() -> {
+            try {
+                recarregar();
+            } catch (RuntimeException e) {
+                log.error("Falha ao carregar a foto analítica dos pagamentos", e);
+            }
+        }, "analitico-carga");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${pagamento.analitico.intervalo-atualizacao-ms:60000}",
+            initialDelayString = "${pagamento.analitico.intervalo-atualizacao-ms:60000}")
+    public void atualizarPeriodicamente() {
+        if (foto != null) {
+            atualizar();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoArquivarPagamentos(PagamentosArquivadosEvent evento) {
+        synchronized (arquivados) {
+            evento.ids().forEach(id -> arquivados.add(id.longValue()));
+        }
+    }
+
+    /**
+     * Atualização pedida pela API. Roda numa thread do pool, fora da requisição: a sessão aberta
+     * para a requisição é do tenant dela e só enxergaria os pagamentos dele.
+     */
+    public AtualizacaoFotoDTO atualizarAgora(boolean completa) {
+        return pool.submit(() -> completa ? recarregar() : atualizar()).join();
+    }
+
+    /** Descarta a foto e os dicionários e lê de novo todos os pagamentos ativos. */
+    public synchronized AtualizacaoFotoDTO recarregar() {
+        long inicio = System.nanoTime();
+        OffsetDateTime novaMarca = OffsetDateTime.now();
+        synchronized (arquivados) {
+            arquivados.clear();
+        }
+        Dicionario novo = new Dicionario();
+        Colunas colunas = new Colunas(foto == null ? tamanhoLote : foto.tamanho);
+        long ultimoId = 0;
+        List<PagamentoAnalitico> lote;
+        do {
+            lote = pagamentoRepository.buscarAtivosParaAnalitico(ultimoId, PageRequest.of(0, tamanhoLote));
+            for (PagamentoAnalitico pagamento : lote) {
+                colunas.adicionar(pagamento, novo);
+            }
+            if (!lote.isEmpty()) {
+                ultimoId = lote.get(lote.size() - 1).id();
+            }
+        } while (lote.size() == tamanhoLote);
+
+        dicionario = novo;
+        publicar(colunas, novaMarca);
+        long duracao = System.nanoTime() - inicio;
+        recargas.record(duracao, TimeUnit.NANOSECONDS);
+        log.info("Foto analítica carregada com {} pagamento(s) em {} ms", colunas.tamanho, duracao / 1_000_000);
+        return new AtualizacaoFotoDTO(true, colunas.tamanho, colunas.tamanho, 0,
+                TimeUnit.NANOSECONDS.toMillis(duracao), novaMarca);
+    }
+
+    /**
+     * Aplica à foto os pagamentos alterados desde a anterior: inclui os novos, substitui os alterados
+     * e retira os inativados e arquivados. Custa uma leitura das alterações e uma cópia das colunas.
+     */
+    public synchronized AtualizacaoFotoDTO atualizar() {
+        FotoPagamentos atual = foto;
+        if (atual == null) {
+            return recarregar();
+        }
+        long inicio = System.nanoTime();
+        OffsetDateTime novaMarca = OffsetDateTime.now();
+        OffsetDateTime desde = marca.minusNanos(TimeUnit.MILLISECONDS.toNanos(margemMs));
+        List<PagamentoAnalitico> alterados = new ArrayList<>();
+        long ultimoId = 0;
+        List<PagamentoAnalitico> lote;
+        do {
+            lote = pagamentoRepository.buscarAlteradosParaAnalitico(desde, ultimoId, PageRequest.of(0, tamanhoLote));
+            alterados.addAll(lote);
+            if (!lote.isEmpty()) {
+                ultimoId = lote.get(lote.size() - 1).id();
+            }
+        } while (lote.size() == tamanhoLote);
+        LongOpenHashSet removidos;
+        synchronized (arquivados) {
+            removidos = new LongOpenHashSet(arquivados);
+            arquivados.clear();
+        }
+
+        // Intercalação por id: as colunas e as alterações já estão em ordem crescente.
+        Colunas colunas = new Colunas(atual.tamanho + alterados.size());
+        int removidas = 0;
+        int i = 0;
+        int j = 0;
+        while (i < atual.tamanho || j < alterados.size()) {
+            long idAtual = i < atual.tamanho ? atual.ids[i] : Long.MAX_VALUE;
+            PagamentoAnalitico alterado = j < alterados.size() ? alterados.get(j) : null;
+            if (alterado == null || idAtual < alterado.id()) {
+                if (removidos.contains(idAtual)) {
+                    removidas++;
+                } else {
+                    colunas.copiar(atual, i);
+                }
+                i++;
+                continue;
+            }
+            boolean mantido = Boolean.TRUE.equals(alterado.ativo()) && !removidos.contains(alterado.id().longValue());
+            if (mantido) {
+                colunas.adicionar(alterado, dicionario);
+            }
+            if (idAtual == alterado.id()) {
+                if (!mantido) {
+                    removidas++;
+                }
+                i++;
+            }
+            j++;
+        }
+
+        publicar(colunas, novaMarca);
+        long duracao = System.nanoTime() - inicio;
+        atualizacoes.record(duracao, TimeUnit.NANOSECONDS);
+        return new AtualizacaoFotoDTO(false, colunas.tamanho, alterados.size(), removidas,
+                TimeUnit.NANOSECONDS.toMillis(duracao), novaMarca);
+    }
+
+    private void publicar(Colunas colunas, OffsetDateTime novaMarca) {
+        foto = new FotoPagamentos(colunas.tamanho, colunas.ids, colunas.status, colunas.metodos, colunas.centavos,
+                colunas.pagadores, colunas.tenants,
+                Arrays.copyOf(dicionario.documentos, dicionario.quantidade),
+                Arrays.copyOf(dicionario.tenantDoPagador, dicionario.quantidade),
+                novaMarca);
+        marca = novaMarca;
+    }
+
+    public ResultadoAnaliticoDTO<List<FaixaValorDTO>> histogramaValores(List<BigDecimal> limites,
+                                                                        StatusPagamentoEnum status) {
+        if (limites.isEmpty() || limites.size() > MAXIMO_LIMITES) {
+            throw new BusinessException("Informe entre 1 e " + MAXIMO_LIMITES + " limites de faixa.");
+        }
+        long[] centavos = new long[limites.size()];
+        for (int i = 0; i < centavos.length; i++) {
+            try {
+                centavos[i] = Dinheiro.de(limites.get(i)).centavos();
+            } catch (ArithmeticException e) {
+                throw new BusinessException("Limite de faixa inválido: " + limites.get(i));
+            }
+            if (centavos[i] <= 0 || (i > 0 && centavos[i] <= centavos[i - 1])) {
+                throw new BusinessException("Limites de faixa devem ser positivos e crescentes.");
+            }
+        }
+        FotoPagamentos atual = fotoPronta();
+        long[][] totais = atual.histograma(pool, tenantAtual(), centavos, status == null ? -1 : status.ordinal());
+        List<FaixaValorDTO> faixas = new ArrayList<>(centavos.length + 1);
+        for (int i = 0; i <= centavos.length; i++) {
+            faixas.add(new FaixaValorDTO(
+                    i == 0 ? Dinheiro.ZERO : Dinheiro.deCentavos(centavos[i - 1]),
+                    i == centavos.length ? null : Dinheiro.deCentavos(centavos[i]),
+                    totais[0][i],
+                    Dinheiro.deCentavos(totais[1][i])));
+        }
+        return new ResultadoAnaliticoDTO<>(atual.geradoEm, atual.tamanho, faixas);
+    }
+
+    public ResultadoAnaliticoDTO<List<DesempenhoMetodoDTO>> desempenhoPorMetodo() {
+        FotoPagamentos atual = fotoPronta();
+        long[][] totais = atual.porMetodoEStatus(pool, tenantAtual(), METODOS.length, STATUS.length);
+        List<DesempenhoMetodoDTO> metodos = new ArrayList<>(METODOS.length);
+        for (MetodoPagamentoEnum metodo : METODOS) {
+            Map<StatusPagamentoEnum, TotalStatusDTO> porStatus = new EnumMap<>(StatusPagamentoEnum.class);
+            for (StatusPagamentoEnum status : STATUS) {
+                int celula = metodo.ordinal() * STATUS.length + status.ordinal();
+                porStatus.put(status, new TotalStatusDTO(totais[0][celula], Dinheiro.deCentavos(totais[1][celula])));
+            }
+            long sucesso = porStatus.get(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO).quantidade();
+            long processados = sucesso + porStatus.get(StatusPagamentoEnum.PROCESSADO_COM_FALHA).quantidade();
+            metodos.add(new DesempenhoMetodoDTO(metodo, porStatus,
+                    processados == 0 ? null : (double) sucesso / processados));
+        }
+        return new ResultadoAnaliticoDTO<>(atual.geradoEm, atual.tamanho, metodos);
+    }
+
+    public ResultadoAnaliticoDTO<List<PagadorVolumeDTO>> maioresPagadores(int limite) {
+        if (limite < 1 || limite > MAXIMO_PAGADORES) {
+            throw new BusinessException("Limite deve estar entre 1 e " + MAXIMO_PAGADORES + ".");
+        }
+        FotoPagamentos atual = fotoPronta();
+        List<PagadorVolumeDTO> pagadores = atual.maioresPagadores(pool, tenantAtual(), limite).stream()
+                .map(p -> new PagadorVolumeDTO(atual.documentos[(int) p[0]], p[1], Dinheiro.deCentavos(p[2])))
+                .toList();
+        return new ResultadoAnaliticoDTO<>(atual.geradoEm, atual.tamanho, pagadores);
+    }
+
+    private FotoPagamentos fotoPronta() {
+        FotoPagamentos atual = foto;
+        if (atual == null) {
+            throw new IndisponivelException("A foto analítica dos pagamentos ainda está sendo carregada.", 5);
+        }
+        return atual;
+    }
+
+    /** Id do tenant da requisição, ou -1 se ele não tem pagamentos na foto (nenhuma linha casa). */
+    private short tenantAtual() {
+        Short id = idsTenant.get(ContextoTenant.atualOuPadrao());
+        return id == null ? -1 : id;
+    }
+
+    private short idTenant(String tenant) {
+        return idsTenant.computeIfAbsent(tenant, t -> {
+            if (idsTenant.size() >= Short.MAX_VALUE) {
+                throw new IllegalStateException("Tenants demais para a foto analítica");
+            }
+            return (short) idsTenant.size();
+        });
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /** Pagadores (tenant + documento) numerados na ordem em que aparecem. Só muda dentro das atualizações. */
+    private final class Dicionario {
+
+        private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+        private String[] documentos = new String[1024];
+        private short[] tenantDoPagador = new short[1024];
+        private int quantidade;
+
+        Dicionario() {
+            ids.defaultReturnValue(-1);
+        }
+
+        int id(short tenant, String tenantNome, String documento) {
+            String chave = tenantNome + ':' + documento;
+            int id = ids.getInt(chave);
+            if (id < 0) {
+                if (quantidade == documentos.length) {
+                    documentos = Arrays.copyOf(documentos, quantidade * 2);
+                    tenantDoPagador = Arrays.copyOf(tenantDoPagador, quantidade * 2);
+                }
+                id = quantidade++;
+                documentos[id] = documento;
+                tenantDoPagador[id] = tenant;
+                ids.put(chave, id);
+            }
+            return id;
+        }
+    }
+
+    /** Colunas em construção, que crescem por duplicação e viram a próxima foto sem cópia final. */
+    private final class Colunas {
+
+        private long[] ids;
+        private byte[] status;
+        private byte[] metodos;
+        private long[] centavos;
+        private int[] pagadores;
+        private short[] tenants;
+        private int tamanho;
+
+        Colunas(int capacidade) {
+            int inicial = Math.max(capacidade, 16);
+            ids = new long[inicial];
+            status = new byte[inicial];
+            metodos = new byte[inicial];
+            centavos = new long[inicial];
+            pagadores = new int[inicial];
+            tenants = new short[inicial];
+        }
+
+        void adicionar(PagamentoAnalitico pagamento, Dicionario dicionario) {
+            garantirEspaco();
+            short tenant = idTenant(pagamento.tenant());
+            ids[tamanho] = pagamento.id();
+            status[tamanho] = (byte) pagamento.status().ordinal();
+            metodos[tamanho] = (byte) pagamento.metodo().ordinal();
+            centavos[tamanho] = pagamento.valor().centavos();
+            pagadores[tamanho] = dicionario.id(tenant, pagamento.tenant(), pagamento.cpfCnpjPagador());
+            tenants[tamanho] = tenant;
+            tamanho++;
+        }
+
+        void copiar(FotoPagamentos origem, int posicao) {
+            garantirEspaco();
+            ids[tamanho] = origem.ids[posicao];
+            status[tamanho] = origem.status[posicao];
+            metodos[tamanho] = origem.metodos[posicao];
+            centavos[tamanho] = origem.centavos[posicao];
+            pagadores[tamanho] = origem.pagadores[posicao];
+            tenants[tamanho] = origem.tenants[posicao];
+            tamanho++;
+        }
+
+        private void garantirEspaco() {
+            if (tamanho == ids.length) {
+                int nova = ids.length * 2;
+                ids = Arrays.copyOf(ids, nova);
+                status = Arrays.copyOf(status, nova);
+                metodos = Arrays.copyOf(metodos, nova);
+                centavos = Arrays.copyOf(centavos, nova);
+                pagadores = Arrays.copyOf(pagadores, nova);
+                tenants = Arrays.copyOf(tenants, nova);
+            }
+        }
+    }
+}
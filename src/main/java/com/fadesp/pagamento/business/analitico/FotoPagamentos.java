@@ -0,0 +1,362 @@
+package com.fadesp.pagamento.business.analitico;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Foto colunar e imutável dos pagamentos ativos: uma coluna de tipo primitivo por atributo, todas
+ * indexadas pela mesma posição e ordenadas por id. As agregações percorrem as colunas em fatias
+ * de {@value #LIMIAR} linhas, em paralelo no {@link ForkJoinPool} informado, com laços sem alocação
+ * nem desvio por objeto.
+ * <p>
+ * Status e método guardam o {@code ordinal()} do enum; pagador e tenant guardam ids dos dicionários
+ * de {@link AnaliticoPagamentos}, cujos valores vêm junto, congelados, em {@link #documentos} e
+ * {@link #tenantDoPagador}. As colunas podem ser maiores que {@link #tamanho}: só as primeiras
+ * {@code tamanho} posições valem.
+ */
+final class FotoPagamentos {
+
+    static final int LIMIAR = 1 << 15;
+
+    final int tamanho;
+    final long[] ids;
+    final byte[] status;
+    final byte[] metodos;
+    final long[] centavos;
+    final int[] pagadores;
+    final short[] tenants;
+    final String[] documentos;
+    final short[] tenantDoPagador;
+    final OffsetDateTime geradoEm;
+
+    /** Linhas agrupadas por pagador (ordenação por contagem), montadas na primeira consulta que as usa. */
+    private volatile int[][] agrupamentoPorPagador;
+
+    FotoPagamentos(int tamanho, long[] ids, byte[] status, byte[] metodos, long[] centavos, int[] pagadores,
+                       short[] tenants, String[] documentos, short[] tenantDoPagador, OffsetDateTime geradoEm) {
+        this.tamanho = tamanho;
+        this.ids = ids;
+        this.status = status;
+        this.metodos = metodos;
+        this.centavos = centavos;
+        this.pagadores = pagadores;
+        this.tenants = tenants;
+        this.documentos = documentos;
+        this.tenantDoPagador = tenantDoPagador;
+        this.geradoEm = geradoEm;
+    }
+
+    /** Posição do id, ou {@code -(ponto de inserção) - 1}, como {@link Arrays#binarySearch}. */
+    int posicao(long id) {
+        return Arrays.binarySearch(ids, 0, tamanho, id);
+    }
+
+    /**
+     * Quantidade e soma em centavos por faixa de valor: a faixa {@code i} vai de {@code limites[i-1]}
+     * (inclusive) a {@code limites[i]} (exclusive); a primeira começa em zero e a última não tem teto.
+     *
+     * @param status ordinal do status a considerar, ou {@code -1} para todos
+     * @return {@code [quantidades, somas]}, cada um com {@code limites.length + 1} posições
+     */
+    long[][] histograma(ForkJoinPool pool, short tenant, long[] limites, int status) {
+        return pool.invoke(new Histograma(this, tenant, limites, (byte) status, 0, tamanho));
+    }
+
+    /**
+     * Quantidade e soma em centavos por método e status, em matrizes achatadas
+     * ({@code metodo * quantidadeStatus + status}).
+     *
+     * @return {@code [quantidades, somas]}
+     */
+    long[][] porMetodoEStatus(ForkJoinPool pool, short tenant, int quantidadeMetodos, int quantidadeStatus) {
+        return pool.invoke(new MetodoStatus(this, tenant, quantidadeMetodos, quantidadeStatus, 0, tamanho));
+    }
+
+    /**
+     * Os {@code limite} pagadores do tenant com maior soma de valores, em ordem decrescente.
+     *
+     * @return {@code [pagador, quantidade, centavos]} por pagador
+     */
+    List<long[]> maioresPagadores(ForkJoinPool pool, short tenant, int limite) {
+        int[][] agrupamento = agrupamentoPorPagador();
+        Ranking ranking = pool.invoke(new MaioresPagadores(this, agrupamento[0], agrupamento[1], tenant, limite,
+                0, documentos.length));
+        return ranking.ordenado();
+    }
+
+    /**
+     * {@code [inicio, linhas]}: as linhas do pagador {@code p} são {@code linhas[inicio[p]..inicio[p+1])}.
+     * Ordenação por contagem, O(linhas + pagadores).
+     */
+    private int[][] agrupamentoPorPagador() {
+        int[][] agrupamento = agrupamentoPorPagador;
+        if (agrupamento == null) {
+            synchronized (this) {
+                agrupamento = agrupamentoPorPagador;
+                if (agrupamento == null) {
+                    int[] inicio = new int[documentos.length + 1];
+                    for (int i = 0; i < tamanho; i++) {
+                        inicio[pagadores[i] + 1]++;
+                    }
+                    for (int p = 0; p < documentos.length; p++) {
+                        inicio[p + 1] += inicio[p];
+                    }
+                    int[] proxima = Arrays.copyOf(inicio, documentos.length);
+                    int[] linhas = new int[tamanho];
+                    for (int i = 0; i < tamanho; i++) {
+                        linhas[proxima[pagadores[i]]++] = i;
+                    }
+                    agrupamento = new int[][]{inicio, linhas};
+                    agrupamentoPorPagador = agrupamento;
+                }
+            }
+        }
+        return agrupamento;
+    }
+
+    private static final class Histograma extends RecursiveTask<long[][]> {
+
+        private final FotoPagamentos s;
+        private final short tenant;
+        private final long[] limites;
+        private final byte status;
+        private final int inicio;
+        private final int fim;
+
+        Histograma(FotoPagamentos s, short tenant, long[] limites, byte status, int inicio, int fim) {
+            this.s = s;
+            this.tenant = tenant;
+            this.limites = limites;
+            this.status = status;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (fim - inicio > LIMIAR) {
+                int meio = (inicio + fim) >>> 1;
+                Histograma esquerda = new Histograma(s, tenant, limites, status, inicio, meio);
+                esquerda.fork();
+                long[][] direita = new Histograma(s, tenant, limites, status, meio, fim).compute();
+                return somar(esquerda.join(), direita);
+            }
+            long[] quantidades = new long[limites.length + 1];
+            long[] somas = new long[limites.length + 1];
+            short[] tenants = s.tenants;
+            byte[] statusColuna = s.status;
+            long[] centavos = s.centavos;
+            for (int i = inicio; i < fim; i++) {
+                if (tenants[i] != tenant || (status >= 0 && statusColuna[i] != status)) {
+                    continue;
+                }
+                long valor = centavos[i];
+                int faixa = 0;
+                while (faixa < limites.length && valor >= limites[faixa]) {
+                    faixa++;
+                }
+                quantidades[faixa]++;
+                somas[faixa] += valor;
+            }
+            return new long[][]{quantidades, somas};
+        }
+    }
+
+    private static final class MetodoStatus extends RecursiveTask<long[][]> {
+
+        private final FotoPagamentos s;
+        private final short tenant;
+        private final int quantidadeMetodos;
+        private final int quantidadeStatus;
+        private final int inicio;
+        private final int fim;
+
+        MetodoStatus(FotoPagamentos s, short tenant, int quantidadeMetodos, int quantidadeStatus,
+                     int inicio, int fim) {
+            this.s = s;
+            this.tenant = tenant;
+            this.quantidadeMetodos = quantidadeMetodos;
+            this.quantidadeStatus = quantidadeStatus;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (fim - inicio > LIMIAR) {
+                int meio = (inicio + fim) >>> 1;
+                MetodoStatus esquerda = new MetodoStatus(s, tenant, quantidadeMetodos, quantidadeStatus, inicio, meio);
+                esquerda.fork();
+                long[][] direita = new MetodoStatus(s, tenant, quantidadeMetodos, quantidadeStatus, meio, fim).compute();
+                return somar(esquerda.join(), direita);
+            }
+            long[] quantidades = new long[quantidadeMetodos * quantidadeStatus];
+            long[] somas = new long[quantidadeMetodos * quantidadeStatus];
+            short[] tenants = s.tenants;
+            byte[] metodos = s.metodos;
+            byte[] status = s.status;
+            long[] centavos = s.centavos;
+            for (int i = inicio; i < fim; i++) {
+                if (tenants[i] == tenant) {
+                    int celula = metodos[i] * quantidadeStatus + status[i];
+                    quantidades[celula]++;
+                    somas[celula] += centavos[i];
+                }
+            }
+            return new long[][]{quantidades, somas};
+        }
+    }
+
+    private static final class MaioresPagadores extends RecursiveTask<Ranking> {
+
+        /** Pagadores por fatia: cada um soma as próprias linhas, que ficam contíguas no agrupamento. */
+        private static final int LIMIAR_PAGADORES = 1 << 12;
+
+        private final FotoPagamentos s;
+        private final int[] inicioPorPagador;
+        private final int[] linhas;
+        private final short tenant;
+        private final int limite;
+        private final int inicio;
+        private final int fim;
+
+        MaioresPagadores(FotoPagamentos s, int[] inicioPorPagador, int[] linhas, short tenant, int limite,
+                         int inicio, int fim) {
+            this.s = s;
+            this.inicioPorPagador = inicioPorPagador;
+            this.linhas = linhas;
+            this.tenant = tenant;
+            this.limite = limite;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Ranking compute() {
+            if (fim - inicio > LIMIAR_PAGADORES) {
+                int meio = (inicio + fim) >>> 1;
+                MaioresPagadores esquerda = new MaioresPagadores(s, inicioPorPagador, linhas, tenant, limite, inicio, meio);
+                esquerda.fork();
+                Ranking direita = new MaioresPagadores(s, inicioPorPagador, linhas, tenant, limite, meio, fim).compute();
+                return direita.incorporar(esquerda.join());
+            }
+            Ranking ranking = new Ranking(limite);
+            long[] centavos = s.centavos;
+            for (int p = inicio; p < fim; p++) {
+                if (s.tenantDoPagador[p] != tenant) {
+                    continue;
+                }
+                int de = inicioPorPagador[p];
+                int ate = inicioPorPagador[p + 1];
+                long soma = 0;
+                for (int k = de; k < ate; k++) {
+                    soma += centavos[linhas[k]];
+                }
+                if (ate > de) {
+                    ranking.oferecer(p, ate - de, soma);
+                }
+            }
+            return ranking;
+        }
+    }
+
+    /** Os {@code limite} maiores por soma, em um min-heap de arrays paralelos. */
+    private static final class Ranking {
+
+        private final int limite;
+        private final long[] pagadores;
+        private final long[] quantidades;
+        private final long[] somas;
+        private int tamanho;
+
+        Ranking(int limite) {
+            this.limite = limite;
+            this.pagadores = new long[limite];
+            this.quantidades = new long[limite];
+            this.somas = new long[limite];
+        }
+
+        void oferecer(long pagador, long quantidade, long soma) {
+            if (tamanho < limite) {
+                colocar(tamanho, pagador, quantidade, soma);
+                subir(tamanho++);
+            } else if (limite > 0 && soma > somas[0]) {
+                colocar(0, pagador, quantidade, soma);
+                descer(0);
+            }
+        }
+
+        Ranking incorporar(Ranking outro) {
+            for (int i = 0; i < outro.tamanho; i++) {
+                oferecer(outro.pagadores[i], outro.quantidades[i], outro.somas[i]);
+            }
+            return this;
+        }
+
+        List<long[]> ordenado() {
+            List<long[]> resultado = new ArrayList<>(tamanho);
+            for (int i = 0; i < tamanho; i++) {
+                resultado.add(new long[]{pagadores[i], quantidades[i], somas[i]});
+            }
+            resultado.sort((a, b) -> a[2] != b[2] ? Long.compare(b[2], a[2]) : Long.compare(a[0], b[0]));
+            return resultado;
+        }
+
+        private void colocar(int i, long pagador, long quantidade, long soma) {
+            pagadores[i] = pagador;
+            quantidades[i] = quantidade;
+            somas[i] = soma;
+        }
+
+        private void subir(int i) {
+            while (i > 0) {
+                int pai = (i - 1) >>> 1;
+                if (somas[pai] <= somas[i]) {
+                    return;
+                }
+                trocar(i, pai);
+                i = pai;
+            }
+        }
+
+        private void descer(int i) {
+            while (true) {
+                int menor = i;
+                int esquerda = 2 * i + 1;
+                int direita = esquerda + 1;
+                if (esquerda < tamanho && somas[esquerda] < somas[menor]) {
+                    menor = esquerda;
+                }
+                if (direita < tamanho && somas[direita] < somas[menor]) {
+                    menor = direita;
+                }
+                if (menor == i) {
+                    return;
+                }
+                trocar(i, menor);
+                i = menor;
+            }
+        }
+
+        private void trocar(int a, int b) {
+            long pagador = pagadores[a];
+            long quantidade = quantidades[a];
+            long soma = somas[a];
+            colocar(a, pagadores[b], quantidades[b], somas[b]);
+            colocar(b, pagador, quantidade, soma);
+        }
+    }
+
+    private static long[][] somar(long[][] a, long[][] b) {
+        for (int coluna = 0; coluna < a.length; coluna++) {
+            for (int i = 0; i < a[coluna].length; i++) {
+                a[coluna][i] += b[coluna][i];
+            }
+        }
+        return a;
+    }
+}
@@ -3,16 +3,19 @@ package com.fadesp.pagamento.business.converter;
 import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
 import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
 import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.entities.PagamentoArquivado;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
 
+import java.time.OffsetDateTime;
+
 public class PagamentoConverter {
 
-    public static Pagamento toEntity(PagamentoRequestDTO dto){
+    public static Pagamento toEntity(PagamentoRequestDTO dto, String tokenCartao){
         Pagamento pagamento = new Pagamento();
         pagamento.setCodigoDebito(dto.codigoDebito());
         pagamento.setCpfCnpjPagador(dto.cpfCnpj().replaceAll("\\D", ""));
         pagamento.setMetodoPagamentoEnum(dto.metodoPagamento());
-        pagamento.setNumeroCartao(dto.numeroCartao());
+        pagamento.setNumeroCartao(tokenCartao);
         pagamento.setValorTransacao(dto.valor());
         pagamento.setStatus(StatusPagamentoEnum.PENDENTE);
         pagamento.setAtivo(true);
@@ -27,7 +30,38 @@ public class PagamentoConverter {
                 pagamento.getMetodoPagamentoEnum(),
                 pagamento.getValorTransacao(),
                 pagamento.getStatus(),
-                pagamento.getAtivo()
+                pagamento.getAtivo(),
+                pagamento.getAtualizadoEm()
         );
     }
+
+    public static PagamentoResponseDTO toResponse(PagamentoArquivado arquivado){
+        return new PagamentoResponseDTO(
+                arquivado.getId(),
+                arquivado.getCodigoDebito(),
+                arquivado.getCpfCnpjPagador(),
+                arquivado.getMetodoPagamentoEnum(),
+                arquivado.getValorTransacao(),
+                arquivado.getStatus(),
+                arquivado.getAtivo(),
+                arquivado.getAtualizadoEm()
+        );
+    }
+
+    public static PagamentoArquivado toArquivado(Pagamento pagamento, OffsetDateTime arquivadoEm){
+        PagamentoArquivado arquivado = new PagamentoArquivado();
+        arquivado.setId(pagamento.getId());
+        arquivado.setTenant(pagamento.getTenant());
+        arquivado.setCodigoDebito(pagamento.getCodigoDebito());
+        arquivado.setCpfCnpjPagador(pagamento.getCpfCnpjPagador());
+        arquivado.setMetodoPagamentoEnum(pagamento.getMetodoPagamentoEnum());
+        arquivado.setNumeroCartao(pagamento.getNumeroCartao());
+        arquivado.setValorTransacao(pagamento.getValorTransacao());
+        arquivado.setStatus(pagamento.getStatus());
+        arquivado.setAtivo(pagamento.getAtivo());
+        arquivado.setCriadoEm(pagamento.getCriadoEm());
+        arquivado.setAtualizadoEm(pagamento.getAtualizadoEm());
+        arquivado.setArquivadoEm(arquivadoEm);
+        return arquivado;
+    }
 }
@@ -0,0 +1,18 @@
+package com.fadesp.pagamento.business.dto.in;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "PagamentoLoteRequest")
+public record PagamentoLoteRequestDTO(
+
+        @NotEmpty(message = "O lote deve conter ao menos um pagamento")
+        @Size(max = 1000, message = "O lote deve conter no máximo 1000 pagamentos")
+        @Schema(description = "Pagamentos a serem registrados em uma única transação", requiredMode = Schema.RequiredMode.REQUIRED)
+        List<@Valid PagamentoRequestDTO> pagamentos
+) {
+}
@@ -2,18 +2,18 @@ package com.fadesp.pagamento.business.dto.in;
 
 import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.validation.CpfCnpj;
+import com.fadesp.pagamento.infrastructure.validation.ValorMonetario;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
-import java.math.BigDecimal;
-
 @Schema(name = "PagamentoRequest")
 public record PagamentoRequestDTO(
 
         @NotNull(message = "O código do débito é obrigatório")
         @Positive(message = "O código do débito deve ser positivo")
         @Schema(description = "Código do débito associado ao pagamento", example = "123456")
-        Integer codigoDebito,
+        Long codigoDebito,
 
         @NotBlank(message = "O CPF/CNPJ é obrigatório")
         @CpfCnpj
@@ -29,9 +29,8 @@ public record PagamentoRequestDTO(
         String numeroCartao,
 
         @NotNull(message = "O valor do pagamento é obrigatório")
-        @DecimalMin(value = "0.01", message = "O valor deve ser maior que zero")
-        @Digits(integer = 15, fraction = 2, message = "O valor deve ter no máximo 15 dígitos inteiros e 2 decimais")
+        @ValorMonetario
         @Schema(description = "Valor da transação", example = "250.00", requiredMode = Schema.RequiredMode.REQUIRED)
-        BigDecimal valor
+        Dinheiro valor
 ) {
 }
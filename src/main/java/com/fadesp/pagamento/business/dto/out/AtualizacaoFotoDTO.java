@@ -0,0 +1,28 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(name = "AtualizacaoFoto")
+public record AtualizacaoFotoDTO(
+
+        @Schema(description = "true para recarga completa, false para incremental", example = "false")
+        boolean completa,
+
+        @Schema(description = "Pagamentos ativos na nova foto", example = "25000000")
+        int linhas,
+
+        @Schema(description = "Linhas lidas do banco (alteradas desde a última foto, ou todas na recarga)", example = "1800")
+        int lidas,
+
+        @Schema(description = "Pagamentos que saíram da foto (inativados ou arquivados)", example = "12")
+        int removidas,
+
+        @Schema(description = "Duração da atualização, em milissegundos", example = "850")
+        long duracaoMs,
+
+        @Schema(description = "Momento da nova foto", example = "2026-01-15T10:30:00Z")
+        OffsetDateTime fotoEm
+) {
+}
@@ -0,0 +1,21 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(name = "DesempenhoMetodo")
+public record DesempenhoMetodoDTO(
+
+        @Schema(description = "Método de pagamento", example = "PIX")
+        MetodoPagamentoEnum metodo,
+
+        @Schema(description = "Quantidade e valor dos pagamentos ativos do método, por status")
+        Map<StatusPagamentoEnum, TotalStatusDTO> totaisPorStatus,
+
+        @Schema(description = "Sucessos sobre processados (sucesso + falha); nulo sem processados", example = "0.97")
+        Double taxaSucesso
+) {
+}
@@ -0,0 +1,21 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "FaixaValor")
+public record FaixaValorDTO(
+
+        @Schema(description = "Início da faixa (inclusive)", example = "50.00")
+        Dinheiro de,
+
+        @Schema(description = "Fim da faixa (exclusive); nulo na última", example = "100.00")
+        Dinheiro ate,
+
+        @Schema(description = "Quantidade de pagamentos ativos na faixa", example = "1200")
+        long quantidade,
+
+        @Schema(description = "Soma dos valores da faixa", example = "87000.00")
+        Dinheiro valor
+) {
+}
@@ -0,0 +1,30 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(name = "HistoricoPagamento")
+public record HistoricoPagamentoDTO(
+
+        @Schema(description = "Identificador da entrada; também é o cursor da paginação", example = "42")
+        Long id,
+
+        @Schema(description = "STATUS para mudança de status, EXCLUSAO para exclusão lógica", example = "STATUS")
+        OperacaoHistoricoEnum operacao,
+
+        @Schema(description = "Status antes da operação", example = "PENDENTE")
+        StatusPagamentoEnum statusAnterior,
+
+        @Schema(description = "Status depois da operação", example = "PROCESSADO_COM_SUCESSO")
+        StatusPagamentoEnum statusNovo,
+
+        @Schema(description = "Data/hora da operação", example = "2026-01-15T10:30:00Z")
+        OffsetDateTime ocorridoEm,
+
+        @Schema(description = "Quem fez a operação (cabeçalho X-Ator, ou sistema/conciliacao/recuperacao)", example = "operador-17")
+        String ator
+) {
+}
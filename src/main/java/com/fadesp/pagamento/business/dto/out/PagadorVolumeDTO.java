@@ -0,0 +1,18 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "PagadorVolume")
+public record PagadorVolumeDTO(
+
+        @Schema(description = "CPF ou CNPJ do pagador, sem máscara", example = "12345678901")
+        String cpfCnpjPagador,
+
+        @Schema(description = "Quantidade de pagamentos ativos do pagador", example = "42")
+        long quantidade,
+
+        @Schema(description = "Soma dos valores dos pagamentos ativos do pagador", example = "15300.00")
+        Dinheiro valor
+) {
+}
@@ -1,8 +1,10 @@
 package com.fadesp.pagamento.business.dto.out;
 
 import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
 import io.swagger.v3.oas.annotations.media.Schema;
-import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
 
 @Schema(name = "PagamentoResponse")
@@ -12,7 +14,7 @@ public record PagamentoResponseDTO(
         Long id,
 
         @Schema(description = "Código do débito associado ao pagamento", example = "123456")
-        Integer codigoDebito,
+        Long codigoDebito,
 
         @Schema(description = "CPF ou CNPJ do pagador, sem máscara", example = "12345678901")
         String cpfCnpjPagador,
@@ -21,12 +23,15 @@ public record PagamentoResponseDTO(
         MetodoPagamentoEnum metodoPagamento,
 
         @Schema(description = "Valor total da transação", example = "250.00")
-        BigDecimal valor,
+        Dinheiro valor,
 
         @Schema(description = "Status atual do pagamento", example = "PENDENTE")
         StatusPagamentoEnum status,
 
         @Schema(description = "Indica se o pagamento está ativo (true) ou inativado (false)", example = "true")
-        Boolean ativo
+        Boolean ativo,
+
+        @Schema(description = "Data/hora da última alteração do pagamento", example = "2026-01-15T10:30:00Z")
+        OffsetDateTime atualizadoEm
 
 ) {}
\ No newline at end of file
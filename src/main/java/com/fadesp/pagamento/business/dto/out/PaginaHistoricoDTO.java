@@ -0,0 +1,16 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PaginaHistorico")
+public record PaginaHistoricoDTO(
+
+        @Schema(description = "Entradas do histórico, da mais antiga para a mais recente")
+        List<HistoricoPagamentoDTO> itens,
+
+        @Schema(description = "Valor de 'apos' para a próxima página; nulo na última", example = "42")
+        Long proximo
+) {
+}
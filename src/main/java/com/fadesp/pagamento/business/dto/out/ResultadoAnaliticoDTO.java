@@ -0,0 +1,19 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(name = "ResultadoAnalitico")
+public record ResultadoAnaliticoDTO<T>(
+
+        @Schema(description = "Momento da foto dos pagamentos usada no cálculo", example = "2026-01-15T10:30:00Z")
+        OffsetDateTime fotoEm,
+
+        @Schema(description = "Pagamentos ativos na foto (todos os tenants)", example = "25000000")
+        int linhas,
+
+        @Schema(description = "Resultado da agregação")
+        T resultado
+) {
+}
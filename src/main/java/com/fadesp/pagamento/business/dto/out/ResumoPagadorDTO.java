@@ -0,0 +1,25 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "ResumoPagador")
+public record ResumoPagadorDTO(
+
+        @Schema(description = "CPF ou CNPJ do pagador, sem máscara", example = "12345678901")
+        String cpfCnpjPagador,
+
+        @Schema(description = "Quantidade e valor dos pagamentos ativos, por status")
+        Map<StatusPagamentoEnum, TotalStatusDTO> totaisPorStatus,
+
+        @Schema(description = "Saldo em aberto: soma dos pagamentos ativos PENDENTE e PROCESSADO_COM_FALHA", example = "250.00")
+        Dinheiro saldoEmAberto,
+
+        @Schema(description = "IDs dos pagamentos ativos PENDENTE, em ordem crescente")
+        List<Long> idsPendentes
+) {
+}
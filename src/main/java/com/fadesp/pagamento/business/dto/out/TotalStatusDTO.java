@@ -0,0 +1,15 @@
+package com.fadesp.pagamento.business.dto.out;
+
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "TotalStatus")
+public record TotalStatusDTO(
+
+        @Schema(description = "Quantidade de pagamentos ativos no status", example = "3")
+        long quantidade,
+
+        @Schema(description = "Soma dos valores dos pagamentos ativos no status", example = "750.00")
+        Dinheiro valor
+) {
+}
@@ -0,0 +1,35 @@
+package com.fadesp.pagamento.business.evento;
+
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Estado de um pagamento após uma escrita em {@code PagamentoService}. Consumidores tratam o
+ * evento como "upsert" do estado completo, e não como delta. Os eventos de transações concorrentes
+ * podem chegar fora de ordem depois do commit: quem guarda estado compara {@code atualizadoEm} com o
+ * que já tem e descarta o evento mais antigo.
+ */
+public record PagamentoAlteradoEvent(
+        Long id,
+        String tenant,
+        String cpfCnpjPagador,
+        StatusPagamentoEnum status,
+        Dinheiro valor,
+        boolean ativo,
+        OffsetDateTime atualizadoEm
+) {
+
+    public static PagamentoAlteradoEvent de(Pagamento pagamento) {
+        return new PagamentoAlteradoEvent(
+                pagamento.getId(),
+                pagamento.getTenant(),
+                pagamento.getCpfCnpjPagador(),
+                pagamento.getStatus(),
+                pagamento.getValorTransacao(),
+                Boolean.TRUE.equals(pagamento.getAtivo()),
+                pagamento.getAtualizadoEm());
+    }
+}
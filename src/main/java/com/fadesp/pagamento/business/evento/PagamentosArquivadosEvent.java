@@ -0,0 +1,7 @@
+package com.fadesp.pagamento.business.evento;
+
+import java.util.List;
+
+/** Pagamentos removidos da tabela principal pelo arquivamento. */
+public record PagamentosArquivadosEvent(List<Long> ids) {
+}
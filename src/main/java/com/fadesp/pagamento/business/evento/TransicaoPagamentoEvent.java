@@ -0,0 +1,21 @@
+package com.fadesp.pagamento.business.evento;
+
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Uma transição a registrar no histórico do pagamento. Publicada dentro da transação da escrita;
+ * só chega ao histórico se ela for confirmada.
+ */
+public record TransicaoPagamentoEvent(
+        Long pagamentoId,
+        String tenant,
+        OperacaoHistoricoEnum operacao,
+        StatusPagamentoEnum statusAnterior,
+        StatusPagamentoEnum statusNovo,
+        OffsetDateTime ocorridoEm,
+        String ator
+) {
+}
@@ -0,0 +1,141 @@
+package com.fadesp.pagamento.business.historico;
+
+import com.fadesp.pagamento.business.evento.TransicaoPagamentoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.TimeZoneSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Grava o histórico de transições ({@code pagamento_historico}) na mesma transação da alteração.
+ * <p>
+ * As transições publicadas durante a transação são acumuladas e gravadas no {@code beforeCommit},
+ * com um único {@code INSERT} em lote (de até {@code tamanho-lote} linhas por comando) na conexão da
+ * própria transação: a alteração e o seu histórico são confirmados ou desfeitos juntos, e uma falha
+ * ao gravar o histórico desfaz a alteração. Fora de transação, a transição é gravada na hora, em uma
+ * transação própria (o pool não usa auto-commit).
+ * <p>
+ * O custo é um comando a mais na conexão que a transação já tem, dividindo o mesmo commit; o timer
+ * {@code pagamento.historico.gravacao} mede esse acréscimo em produção.
+ */
+@Component
+public class GravadorHistorico {
+
+    private static final String INSERT = """
+            INSERT INTO pagamento_historico
+              (pagamento_id, tenant_id, operacao, status_anterior, status_novo, ocorrido_em, ator)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean fusoNativo;
+    private final int tamanhoLote;
+
+    private final Counter gravados;
+    private final DistributionSummary lotes;
+    private final Timer gravacao;
+
+    public GravadorHistorico(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             EntityManagerFactory entityManagerFactory,
+                             MeterRegistry meterRegistry,
+                             @Value("${pagamento.historico.tamanho-lote:500}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        // Mesmo critério do Hibernate para OffsetDateTime: com fuso nativo grava o offset; sem ele
+        // (MySQL), normaliza para UTC. Assim as leituras pela entidade devolvem o mesmo instante.
+        this.fusoNativo = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getTimeZoneSupport() == TimeZoneSupport.NATIVE;
+        this.tamanhoLote = tamanhoLote;
+        this.gravados = Counter.builder("pagamento.historico.gravados").register(meterRegistry);
+        this.lotes = DistributionSummary.builder("pagamento.historico.lote")
+                .baseUnit("transicoes")
+                .register(meterRegistry);
+        this.gravacao = Timer.builder("pagamento.historico.gravacao").register(meterRegistry);
+    }
+
+    @EventListener
+    public void aoTransicionar(TransicaoPagamentoEvent evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> gravar(List.of(evento)));
+            return;
+        }
+        loteDaTransacao().transicoes.add(evento);
+    }
+
+    /**
+     * O lote fica na própria sincronização: as de uma transação suspensa ({@code REQUIRES_NEW}) não
+     * aparecem em {@code getSynchronizations()}, então cada transação acumula só as suas transições.
+     */
+    private Lote loteDaTransacao() {
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof Lote lote) {
+                return lote;
+            }
+        }
+        Lote lote = new Lote();
+        TransactionSynchronizationManager.registerSynchronization(lote);
+        return lote;
+    }
+
+    private void gravar(List<TransicaoPagamentoEvent> transicoes) {
+        gravacao.record(() -> inserir(transicoes));
+        gravados.increment(transicoes.size());
+        lotes.record(transicoes.size());
+    }
+
+    private void inserir(List<TransicaoPagamentoEvent> transicoes) {
+        jdbcTemplate.batchUpdate(INSERT, transicoes, tamanhoLote, (ps, transicao) -> {
+            ps.setLong(1, transicao.pagamentoId());
+            ps.setString(2, transicao.tenant());
+            ps.setString(3, transicao.operacao().name());
+            ps.setString(4, transicao.statusAnterior().name());
+            ps.setString(5, transicao.statusNovo().name());
+            definirInstante(ps, 6, transicao.ocorridoEm());
+            ps.setString(7, transicao.ator());
+        });
+    }
+
+    private void definirInstante(PreparedStatement ps, int indice, OffsetDateTime instante) throws SQLException {
+        if (fusoNativo) {
+            ps.setObject(indice, instante);
+        } else {
+            ps.setTimestamp(indice, Timestamp.from(instante.toInstant()), UTC);
+        }
+    }
+
+    private final class Lote implements TransactionSynchronization {
+
+        private final List<TransicaoPagamentoEvent> transicoes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!transicoes.isEmpty()) {
+                gravar(transicoes);
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoFinalizado;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arquivo de pagamentos finalizados com registros de largura fixa ({@value #TAMANHO_REGISTRO} bytes),
+ * ordenados por id e lidos por busca binária direto do arquivo mapeado em memória: a consulta não
+ * toca o banco nem guarda nada no heap além da resposta montada.
+ * <p>
+ * Formato: cabeçalho de {@value #TAMANHO_REGISTRO} bytes (marcador, versão, quantidade, marca da foto
+ * e posição da tabela de tenants), os registros e, no fim, a tabela de tenants (nomes em UTF-8),
+ * escrita por último porque só se conhece depois dos registros. Registro:
+ * <pre>
+ *  0 id            8 codigoDebito   16 centavos       24 atualizadoEm (segundos)
+ * 32 nanos        36 offset (s)     40 tenant (short) 42 método  43 ativo  44 tamanho do CPF/CNPJ
+ * 45 CPF/CNPJ (até 14 bytes ASCII)
+ * </pre>
+ * O mapeamento é feito em segmentos de {@code 2^}{@value #BITS_SEGMENTO} registros, porque um
+ * {@link MappedByteBuffer} não passa de 2 GiB. Instâncias são imutáveis e seguras entre threads
+ * (só leituras absolutas).
+ */
+final class ArquivoFinalizados {
+
+    static final int TAMANHO_REGISTRO = 64;
+
+    private static final int MARCADOR = 0x50474644;
+    private static final int VERSAO = 1;
+    private static final int BITS_SEGMENTO = 24;
+    private static final long MASCARA_SEGMENTO = (1L << BITS_SEGMENTO) - 1;
+    private static final int TAMANHO_DOCUMENTO = 14;
+    private static final MetodoPagamentoEnum[] METODOS = MetodoPagamentoEnum.values();
+
+    private final Path caminho;
+    private final long quantidade;
+    private final OffsetDateTime marca;
+    private final List<String> tenants;
+    private final Map<String, Short> idsTenant;
+    private final MappedByteBuffer[] segmentos;
+
+    private ArquivoFinalizados(Path caminho, long quantidade, OffsetDateTime marca, List<String> tenants,
+                               MappedByteBuffer[] segmentos) {
+        this.caminho = caminho;
+        this.quantidade = quantidade;
+        this.marca = marca;
+        this.tenants = List.copyOf(tenants);
+        this.idsTenant = new HashMap<>();
+        for (int i = 0; i < tenants.size(); i++) {
+            idsTenant.put(tenants.get(i), (short) i);
+        }
+        this.segmentos = segmentos;
+    }
+
+    Path caminho() {
+        return caminho;
+    }
+
+    long quantidade() {
+        return quantidade;
+    }
+
+    /** Momento da leitura do banco que gerou o arquivo: alterações a partir dela ainda não estão nele. */
+    OffsetDateTime marca() {
+        return marca;
+    }
+
+    /** O pagamento finalizado com o id, se pertencer ao tenant; {@code null} caso contrário. */
+    PagamentoResponseDTO buscar(long id, String tenant) {
+        Short idTenant = idsTenant.get(tenant);
+        if (idTenant == null) {
+            return null;
+        }
+        long inicio = 0;
+        long fim = quantidade - 1;
+        while (inicio <= fim) {
+            long meio = (inicio + fim) >>> 1;
+            long atual = id(meio);
+            if (atual < id) {
+                inicio = meio + 1;
+            } else if (atual > id) {
+                fim = meio - 1;
+            } else {
+                return ler(meio, idTenant);
+            }
+        }
+        return null;
+    }
+
+    private long id(long registro) {
+        return segmento(registro).getLong(posicao(registro));
+    }
+
+    private MappedByteBuffer segmento(long registro) {
+        return segmentos[(int) (registro >>> BITS_SEGMENTO)];
+    }
+
+    private static int posicao(long registro) {
+        return (int) (registro & MASCARA_SEGMENTO) * TAMANHO_REGISTRO;
+    }
+
+    private PagamentoResponseDTO ler(long registro, short idTenant) {
+        MappedByteBuffer segmento = segmento(registro);
+        int p = posicao(registro);
+        if (segmento.getShort(p + 40) != idTenant) {
+            return null;
+        }
+        byte[] documento = new byte[segmento.get(p + 44)];
+        segmento.get(p + 45, documento);
+        OffsetDateTime atualizadoEm = OffsetDateTime.ofInstant(
+                Instant.ofEpochSecond(segmento.getLong(p + 24), segmento.getInt(p + 32)),
+                ZoneOffset.ofTotalSeconds(segmento.getInt(p + 36)));
+        return new PagamentoResponseDTO(
+                segmento.getLong(p),
+                segmento.getLong(p + 8),
+                new String(documento, StandardCharsets.US_ASCII),
+                METODOS[segmento.get(p + 42)],
+                Dinheiro.deCentavos(segmento.getLong(p + 16)),
+                StatusPagamentoEnum.PROCESSADO_COM_SUCESSO,
+                segmento.get(p + 43) == 1,
+                atualizadoEm);
+    }
+
+    /** Mapeia um arquivo gravado por {@link #gravar}. */
+    static ArquivoFinalizados abrir(Path caminho) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_REGISTRO);
+            canal.read(cabecalho, 0);
+            cabecalho.flip();
+            if (cabecalho.remaining() < TAMANHO_REGISTRO
+                    || cabecalho.getInt(0) != MARCADOR || cabecalho.getInt(4) != VERSAO) {
+                throw new IOException("Arquivo de finalizados inválido: " + caminho);
+            }
+            long quantidade = cabecalho.getLong(8);
+            OffsetDateTime marca = OffsetDateTime.ofInstant(
+                    Instant.ofEpochSecond(cabecalho.getLong(16), cabecalho.getInt(24)),
+                    ZoneOffset.ofTotalSeconds(cabecalho.getInt(28)));
+            long posicaoTenants = cabecalho.getLong(32);
+            if (posicaoTenants != TAMANHO_REGISTRO + quantidade * TAMANHO_REGISTRO || posicaoTenants > canal.size()) {
+                throw new IOException("Arquivo de finalizados incompleto: " + caminho);
+            }
+
+            ByteBuffer tabela = ByteBuffer.allocate((int) (canal.size() - posicaoTenants));
+            canal.read(tabela, posicaoTenants);
+            tabela.flip();
+            int quantidadeTenants = tabela.getInt();
+            List<String> tenants = new ArrayList<>(quantidadeTenants);
+            for (int i = 0; i < quantidadeTenants; i++) {
+                byte[] nome = new byte[tabela.getShort()];
+                tabela.get(nome);
+                tenants.add(new String(nome, StandardCharsets.UTF_8));
+            }
+
+            int quantidadeSegmentos = (int) ((quantidade + MASCARA_SEGMENTO) >>> BITS_SEGMENTO);
+            MappedByteBuffer[] segmentos = new MappedByteBuffer[quantidadeSegmentos];
+            for (int s = 0; s < quantidadeSegmentos; s++) {
+                long primeiro = (long) s << BITS_SEGMENTO;
+                long registros = Math.min(quantidade - primeiro, 1L << BITS_SEGMENTO);
+                segmentos[s] = canal.map(FileChannel.MapMode.READ_ONLY,
+                        TAMANHO_REGISTRO + primeiro * TAMANHO_REGISTRO, registros * TAMANHO_REGISTRO);
+            }
+            // O mapeamento continua válido depois de fechado o canal.
+            return new ArquivoFinalizados(caminho, quantidade, marca, tenants, segmentos);
+        }
+    }
+
+    /**
+     * Grava em {@code destino} os registros de {@code anterior} (se houver) intercalados por id com
+     * {@code novos}, que devem vir em ordem crescente de id e sem repetição; em ids presentes nos
+     * dois, vale o novo. Os tenants do anterior mantêm os mesmos ids, então seus registros são
+     * copiados byte a byte.
+     *
+     * @return quantidade de registros gravados
+     */
+    static long gravar(Path destino, OffsetDateTime marca, ArquivoFinalizados anterior,
+                       Iterator<PagamentoFinalizado> novos) throws IOException {
+        List<String> tenants = new ArrayList<>(anterior == null ? List.of() : anterior.tenants);
+        Map<String, Short> idsTenant = new HashMap<>(anterior == null ? Map.of() : anterior.idsTenant);
+        long quantidadeAnterior = anterior == null ? 0 : anterior.quantidade;
+        long quantidade = 0;
+
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_REGISTRO * 1024);
+            byte[] registro = new byte[TAMANHO_REGISTRO];
+            canal.position(TAMANHO_REGISTRO);
+
+            long i = 0;
+            PagamentoFinalizado novo = novos.hasNext() ? novos.next() : null;
+            while (i < quantidadeAnterior || novo != null) {
+                long idAnterior = i < quantidadeAnterior ? anterior.id(i) : Long.MAX_VALUE;
+                if (novo == null || idAnterior < novo.id()) {
+                    anterior.segmento(i).get(posicao(i), registro);
+                    buffer.put(registro);
+                    i++;
+                } else {
+                    if (idAnterior == novo.id()) {
+                        i++;
+                    }
+                    short tenant = idsTenant.computeIfAbsent(novo.tenant(), t -> {
+                        tenants.add(t);
+                        return (short) (tenants.size() - 1);
+                    });
+                    escrever(buffer, novo, tenant);
+                    novo = novos.hasNext() ? novos.next() : null;
+                }
+                quantidade++;
+                if (!buffer.hasRemaining()) {
+                    descarregar(canal, buffer);
+                }
+            }
+            descarregar(canal, buffer);
+
+            long posicaoTenants = canal.position();
+            ByteBuffer tabela = ByteBuffer.allocate(4 + tenants.stream().mapToInt(t -> 2 + t.length() * 4).sum());
+            tabela.putInt(tenants.size());
+            for (String tenant : tenants) {
+                byte[] nome = tenant.getBytes(StandardCharsets.UTF_8);
+                tabela.putShort((short) nome.length).put(nome);
+            }
+            descarregar(canal, tabela);
+
+            Instant instante = marca.toInstant();
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_REGISTRO)
+                    .putInt(MARCADOR)
+                    .putInt(VERSAO)
+                    .putLong(quantidade)
+                    .putLong(instante.getEpochSecond())
+                    .putInt(instante.getNano())
+                    .putInt(marca.getOffset().getTotalSeconds())
+                    .putLong(posicaoTenants);
+            cabecalho.clear();
+            canal.write(cabecalho, 0);
+            canal.force(true);
+        }
+        return quantidade;
+    }
+
+    private static void escrever(ByteBuffer buffer, PagamentoFinalizado pagamento, short tenant) {
+        byte[] documento = pagamento.cpfCnpjPagador().getBytes(StandardCharsets.US_ASCII);
+        if (documento.length > TAMANHO_DOCUMENTO) {
+            throw new IllegalArgumentException("CPF/CNPJ maior que " + TAMANHO_DOCUMENTO + " caracteres: id=" + pagamento.id());
+        }
+        Instant instante = pagamento.atualizadoEm().toInstant();
+        int inicio = buffer.position();
+        buffer.putLong(pagamento.id())
+                .putLong(pagamento.codigoDebito())
+                .putLong(pagamento.valor().centavos())
+                .putLong(instante.getEpochSecond())
+                .putInt(instante.getNano())
+                .putInt(pagamento.atualizadoEm().getOffset().getTotalSeconds())
+                .putShort(tenant)
+                .put((byte) pagamento.metodo().ordinal())
+                .put((byte) (Boolean.TRUE.equals(pagamento.ativo()) ? 1 : 0))
+                .put((byte) documento.length)
+                .put(documento);
+        buffer.position(inicio + TAMANHO_REGISTRO);
+    }
+
+    private static void descarregar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,88 @@
+package com.fadesp.pagamento.business.indice;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de chaves {@code long}, seguro para inserções e consultas concorrentes sem trava:
+ * cada bit é ligado por CAS e nunca desligado. "Ausente" é definitivo; "possivelmente presente"
+ * erra com a taxa configurada enquanto o número de chaves não passar da capacidade.
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long numeroBits;
+    private final int funcoes;
+    private final LongAdder inseridos = new LongAdder();
+
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falso positivo inválidas");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        int quantidadePalavras = Math.toIntExact((bits + 63) / 64);
+        this.palavras = new AtomicLongArray(quantidadePalavras);
+        this.numeroBits = quantidadePalavras * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) numeroBits / capacidade * ln2));
+    }
+
+    public void adicionar(long chave) {
+        long h1 = misturar(chave);
+        long h2 = misturar(h1) | 1;
+        boolean novo = false;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numeroBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(indice);
+            while ((atual & mascara) == 0) {
+                long anterior = palavras.compareAndExchange(indice, atual, atual | mascara);
+                if (anterior == atual) {
+                    novo = true;
+                    break;
+                }
+                atual = anterior;
+            }
+        }
+        if (novo) {
+            inseridos.increment();
+        }
+    }
+
+    public boolean possivelmenteContem(long chave) {
+        long h1 = misturar(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numeroBits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Chaves distintas inseridas (aproximado: colisões completas não contam). */
+    public long inseridos() {
+        return inseridos.sum();
+    }
+
+    /** Taxa de falso positivo esperada para a quantidade atual de chaves. */
+    public double taxaFalsoPositivoEstimada() {
+        return Math.pow(1 - Math.exp(-(double) funcoes * inseridos() / numeroBits), funcoes);
+    }
+
+    public long tamanhoEmBytes() {
+        return numeroBits / 8;
+    }
+
+    /** Finalizador do MurmurHash3 (fmix64): espalha chaves sequenciais por todo o vetor de bits. */
+    private static long misturar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
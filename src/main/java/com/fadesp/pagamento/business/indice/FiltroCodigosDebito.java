@@ -0,0 +1,135 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Filtro de Bloom com todos os códigos de débito já usados (tabela quente e arquivo). Quando ele
+ * responde "ausente", a criação dispensa a consulta de unicidade ao banco; "possivelmente presente"
+ * leva à consulta explícita e a um 409 limpo.
+ * <p>
+ * É aquecido na subida e alimentado por {@code PagamentoService} antes de cada INSERT, de modo que
+ * não há janela em que um código gravado conste como ausente. Enquanto aquece, tudo é tratado como
+ * "possivelmente presente". Como o {@link IndicePagador}, só enxerga as escritas desta instância.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.filtro-codigos.enabled", havingValue = "true")
+public class FiltroCodigosDebito {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroCodigosDebito.class);
+
+    private final PagamentoRepository pagamentoRepository;
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository;
+    private final VarreduraTenants varreduraTenants;
+    private final int tamanhoLoteAquecimento;
+    private final FiltroBloom filtro;
+    private volatile boolean pronto;
+
+    private final Counter ausentes;
+    private final Counter possiveis;
+
+    public FiltroCodigosDebito(PagamentoRepository pagamentoRepository,
+                               PagamentoArquivadoRepository pagamentoArquivadoRepository,
+                               VarreduraTenants varreduraTenants,
+                               MeterRegistry meterRegistry,
+                               @Value("${pagamento.filtro-codigos.capacidade:10000000}") long capacidade,
+                               @Value("${pagamento.filtro-codigos.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                               @Value("${pagamento.filtro-codigos.tamanho-lote-aquecimento:10000}") int tamanhoLoteAquecimento) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoArquivadoRepository = pagamentoArquivadoRepository;
+        this.varreduraTenants = varreduraTenants;
+        this.tamanhoLoteAquecimento = tamanhoLoteAquecimento;
+        this.filtro = new FiltroBloom(capacidade, taxaFalsoPositivo);
+        this.ausentes = consultas(meterRegistry, "ausente");
+        this.possiveis = consultas(meterRegistry, "possivelmente_presente");
+        Gauge.builder("pagamento.filtro-codigos.codigos", filtro, FiltroBloom::inseridos).register(meterRegistry);
+        Gauge.builder("pagamento.filtro-codigos.falso-positivo-estimado", filtro, FiltroBloom::taxaFalsoPositivoEstimada)
+                .register(meterRegistry);
+    }
+
+    private static Counter consultas(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("pagamento.filtro-codigos.consultas").tag("resultado", resultado).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecerEmSegundoPlano() {
+        Thread thread = new Thread(this::aquecer, "filtro-codigos-aquecimento");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void aquecer() {
+        long inicio = System.nanoTime();
+        long[] total = new long[1];
+        varreduraTenants.paraCada(() -> total[0] += carregar(pagamentoRepository::buscarCodigosDebitoApos)
+                + carregar(pagamentoArquivadoRepository::buscarCodigosDebitoApos));
+        pronto = true;
+        log.info("Filtro de códigos de débito aquecido com {} código(s) em {} ms ({} KiB, falso positivo estimado {})",
+                total[0], (System.nanoTime() - inicio) / 1_000_000, filtro.tamanhoEmBytes() / 1024,
+                String.format("%.4f", filtro.taxaFalsoPositivoEstimada()));
+    }
+
+    private long carregar(BiFunction<Long, PageRequest, List<Long>> buscar) {
+        long total = 0;
+        long ultimo = Long.MIN_VALUE;
+        List<Long> lote;
+        do {
+            lote = buscar.apply(ultimo, PageRequest.of(0, tamanhoLoteAquecimento));
+            for (Long codigo : lote) {
+                filtro.adicionar(codigo);
+            }
+            total += lote.size();
+            if (!lote.isEmpty()) {
+                ultimo = lote.get(lote.size() - 1);
+            }
+        } while (lote.size() == tamanhoLoteAquecimento);
+        return total;
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /** Deve ser chamado antes do INSERT: um código registrado e depois desfeito vira só um falso positivo. */
+    public void registrar(Long codigoDebito) {
+        filtro.adicionar(codigoDebito);
+    }
+
+    /** @return {@code false} apenas quando o código certamente nunca foi usado */
+    public boolean possivelmentePresente(Long codigoDebito) {
+        if (!pronto || filtro.possivelmenteContem(codigoDebito)) {
+            possiveis.increment();
+            return true;
+        }
+        ausentes.increment();
+        return false;
+    }
+
+    /** Os códigos que ainda precisam de consulta ao banco. */
+    public List<Long> possivelmentePresentes(Collection<Long> codigosDebito) {
+        List<Long> candidatos = new ArrayList<>();
+        for (Long codigo : codigosDebito) {
+            if (possivelmentePresente(codigo)) {
+                candidatos.add(codigo);
+            }
+        }
+        return candidatos;
+    }
+}
@@ -0,0 +1,276 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoFinalizado;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+
+/**
+ * Leitura por id dos pagamentos finalizados ({@code PROCESSADO_COM_SUCESSO}, que não mudam mais de
+ * status nem podem ser excluídos) a partir de um {@link ArquivoFinalizados} mapeado em memória,
+ * sem banco e sem ocupar o heap. Cobre as duas tabelas: um pagamento arquivado continua no arquivo.
+ * <p>
+ * O arquivo é refeito a cada {@code intervalo-ms}: o atual é copiado intercalando os pagamentos que
+ * ficaram finalizados desde a marca dele (menos {@code margem-ms}) e os arquivados desde então, e o
+ * novo substitui o antigo de uma vez. Na subida, o último arquivo do diretório é reaberto e só a
+ * diferença é lida do banco. Quem não está no arquivo (ainda não finalizado, ou finalizado depois
+ * da última geração) segue para o banco.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.finalizados.enabled", havingValue = "true")
+public class IndiceFinalizados {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceFinalizados.class);
+    private static final String PREFIXO = "finalizados-";
+    private static final String EXTENSAO = ".dat";
+    private static final OffsetDateTime INICIO = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final PagamentoRepository pagamentoRepository;
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository;
+    private final Path diretorio;
+    private final int tamanhoLote;
+    private final long margemMs;
+    private final Counter acertos;
+    private final Counter ausentes;
+
+    private volatile ArquivoFinalizados arquivo;
+
+    public IndiceFinalizados(PagamentoRepository pagamentoRepository,
+                             PagamentoArquivadoRepository pagamentoArquivadoRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${pagamento.finalizados.diretorio:finalizados}") String diretorio,
+                             @Value("${pagamento.finalizados.tamanho-lote:5000}") int tamanhoLote,
+                             @Value("${pagamento.finalizados.margem-ms:5000}") long margemMs) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoArquivadoRepository = pagamentoArquivadoRepository;
+        this.diretorio = Paths.get(diretorio);
+        this.tamanhoLote = tamanhoLote;
+        this.margemMs = margemMs;
+        this.acertos = Counter.builder("pagamento.finalizados.consultas").tag("resultado", "acerto").register(meterRegistry);
+        this.ausentes = Counter.builder("pagamento.finalizados.consultas").tag("resultado", "ausente").register(meterRegistry);
+        Gauge.builder("pagamento.finalizados.registros", this, i -> i.arquivo == null ? 0 : i.arquivo.quantidade())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarEmSegundoPlano() {
+        Thread thread = new Thread(() -> {
+            try {
+                reabrir();
+                atualizar();
+            } catch (RuntimeException e) {
+                log.error("Falha ao preparar o arquivo de pagamentos finalizados", e);
+            }
+        }, "finalizados-carga");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${pagamento.finalizados.intervalo-ms:300000}",
+            initialDelayString = "${pagamento.finalizados.intervalo-ms:300000}")
+    public void atualizarPeriodicamente() {
+        try {
+            atualizar();
+        } catch (RuntimeException e) {
+            log.error("Falha ao atualizar o arquivo de pagamentos finalizados", e);
+        }
+    }
+
+    /**
+     * O pagamento finalizado com o id, se estiver no arquivo e for do tenant da requisição;
+     * {@code null} para consultar o banco.
+     */
+    public PagamentoResponseDTO buscar(long id) {
+        ArquivoFinalizados atual = arquivo;
+        PagamentoResponseDTO pagamento = atual == null ? null : atual.buscar(id, ContextoTenant.atualOuPadrao());
+        (pagamento == null ? ausentes : acertos).increment();
+        return pagamento;
+    }
+
+    public long quantidade() {
+        ArquivoFinalizados atual = arquivo;
+        return atual == null ? 0 : atual.quantidade();
+    }
+
+    /** Reabre o arquivo mais recente do diretório, descartando os demais (e os inválidos). */
+    synchronized void reabrir() {
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> existentes = Files.newDirectoryStream(diretorio, PREFIXO + "*")) {
+            existentes.forEach(arquivos::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // O nome traz a marca em milissegundos com largura fixa: a ordem alfabética é a cronológica.
+        arquivos.sort(null);
+        for (int i = arquivos.size() - 1; i >= 0; i--) {
+            Path caminho = arquivos.get(i);
+            if (arquivo == null && caminho.toString().endsWith(EXTENSAO)) {
+                try {
+                    arquivo = ArquivoFinalizados.abrir(caminho);
+                    log.info("Arquivo de finalizados {} reaberto com {} pagamento(s)", caminho, arquivo.quantidade());
+                    continue;
+                } catch (IOException e) {
+                    log.warn("Arquivo de finalizados {} descartado: {}", caminho, e.getMessage());
+                }
+            }
+            excluir(caminho);
+        }
+    }
+
+    /**
+     * Gera um novo arquivo com o atual mais os pagamentos finalizados ou arquivados desde a marca
+     * dele (ou todos, se ainda não há arquivo) e passa a servir por ele.
+     *
+     * @return quantidade de pagamentos no novo arquivo
+     */
+    public synchronized long atualizar() {
+        long inicio = System.nanoTime();
+        ArquivoFinalizados anterior = arquivo;
+        OffsetDateTime marca = OffsetDateTime.now();
+        OffsetDateTime desde = anterior == null ? INICIO : anterior.marca().minusNanos(margemMs * 1_000_000);
+
+        Iterator<PagamentoFinalizado> novos = new Intercalacao(
+                new Paginas(ultimoId -> pagamentoRepository.buscarFinalizados(
+                        StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, desde, ultimoId, PageRequest.of(0, tamanhoLote))),
+                new Paginas(ultimoId -> pagamentoArquivadoRepository.buscarFinalizados(
+                        StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, desde, ultimoId, PageRequest.of(0, tamanhoLote))));
+
+        Path destino = diretorio.resolve(String.format("%s%013d%s", PREFIXO, marca.toInstant().toEpochMilli(), EXTENSAO));
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(diretorio);
+            ArquivoFinalizados.gravar(temporario, marca, anterior, novos);
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            arquivo = ArquivoFinalizados.abrir(destino);
+        } catch (IOException e) {
+            excluir(temporario);
+            throw new UncheckedIOException("Falha ao gravar " + destino, e);
+        }
+        if (anterior != null && !anterior.caminho().equals(destino)) {
+            // Leitores que ainda têm o anterior continuam lendo: o mapeamento sobrevive à exclusão.
+            excluir(anterior.caminho());
+        }
+        log.info("Arquivo de finalizados gerado com {} pagamento(s) em {} ms", arquivo.quantidade(),
+                (System.nanoTime() - inicio) / 1_000_000);
+        return arquivo.quantidade();
+    }
+
+    private static void excluir(Path caminho) {
+        try {
+            Files.deleteIfExists(caminho);
+        } catch (IOException e) {
+            log.warn("Não foi possível excluir {}: {}", caminho, e.getMessage());
+        }
+    }
+
+    /** Percorre uma consulta por keyset, página a página, em ordem de id. */
+    private final class Paginas implements Iterator<PagamentoFinalizado> {
+
+        private final LongFunction<List<PagamentoFinalizado>> consulta;
+        private List<PagamentoFinalizado> pagina = List.of();
+        private int posicao;
+        private long ultimoId;
+        private boolean fim;
+
+        Paginas(LongFunction<List<PagamentoFinalizado>> consulta) {
+            this.consulta = consulta;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (posicao < pagina.size()) {
+                return true;
+            }
+            if (fim) {
+                return false;
+            }
+            pagina = consulta.apply(ultimoId);
+            posicao = 0;
+            fim = pagina.size() < tamanhoLote;
+            if (!pagina.isEmpty()) {
+                ultimoId = pagina.get(pagina.size() - 1).id();
+            }
+            return !pagina.isEmpty();
+        }
+
+        @Override
+        public PagamentoFinalizado next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pagina.get(posicao++);
+        }
+    }
+
+    /** Intercala duas sequências ordenadas por id; um id presente nas duas sai uma vez só. */
+    private static final class Intercalacao implements Iterator<PagamentoFinalizado> {
+
+        private final Iterator<PagamentoFinalizado> a;
+        private final Iterator<PagamentoFinalizado> b;
+        private PagamentoFinalizado proximoA;
+        private PagamentoFinalizado proximoB;
+
+        Intercalacao(Iterator<PagamentoFinalizado> a, Iterator<PagamentoFinalizado> b) {
+            this.a = a;
+            this.b = b;
+            this.proximoA = a.hasNext() ? a.next() : null;
+            this.proximoB = b.hasNext() ? b.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return proximoA != null || proximoB != null;
+        }
+
+        @Override
+        public PagamentoFinalizado next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PagamentoFinalizado proximo;
+            if (proximoB == null || (proximoA != null && proximoA.id() <= proximoB.id())) {
+                proximo = proximoA;
+                if (proximoB != null && proximoB.id().equals(proximoA.id())) {
+                    proximoB = b.hasNext() ? b.next() : null;
+                }
+                proximoA = a.hasNext() ? a.next() : null;
+            } else {
+                proximo = proximoB;
+                proximoB = b.hasNext() ? b.next() : null;
+            }
+            return proximo;
+        }
+    }
+}
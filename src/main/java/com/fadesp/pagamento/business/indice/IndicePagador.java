@@ -0,0 +1,303 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.business.dto.out.ResumoPagadorDTO;
+import com.fadesp.pagamento.business.dto.out.TotalStatusDTO;
+import com.fadesp.pagamento.business.evento.PagamentoAlteradoEvent;
+import com.fadesp.pagamento.business.evento.PagamentosArquivadosEvent;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository.PagamentoIndexavel;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos pagamentos ativos por tenant e pagador (CPF/CNPJ normalizado): IDs agrupados por
+ * status em conjuntos de {@code long} e totais em centavos. É aquecido a partir do banco na subida
+ * e mantido pelos eventos de escrita publicados por {@code PagamentoService} após o commit.
+ * <p>
+ * Eventos de transações concorrentes podem chegar fora de ordem: cada pagamento guarda o
+ * {@code atualizadoEm} do estado indexado, e evento mais antigo que ele é descartado. Pagamentos
+ * retirados (inativados ou arquivados) deixam essa versão por pelo menos {@code retencao-remocoes-ms},
+ * para que um evento atrasado não os traga de volta.
+ * <p>
+ * O índice reflete apenas as escritas desta instância; com várias réplicas deve ficar desligado.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.indice-pagador.enabled", havingValue = "true")
+public class IndicePagador {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicePagador.class);
+    private static final StatusPagamentoEnum[] STATUS = StatusPagamentoEnum.values();
+
+    private final PagamentoRepository pagamentoRepository;
+    private final int tamanhoLoteAquecimento;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Pagador> pagadores = new HashMap<>();
+    private final Long2ObjectOpenHashMap<Registro> registros = new Long2ObjectOpenHashMap<>();
+    /** Versão dos pagamentos retirados, em duas gerações: a anterior é descartada a cada rotação. */
+    private Long2LongOpenHashMap removidos = new Long2LongOpenHashMap();
+    private Long2LongOpenHashMap removidosAnteriores = new Long2LongOpenHashMap();
+    /** IDs escritos por eventos enquanto o aquecimento roda; o aquecimento não os sobrescreve. */
+    private LongOpenHashSet alteradosDuranteAquecimento = new LongOpenHashSet();
+    private volatile boolean pronto;
+
+    public IndicePagador(PagamentoRepository pagamentoRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${pagamento.indice-pagador.tamanho-lote-aquecimento:5000}") int tamanhoLoteAquecimento) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.tamanhoLoteAquecimento = tamanhoLoteAquecimento;
+        Gauge.builder("pagamento.indice.pagador.pagamentos", this, IndicePagador::tamanho).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecerEmSegundoPlano() {
+        Thread thread = new Thread(this::aquecer, "indice-pagador-aquecimento");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void aquecer() {
+        long inicio = System.nanoTime();
+        long ultimoId = 0;
+        int total = 0;
+        List<PagamentoIndexavel> lote;
+        do {
+            lote = pagamentoRepository.buscarAtivosParaIndice(ultimoId, PageRequest.of(0, tamanhoLoteAquecimento));
+            lock.writeLock().lock();
+            try {
+                for (PagamentoIndexavel p : lote) {
+                    if (!alteradosDuranteAquecimento.contains(p.getId().longValue())) {
+                        gravar(p.getId(), chave(p.getTenant(), p.getCpfCnpjPagador()), p.getStatus(),
+                                p.getValorTransacao().centavos(), versao(p.getAtualizadoEm()));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            total += lote.size();
+            if (!lote.isEmpty()) {
+                ultimoId = lote.get(lote.size() - 1).getId();
+            }
+        } while (lote.size() == tamanhoLoteAquecimento);
+
+        lock.writeLock().lock();
+        try {
+            alteradosDuranteAquecimento = null;
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de pagadores aquecido com {} pagamento(s) em {} ms",
+                total, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPagamento(PagamentoAlteradoEvent evento) {
+        long versao = versao(evento.atualizadoEm());
+        lock.writeLock().lock();
+        try {
+            if (versao < versaoAtual(evento.id())) {
+                log.debug("Evento atrasado do pagamento id={} descartado", evento.id());
+                return;
+            }
+            marcarAlterado(evento.id());
+            if (evento.ativo()) {
+                gravar(evento.id(), chave(evento.tenant(), evento.cpfCnpjPagador()), evento.status(),
+                        evento.valor().centavos(), versao);
+            } else {
+                remover(evento.id(), versao);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoArquivarPagamentos(PagamentosArquivadosEvent evento) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : evento.ids()) {
+                marcarAlterado(id);
+                // Arquivado não muda mais: qualquer evento posterior é atrasado.
+                remover(id, Long.MAX_VALUE);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pagamento.indice-pagador.retencao-remocoes-ms:300000}")
+    public void girarRemovidos() {
+        lock.writeLock().lock();
+        try {
+            removidosAnteriores = removidos;
+            removidos = new Long2LongOpenHashMap();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * @return o resumo do pagador, ou vazio enquanto o índice não terminou de aquecer
+     */
+    public Optional<ResumoPagadorDTO> resumo(String tenant, String cpfCnpjPagador) {
+        if (!pronto) {
+            return Optional.empty();
+        }
+        long[] quantidades = new long[STATUS.length];
+        long[] totais = new long[STATUS.length];
+        long[] pendentes;
+
+        lock.readLock().lock();
+        try {
+            Pagador pagador = pagadores.get(chave(tenant, cpfCnpjPagador));
+            if (pagador == null) {
+                pendentes = new long[0];
+            } else {
+                for (int i = 0; i < STATUS.length; i++) {
+                    quantidades[i] = pagador.ids[i].size();
+                    totais[i] = pagador.totalCentavos[i];
+                }
+                pendentes = pagador.ids[StatusPagamentoEnum.PENDENTE.ordinal()].toLongArray();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Arrays.sort(pendentes);
+        Map<StatusPagamentoEnum, TotalStatusDTO> porStatus = new EnumMap<>(StatusPagamentoEnum.class);
+        for (StatusPagamentoEnum status : STATUS) {
+            porStatus.put(status, new TotalStatusDTO(quantidades[status.ordinal()],
+                    Dinheiro.deCentavos(totais[status.ordinal()])));
+        }
+        long emAberto = totais[StatusPagamentoEnum.PENDENTE.ordinal()]
+                + totais[StatusPagamentoEnum.PROCESSADO_COM_FALHA.ordinal()];
+        return Optional.of(new ResumoPagadorDTO(cpfCnpjPagador, porStatus,
+                Dinheiro.deCentavos(emAberto), LongArrayList.wrap(pendentes)));
+    }
+
+    int tamanho() {
+        lock.readLock().lock();
+        try {
+            return registros.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void marcarAlterado(Long id) {
+        if (alteradosDuranteAquecimento != null) {
+            alteradosDuranteAquecimento.add(id.longValue());
+        }
+    }
+
+    /** O tenant só tem letras minúsculas, dígitos, - e _, então o separador não gera ambiguidade. */
+    private static String chave(String tenant, String documento) {
+        return tenant + ':' + documento;
+    }
+
+    /** {@code atualizadoEm} em microssegundos desde a época, a precisão gravada no banco. */
+    private static long versao(OffsetDateTime atualizadoEm) {
+        if (atualizadoEm == null) {
+            return Long.MIN_VALUE;
+        }
+        Instant instante = atualizadoEm.toInstant();
+        return instante.getEpochSecond() * 1_000_000 + instante.getNano() / 1_000;
+    }
+
+    private long versaoAtual(Long id) {
+        Registro registro = registros.get(id.longValue());
+        if (registro != null) {
+            return registro.versao();
+        }
+        return Math.max(removidos.getOrDefault(id.longValue(), Long.MIN_VALUE),
+                removidosAnteriores.getOrDefault(id.longValue(), Long.MIN_VALUE));
+    }
+
+    private void gravar(Long id, String chave, StatusPagamentoEnum status, long centavos, long versao) {
+        Registro anterior = registros.put(id.longValue(), new Registro(chave, status, centavos, versao));
+        if (anterior != null) {
+            desindexar(id, anterior);
+        }
+        Pagador pagador = pagadores.computeIfAbsent(chave, c -> new Pagador());
+        pagador.ids[status.ordinal()].add(id.longValue());
+        pagador.totalCentavos[status.ordinal()] += centavos;
+    }
+
+    private void remover(Long id, long versao) {
+        Registro anterior = registros.remove(id.longValue());
+        if (anterior != null) {
+            desindexar(id, anterior);
+        }
+        removidos.put(id.longValue(), versao);
+    }
+
+    private void desindexar(Long id, Registro registro) {
+        Pagador pagador = pagadores.get(registro.chave());
+        if (pagador == null) {
+            return;
+        }
+        int s = registro.status().ordinal();
+        if (pagador.ids[s].remove(id.longValue())) {
+            pagador.totalCentavos[s] -= registro.centavos();
+        }
+        if (pagador.vazio()) {
+            pagadores.remove(registro.chave());
+        }
+    }
+
+    private record Registro(String chave, StatusPagamentoEnum status, long centavos, long versao) {
+    }
+
+    private static final class Pagador {
+
+        final LongOpenHashSet[] ids = new LongOpenHashSet[STATUS.length];
+        final long[] totalCentavos = new long[STATUS.length];
+
+        Pagador() {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = new LongOpenHashSet(4);
+            }
+        }
+
+        boolean vazio() {
+            for (LongOpenHashSet conjunto : ids) {
+                if (!conjunto.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.fadesp.pagamento.business.risco;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.infrastructure.exceptions.RiscoRejeitadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estágio de pré-análise de risco executado antes da persistência de um pagamento.
+ * As regras rodam em sequência na própria thread da requisição, sobre contadores em memória
+ * (microssegundos, sem I/O): cada uma recusa ou reserva a vaga do pagamento de forma atômica, e a
+ * reserva é desfeita se a transação que grava o pagamento não for confirmada. Se uma regra falhar,
+ * ou se a avaliação passar do {@code pagamento.risco.orcamento-ms}, vale o
+ * {@code pagamento.risco.modo-fallback}.
+ */
+@Component
+public class AvaliadorRisco {
+
+    public enum ModoFallback { PERMITIR, RECUSAR }
+
+    private static final Logger log = LoggerFactory.getLogger(AvaliadorRisco.class);
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<RegraRisco> regras;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean habilitado;
+    private final ModoFallback modoFallback;
+    private final long orcamentoNanos;
+    private final long sementeImpressao = new SecureRandom().nextLong() | 1L;
+
+    private final Timer duracao;
+    private final Counter aprovados;
+    private final Counter recusados;
+    private final Counter falhas;
+    private final Counter estouros;
+
+    public AvaliadorRisco(List<RegraRisco> regras,
+                          MeterRegistry meterRegistry,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${pagamento.risco.enabled:true}") boolean habilitado,
+                          @Value("${pagamento.risco.modo-fallback:RECUSAR}") ModoFallback modoFallback,
+                          @Value("${pagamento.risco.orcamento-ms:50}") long orcamentoMs) {
+        this.regras = List.copyOf(regras);
+        this.eventPublisher = eventPublisher;
+        this.habilitado = habilitado && !regras.isEmpty();
+        this.modoFallback = modoFallback;
+        this.orcamentoNanos = orcamentoMs > 0 ? TimeUnit.MILLISECONDS.toNanos(orcamentoMs) : Long.MAX_VALUE;
+        this.duracao = Timer.builder("pagamento.risco.duracao").register(meterRegistry);
+        this.aprovados = resultado(meterRegistry, "aprovado");
+        this.recusados = resultado(meterRegistry, "recusado");
+        this.falhas = resultado(meterRegistry, "falha");
+        this.estouros = resultado(meterRegistry, "orcamento-excedido");
+    }
+
+    private static Counter resultado(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("pagamento.risco.avaliacoes").tag("resultado", resultado).register(meterRegistry);
+    }
+
+    /**
+     * Avalia o pagamento e, se aceito, contabiliza-o nas janelas das regras. Dentro de uma transação
+     * a contabilização é desfeita se ela não for confirmada; fora dela, cabe a quem chamou desfazer
+     * a reserva devolvida caso o pagamento não seja gravado.
+     *
+     * @throws RiscoRejeitadoException quando alguma regra recusa o pagamento
+     */
+    public ReservaRisco avaliar(PagamentoRequestDTO requestDTO) {
+        if (!habilitado) {
+            return ReservaRisco.VAZIA;
+        }
+        ContextoRisco contexto = new ContextoRisco(
+                requestDTO.cpfCnpj().replaceAll("\\D", ""),
+                requestDTO.metodoPagamento(),
+                impressaoCartao(requestDTO.numeroCartao()),
+                requestDTO.valor(),
+                System.currentTimeMillis());
+
+        long inicio = System.nanoTime();
+        ReservaRisco reserva;
+        try {
+            reserva = reservar(contexto, inicio);
+        } finally {
+            duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        if (reserva != ReservaRisco.VAZIA) {
+            eventPublisher.publishEvent(reserva);
+        }
+        return reserva;
+    }
+
+    private ReservaRisco reservar(ContextoRisco contexto, long inicio) {
+        List<RegraRisco> reservadas = new ArrayList<>(regras.size());
+        try {
+            for (RegraRisco regra : regras) {
+                Optional<String> motivo = regra.reservar(contexto);
+                if (motivo.isPresent()) {
+                    new ReservaRisco(reservadas, contexto).desfazer();
+                    recusados.increment();
+                    throw new RiscoRejeitadoException(regra.nome(), motivo.get());
+                }
+                reservadas.add(regra);
+                long decorrido = System.nanoTime() - inicio;
+                if (decorrido > orcamentoNanos) {
+                    estouros.increment();
+                    return fallback(reservadas, contexto, "Avaliação de risco excedeu o orçamento de "
+                            + TimeUnit.NANOSECONDS.toMillis(orcamentoNanos) + " ms (" + regra.nome() + ", "
+                            + TimeUnit.NANOSECONDS.toMillis(decorrido) + " ms)", null);
+                }
+            }
+        } catch (RiscoRejeitadoException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            falhas.increment();
+            return fallback(reservadas, contexto, "Falha ao avaliar regra de risco", e);
+        }
+        aprovados.increment();
+        return new ReservaRisco(List.copyOf(reservadas), contexto);
+    }
+
+    /** Desfaz o que já foi reservado e recusa ou aceita o pagamento, sem contá-lo, conforme o modo. */
+    private ReservaRisco fallback(List<RegraRisco> reservadas, ContextoRisco contexto, String mensagem, RuntimeException causa) {
+        new ReservaRisco(reservadas, contexto).desfazer();
+        if (modoFallback == ModoFallback.RECUSAR) {
+            log.error("{}; pagamento recusado pelo modo de fallback", mensagem, causa);
+            throw new RiscoRejeitadoException("indisponivel", "Análise de risco indisponível no momento.");
+        }
+        log.error("{}; pagamento aceito pelo modo de fallback", mensagem, causa);
+        return ReservaRisco.VAZIA;
+    }
+
+    /** Pagamento não gravado (rollback ou falha no commit) não conta nas janelas. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void aoDesfazerTransacao(ReservaRisco reserva) {
+        reserva.desfazer();
+    }
+
+    @Scheduled(fixedDelayString = "${pagamento.risco.expiracao-ms:60000}")
+    public void expirarJanelas() {
+        long agora = System.currentTimeMillis();
+        for (RegraRisco regra : regras) {
+            regra.expirar(agora);
+        }
+    }
+
+    long impressaoCartao(String numeroCartao) {
+        if (numeroCartao == null || numeroCartao.isBlank()) {
+            return 0;
+        }
+        long hash = sementeImpressao;
+        for (int i = 0; i < numeroCartao.length(); i++) {
+            char c = numeroCartao.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hash ^= c;
+                hash *= FNV_PRIME;
+            }
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -0,0 +1,106 @@
+package com.fadesp.pagamento.business.risco;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contador por chave em janela deslizante, dividida em baldes de largura fixa (ring buffer).
+ * Depois de criada a janela de uma chave, incrementar e consultar não alocam memória.
+ */
+final class ContadorJanelaDeslizante<K> {
+
+    private final int quantidadeBaldes;
+    private final long larguraBaldeMillis;
+    private final ConcurrentHashMap<K, Janela> janelas = new ConcurrentHashMap<>();
+
+    ContadorJanelaDeslizante(long janelaMillis, int quantidadeBaldes) {
+        if (quantidadeBaldes <= 0 || janelaMillis < quantidadeBaldes) {
+            throw new IllegalArgumentException("Janela deve ter ao menos 1 ms por balde.");
+        }
+        this.quantidadeBaldes = quantidadeBaldes;
+        this.larguraBaldeMillis = janelaMillis / quantidadeBaldes;
+    }
+
+    long contar(K chave, long agoraMillis) {
+        Janela janela = janelas.get(chave);
+        return janela == null ? 0 : janela.somar(agoraMillis / larguraBaldeMillis);
+    }
+
+    void incrementar(K chave, long agoraMillis) {
+        janelas.computeIfAbsent(chave, k -> new Janela(quantidadeBaldes))
+                .incrementar(agoraMillis / larguraBaldeMillis);
+    }
+
+    /**
+     * Incrementa a contagem da chave se, somado o incremento, ela não passar de {@code maximo}; a
+     * consulta e o incremento acontecem sob o mesmo lock da janela.
+     *
+     * @return se incrementou
+     */
+    boolean incrementarSeAbaixo(K chave, long agoraMillis, long maximo) {
+        return janelas.computeIfAbsent(chave, k -> new Janela(quantidadeBaldes))
+                .incrementarSeAbaixo(agoraMillis / larguraBaldeMillis, maximo);
+    }
+
+    /** Desfaz um incremento feito no instante informado, se o balde dele ainda estiver na janela. */
+    void decrementar(K chave, long instanteMillis) {
+        Janela janela = janelas.get(chave);
+        if (janela != null) {
+            janela.decrementar(instanteMillis / larguraBaldeMillis);
+        }
+    }
+
+    void expirar(long agoraMillis) {
+        long balde = agoraMillis / larguraBaldeMillis;
+        janelas.entrySet().removeIf(e -> e.getValue().somar(balde) == 0);
+    }
+
+    int chaves() {
+        return janelas.size();
+    }
+
+    private static final class Janela {
+
+        private final long[] baldes;
+        private final int[] contagens;
+
+        Janela(int quantidadeBaldes) {
+            this.baldes = new long[quantidadeBaldes];
+            this.contagens = new int[quantidadeBaldes];
+        }
+
+        synchronized void incrementar(long balde) {
+            int i = (int) Math.floorMod(balde, (long) baldes.length);
+            if (baldes[i] != balde) {
+                baldes[i] = balde;
+                contagens[i] = 0;
+            }
+            contagens[i]++;
+        }
+
+        synchronized boolean incrementarSeAbaixo(long balde, long maximo) {
+            if (somar(balde) >= maximo) {
+                return false;
+            }
+            incrementar(balde);
+            return true;
+        }
+
+        synchronized void decrementar(long balde) {
+            int i = (int) Math.floorMod(balde, (long) baldes.length);
+            if (baldes[i] == balde && contagens[i] > 0) {
+                contagens[i]--;
+            }
+        }
+
+        synchronized long somar(long baldeAtual) {
+            long total = 0;
+            long primeiro = baldeAtual - baldes.length + 1;
+            for (int i = 0; i < baldes.length; i++) {
+                if (baldes[i] >= primeiro && baldes[i] <= baldeAtual) {
+                    total += contagens[i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.fadesp.pagamento.business.risco;
+
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+
+/**
+ * Dados de um pagamento relevantes para as regras de risco, já normalizados.
+ * {@code impressaoCartao} é uma impressão digital de 64 bits do número do cartão (0 quando ausente),
+ * para que o número em si não fique retido nos contadores em memória.
+ */
+public record ContextoRisco(
+        String documento,
+        MetodoPagamentoEnum metodo,
+        long impressaoCartao,
+        Dinheiro valor,
+        long instanteMillis
+) {
+}
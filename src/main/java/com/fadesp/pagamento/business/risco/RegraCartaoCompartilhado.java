@@ -0,0 +1,88 @@
+package com.fadesp.pagamento.business.risco;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recusa cartões usados por muitos pagadores distintos dentro da janela. Os pagadores de cada cartão
+ * só são lidos e alterados dentro do {@code compute} do mapa, que serializa as operações por cartão.
+ */
+@Component
+public class RegraCartaoCompartilhado implements RegraRisco {
+
+    private final ConcurrentHashMap<Long, Map<String, Long>> pagadoresPorCartao = new ConcurrentHashMap<>();
+    private final long janelaMillis;
+    private final int maximoPagadores;
+
+    public RegraCartaoCompartilhado(@Value("${pagamento.risco.cartao.janela-horas:24}") long janelaHoras,
+                                    @Value("${pagamento.risco.cartao.maximo-pagadores:3}") int maximoPagadores) {
+        this.janelaMillis = janelaHoras * 3_600_000L;
+        this.maximoPagadores = maximoPagadores;
+    }
+
+    @Override
+    public String nome() {
+        return "cartao-compartilhado";
+    }
+
+    @Override
+    public Optional<String> reservar(ContextoRisco contexto) {
+        if (contexto.impressaoCartao() == 0) {
+            return Optional.empty();
+        }
+        String[] motivo = new String[1];
+        pagadoresPorCartao.compute(contexto.impressaoCartao(), (cartao, pagadores) -> {
+            if (pagadores == null) {
+                pagadores = new HashMap<>();
+            }
+            if (pagadores.containsKey(contexto.documento())) {
+                return pagadores;
+            }
+            long limite = contexto.instanteMillis() - janelaMillis;
+            int outros = 0;
+            for (Long vistoEm : pagadores.values()) {
+                if (vistoEm > limite) {
+                    outros++;
+                }
+            }
+            if (outros >= maximoPagadores) {
+                motivo[0] = "Cartão já utilizado por " + outros + " pagadores distintos na janela.";
+            } else {
+                pagadores.put(contexto.documento(), contexto.instanteMillis());
+            }
+            return pagadores.isEmpty() ? null : pagadores;
+        });
+        return Optional.ofNullable(motivo[0]);
+    }
+
+    /**
+     * Retira o pagador incluído pela reserva. Um pagador que já estava na janela não é alterado pela
+     * reserva (continua contando desde o primeiro uso) e por isso também não é retirado aqui.
+     */
+    @Override
+    public void liberar(ContextoRisco contexto) {
+        if (contexto.impressaoCartao() == 0) {
+            return;
+        }
+        pagadoresPorCartao.computeIfPresent(contexto.impressaoCartao(), (cartao, pagadores) -> {
+            pagadores.remove(contexto.documento(), contexto.instanteMillis());
+            return pagadores.isEmpty() ? null : pagadores;
+        });
+    }
+
+    @Override
+    public void expirar(long agoraMillis) {
+        long limite = agoraMillis - janelaMillis;
+        for (Long cartao : pagadoresPorCartao.keySet()) {
+            pagadoresPorCartao.computeIfPresent(cartao, (c, pagadores) -> {
+                pagadores.values().removeIf(vistoEm -> vistoEm <= limite);
+                return pagadores.isEmpty() ? null : pagadores;
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.fadesp.pagamento.business.risco;
+
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+public class RegraLimiteValorPorMetodo implements RegraRisco {
+
+    private final Map<MetodoPagamentoEnum, Dinheiro> limites;
+
+    @Autowired
+    public RegraLimiteValorPorMetodo(Environment environment) {
+        this(Binder.get(environment)
+                .bind("pagamento.risco.limite-valor", Bindable.mapOf(MetodoPagamentoEnum.class, BigDecimal.class))
+                .orElse(Map.<MetodoPagamentoEnum, BigDecimal>of())
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> Dinheiro.de(e.getValue()))));
+    }
+
+    RegraLimiteValorPorMetodo(Map<MetodoPagamentoEnum, Dinheiro> limites) {
+        this.limites = limites.isEmpty() ? Map.of() : new EnumMap<>(limites);
+    }
+
+    @Override
+    public String nome() {
+        return "limite-valor-metodo";
+    }
+
+    @Override
+    public Optional<String> reservar(ContextoRisco contexto) {
+        Dinheiro limite = limites.get(contexto.metodo());
+        if (limite != null && contexto.valor().isMaiorQue(limite)) {
+            return Optional.of("Valor acima do limite de " + limite + " para " + contexto.metodo() + ".");
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,24 @@
+package com.fadesp.pagamento.business.risco;
+
+import java.util.Optional;
+
+public interface RegraRisco {
+
+    String nome();
+
+    /**
+     * Avalia o pagamento contra o estado em memória da regra e, se aceito, já o contabiliza, numa
+     * única operação atômica: dois pagamentos simultâneos não ocupam ambos a última vaga da janela.
+     *
+     * @return o motivo da recusa, ou vazio quando o pagamento é aceito
+     */
+    Optional<String> reservar(ContextoRisco contexto);
+
+    /** Desfaz a contabilização de um pagamento aceito por {@link #reservar} que acabou não gravado. */
+    default void liberar(ContextoRisco contexto) {
+    }
+
+    /** Descarta estado mais antigo que a janela da regra. */
+    default void expirar(long agoraMillis) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.fadesp.pagamento.business.risco;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class RegraVelocidadePagador implements RegraRisco {
+
+    private static final int BALDES = 12;
+
+    private final ContadorJanelaDeslizante<String> contador;
+    private final int maximo;
+    private final long janelaSegundos;
+
+    public RegraVelocidadePagador(@Value("${pagamento.risco.velocidade.janela-segundos:60}") long janelaSegundos,
+                                  @Value("${pagamento.risco.velocidade.maximo:120}") int maximo) {
+        this.contador = new ContadorJanelaDeslizante<>(janelaSegundos * 1000, BALDES);
+        this.maximo = maximo;
+        this.janelaSegundos = janelaSegundos;
+    }
+
+    @Override
+    public String nome() {
+        return "velocidade-pagador";
+    }
+
+    @Override
+    public Optional<String> reservar(ContextoRisco contexto) {
+        if (!contador.incrementarSeAbaixo(contexto.documento(), contexto.instanteMillis(), maximo)) {
+            return Optional.of("Limite de " + maximo + " pagamentos em " + janelaSegundos + "s excedido para o pagador.");
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void liberar(ContextoRisco contexto) {
+        contador.decrementar(contexto.documento(), contexto.instanteMillis());
+    }
+
+    @Override
+    public void expirar(long agoraMillis) {
+        contador.expirar(agoraMillis);
+    }
+}
@@ -0,0 +1,33 @@
+package com.fadesp.pagamento.business.risco;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contabilização de um pagamento aceito nas janelas das regras de risco. Publicada como evento na
+ * transação que grava o pagamento, é desfeita pelo {@link AvaliadorRisco} se ela não for confirmada;
+ * fora de transação (criação agrupada), quem avaliou desfaz se a gravação falhar.
+ */
+public final class ReservaRisco {
+
+    static final ReservaRisco VAZIA = new ReservaRisco(List.of(), null);
+
+    private final List<RegraRisco> regras;
+    private final ContextoRisco contexto;
+    private final AtomicBoolean desfeita = new AtomicBoolean();
+
+    ReservaRisco(List<RegraRisco> regras, ContextoRisco contexto) {
+        this.regras = regras;
+        this.contexto = contexto;
+    }
+
+    /** Libera a reserva em todas as regras; chamadas repetidas não têm efeito. */
+    public void desfazer() {
+        if (regras.isEmpty() || !desfeita.compareAndSet(false, true)) {
+            return;
+        }
+        for (RegraRisco regra : regras) {
+            regra.liberar(contexto);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.converter.PagamentoConverter;
+import com.fadesp.pagamento.business.evento.PagamentosArquivadosEvent;
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.entities.PagamentoArquivado;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "pagamento.arquivamento.enabled", havingValue = "true", matchIfMissing = true)
+public class ArquivamentoPagamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoPagamentoService.class);
+
+    private final PagamentoRepository pagamentoRepository;
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VarreduraTenants varreduraTenants;
+    private final int retencaoDias;
+    private final int tamanhoLote;
+    private final int maximoLotesPorExecucao;
+
+    public ArquivamentoPagamentoService(PagamentoRepository pagamentoRepository,
+                                        PagamentoArquivadoRepository pagamentoArquivadoRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        VarreduraTenants varreduraTenants,
+                                        @Value("${pagamento.arquivamento.retencao-dias:30}") int retencaoDias,
+                                        @Value("${pagamento.arquivamento.tamanho-lote:500}") int tamanhoLote,
+                                        @Value("${pagamento.arquivamento.maximo-lotes-por-execucao:200}") int maximoLotesPorExecucao) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoArquivadoRepository = pagamentoArquivadoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.varreduraTenants = varreduraTenants;
+        this.retencaoDias = retencaoDias;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoLotesPorExecucao = maximoLotesPorExecucao;
+    }
+
+    @Scheduled(cron = "${pagamento.arquivamento.cron:0 0 3 * * *}")
+    public void executarArquivamentoAgendado() {
+        int total = arquivar(OffsetDateTime.now().minusDays(retencaoDias));
+        log.info("Arquivamento concluído: {} pagamento(s) movido(s) para pagamento_arquivo", total);
+    }
+
+    /** Arquiva os pagamentos de todos os tenants; no modo SCHEMA, até o máximo de lotes em cada um. */
+    public int arquivar(OffsetDateTime limite) {
+        int[] total = new int[1];
+        varreduraTenants.paraCada(() -> total[0] += arquivarTenant(limite));
+        return total[0];
+    }
+
+    private int arquivarTenant(OffsetDateTime limite) {
+        int total = 0;
+        for (int lote = 0; lote < maximoLotesPorExecucao; lote++) {
+            Integer movidos = transactionTemplate.execute(status -> arquivarLote(limite));
+            if (movidos == null || movidos == 0) {
+                break;
+            }
+            total += movidos;
+            if (movidos < tamanhoLote) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int arquivarLote(OffsetDateTime limite) {
+        List<Long> ids = pagamentoRepository.buscarIdsParaArquivamento(
+                StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, limite, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        OffsetDateTime agora = OffsetDateTime.now();
+        List<Pagamento> pagamentos = pagamentoRepository.findAllById(ids);
+        List<PagamentoArquivado> arquivados = pagamentos.stream()
+                .map(p -> PagamentoConverter.toArquivado(p, agora))
+                .toList();
+
+        pagamentoArquivadoRepository.saveAll(arquivados);
+        pagamentoRepository.excluirPorIds(ids);
+        eventPublisher.publishEvent(new PagamentosArquivadosEvent(ids));
+        return ids.size();
+    }
+}
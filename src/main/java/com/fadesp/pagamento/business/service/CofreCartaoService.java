@@ -0,0 +1,162 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.infrastructure.cofre.CifradorCartao;
+import com.fadesp.pagamento.infrastructure.entities.CartaoCofre;
+import com.fadesp.pagamento.infrastructure.repository.CartaoCofreRepository;
+import com.fadesp.pagamento.infrastructure.repository.InsercaoCofreCartao;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Cofre de números de cartão. O PAN nunca é gravado em {@code pagamento}: a tabela recebe um token
+ * estável e o PAN fica cifrado (AES-GCM) em {@code cofre_cartao}, com um HMAC para comparação.
+ * <p>
+ * A gravação é idempotente ({@link InsercaoCofreCartao}): dois pagamentos simultâneos com o mesmo
+ * cartão novo gravam um único registro, e o segundo só reaproveita o token.
+ * <p>
+ * Um LRU em memória guarda os pares token → PAN recentes já confirmados no cofre: poupa a consulta de
+ * existência na tokenização e a decifragem em {@link #revelar(String)} no processamento. Um par só
+ * entra nele depois do commit da transação que gravou o registro. No modo SCHEMA cada tenant tem o
+ * próprio cofre, e as entradas do LRU levam o tenant.
+ */
+@Service
+public class CofreCartaoService {
+
+    private final CartaoCofreRepository cartaoCofreRepository;
+    private final InsercaoCofreCartao insercaoCofreCartao;
+    private final CifradorCartao cifrador;
+    private final boolean porSchema;
+    private final Map<String, String> recentes;
+
+    public CofreCartaoService(CartaoCofreRepository cartaoCofreRepository,
+                              InsercaoCofreCartao insercaoCofreCartao,
+                              VarreduraTenants varreduraTenants,
+                              @Value("${pagamento.cofre.chave-mestra}") String chaveMestra,
+                              @Value("${pagamento.cofre.cache-tamanho:10000}") int cacheTamanho) {
+        this.cartaoCofreRepository = cartaoCofreRepository;
+        this.insercaoCofreCartao = insercaoCofreCartao;
+        this.cifrador = new CifradorCartao(chaveMestra);
+        this.porSchema = varreduraTenants.porSchema();
+        this.recentes = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> maisAntigo) {
+                return size() > cacheTamanho;
+            }
+        });
+    }
+
+    /**
+     * @return o token do cartão, gravando-o no cofre se ainda não existir; {@code null} se não houver cartão
+     */
+    @Transactional
+    public String tokenizar(String pan) {
+        if (pan == null || pan.isBlank()) {
+            return null;
+        }
+        String token = cifrador.token(pan);
+        if (!recentes.containsKey(chave(token)) && !cartaoCofreRepository.existsById(token)) {
+            insercaoCofreCartao.inserirAusentes(List.of(novoRegistro(pan, token)));
+        }
+        lembrarAposCommit(Map.of(token, pan));
+        return token;
+    }
+
+    /**
+     * Versão em lote de {@link #tokenizar(String)}: uma única consulta de existência e um único
+     * INSERT em lote para os cartões novos. A lista devolvida segue a ordem da entrada.
+     */
+    @Transactional
+    public List<String> tokenizarEmLote(List<String> pans) {
+        List<String> tokens = new ArrayList<>(pans.size());
+        Map<String, String> candidatos = new LinkedHashMap<>();
+        for (String pan : pans) {
+            if (pan == null || pan.isBlank()) {
+                tokens.add(null);
+                continue;
+            }
+            String token = cifrador.token(pan);
+            tokens.add(token);
+            if (!recentes.containsKey(chave(token))) {
+                candidatos.put(token, pan);
+            }
+        }
+
+        if (!candidatos.isEmpty()) {
+            Set<String> existentes = new HashSet<>(cartaoCofreRepository.buscarTokensExistentes(candidatos.keySet()));
+            List<CartaoCofre> novos = new ArrayList<>();
+            candidatos.forEach((token, pan) -> {
+                if (!existentes.contains(token)) {
+                    novos.add(novoRegistro(pan, token));
+                }
+            });
+            insercaoCofreCartao.inserirAusentes(novos);
+            lembrarAposCommit(candidatos);
+        }
+        return tokens;
+    }
+
+    /** Localiza o token de um PAN pelo índice de hash, sem decifrar nada. */
+    @Transactional(readOnly = true)
+    public Optional<String> localizarToken(String pan) {
+        return cartaoCofreRepository.buscarTokenPorHash(cifrador.hash(pan));
+    }
+
+    /**
+     * PAN de um token, para o processamento do pagamento: do LRU quando recente, senão decifrado do
+     * cofre (e guardado no LRU).
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> revelar(String token) {
+        if (!CifradorCartao.isToken(token)) {
+            return Optional.empty();
+        }
+        String chave = chave(token);
+        String pan = recentes.get(chave);
+        if (pan != null) {
+            return Optional.of(pan);
+        }
+        Optional<String> decifrado = cartaoCofreRepository.findById(token)
+                .map(registro -> cifrador.decifrar(registro.getPanCifrado(), token));
+        decifrado.ifPresent(valor -> recentes.put(chave, valor));
+        return decifrado;
+    }
+
+    /**
+     * Guarda os pares token → PAN no LRU só quando a gravação for confirmada: se a transação for
+     * desfeita, o registro não existe e a próxima tokenização precisa gravá-lo de novo.
+     */
+    private void lembrarAposCommit(Map<String, String> panPorToken) {
+        Map<String, String> entradas = new HashMap<>();
+        panPorToken.forEach((token, pan) -> entradas.put(chave(token), pan));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentes.putAll(entradas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentes.putAll(entradas);
+            }
+        });
+    }
+
+    private String chave(String token) {
+        return porSchema ? ContextoTenant.atualOuPadrao() + ":" + token : token;
+    }
+
+    private CartaoCofre novoRegistro(String pan, String token) {
+        CartaoCofre registro = new CartaoCofre();
+        registro.setToken(token);
+        registro.setHashPan(cifrador.hash(pan));
+        registro.setPanCifrado(cifrador.cifrar(pan, token));
+        registro.setUltimosDigitos(pan.substring(pan.length() - 4));
+        return registro;
+    }
+}
@@ -0,0 +1,561 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.evento.PagamentoAlteradoEvent;
+import com.fadesp.pagamento.business.evento.TransicaoPagamentoEvent;
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.entities.PagamentoArquivado;
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concilia o arquivo de liquidação externo ({@code codigoDebito;valor;resultado}) com os pagamentos.
+ * O arquivo é lido em blocos de {@code pagamento.conciliacao.tamanho-bloco} linhas, processados em
+ * paralelo, cada um em uma transação: uma consulta {@code IN} por {@code codigo_debito} e um
+ * {@code UPDATE} em lote por transição de status (no modo SCHEMA, uma transação por tenant, cada
+ * uma com as linhas que os anteriores não encontraram). Códigos repetidos são detectados no arquivo inteiro,
+ * durante a leitura: vale a primeira ocorrência e as demais são relatadas como duplicadas.
+ * <p>
+ * Ao lado do arquivo ficam {@code <arquivo>.checkpoint}, com os blocos já confirmados (uma nova
+ * execução sobre o mesmo arquivo os pula), e {@code <arquivo>.divergencias.csv}, com as linhas que não
+ * puderam ser aplicadas.
+ * <p>
+ * Desligada por padrão: com {@code pagamento.conciliacao.enabled=true}, o
+ * {@code pagamento.conciliacao.diretorio} é obrigatório.
+ */
+@Service
+@ConditionalOnProperty(name = "pagamento.conciliacao.enabled", havingValue = "true")
+public class ConciliacaoService {
+
+    public enum Motivo {
+        LINHA_INVALIDA,
+        NAO_ENCONTRADO,
+        VALOR_DIVERGENTE,
+        PAGAMENTO_INATIVO,
+        TRANSICAO_INVALIDA,
+        DUPLICADO_NO_ARQUIVO
+    }
+
+    public record Resultado(long linhas, long atualizados, long jaConciliados, long divergencias, int blocosRetomados) {
+    }
+
+    private record Linha(long numero, Long codigoDebito, Dinheiro valor, StatusPagamentoEnum resultado) {
+    }
+
+    private record Divergencia(long linha, String codigoDebito, Motivo motivo, String detalhe) {
+
+        String csv() {
+            return linha + ";" + codigoDebito + ";" + motivo + ";" + detalhe.replace(';', ',') + "\n";
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacaoService.class);
+    private static final String SUFIXO_CHECKPOINT = ".checkpoint";
+    private static final String SUFIXO_DIVERGENCIAS = ".divergencias.csv";
+    private static final String PREFIXO_TAMANHO = "tamanho-bloco=";
+    private static final String CABECALHO_RELATORIO = "linha;codigoDebito;motivo;detalhe\n";
+    private static final String ATOR = "conciliacao";
+
+    private final PagamentoRepository pagamentoRepository;
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VarreduraTenants varreduraTenants;
+    private final Path diretorio;
+    private final int tamanhoBloco;
+    private final int threads;
+
+    public ConciliacaoService(PagamentoRepository pagamentoRepository,
+                              PagamentoArquivadoRepository pagamentoArquivadoRepository,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              VarreduraTenants varreduraTenants,
+                              @Value("${pagamento.conciliacao.diretorio:}") String diretorio,
+                              @Value("${pagamento.conciliacao.tamanho-bloco:1000}") int tamanhoBloco,
+                              @Value("${pagamento.conciliacao.threads:4}") int threads) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoArquivadoRepository = pagamentoArquivadoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.varreduraTenants = varreduraTenants;
+        if (diretorio.isBlank()) {
+            throw new IllegalStateException(
+                    "pagamento.conciliacao.diretorio é obrigatório com pagamento.conciliacao.enabled=true");
+        }
+        this.diretorio = Paths.get(diretorio);
+        this.tamanhoBloco = tamanhoBloco;
+        this.threads = threads;
+    }
+
+    /**
+     * Concilia os {@code *.csv} do diretório configurado. Arquivos concluídos vão, com o relatório de
+     * divergências, para {@code processados/}; os que falharem ficam onde estão e são retomados do
+     * checkpoint na próxima execução.
+     */
+    @Scheduled(cron = "${pagamento.conciliacao.cron:0 */5 * * * *}")
+    public void conciliarPendentes() {
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> csvs = Files.newDirectoryStream(diretorio, "*.csv")) {
+            csvs.forEach(arquivo -> {
+                if (!arquivo.getFileName().toString().endsWith(SUFIXO_DIVERGENCIAS)) {
+                    arquivos.add(arquivo);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Falha ao listar arquivos de conciliação em {}", diretorio, e);
+            return;
+        }
+        arquivos.sort(null);
+        for (Path arquivo : arquivos) {
+            try {
+                conciliar(arquivo);
+                arquivarProcessado(arquivo);
+            } catch (RuntimeException e) {
+                log.error("Conciliação de {} interrompida; será retomada do checkpoint", arquivo.getFileName(), e);
+            }
+        }
+    }
+
+    public Resultado conciliar(Path arquivo) {
+        long inicio = System.nanoTime();
+        Path checkpoint = irmao(arquivo, SUFIXO_CHECKPOINT);
+        Path relatorio = irmao(arquivo, SUFIXO_DIVERGENCIAS);
+        Checkpoint progresso = Checkpoint.abrir(checkpoint, relatorio, tamanhoBloco);
+
+        LongAdder linhas = new LongAdder();
+        LongAdder atualizados = new LongAdder();
+        LongAdder jaConciliados = new LongAdder();
+        LongAdder divergencias = new LongAdder();
+        AtomicInteger retomados = new AtomicInteger();
+
+        ExecutorService executor = ContextExecutorService.wrap(Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "conciliacao-" + arquivo.getFileName());
+            t.setDaemon(true);
+            return t;
+        }), ContextSnapshotFactory.builder().build());
+        // Limita os blocos lidos e ainda não processados, para não carregar o arquivo inteiro.
+        Semaphore emVoo = new Semaphore(threads * 2);
+        List<Future<?>> blocos = new ArrayList<>();
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            int numeroBloco = 0;
+            long numeroLinha = 0;
+            // Inclui os blocos já concluídos, para que uma retomada julgue as repetições como a primeira execução.
+            LongSet codigosLidos = new LongOpenHashSet();
+            List<String> bloco = new ArrayList<>(progresso.tamanhoBloco);
+            List<Long> numeros = new ArrayList<>(progresso.tamanhoBloco);
+            LongSet duplicadas = new LongOpenHashSet();
+            String texto;
+            while ((texto = leitor.readLine()) != null) {
+                numeroLinha++;
+                if (texto.isBlank() || (numeroLinha == 1 && !Character.isDigit(texto.strip().charAt(0)))) {
+                    continue;
+                }
+                bloco.add(texto);
+                numeros.add(numeroLinha);
+                Long codigo = codigo(texto);
+                if (codigo != null && !codigosLidos.add(codigo.longValue())) {
+                    duplicadas.add(numeroLinha);
+                }
+                if (bloco.size() == progresso.tamanhoBloco) {
+                    submeter(executor, emVoo, blocos, progresso, numeroBloco++, bloco, numeros, duplicadas,
+                            linhas, atualizados, jaConciliados, divergencias, retomados);
+                    bloco = new ArrayList<>(progresso.tamanhoBloco);
+                    numeros = new ArrayList<>(progresso.tamanhoBloco);
+                    duplicadas = new LongOpenHashSet();
+                }
+            }
+            if (!bloco.isEmpty()) {
+                submeter(executor, emVoo, blocos, progresso, numeroBloco, bloco, numeros, duplicadas,
+                        linhas, atualizados, jaConciliados, divergencias, retomados);
+            }
+            aguardar(blocos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o arquivo de conciliação " + arquivo, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Conciliação interrompida: " + arquivo, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Resultado resultado = new Resultado(linhas.sum(), atualizados.sum(), jaConciliados.sum(),
+                divergencias.sum(), retomados.get());
+        log.info("Conciliação de {} concluída em {} ms: {} linha(s), {} atualizado(s), {} já conciliado(s), "
+                        + "{} divergência(s), {} bloco(s) retomado(s) do checkpoint",
+                arquivo.getFileName(), (System.nanoTime() - inicio) / 1_000_000, resultado.linhas(),
+                resultado.atualizados(), resultado.jaConciliados(), resultado.divergencias(), resultado.blocosRetomados());
+        return resultado;
+    }
+
+    private void submeter(ExecutorService executor, Semaphore emVoo, List<Future<?>> blocos, Checkpoint progresso,
+                          int numeroBloco, List<String> textos, List<Long> numeros, LongSet duplicadas,
+                          LongAdder linhas, LongAdder atualizados, LongAdder jaConciliados,
+                          LongAdder divergencias, AtomicInteger retomados) throws InterruptedException {
+        if (progresso.concluido(numeroBloco)) {
+            retomados.incrementAndGet();
+            return;
+        }
+        emVoo.acquire();
+        blocos.add(executor.submit(() -> {
+            try {
+                List<Divergencia> encontradas = new ArrayList<>();
+                List<Linha> pendentes = interpretar(textos, numeros, duplicadas, encontradas);
+                long[] contagem = new long[2];
+                varreduraTenants.paraCada(() -> {
+                    if (!pendentes.isEmpty()) {
+                        long[] aplicadas = transactionTemplate.execute(status -> aplicar(pendentes, encontradas));
+                        contagem[0] += aplicadas[0];
+                        contagem[1] += aplicadas[1];
+                    }
+                });
+                for (Linha linha : pendentes) {
+                    encontradas.add(new Divergencia(linha.numero(), linha.codigoDebito().toString(), Motivo.NAO_ENCONTRADO, ""));
+                }
+                progresso.confirmar(numeroBloco, encontradas);
+                linhas.add(textos.size());
+                atualizados.add(contagem[0]);
+                jaConciliados.add(contagem[1]);
+                divergencias.add(encontradas.size());
+            } finally {
+                emVoo.release();
+            }
+        }));
+    }
+
+    private static void aguardar(List<Future<?>> blocos) throws InterruptedException {
+        RuntimeException falha = null;
+        for (Future<?> bloco : blocos) {
+            try {
+                bloco.get();
+            } catch (ExecutionException e) {
+                if (falha == null) {
+                    falha = new IllegalStateException("Falha ao conciliar bloco", e.getCause());
+                } else {
+                    falha.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (falha != null) {
+            throw falha;
+        }
+    }
+
+    /** Código de débito do primeiro campo, ou {@code null} se não for numérico (a linha é recusada depois). */
+    private static Long codigo(String texto) {
+        int fim = texto.indexOf(';');
+        if (fim < 0) {
+            fim = texto.indexOf(',');
+        }
+        try {
+            return Long.valueOf(texto.substring(0, fim < 0 ? texto.length() : fim).strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<Linha> interpretar(List<String> textos, List<Long> numeros, LongSet duplicadas,
+                                           List<Divergencia> divergencias) {
+        List<Linha> linhas = new ArrayList<>(textos.size());
+        for (int i = 0; i < textos.size(); i++) {
+            String texto = textos.get(i);
+            String[] campos = texto.split(texto.indexOf(';') >= 0 ? ";" : ",", -1);
+            String codigo = campos[0].strip();
+            if (duplicadas.contains(numeros.get(i).longValue())) {
+                divergencias.add(new Divergencia(numeros.get(i), codigo, Motivo.DUPLICADO_NO_ARQUIVO, ""));
+                continue;
+            }
+            try {
+                if (campos.length != 3) {
+                    throw new IllegalArgumentException("esperados 3 campos, encontrados " + campos.length);
+                }
+                linhas.add(new Linha(numeros.get(i), Long.valueOf(codigo),
+                        Dinheiro.parse(campos[1].strip()), resultado(campos[2])));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                divergencias.add(new Divergencia(numeros.get(i), codigo, Motivo.LINHA_INVALIDA, e.getMessage()));
+            }
+        }
+        return linhas;
+    }
+
+    private static StatusPagamentoEnum resultado(String campo) {
+        return switch (campo.strip().toUpperCase(Locale.ROOT)) {
+            case "SUCESSO", "PROCESSADO_COM_SUCESSO" -> StatusPagamentoEnum.PROCESSADO_COM_SUCESSO;
+            case "FALHA", "PROCESSADO_COM_FALHA" -> StatusPagamentoEnum.PROCESSADO_COM_FALHA;
+            default -> throw new IllegalArgumentException("resultado desconhecido: " + campo.strip());
+        };
+    }
+
+    /**
+     * Aplica as linhas cujo pagamento está visível na sessão e as retira de {@code linhas}; as que
+     * restam não foram encontradas.
+     *
+     * @return {@code [atualizados, jaConciliados]}
+     */
+    private long[] aplicar(List<Linha> linhas, List<Divergencia> divergencias) {
+        Set<Long> codigos = new HashSet<>();
+        for (Linha linha : linhas) {
+            codigos.add(linha.codigoDebito());
+        }
+        Map<Long, Pagamento> pagamentos = new HashMap<>();
+        for (Pagamento pagamento : pagamentoRepository.buscarPorCodigosDebito(codigos)) {
+            pagamentos.put(pagamento.getCodigoDebito(), pagamento);
+        }
+        Map<Long, PagamentoArquivado> arquivados = new HashMap<>();
+        if (pagamentos.size() < codigos.size()) {
+            codigos.removeAll(pagamentos.keySet());
+            for (PagamentoArquivado arquivado : pagamentoArquivadoRepository.buscarPorCodigosDebito(codigos)) {
+                arquivados.put(arquivado.getCodigoDebito(), arquivado);
+            }
+        }
+
+        Map<StatusPagamentoEnum, List<Pagamento>> transicoes = new EnumMap<>(StatusPagamentoEnum.class);
+        long jaConciliados = 0;
+        for (Iterator<Linha> pendentes = linhas.iterator(); pendentes.hasNext(); ) {
+            Linha linha = pendentes.next();
+            String codigo = linha.codigoDebito().toString();
+            Pagamento pagamento = pagamentos.get(linha.codigoDebito());
+            PagamentoArquivado arquivado = pagamento == null ? arquivados.get(linha.codigoDebito()) : null;
+            if (pagamento == null && arquivado == null) {
+                continue;
+            }
+            pendentes.remove();
+            if (pagamento == null) {
+                if (!arquivado.getValorTransacao().equals(linha.valor())) {
+                    divergencias.add(valorDivergente(linha, arquivado.getValorTransacao()));
+                } else if (Boolean.TRUE.equals(arquivado.getAtivo()) && arquivado.getStatus() == linha.resultado()) {
+                    jaConciliados++;
+                } else {
+                    divergencias.add(new Divergencia(linha.numero(), codigo, Motivo.TRANSICAO_INVALIDA,
+                            "arquivado como " + arquivado.getStatus() + (Boolean.TRUE.equals(arquivado.getAtivo()) ? "" : " (inativo)")));
+                }
+                continue;
+            }
+            if (!pagamento.getValorTransacao().equals(linha.valor())) {
+                divergencias.add(valorDivergente(linha, pagamento.getValorTransacao()));
+            } else if (!Boolean.TRUE.equals(pagamento.getAtivo())) {
+                divergencias.add(new Divergencia(linha.numero(), codigo, Motivo.PAGAMENTO_INATIVO, ""));
+            } else if (pagamento.getStatus() == linha.resultado()) {
+                jaConciliados++;
+            } else if (pagamento.getStatus() == StatusPagamentoEnum.PENDENTE) {
+                transicoes.computeIfAbsent(linha.resultado(), s -> new ArrayList<>()).add(pagamento);
+            } else {
+                divergencias.add(new Divergencia(linha.numero(), codigo, Motivo.TRANSICAO_INVALIDA,
+                        pagamento.getStatus() + " -> " + linha.resultado()));
+            }
+        }
+
+        long atualizados = 0;
+        OffsetDateTime agora = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (Map.Entry<StatusPagamentoEnum, List<Pagamento>> transicao : transicoes.entrySet()) {
+            List<Pagamento> alvo = transicao.getValue();
+            int aplicados = pagamentoRepository.atualizarStatusEmLote(
+                    alvo.stream().map(Pagamento::getId).toList(),
+                    StatusPagamentoEnum.PENDENTE, transicao.getKey(), agora);
+            if (aplicados != alvo.size()) {
+                // Alguém alterou parte do bloco entre a leitura e o UPDATE: desfaz e deixa o bloco para
+                // a próxima execução, que vai encontrar o estado novo.
+                throw new IllegalStateException("Pagamentos alterados durante a conciliação: esperados "
+                        + alvo.size() + ", atualizados " + aplicados);
+            }
+            atualizados += aplicados;
+            for (Pagamento pagamento : alvo) {
+                eventPublisher.publishEvent(new PagamentoAlteradoEvent(pagamento.getId(), pagamento.getTenant(),
+                        pagamento.getCpfCnpjPagador(), transicao.getKey(), pagamento.getValorTransacao(), true, agora));
+                eventPublisher.publishEvent(new TransicaoPagamentoEvent(pagamento.getId(), pagamento.getTenant(),
+                        OperacaoHistoricoEnum.STATUS, StatusPagamentoEnum.PENDENTE, transicao.getKey(), agora, ATOR));
+            }
+        }
+        return new long[]{atualizados, jaConciliados};
+    }
+
+    private static Divergencia valorDivergente(Linha linha, Dinheiro registrado) {
+        return new Divergencia(linha.numero(), linha.codigoDebito().toString(), Motivo.VALOR_DIVERGENTE,
+                "arquivo " + linha.valor() + ", registrado " + registrado);
+    }
+
+    private void arquivarProcessado(Path arquivo) {
+        try {
+            Path destino = Files.createDirectories(diretorio.resolve("processados"));
+            Path relatorio = irmao(arquivo, SUFIXO_DIVERGENCIAS);
+            if (Files.exists(relatorio)) {
+                Files.move(relatorio, destino.resolve(relatorio.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(arquivo, destino.resolve(arquivo.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(irmao(arquivo, SUFIXO_CHECKPOINT));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao mover " + arquivo + " para processados", e);
+        }
+    }
+
+    private static Path irmao(Path arquivo, String sufixo) {
+        return arquivo.resolveSibling(arquivo.getFileName() + sufixo);
+    }
+
+    /**
+     * Blocos já confirmados de um arquivo. O tamanho do bloco fica gravado na primeira linha, para
+     * que uma retomada corte o arquivo nos mesmos pontos mesmo que a configuração tenha mudado.
+     * Um checkpoint vazio ou com o cabeçalho truncado (queda durante a criação) vale como inexistente,
+     * e uma última linha sem quebra (queda durante a confirmação) é ignorada: o bloco é refeito.
+     */
+    private static final class Checkpoint {
+
+        private final Path arquivo;
+        private final Path relatorio;
+        private final int tamanhoBloco;
+        private final Set<Integer> concluidos;
+        /** Linhas já no relatório ao retomar: as de um bloco relatado mas não confirmado antes da queda. */
+        private final LongSet relatadas;
+
+        private Checkpoint(Path arquivo, Path relatorio, int tamanhoBloco, Set<Integer> concluidos, LongSet relatadas) {
+            this.arquivo = arquivo;
+            this.relatorio = relatorio;
+            this.tamanhoBloco = tamanhoBloco;
+            this.concluidos = concluidos;
+            this.relatadas = relatadas;
+        }
+
+        static Checkpoint abrir(Path arquivo, Path relatorio, int tamanhoPadrao) {
+            try {
+                String conteudo = Files.exists(arquivo) ? Files.readString(arquivo, StandardCharsets.UTF_8) : "";
+                int fimCabecalho = conteudo.indexOf('\n');
+                Integer tamanho = fimCabecalho < 0 ? null : tamanhoBloco(conteudo.substring(0, fimCabecalho));
+                if (tamanho == null) {
+                    Files.writeString(arquivo, PREFIXO_TAMANHO + tamanhoPadrao + "\n", StandardCharsets.UTF_8);
+                    Files.writeString(relatorio, CABECALHO_RELATORIO, StandardCharsets.UTF_8);
+                    return new Checkpoint(arquivo, relatorio, tamanhoPadrao, new HashSet<>(), new LongOpenHashSet());
+                }
+                Set<Integer> concluidos = new HashSet<>();
+                int fimConfirmados = conteudo.lastIndexOf('\n') + 1;
+                for (String linha : conteudo.substring(fimCabecalho + 1, fimConfirmados).split("\n")) {
+                    if (!linha.isBlank()) {
+                        concluidos.add(Integer.parseInt(linha.strip()));
+                    }
+                }
+                if (fimConfirmados < conteudo.length()) {
+                    // Descarta a linha truncada (o conteúdo é ASCII: posição em caracteres = em bytes).
+                    try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+                        canal.truncate(fimConfirmados);
+                    }
+                }
+                return new Checkpoint(arquivo, relatorio, tamanho, concluidos, linhasRelatadas(relatorio));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao abrir o checkpoint " + arquivo, e);
+            }
+        }
+
+        /** Lê as linhas já relatadas, descartando uma última linha truncada. */
+        private static LongSet linhasRelatadas(Path relatorio) throws IOException {
+            LongSet relatadas = new LongOpenHashSet();
+            if (!Files.exists(relatorio)) {
+                Files.writeString(relatorio, CABECALHO_RELATORIO, StandardCharsets.UTF_8);
+                return relatadas;
+            }
+            byte[] conteudo = Files.readAllBytes(relatorio);
+            int fimConfirmado = conteudo.length;
+            while (fimConfirmado > 0 && conteudo[fimConfirmado - 1] != '\n') {
+                fimConfirmado--;
+            }
+            if (fimConfirmado < conteudo.length) {
+                try (FileChannel canal = FileChannel.open(relatorio, StandardOpenOption.WRITE)) {
+                    canal.truncate(fimConfirmado);
+                }
+            }
+            String texto = new String(conteudo, 0, fimConfirmado, StandardCharsets.UTF_8);
+            for (String linha : texto.split("\n")) {
+                int separador = linha.indexOf(';');
+                if (separador > 0 && Character.isDigit(linha.charAt(0))) {
+                    relatadas.add(Long.parseLong(linha.substring(0, separador)));
+                }
+            }
+            return relatadas;
+        }
+
+        private static Integer tamanhoBloco(String cabecalho) {
+            if (!cabecalho.startsWith(PREFIXO_TAMANHO)) {
+                return null;
+            }
+            try {
+                int tamanho = Integer.parseInt(cabecalho.substring(PREFIXO_TAMANHO.length()).strip());
+                return tamanho > 0 ? tamanho : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        boolean concluido(int bloco) {
+            return concluidos.contains(bloco);
+        }
+
+        /**
+         * Grava as divergências do bloco e só então o marca como concluído. Se a queda vier entre as
+         * duas escritas, o bloco é refeito na retomada, e as linhas que já estavam no relatório não
+         * são repetidas.
+         */
+        synchronized void confirmar(int bloco, List<Divergencia> divergencias) {
+            try {
+                StringBuilder texto = new StringBuilder();
+                for (Divergencia divergencia : divergencias) {
+                    if (!relatadas.contains(divergencia.linha())) {
+                        texto.append(divergencia.csv());
+                    }
+                }
+                if (!texto.isEmpty()) {
+                    Files.writeString(relatorio, texto, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                Files.writeString(arquivo, bloco + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao gravar o checkpoint " + arquivo, e);
+            }
+        }
+    }
+}
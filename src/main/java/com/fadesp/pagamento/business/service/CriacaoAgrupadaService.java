@@ -0,0 +1,356 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.converter.PagamentoConverter;
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.evento.PagamentoAlteradoEvent;
+import com.fadesp.pagamento.business.risco.ReservaRisco;
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.exceptions.ConflictException;
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Criação de pagamentos com commit em grupo (opt-in, {@code pagamento.criacao-agrupada.enabled}).
+ * <p>
+ * A validação e o risco rodam na thread da requisição; o pagamento vai então para uma de
+ * {@code particoes} filas sem trava (escolhida pelo código de débito, de modo que códigos repetidos
+ * caem no mesmo grupo). Cada partição tem uma thread que grava até {@code tamanho-grupo} pagamentos
+ * em uma única transação, assim que o grupo enche ou {@code intervalo-ms} depois do primeiro da fila.
+ * Cada chamador recebe o próprio id ou o próprio conflito: se o grupo esbarra na unicidade do código,
+ * ele é desfeito e regravado item a item.
+ * <p>
+ * {@code confirmacao} define quando o chamador é liberado: {@code COMMIT} (padrão) espera o commit do
+ * grupo; {@code INSERCAO} responde assim que o id é gerado, antes do commit, trocando durabilidade por
+ * latência — se o commit falhar, o id entregue não existirá.
+ * <p>
+ * O contexto da requisição (observação, correlation id, tenant) é capturado em cada pendente: a
+ * transação do grupo roda no contexto do primeiro da fila e a publicação de cada pagamento no do seu
+ * chamador. O chamador espera no máximo {@code espera-maxima-ms}; se o pagamento ainda não saiu da
+ * fila, ele é retirado e a reserva de risco desfeita.
+ */
+@Service
+@ConditionalOnProperty(name = "pagamento.criacao-agrupada.enabled", havingValue = "true")
+public class CriacaoAgrupadaService implements DisposableBean {
+
+    public enum Confirmacao { COMMIT, INSERCAO }
+
+    private static final Logger log = LoggerFactory.getLogger(CriacaoAgrupadaService.class);
+
+    private final PagamentoService pagamentoService;
+    private final PagamentoRepository pagamentoRepository;
+    private final CofreCartaoService cofreCartaoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoGrupo;
+    private final long intervaloNanos;
+    private final int capacidade;
+    private final Confirmacao confirmacao;
+    private final long esperaMaximaNanos;
+    private final ContextSnapshotFactory contextos = ContextSnapshotFactory.builder().build();
+    private final Particao[] particoes;
+    private volatile boolean ativo = true;
+
+    private final DistributionSummary tamanhos;
+    private final Timer esperaFila;
+
+    public CriacaoAgrupadaService(PagamentoService pagamentoService,
+                                  PagamentoRepository pagamentoRepository,
+                                  CofreCartaoService cofreCartaoService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${pagamento.criacao-agrupada.particoes:4}") int particoes,
+                                  @Value("${pagamento.criacao-agrupada.tamanho-grupo:200}") int tamanhoGrupo,
+                                  @Value("${pagamento.criacao-agrupada.intervalo-ms:5}") long intervaloMs,
+                                  @Value("${pagamento.criacao-agrupada.capacidade-fila:10000}") int capacidade,
+                                  @Value("${pagamento.criacao-agrupada.confirmacao:COMMIT}") Confirmacao confirmacao,
+                                  @Value("${pagamento.criacao-agrupada.espera-maxima-ms:10000}") long esperaMaximaMs) {
+        this.pagamentoService = pagamentoService;
+        this.pagamentoRepository = pagamentoRepository;
+        this.cofreCartaoService = cofreCartaoService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoGrupo = tamanhoGrupo;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        this.capacidade = capacidade;
+        this.confirmacao = confirmacao;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.tamanhos = DistributionSummary.builder("pagamento.criacao-agrupada.grupo")
+                .baseUnit("pagamentos")
+                .register(meterRegistry);
+        this.esperaFila = Timer.builder("pagamento.criacao-agrupada.espera").register(meterRegistry);
+        this.particoes = new Particao[particoes];
+        for (int i = 0; i < particoes; i++) {
+            this.particoes[i] = new Particao(i);
+            this.particoes[i].thread.start();
+        }
+    }
+
+    /**
+     * Valida, enfileira e espera a gravação do pagamento. Com a fila da partição cheia, grava direto
+     * por {@link PagamentoService#realizarPagamento}, sem agrupar.
+     */
+    public PagamentoResponseDTO criar(PagamentoRequestDTO requestDTO) {
+        ReservaRisco reserva = pagamentoService.prepararPagamento(requestDTO);
+        Particao particao = particoes[Math.floorMod(requestDTO.codigoDebito().hashCode(), particoes.length)];
+        Pendente pendente = new Pendente(requestDTO, reserva, contextos.captureAll(), System.nanoTime());
+        if (!ativo || !particao.enfileirar(pendente)) {
+            // O caminho direto avalia o risco de novo, na própria transação.
+            reserva.desfazer();
+            return pagamentoService.realizarPagamento(requestDTO);
+        }
+        try {
+            try {
+                return pendente.resultado.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (pendente.retirar()) {
+                    // Ainda na fila: a partição vai descartá-lo, e nada foi gravado.
+                    reserva.desfazer();
+                    pendente.resultado.cancel(false);
+                    throw new IndisponivelException("Fila de gravação agrupada sobrecarregada. Tente novamente.", 1);
+                }
+                // Já está em gravação: o resultado (e a reserva, em caso de falha) fica com a partição.
+                throw new IndisponivelException("Gravação do pagamento " + requestDTO.codigoDebito()
+                        + " ainda em andamento. Consulte-o antes de repetir.", 1);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha na gravação agrupada", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a gravação agrupada", e);
+        }
+    }
+
+    private void gravar(List<Pendente> grupo) {
+        tamanhos.record(grupo.size());
+        long agora = System.nanoTime();
+        for (Pendente pendente : grupo) {
+            esperaFila.record(agora - pendente.enfileiradoEm, TimeUnit.NANOSECONDS);
+        }
+
+        Map<Long, Pendente> porCodigo = new HashMap<>();
+        List<Pendente> unicos = new ArrayList<>(grupo.size());
+        for (Pendente pendente : grupo) {
+            if (porCodigo.putIfAbsent(pendente.requestDTO.codigoDebito(), pendente) == null) {
+                unicos.add(pendente);
+            } else {
+                pendente.conflito();
+            }
+        }
+        // Cada tenant grava na própria sessão (no modo SCHEMA, no próprio schema).
+        Map<String, List<Pendente>> porTenant = new LinkedHashMap<>();
+        for (Pendente pendente : unicos) {
+            porTenant.computeIfAbsent(pendente.tenant, t -> new ArrayList<>()).add(pendente);
+        }
+        porTenant.forEach((tenant, pendentes) -> {
+            try {
+                ContextoTenant.executarComo(tenant, () -> gravarEmTransacao(pendentes));
+            } catch (RuntimeException e) {
+                log.error("Falha ao gravar grupo de {} pagamento(s)", pendentes.size(), e);
+                pendentes.forEach(pendente -> pendente.falhar(e));
+            }
+        });
+    }
+
+    private void gravarEmTransacao(List<Pendente> grupo) {
+        List<Pendente> aceitos = new ArrayList<>(grupo.size());
+        List<PagamentoResponseDTO> respostas;
+        try (ContextSnapshot.Scope lider = grupo.get(0).contexto.setThreadLocals()) {
+            respostas = transactionTemplate.execute(status -> {
+                Set<Long> codigos = new HashSet<>();
+                grupo.forEach(pendente -> codigos.add(pendente.requestDTO.codigoDebito()));
+                Set<Long> usados = pagamentoService.codigosDebitoJaUtilizados(codigos);
+                for (Pendente pendente : grupo) {
+                    if (!usados.contains(pendente.requestDTO.codigoDebito())) {
+                        aceitos.add(pendente);
+                    }
+                }
+                if (aceitos.isEmpty()) {
+                    return List.of();
+                }
+
+                List<String> tokens = cofreCartaoService.tokenizarEmLote(
+                        aceitos.stream().map(pendente -> pendente.requestDTO.numeroCartao()).toList());
+                List<Pagamento> pagamentos = new ArrayList<>(aceitos.size());
+                for (int i = 0; i < aceitos.size(); i++) {
+                    pagamentos.add(PagamentoConverter.toEntity(aceitos.get(i).requestDTO, tokens.get(i)));
+                }
+                pagamentoService.registrarCodigos(
+                        aceitos.stream().map(pendente -> pendente.requestDTO.codigoDebito()).toList());
+                List<Pagamento> salvos = pagamentoRepository.saveAllAndFlush(pagamentos);
+                for (int i = 0; i < salvos.size(); i++) {
+                    try (ContextSnapshot.Scope chamador = aceitos.get(i).contexto.setThreadLocals()) {
+                        eventPublisher.publishEvent(PagamentoAlteradoEvent.de(salvos.get(i)));
+                    }
+                }
+                List<PagamentoResponseDTO> convertidos = salvos.stream().map(PagamentoConverter::toResponse).toList();
+                if (confirmacao == Confirmacao.INSERCAO) {
+                    liberar(aceitos, convertidos);
+                }
+                return convertidos;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!PagamentoService.violaCodigoDebito(e)) {
+                throw e;
+            }
+            if (grupo.size() == 1) {
+                grupo.get(0).conflito();
+                return;
+            }
+            // Outra gravação usou um dos códigos entre a checagem e o INSERT: isola o culpado.
+            for (Pendente pendente : grupo) {
+                gravarEmTransacao(List.of(pendente));
+            }
+            return;
+        }
+        Set<Pendente> gravados = new HashSet<>(aceitos);
+        for (Pendente pendente : grupo) {
+            if (!gravados.contains(pendente)) {
+                pendente.conflito();
+            }
+        }
+        liberar(aceitos, respostas);
+    }
+
+    private static void liberar(List<Pendente> aceitos, List<PagamentoResponseDTO> respostas) {
+        for (int i = 0; i < aceitos.size(); i++) {
+            aceitos.get(i).resultado.complete(respostas.get(i));
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        ativo = false;
+        for (Particao particao : particoes) {
+            LockSupport.unpark(particao.thread);
+        }
+        for (Particao particao : particoes) {
+            particao.thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private static final class Pendente {
+
+        private final PagamentoRequestDTO requestDTO;
+        private final ReservaRisco reserva;
+        private final ContextSnapshot contexto;
+        private final String tenant = ContextoTenant.atualOuPadrao();
+        private final long enfileiradoEm;
+        private final CompletableFuture<PagamentoResponseDTO> resultado = new CompletableFuture<>();
+        private final AtomicBoolean retirado = new AtomicBoolean();
+
+        private Pendente(PagamentoRequestDTO requestDTO, ReservaRisco reserva, ContextSnapshot contexto, long enfileiradoEm) {
+            this.requestDTO = requestDTO;
+            this.reserva = reserva;
+            this.contexto = contexto;
+            this.enfileiradoEm = enfileiradoEm;
+        }
+
+        /** Tira o pendente da fila, seja para gravar, seja porque o chamador desistiu; só um dos dois consegue. */
+        private boolean retirar() {
+            return retirado.compareAndSet(false, true);
+        }
+
+        private void conflito() {
+            falhar(new ConflictException("Código de débito já utilizado: " + requestDTO.codigoDebito()));
+        }
+
+        /** Não gravado: desfaz a reserva aqui, pois o chamador pode já ter desistido de esperar. */
+        private void falhar(Throwable erro) {
+            if (resultado.completeExceptionally(erro)) {
+                reserva.desfazer();
+            }
+        }
+    }
+
+    private final class Particao implements Runnable {
+
+        private final ConcurrentLinkedQueue<Pendente> fila = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger tamanho = new AtomicInteger();
+        private final Thread thread;
+
+        private Particao(int indice) {
+            this.thread = new Thread(this, "criacao-agrupada-" + indice);
+            this.thread.setDaemon(true);
+        }
+
+        boolean enfileirar(Pendente pendente) {
+            if (tamanho.get() >= capacidade) {
+                return false;
+            }
+            fila.offer(pendente);
+            int atual = tamanho.incrementAndGet();
+            if (atual == 1 || atual >= tamanhoGrupo) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (ativo || tamanho.get() > 0) {
+                if (tamanho.get() == 0) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                // Há ao menos um pagamento: espera o grupo encher, até o intervalo configurado.
+                long limite = System.nanoTime() + intervaloNanos;
+                long restante;
+                while (ativo && tamanho.get() < tamanhoGrupo && (restante = limite - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, restante);
+                }
+                List<Pendente> grupo = new ArrayList<>(Math.min(tamanho.get(), tamanhoGrupo));
+                Pendente pendente;
+                while (grupo.size() < tamanhoGrupo && (pendente = fila.poll()) != null) {
+                    tamanho.decrementAndGet();
+                    if (pendente.retirar()) {
+                        grupo.add(pendente);
+                    }
+                }
+                if (grupo.isEmpty()) {
+                    continue;
+                }
+                try {
+                    gravar(grupo);
+                } catch (Throwable e) {
+                    grupo.forEach(p -> p.falhar(e));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.out.HistoricoPagamentoDTO;
+import com.fadesp.pagamento.business.dto.out.PaginaHistoricoDTO;
+import com.fadesp.pagamento.infrastructure.entities.PagamentoHistorico;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoHistoricoRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class HistoricoPagamentoService {
+
+    public static final int TAMANHO_MAXIMO = 500;
+
+    private final PagamentoHistoricoRepository historicoRepository;
+
+    public HistoricoPagamentoService(PagamentoHistoricoRepository historicoRepository) {
+        this.historicoRepository = historicoRepository;
+    }
+
+    /**
+     * Página do histórico do pagamento, por keyset: as entradas com id maior que {@code apos}, em
+     * ordem de gravação. O custo não cresce com a profundidade da página, ao contrário de OFFSET.
+     * O histórico é gravado em lotes, e pode não conter ainda transições dos últimos instantes.
+     */
+    @Transactional(readOnly = true)
+    public PaginaHistoricoDTO listar(Long pagamentoId, Long apos, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new BusinessException("Tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO + ".");
+        }
+        List<PagamentoHistorico> pagina = historicoRepository.buscarPagina(
+                pagamentoId, apos == null ? 0L : apos, PageRequest.of(0, tamanho));
+        List<HistoricoPagamentoDTO> itens = pagina.stream()
+                .map(h -> new HistoricoPagamentoDTO(h.getId(), h.getOperacao(), h.getStatusAnterior(),
+                        h.getStatusNovo(), h.getOcorridoEm(), h.getAtor()))
+                .toList();
+        Long proximo = itens.size() == tamanho ? itens.get(itens.size() - 1).id() : null;
+        return new PaginaHistoricoDTO(itens, proximo);
+    }
+}
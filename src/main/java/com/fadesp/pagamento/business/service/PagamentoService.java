@@ -1,64 +1,209 @@
 package com.fadesp.pagamento.business.service;
 
 import com.fadesp.pagamento.business.converter.PagamentoConverter;
+import com.fadesp.pagamento.business.dto.in.PagamentoLoteRequestDTO;
 import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
 import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.evento.PagamentoAlteradoEvent;
+import com.fadesp.pagamento.business.evento.TransicaoPagamentoEvent;
+import com.fadesp.pagamento.business.indice.FiltroCodigosDebito;
+import com.fadesp.pagamento.business.indice.IndiceFinalizados;
+import com.fadesp.pagamento.business.risco.AvaliadorRisco;
+import com.fadesp.pagamento.business.risco.ReservaRisco;
+import com.fadesp.pagamento.infrastructure.coalescencia.CoalescerChamadas;
 import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
 import com.fadesp.pagamento.infrastructure.exceptions.ConflictException;
 import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import com.fadesp.pagamento.infrastructure.limite.BaixaPrioridade;
+import com.fadesp.pagamento.infrastructure.limite.ForaDoLimite;
+import com.fadesp.pagamento.infrastructure.limite.LimiteAdaptativoAspect;
+import com.fadesp.pagamento.infrastructure.log.AmostragemLog;
+import com.fadesp.pagamento.infrastructure.observabilidade.ObservacaoAspect;
+import com.fadesp.pagamento.infrastructure.repository.ConsultaCodigosDebito;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
 import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PagamentoService {
 
+    /** Ator registrado no histórico quando a alteração não informa quem a fez. */
+    public static final String ATOR_SISTEMA = "sistema";
 
     private final PagamentoRepository pagamentoRepository;
-    private static final BigDecimal VALOR_MINIMO = new BigDecimal("0.01");
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository;
+    private final ConsultaCodigosDebito consultaCodigosDebito;
+    private final AvaliadorRisco avaliadorRisco;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CofreCartaoService cofreCartaoService;
+    private final ObservationRegistry observationRegistry;
+    private final FiltroCodigosDebito filtroCodigosDebito;
+    private final IndiceFinalizados indiceFinalizados;
     private static final Logger log = LoggerFactory.getLogger(PagamentoService.class);
 
-    public PagamentoService(PagamentoRepository pagamentoRepository) {
+    public PagamentoService(PagamentoRepository pagamentoRepository,
+                            PagamentoArquivadoRepository pagamentoArquivadoRepository,
+                            ConsultaCodigosDebito consultaCodigosDebito,
+                            AvaliadorRisco avaliadorRisco,
+                            ApplicationEventPublisher eventPublisher,
+                            CofreCartaoService cofreCartaoService,
+                            ObservationRegistry observationRegistry,
+                            ObjectProvider<FiltroCodigosDebito> filtroCodigosDebito,
+                            ObjectProvider<IndiceFinalizados> indiceFinalizados) {
         this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoArquivadoRepository = pagamentoArquivadoRepository;
+        this.consultaCodigosDebito = consultaCodigosDebito;
+        this.avaliadorRisco = avaliadorRisco;
+        this.eventPublisher = eventPublisher;
+        this.cofreCartaoService = cofreCartaoService;
+        this.observationRegistry = observationRegistry;
+        this.filtroCodigosDebito = filtroCodigosDebito.getIfAvailable();
+        this.indiceFinalizados = indiceFinalizados.getIfAvailable();
     }
 
     @Transactional
     public PagamentoResponseDTO realizarPagamento(PagamentoRequestDTO requestDTO) {
-        log.info("Iniciando criação de pagamento para código de débito {}", requestDTO.codigoDebito());
-        validarPagamento(requestDTO);
+        log.info(AmostragemLog.AMOSTRAVEL, "Iniciando criação de pagamento para código de débito {}", requestDTO.codigoDebito());
+        anotar("pagamento.codigo_debito", requestDTO.codigoDebito());
+        anotar("pagamento.metodo", requestDTO.metodoPagamento());
+        // Sem SQL até aqui: a conexão só é tirada do pool na primeira consulta, depois do risco.
+        prepararPagamento(requestDTO);
+
+        if (codigoDebitoJaUtilizado(requestDTO.codigoDebito())) {
+            throw new ConflictException("Código de débito já utilizado: " + requestDTO.codigoDebito());
+        }
 
-        Pagamento pagamento = PagamentoConverter.toEntity(requestDTO);
+        String tokenCartao = cofreCartaoService.tokenizar(requestDTO.numeroCartao());
+        Pagamento pagamento = PagamentoConverter.toEntity(requestDTO, tokenCartao);
+        registrarCodigos(List.of(requestDTO.codigoDebito()));
         try {
             Pagamento salvo = pagamentoRepository.save(pagamento);
+            eventPublisher.publishEvent(PagamentoAlteradoEvent.de(salvo));
             return PagamentoConverter.toResponse(salvo);
         } catch (DataIntegrityViolationException e) {
+            if (!violaCodigoDebito(e)) {
+                throw e;
+            }
             throw new ConflictException("Código de débito já utilizado: " + requestDTO.codigoDebito(), e);
         }
     }
 
+    @Transactional
+    public List<PagamentoResponseDTO> realizarPagamentosEmLote(PagamentoLoteRequestDTO loteDTO) {
+        List<PagamentoRequestDTO> requests = loteDTO.pagamentos();
+        log.info(AmostragemLog.AMOSTRAVEL, "Iniciando criação de lote com {} pagamento(s)", requests.size());
+        anotar("pagamento.lote.tamanho", requests.size());
+
+        Set<Long> codigos = new HashSet<>();
+        for (PagamentoRequestDTO requestDTO : requests) {
+            validarPagamento(requestDTO);
+            if (!codigos.add(requestDTO.codigoDebito())) {
+                throw new ConflictException("Código de débito repetido no lote: " + requestDTO.codigoDebito());
+            }
+        }
+        for (PagamentoRequestDTO requestDTO : requests) {
+            avaliadorRisco.avaliar(requestDTO);
+        }
+        Set<Long> usados = codigosDebitoJaUtilizados(codigos);
+        for (PagamentoRequestDTO requestDTO : requests) {
+            if (usados.contains(requestDTO.codigoDebito())) {
+                throw new ConflictException("Código de débito já utilizado: " + requestDTO.codigoDebito());
+            }
+        }
 
+        List<String> tokens = cofreCartaoService.tokenizarEmLote(
+                requests.stream().map(PagamentoRequestDTO::numeroCartao).toList());
+        List<Pagamento> pagamentos = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            pagamentos.add(PagamentoConverter.toEntity(requests.get(i), tokens.get(i)));
+        }
+        registrarCodigos(codigos);
+        try {
+            List<Pagamento> salvos = pagamentoRepository.saveAllAndFlush(pagamentos);
+            salvos.forEach(salvo -> eventPublisher.publishEvent(PagamentoAlteradoEvent.de(salvo)));
+            return salvos.stream()
+                    .map(PagamentoConverter::toResponse)
+                    .toList();
+        } catch (DataIntegrityViolationException e) {
+            if (!violaCodigoDebito(e)) {
+                throw e;
+            }
+            throw new ConflictException("Lote contém código de débito já utilizado.", e);
+        }
+    }
+
+
+    @CoalescerChamadas
     @Transactional(readOnly = true)
     public PagamentoResponseDTO buscarPagamentoPorId(Long id) {
-        log.info("Buscando pagamento por id {}", id);
-        Pagamento pagamento = pagamentoRepository.findById(id)
+        log.info(AmostragemLog.AMOSTRAVEL, "Buscando pagamento por id {}", id);
+        PagamentoResponseDTO finalizado = buscarFinalizado(id);
+        if (finalizado != null) {
+            return finalizado;
+        }
+        return pagamentoRepository.findById(id)
+                .map(PagamentoConverter::toResponse)
+                .or(() -> pagamentoArquivadoRepository.findById(id).map(PagamentoConverter::toResponse))
                 .orElseThrow(() -> new NotFoundException("Pagamento não encontrado: id=" + id));
-        return PagamentoConverter.toResponse(pagamento);
     }
 
+    @CoalescerChamadas
+    @Transactional(readOnly = true)
+    public Optional<OffsetDateTime> buscarVersaoPagamento(Long id) {
+        PagamentoResponseDTO finalizado = buscarFinalizado(id);
+        if (finalizado != null) {
+            return Optional.of(finalizado.atualizadoEm());
+        }
+        return pagamentoRepository.buscarAtualizadoEm(id)
+                .or(() -> pagamentoArquivadoRepository.buscarAtualizadoEm(id));
+    }
+
+    /**
+     * Pagamento finalizado servido pelo arquivo mapeado, quando ligado. Como a conexão só sai do pool no
+     * primeiro SQL, o acerto não usa o banco e não entra na latência do limite adaptativo.
+     */
+    private PagamentoResponseDTO buscarFinalizado(Long id) {
+        if (indiceFinalizados == null || id == null) {
+            return null;
+        }
+        PagamentoResponseDTO finalizado = indiceFinalizados.buscar(id);
+        if (finalizado != null) {
+            LimiteAdaptativoAspect.dispensarAmostra();
+        }
+        return finalizado;
+    }
+
+    @BaixaPrioridade
     @Transactional(readOnly = true)
     public Page<PagamentoResponseDTO> listarTodos(Pageable pageable) {
-        log.info("Listando todos os pagamentos com paginação");
+        log.info(AmostragemLog.AMOSTRAVEL, "Listando todos os pagamentos com paginação");
 
         Page<Pagamento> page = pagamentoRepository.findAll(pageable);
+        anotar(ObservacaoAspect.LINHAS, page.getNumberOfElements());
 
         if (page.isEmpty()) {
             throw new NotFoundException("Nenhum pagamento encontrado no sistema.");
@@ -67,20 +212,26 @@ public class PagamentoService {
         return page.map(PagamentoConverter::toResponse);
     }
 
+    @BaixaPrioridade
+    @CoalescerChamadas
     @Transactional(readOnly = true)
     public Page<PagamentoResponseDTO> listarComFiltros(
-            Integer codigoDebito,
+            Long codigoDebito,
             String cpfCnpjPagador,
             StatusPagamentoEnum status,
             Pageable pageable
     ) {
-        log.info("Listando com filtros: codigoDebito={}, cpfCnpjPagador={}, status={}",
+        log.info(AmostragemLog.AMOSTRAVEL, "Listando com filtros: codigoDebito={}, cpfCnpjPagador={}, status={}",
                 codigoDebito, cpfCnpjPagador, status);
         String doc = (cpfCnpjPagador != null && !cpfCnpjPagador.isBlank())
                 ? cpfCnpjPagador.replaceAll("\\D", "")
                 : null;
 
+        anotar("pagamento.filtro.codigo_debito", codigoDebito);
+        anotar("pagamento.filtro.cpf_cnpj", doc == null ? null : "informado");
+        anotar("pagamento.filtro.status", status);
         Page<Pagamento> page = pagamentoRepository.buscarComFiltros(codigoDebito, doc, status, pageable);
+        anotar(ObservacaoAspect.LINHAS, page.getNumberOfElements());
 
         if (page.isEmpty()) {
             throw new NotFoundException("Nenhum pagamento encontrado com os filtros informados.");
@@ -91,7 +242,12 @@ public class PagamentoService {
 
     @Transactional
     public void excluirPagamentoPendente(Long id) {
-        log.info("Iniciando exclusão (soft delete) do pagamento id={}", id);
+        excluirPagamentoPendente(id, ATOR_SISTEMA);
+    }
+
+    @Transactional
+    public void excluirPagamentoPendente(Long id, String ator) {
+        log.info(AmostragemLog.AMOSTRAVEL, "Iniciando exclusão (soft delete) do pagamento id={}", id);
 
         Pagamento pagamento = pagamentoRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Pagamento não encontrado: id=" + id));
@@ -106,12 +262,19 @@ public class PagamentoService {
 
         pagamento.setAtivo(false);
         pagamentoRepository.save(pagamento);
+        eventPublisher.publishEvent(PagamentoAlteradoEvent.de(pagamento));
+        registrarTransicao(pagamento, OperacaoHistoricoEnum.EXCLUSAO, pagamento.getStatus(), ator);
         log.info("Pagamento id={} inativado com sucesso", id);
     }
 
     @Transactional
     public PagamentoResponseDTO atualizarStatusPagamento(Long id, StatusPagamentoEnum novoStatus) {
-        log.info("Atualizando status do pagamento id={} para {}", id, novoStatus);
+        return atualizarStatusPagamento(id, novoStatus, ATOR_SISTEMA);
+    }
+
+    @Transactional
+    public PagamentoResponseDTO atualizarStatusPagamento(Long id, StatusPagamentoEnum novoStatus, String ator) {
+        log.info(AmostragemLog.AMOSTRAVEL, "Atualizando status do pagamento id={} para {}", id, novoStatus);
 
         if (novoStatus == null) {
             throw new BusinessException("Novo status não informado.");
@@ -148,13 +311,82 @@ public class PagamentoService {
         }
 
         Pagamento atualizado = pagamentoRepository.save(pagamento);
+        anotar("pagamento.status.anterior", atual);
+        anotar("pagamento.status.novo", atualizado.getStatus());
+        eventPublisher.publishEvent(PagamentoAlteradoEvent.de(atualizado));
+        registrarTransicao(atualizado, OperacaoHistoricoEnum.STATUS, atual, ator);
         log.info("Status do pagamento id={} atualizado de {} para {}", id, atual, atualizado.getStatus());
         return PagamentoConverter.toResponse(atualizado);
     }
 
-    private void validarPagamento(PagamentoRequestDTO requestDTO) {
-        log.info("Validando dados do pagamento...");
+    /**
+     * Validação e análise de risco de uma criação, sem acesso ao banco. Usada também pela criação
+     * agrupada antes de enfileirar o pagamento, que desfaz a reserva de risco se a gravação falhar.
+     */
+    @ForaDoLimite
+    public ReservaRisco prepararPagamento(PagamentoRequestDTO requestDTO) {
+        validarPagamento(requestDTO);
+        return avaliadorRisco.avaliar(requestDTO);
+    }
+
+    /**
+     * Consulta de unicidade do código nas duas tabelas, de todos os tenants, dispensada quando o filtro
+     * de códigos garante que ele nunca foi usado. A violação de unicidade no INSERT continua tratada
+     * como rede de segurança.
+     */
+    private boolean codigoDebitoJaUtilizado(Long codigoDebito) {
+        if (filtroCodigosDebito != null && !filtroCodigosDebito.possivelmentePresente(codigoDebito)) {
+            return false;
+        }
+        return !consultaCodigosDebito.buscarUtilizados(List.of(codigoDebito)).isEmpty();
+    }
+
+    /** Versão em lote: uma consulta {@code IN} por tabela, só com os códigos que o filtro não descarta. */
+    public Set<Long> codigosDebitoJaUtilizados(Collection<Long> codigosDebito) {
+        Collection<Long> candidatos = filtroCodigosDebito == null
+                ? codigosDebito
+                : filtroCodigosDebito.possivelmentePresentes(codigosDebito);
+        if (candidatos.isEmpty()) {
+            LimiteAdaptativoAspect.dispensarAmostra();
+            return Set.of();
+        }
+        return consultaCodigosDebito.buscarUtilizados(candidatos);
+    }
+
+    /**
+     * Se a violação é a da unicidade do código de débito (nome da constraint ou da coluna na mensagem
+     * do banco). Outras violações não são conflito de código e seguem como erro.
+     */
+    static boolean violaCodigoDebito(DataIntegrityViolationException e) {
+        String mensagem = e.getMostSpecificCause().getMessage();
+        return mensagem != null && mensagem.toLowerCase(Locale.ROOT).contains("codigo_debito");
+    }
+
+    /** Alimenta o filtro antes do INSERT, para que o código nunca conste como ausente depois de gravado. */
+    @ForaDoLimite
+    public void registrarCodigos(Collection<Long> codigosDebito) {
+        if (filtroCodigosDebito != null) {
+            codigosDebito.forEach(filtroCodigosDebito::registrar);
+        }
+    }
 
+    /** Entrega a transição ao histórico, gravado em lote no commit desta mesma transação. */
+    private void registrarTransicao(Pagamento pagamento, OperacaoHistoricoEnum operacao,
+                                    StatusPagamentoEnum statusAnterior, String ator) {
+        eventPublisher.publishEvent(new TransicaoPagamentoEvent(pagamento.getId(), pagamento.getTenant(), operacao,
+                statusAnterior, pagamento.getStatus(), OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS),
+                ator == null ? ATOR_SISTEMA : ator));
+    }
+
+    /** Acrescenta um atributo ao span do método em andamento (aberto por {@code ObservacaoAspect}). */
+    private void anotar(String chave, Object valor) {
+        Observation atual = observationRegistry.getCurrentObservation();
+        if (atual != null && valor != null) {
+            atual.highCardinalityKeyValue(chave, valor.toString());
+        }
+    }
+
+    private void validarPagamento(PagamentoRequestDTO requestDTO) {
         if (requestDTO.codigoDebito() == null || requestDTO.codigoDebito() <= 0)
             throw new BusinessException("Código de débito inválido ou não informado.");
 
@@ -179,12 +411,12 @@ public class PagamentoService {
             }
         }
 
-        if (requestDTO.valor() == null || requestDTO.valor().compareTo(VALOR_MINIMO) < 0)
+        if (requestDTO.valor() == null || !requestDTO.valor().isPositivo())
             throw new BusinessException("O valor do pagamento deve ser maior ou igual a 0.01.");
 
-        if (requestDTO.valor().scale() > 2)
-            throw new BusinessException("O valor do pagamento deve ter no máximo duas casas decimais.");
+        if (requestDTO.valor().centavos() > Dinheiro.MAXIMO_CENTAVOS)
+            throw new BusinessException("O valor do pagamento deve ter no máximo 15 dígitos inteiros.");
 
-        log.info("Validação concluída com sucesso para código de débito {}", requestDTO.codigoDebito());
+        log.debug("Validação concluída com sucesso para código de débito {}", requestDTO.codigoDebito());
     }
 }
@@ -0,0 +1,64 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.out.ResumoPagadorDTO;
+import com.fadesp.pagamento.business.dto.out.TotalStatusDTO;
+import com.fadesp.pagamento.business.indice.IndicePagador;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+public class ResumoPagadorService {
+
+    private final PagamentoRepository pagamentoRepository;
+    private final ObjectProvider<IndicePagador> indicePagador;
+
+    public ResumoPagadorService(PagamentoRepository pagamentoRepository,
+                                ObjectProvider<IndicePagador> indicePagador) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.indicePagador = indicePagador;
+    }
+
+    /**
+     * Totais por status, saldo em aberto e pagamentos pendentes do pagador. Usa o índice em memória
+     * quando habilitado e aquecido; caso contrário consulta o banco.
+     */
+    @Transactional(readOnly = true)
+    public ResumoPagadorDTO resumir(String cpfCnpjPagador) {
+        String documento = cpfCnpjPagador == null ? "" : cpfCnpjPagador.replaceAll("\\D", "");
+        if (documento.isEmpty()) {
+            throw new BusinessException("CPF/CNPJ inválido ou não informado.");
+        }
+
+        IndicePagador indice = indicePagador.getIfAvailable();
+        if (indice != null) {
+            var resumo = indice.resumo(ContextoTenant.atualOuPadrao(), documento);
+            if (resumo.isPresent()) {
+                return resumo.get();
+            }
+        }
+        return resumirPeloBanco(documento);
+    }
+
+    private ResumoPagadorDTO resumirPeloBanco(String documento) {
+        Map<StatusPagamentoEnum, TotalStatusDTO> porStatus = new EnumMap<>(StatusPagamentoEnum.class);
+        for (StatusPagamentoEnum status : StatusPagamentoEnum.values()) {
+            porStatus.put(status, new TotalStatusDTO(0, Dinheiro.ZERO));
+        }
+        for (PagamentoRepository.TotalPorStatus total : pagamentoRepository.totalizarPorStatus(documento)) {
+            porStatus.put(total.getStatus(), new TotalStatusDTO(total.getQuantidade(), Dinheiro.de(total.getValor())));
+        }
+        Dinheiro emAberto = porStatus.get(StatusPagamentoEnum.PENDENTE).valor()
+                .somar(porStatus.get(StatusPagamentoEnum.PROCESSADO_COM_FALHA).valor());
+        return new ResumoPagadorDTO(documento, porStatus, emAberto,
+                pagamentoRepository.buscarIdsAtivosPorPagadorEStatus(documento, StatusPagamentoEnum.PENDENTE));
+    }
+}
@@ -0,0 +1,83 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Substitui, na subida, números de cartão ainda gravados em claro (bases anteriores ao cofre)
+ * pelos respectivos tokens, em lotes de PANs distintos.
+ */
+@Service
+@ConditionalOnProperty(name = "pagamento.cofre.tokenizar-legados", havingValue = "true", matchIfMissing = true)
+public class TokenizacaoCartoesLegadosService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenizacaoCartoesLegadosService.class);
+
+    private final PagamentoRepository pagamentoRepository;
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository;
+    private final CofreCartaoService cofreCartaoService;
+    private final TransactionTemplate transactionTemplate;
+    private final VarreduraTenants varreduraTenants;
+    private final int tamanhoLote;
+
+    public TokenizacaoCartoesLegadosService(PagamentoRepository pagamentoRepository,
+                                            PagamentoArquivadoRepository pagamentoArquivadoRepository,
+                                            CofreCartaoService cofreCartaoService,
+                                            TransactionTemplate transactionTemplate,
+                                            VarreduraTenants varreduraTenants,
+                                            @Value("${pagamento.cofre.tamanho-lote:500}") int tamanhoLote) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.pagamentoArquivadoRepository = pagamentoArquivadoRepository;
+        this.cofreCartaoService = cofreCartaoService;
+        this.transactionTemplate = transactionTemplate;
+        this.varreduraTenants = varreduraTenants;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void tokenizarLegados() {
+        int[] total = new int[1];
+        varreduraTenants.paraCada(() -> total[0] +=
+                tokenizar(pagamentoRepository::buscarCartoesNaoTokenizados, pagamentoRepository::substituirNumeroCartao)
+                + tokenizar(pagamentoArquivadoRepository::buscarCartoesNaoTokenizados, pagamentoArquivadoRepository::substituirNumeroCartao));
+        if (total[0] > 0) {
+            log.info("Tokenização de legado concluída: {} cartão(ões) movido(s) para o cofre", total[0]);
+        }
+    }
+
+    private int tokenizar(Function<PageRequest, List<String>> buscar, Substituicao substituir) {
+        int total = 0;
+        while (true) {
+            Integer movidos = transactionTemplate.execute(status -> {
+                List<String> pans = buscar.apply(PageRequest.of(0, tamanhoLote));
+                List<String> tokens = cofreCartaoService.tokenizarEmLote(pans);
+                for (int i = 0; i < pans.size(); i++) {
+                    substituir.aplicar(pans.get(i), tokens.get(i));
+                }
+                return pans.size();
+            });
+            if (movidos == null || movidos == 0) {
+                return total;
+            }
+            total += movidos;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Substituicao {
+        int aplicar(String pan, String token);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fadesp.pagamento.config;
+
+import com.fadesp.pagamento.infrastructure.tenant.IdentificadorTenantHibernate;
+import com.fadesp.pagamento.infrastructure.tenant.ProvedorConexoesTenant;
+import org.hibernate.cfg.MultiTenancySettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga a multi-tenancy do Hibernate: o tenant de cada sessão vem de {@code ContextoTenant} e as
+ * conexões passam por {@link ProvedorConexoesTenant} (limite por tenant e, no modo SCHEMA, troca de
+ * schema). Com o tenant na sessão, o Hibernate filtra as entidades com {@code @TenantId} e inclui o
+ * tenant nas chaves do cache de segundo nível e do cache de consultas.
+ */
+@Configuration
+public class MultiTenancyConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer multiTenancyHibernate(ProvedorConexoesTenant provedorConexoesTenant) {
+        return propriedades -> {
+            propriedades.put(MultiTenancySettings.MULTI_TENANT_CONNECTION_PROVIDER, provedorConexoesTenant);
+            propriedades.put(MultiTenancySettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new IdentificadorTenantHibernate());
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.fadesp.pagamento.config;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoLoteRequestDTO;
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.AtualizacaoFotoDTO;
+import com.fadesp.pagamento.business.dto.out.DesempenhoMetodoDTO;
+import com.fadesp.pagamento.business.dto.out.FaixaValorDTO;
+import com.fadesp.pagamento.business.dto.out.HistoricoPagamentoDTO;
+import com.fadesp.pagamento.business.dto.out.PagadorVolumeDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.dto.out.PaginaHistoricoDTO;
+import com.fadesp.pagamento.business.dto.out.ResultadoAnaliticoDTO;
+import com.fadesp.pagamento.business.dto.out.ResumoPagadorDTO;
+import com.fadesp.pagamento.business.dto.out.TotalStatusDTO;
+import com.fadesp.pagamento.infrastructure.cache.CachesHibernateEndpoint;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.Problem;
+import com.fadesp.pagamento.infrastructure.log.AmostragemTurboFilter;
+import com.fadesp.pagamento.infrastructure.tenant.TenantThreadLocalAccessor;
+import com.fadesp.pagamento.infrastructure.validation.CpfCnpj;
+import com.fadesp.pagamento.infrastructure.validation.CpfCnpjValidator;
+import com.fadesp.pagamento.infrastructure.validation.ValorMonetario;
+import com.fadesp.pagamento.infrastructure.validation.ValorMonetarioValidator;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import com.fadesp.pagamento.infrastructure.valor.DinheiroConverter;
+import com.fadesp.pagamento.infrastructure.valor.DinheiroJson;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.PagamentoRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class PagamentoRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> tipo : new Class<?>[]{MetodoPagamentoEnum.class, StatusPagamentoEnum.class,
+                    OperacaoHistoricoEnum.class}) {
+                hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+
+            hints.reflection().registerType(CpfCnpj.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(ValorMonetario.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            for (Class<?> tipo : new Class<?>[]{
+                    CpfCnpjValidator.class,
+                    ValorMonetarioValidator.class,
+                    DinheiroConverter.class,
+                    DinheiroJson.Serializer.class,
+                    DinheiroJson.Deserializer.class,
+                    AmostragemTurboFilter.class,
+                    TenantThreadLocalAccessor.class}) {
+                hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            for (Class<?> tipo : new Class<?>[]{
+                    PagamentoRequestDTO.class,
+                    PagamentoLoteRequestDTO.class,
+                    PagamentoResponseDTO.class,
+                    ResumoPagadorDTO.class,
+                    TotalStatusDTO.class,
+                    HistoricoPagamentoDTO.class,
+                    PaginaHistoricoDTO.class,
+                    ResultadoAnaliticoDTO.class,
+                    FaixaValorDTO.class,
+                    DesempenhoMetodoDTO.class,
+                    PagadorVolumeDTO.class,
+                    AtualizacaoFotoDTO.class,
+                    Dinheiro.class,
+                    Problem.class,
+                    Problem.Builder.class,
+                    CachesHibernateEndpoint.EstatisticaRegiaoCache.class}) {
+                hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+
+            hints.resources().registerPattern("ehcache.xml");
+            hints.resources().registerPattern("logback-spring.xml");
+            hints.resources().registerPattern("data.sql");
+            hints.resources().registerPattern("db/migration/mysql/*.sql");
+            hints.resources().registerPattern("META-INF/services/io.micrometer.context.ThreadLocalAccessor");
+        }
+    }
+}
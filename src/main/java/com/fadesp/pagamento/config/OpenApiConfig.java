@@ -1,13 +1,24 @@
 package com.fadesp.pagamento.config;
 
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
+
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class OpenApiConfig {
 
+    static {
+        // Dinheiro trafega como número decimal; documenta-o como BigDecimal, e não como objeto.
+        SpringDocUtils.getConfig().replaceWithClass(Dinheiro.class, BigDecimal.class);
+    }
+
     @Bean
     public OpenAPI pagamentoOpenAPI() {
         return new OpenAPI()
@@ -0,0 +1,23 @@
+package com.fadesp.pagamento.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Habilita CBOR (application/cbor) como alternativa binária ao JSON, escolhida por
+ * negociação de conteúdo (Accept / Content-Type). O mapper é criado a partir do
+ * builder do Spring Boot, de modo que as configurações spring.jackson.* valem para os dois formatos.
+ */
+@Configuration
+public class SerializacaoBinariaConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
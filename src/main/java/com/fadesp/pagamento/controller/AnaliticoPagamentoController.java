@@ -0,0 +1,71 @@
+package com.fadesp.pagamento.controller;
+
+import com.fadesp.pagamento.business.analitico.AnaliticoPagamentos;
+import com.fadesp.pagamento.business.dto.out.AtualizacaoFotoDTO;
+import com.fadesp.pagamento.business.dto.out.DesempenhoMetodoDTO;
+import com.fadesp.pagamento.business.dto.out.FaixaValorDTO;
+import com.fadesp.pagamento.business.dto.out.PagadorVolumeDTO;
+import com.fadesp.pagamento.business.dto.out.ResultadoAnaliticoDTO;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analitico/pagamentos")
+@ConditionalOnProperty(name = "pagamento.analitico.enabled", havingValue = "true")
+@Tag(name = "Analítico", description = "Agregações sobre a foto em memória dos pagamentos ativos do tenant")
+public class AnaliticoPagamentoController {
+
+    private final AnaliticoPagamentos analiticoPagamentos;
+
+    public AnaliticoPagamentoController(AnaliticoPagamentos analiticoPagamentos) {
+        this.analiticoPagamentos = analiticoPagamentos;
+    }
+
+
+    @GetMapping("/histograma-valores")
+    @Operation(summary = "Histograma de valores",
+            description = "Quantidade e soma por faixa de valor; os limites (crescentes) separam as faixas.")
+    public ResponseEntity<ResultadoAnaliticoDTO<List<FaixaValorDTO>>> histogramaValores(
+            @RequestParam(defaultValue = "10,50,100,500,1000,5000") List<BigDecimal> limites,
+            @RequestParam(required = false) StatusPagamentoEnum status) {
+        return ResponseEntity.ok(analiticoPagamentos.histogramaValores(limites, status));
+    }
+
+
+
+    @GetMapping("/metodos")
+    @Operation(summary = "Desempenho por método",
+            description = "Totais por status e taxa de sucesso (sucesso / processados) de cada método de pagamento.")
+    public ResponseEntity<ResultadoAnaliticoDTO<List<DesempenhoMetodoDTO>>> desempenhoPorMetodo() {
+        return ResponseEntity.ok(analiticoPagamentos.desempenhoPorMetodo());
+    }
+
+
+
+    @GetMapping("/pagadores/top")
+    @Operation(summary = "Maiores pagadores", description = "Pagadores com maior soma de valores, em ordem decrescente.")
+    public ResponseEntity<ResultadoAnaliticoDTO<List<PagadorVolumeDTO>>> maioresPagadores(
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(analiticoPagamentos.maioresPagadores(limite));
+    }
+
+
+
+    @PostMapping("/foto/atualizar")
+    @Operation(summary = "Atualizar a foto",
+            description = "Aplica as alterações desde a última foto, ou recarrega tudo com completa=true.")
+    public ResponseEntity<AtualizacaoFotoDTO> atualizarFoto(@RequestParam(defaultValue = "false") boolean completa) {
+        return ResponseEntity.ok(analiticoPagamentos.atualizarAgora(completa));
+    }
+}
@@ -1,18 +1,30 @@
 package com.fadesp.pagamento.controller;
 
+import com.fadesp.pagamento.business.dto.in.PagamentoLoteRequestDTO;
 import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
 import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.dto.out.PaginaHistoricoDTO;
+import com.fadesp.pagamento.business.dto.out.ResumoPagadorDTO;
+import com.fadesp.pagamento.business.service.CriacaoAgrupadaService;
+import com.fadesp.pagamento.business.service.HistoricoPagamentoService;
 import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.business.service.ResumoPagadorService;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,17 +33,33 @@ import java.util.List;
 @Tag(name = "Pagamentos", description = "Endpoints para criação, consulta, atualização e exclusão lógica de pagamentos")
 public class PagamentoController {
 
-    private final PagamentoService pagamentoService;
+    /** Quem faz a alteração, registrado no histórico do pagamento. */
+    public static final String CABECALHO_ATOR = "X-Ator";
+
+    private static final int TAMANHO_MAXIMO_ATOR = 100;
 
-    public PagamentoController(PagamentoService pagamentoService) {
+    private final PagamentoService pagamentoService;
+    private final ResumoPagadorService resumoPagadorService;
+    private final HistoricoPagamentoService historicoPagamentoService;
+    private final CriacaoAgrupadaService criacaoAgrupadaService;
+
+    public PagamentoController(PagamentoService pagamentoService,
+                               ResumoPagadorService resumoPagadorService,
+                               HistoricoPagamentoService historicoPagamentoService,
+                               ObjectProvider<CriacaoAgrupadaService> criacaoAgrupadaService) {
         this.pagamentoService = pagamentoService;
+        this.resumoPagadorService = resumoPagadorService;
+        this.historicoPagamentoService = historicoPagamentoService;
+        this.criacaoAgrupadaService = criacaoAgrupadaService.getIfAvailable();
     }
 
 
     @PostMapping
     @Operation(summary = "Criar pagamento", description = "Registra um novo pagamento no sistema.")
     public ResponseEntity<PagamentoResponseDTO> criarPagamento(@Valid @RequestBody PagamentoRequestDTO dto) {
-        PagamentoResponseDTO response = pagamentoService.realizarPagamento(dto);
+        PagamentoResponseDTO response = criacaoAgrupadaService != null
+                ? criacaoAgrupadaService.criar(dto)
+                : pagamentoService.realizarPagamento(dto);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .header("Location", "/api/pagamentos/" + response.id())
@@ -39,10 +67,38 @@ public class PagamentoController {
     }
 
 
+    @PostMapping("/lote")
+    @Operation(summary = "Criar pagamentos em lote",
+            description = "Registra vários pagamentos em uma única transação. Aceita e responde JSON ou CBOR (application/cbor).")
+    public ResponseEntity<List<PagamentoResponseDTO>> criarPagamentosEmLote(@Valid @RequestBody PagamentoLoteRequestDTO dto) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(pagamentoService.realizarPagamentosEmLote(dto));
+    }
+
+
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar pagamento por ID")
-    public ResponseEntity<PagamentoResponseDTO> buscarPagamentoPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(pagamentoService.buscarPagamentoPorId(id));
+    @Operation(summary = "Buscar pagamento por ID",
+            description = "Responde 304 quando o ETag informado em If-None-Match ainda corresponde à versão atual.")
+    public ResponseEntity<PagamentoResponseDTO> buscarPagamentoPorId(@PathVariable Long id, WebRequest request,
+                                                                     HttpServletResponse resposta) {
+        // Também no 304: caches não podem servir a versão JSON a quem pediu CBOR (e vice-versa).
+        resposta.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String formato = PagamentoEtag.formato(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            // Consulta apenas a versão: se o cliente já tem a representação atual, nada é carregado nem serializado.
+            String etagAtual = pagamentoService.buscarVersaoPagamento(id)
+                    .map(atualizadoEm -> PagamentoEtag.de(id, atualizadoEm, formato))
+                    .orElse(null);
+            if (etagAtual != null && request.checkNotModified(etagAtual)) {
+                return null;
+            }
+        }
+        PagamentoResponseDTO response = pagamentoService.buscarPagamentoPorId(id);
+        return ResponseEntity.ok()
+                .eTag(PagamentoEtag.de(response, formato))
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
 
@@ -50,13 +106,44 @@ public class PagamentoController {
     @GetMapping
     @Operation(summary = "Listar pagamentos (com filtros opcionais e paginação)")
     public ResponseEntity<Page<PagamentoResponseDTO>> listarPagamentos(
-            @RequestParam(required = false) Integer codigoDebito,
+            @RequestParam(required = false) Long codigoDebito,
             @RequestParam(required = false) String cpfCnpjPagador,
             @RequestParam(required = false) StatusPagamentoEnum status,
-            @ParameterObject Pageable pageable
+            @ParameterObject Pageable pageable,
+            WebRequest request,
+            HttpServletResponse resposta
     ) {
+        resposta.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
         Page<PagamentoResponseDTO> page = pagamentoService.listarComFiltros(codigoDebito, cpfCnpjPagador, status, pageable);
-        return ResponseEntity.ok(page);
+        String etag = PagamentoEtag.de(page, PagamentoEtag.formato(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(page);
+    }
+
+
+
+    @GetMapping("/pagadores/{cpfCnpj}/resumo")
+    @Operation(summary = "Resumo do pagador",
+            description = "Totais por status, saldo em aberto e IDs dos pagamentos pendentes do CPF/CNPJ informado.")
+    public ResponseEntity<ResumoPagadorDTO> resumirPagador(@PathVariable String cpfCnpj) {
+        return ResponseEntity.ok(resumoPagadorService.resumir(cpfCnpj));
+    }
+
+
+
+    @GetMapping("/{id}/historico")
+    @Operation(summary = "Histórico do pagamento",
+            description = "Transições de status e exclusão, paginadas por cursor: passe em 'apos' o 'proximo' da página anterior.")
+    public ResponseEntity<PaginaHistoricoDTO> listarHistorico(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long apos,
+            @RequestParam(defaultValue = "50") int tamanho) {
+        return ResponseEntity.ok(historicoPagamentoService.listar(id, apos, tamanho));
     }
 
 
@@ -65,16 +152,30 @@ public class PagamentoController {
     @Operation(summary = "Atualizar status do pagamento")
     public ResponseEntity<PagamentoResponseDTO> atualizarStatusPagamento(
             @PathVariable Long id,
-            @RequestParam("novoStatus") StatusPagamentoEnum novoStatus) {
-        return ResponseEntity.ok(pagamentoService.atualizarStatusPagamento(id, novoStatus));
+            @RequestParam("novoStatus") StatusPagamentoEnum novoStatus,
+            @RequestHeader(value = CABECALHO_ATOR, required = false) String ator) {
+        return ResponseEntity.ok(pagamentoService.atualizarStatusPagamento(id, novoStatus, ator(ator)));
     }
 
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Exclusão lógica do pagamento (apenas se PENDENTE)")
-    public ResponseEntity<Void> excluirPagamentoPendente(@PathVariable Long id) {
-        pagamentoService.excluirPagamentoPendente(id);
+    public ResponseEntity<Void> excluirPagamentoPendente(
+            @PathVariable Long id,
+            @RequestHeader(value = CABECALHO_ATOR, required = false) String ator) {
+        pagamentoService.excluirPagamentoPendente(id, ator(ator));
         return ResponseEntity.noContent().build();
     }
+
+    private static String ator(String informado) {
+        if (informado == null || informado.isBlank()) {
+            return PagamentoService.ATOR_SISTEMA;
+        }
+        String ator = informado.strip();
+        if (ator.length() > TAMANHO_MAXIMO_ATOR) {
+            throw new BusinessException("Cabeçalho " + CABECALHO_ATOR + " excede " + TAMANHO_MAXIMO_ATOR + " caracteres.");
+        }
+        return ator;
+    }
 }
 
@@ -0,0 +1,91 @@
+package com.fadesp.pagamento.controller;
+
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * ETags fracos ({@code W/"..."}): o Tomcat não comprime respostas com ETag forte, e a mesma
+ * representação comprimida ou não continua semanticamente igual para o If-None-Match.
+ * <p>
+ * JSON e CBOR são representações diferentes do mesmo recurso: o formato entra no ETag, e as
+ * respostas levam {@code Vary: Accept}.
+ */
+final class PagamentoEtag {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String FORMATO_JSON = "json";
+    private static final String FORMATO_CBOR = "cbor";
+
+    private PagamentoEtag() {
+        throw new UnsupportedOperationException("Classe utilitária - não deve ser instanciada.");
+    }
+
+    /**
+     * Formato que a negociação de conteúdo escolhe para o {@code Accept} informado: o mais
+     * específico (e de maior qualidade) entre JSON e CBOR, com JSON na ausência ou em caso de empate.
+     */
+    static String formato(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return FORMATO_JSON;
+        }
+        List<MediaType> aceitos;
+        try {
+            aceitos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return FORMATO_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(aceitos);
+        for (MediaType aceito : aceitos) {
+            if (aceito.getQualityValue() == 0) {
+                continue;
+            }
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return FORMATO_JSON;
+            }
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return FORMATO_CBOR;
+            }
+        }
+        return FORMATO_JSON;
+    }
+
+    static String de(Long id, OffsetDateTime atualizadoEm, String formato) {
+        Instant instante = atualizadoEm.toInstant();
+        return "W/\"" + Long.toHexString(id) + "-" + Long.toHexString(instante.getEpochSecond())
+                + "." + Integer.toHexString(instante.getNano()) + "-" + formato + "\"";
+    }
+
+    static String de(PagamentoResponseDTO pagamento, String formato) {
+        return de(pagamento.id(), pagamento.atualizadoEm(), formato);
+    }
+
+    static String de(Page<PagamentoResponseDTO> pagina, String formato) {
+        long hash = FNV_OFFSET;
+        hash = misturar(hash, pagina.getNumber());
+        hash = misturar(hash, pagina.getSize());
+        hash = misturar(hash, pagina.getTotalElements());
+        for (PagamentoResponseDTO pagamento : pagina.getContent()) {
+            Instant instante = pagamento.atualizadoEm().toInstant();
+            hash = misturar(hash, pagamento.id());
+            hash = misturar(hash, instante.getEpochSecond());
+            hash = misturar(hash, instante.getNano());
+        }
+        return "W/\"p-" + Long.toHexString(hash) + "-" + formato + "\"";
+    }
+
+    private static long misturar(long hash, long valor) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (valor >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,91 @@
+package com.fadesp.pagamento.controller.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.protobuf.services.ProtoReflectionServiceV1;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor gRPC (HTTP/2) que roda ao lado do Tomcat, em porta própria. Uma única conexão
+ * multiplexa as chamadas concorrentes de cada cliente interno.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.grpc.enabled", havingValue = "true")
+public class GrpcServidor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServidor.class);
+
+    private final PagamentoGrpcService pagamentoGrpcService;
+    private final TenantGrpcInterceptor tenantGrpcInterceptor;
+    private final ObservationRegistry observationRegistry;
+    private final int porta;
+    private final int maximoChamadasPorConexao;
+    private final HealthStatusManager health = new HealthStatusManager();
+    private volatile Server servidor;
+
+    public GrpcServidor(PagamentoGrpcService pagamentoGrpcService,
+                        TenantGrpcInterceptor tenantGrpcInterceptor,
+                        ObservationRegistry observationRegistry,
+                        @Value("${pagamento.grpc.porta:9090}") int porta,
+                        @Value("${pagamento.grpc.maximo-chamadas-por-conexao:256}") int maximoChamadasPorConexao) {
+        this.pagamentoGrpcService = pagamentoGrpcService;
+        this.tenantGrpcInterceptor = tenantGrpcInterceptor;
+        this.observationRegistry = observationRegistry;
+        this.porta = porta;
+        this.maximoChamadasPorConexao = maximoChamadasPorConexao;
+    }
+
+    @Override
+    public void start() {
+        try {
+            servidor = NettyServerBuilder.forPort(porta)
+                    .addService(ServerInterceptors.intercept(pagamentoGrpcService, tenantGrpcInterceptor,
+                            new ObservationGrpcServerInterceptor(observationRegistry)))
+                    .addService(health.getHealthService())
+                    .addService(ProtoReflectionServiceV1.newInstance())
+                    .maxConcurrentCallsPerConnection(maximoChamadasPorConexao)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível iniciar o servidor gRPC na porta " + porta, e);
+        }
+        log.info("Servidor gRPC iniciado na porta {}", servidor.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server atual = servidor;
+        if (atual == null) {
+            return;
+        }
+        health.enterTerminalState();
+        atual.shutdown();
+        try {
+            if (!atual.awaitTermination(10, TimeUnit.SECONDS)) {
+                atual.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            atual.shutdownNow();
+        }
+        servidor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return servidor != null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.fadesp.pagamento.controller.grpc;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.grpc.MetodoPagamento;
+import com.fadesp.pagamento.grpc.PagamentoRequest;
+import com.fadesp.pagamento.grpc.PagamentoResponse;
+import com.fadesp.pagamento.grpc.StatusPagamento;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import com.google.protobuf.Timestamp;
+
+import java.time.Instant;
+
+final class PagamentoGrpcMapper {
+
+    private PagamentoGrpcMapper() {
+        throw new UnsupportedOperationException("Classe utilitária - não deve ser instanciada.");
+    }
+
+    static PagamentoRequestDTO toRequestDTO(PagamentoRequest request) {
+        return new PagamentoRequestDTO(
+                request.getCodigoDebito(),
+                request.getCpfCnpj(),
+                toMetodo(request.getMetodoPagamento()),
+                request.getNumeroCartao().isEmpty() ? null : request.getNumeroCartao(),
+                Dinheiro.deCentavos(request.getValorCentavos())
+        );
+    }
+
+    static PagamentoResponse toResponse(PagamentoResponseDTO dto) {
+        PagamentoResponse.Builder builder = PagamentoResponse.newBuilder()
+                .setId(dto.id())
+                .setCodigoDebito(dto.codigoDebito())
+                .setCpfCnpjPagador(dto.cpfCnpjPagador())
+                .setMetodoPagamento(MetodoPagamento.valueOf(dto.metodoPagamento().name()))
+                .setValorCentavos(dto.valor().centavos())
+                .setStatus(StatusPagamento.valueOf(dto.status().name()))
+                .setAtivo(Boolean.TRUE.equals(dto.ativo()));
+        if (dto.atualizadoEm() != null) {
+            Instant instante = dto.atualizadoEm().toInstant();
+            builder.setAtualizadoEm(Timestamp.newBuilder()
+                    .setSeconds(instante.getEpochSecond())
+                    .setNanos(instante.getNano()));
+        }
+        return builder.build();
+    }
+
+    static MetodoPagamentoEnum toMetodo(MetodoPagamento metodo) {
+        return switch (metodo) {
+            case METODO_PAGAMENTO_NAO_INFORMADO, UNRECOGNIZED -> null;
+            default -> MetodoPagamentoEnum.valueOf(metodo.name());
+        };
+    }
+
+    static StatusPagamentoEnum toStatus(StatusPagamento status) {
+        return switch (status) {
+            case STATUS_PAGAMENTO_NAO_INFORMADO, UNRECOGNIZED -> null;
+            default -> StatusPagamentoEnum.valueOf(status.name());
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package com.fadesp.pagamento.controller.grpc;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.grpc.*;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
+import com.fadesp.pagamento.infrastructure.exceptions.ConflictException;
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import com.fadesp.pagamento.infrastructure.exceptions.RiscoRejeitadoException;
+import com.google.protobuf.Empty;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptador gRPC de {@link PagamentoService}: aplica a mesma Bean Validation dos DTOs REST e
+ * delega toda regra de negócio (incluindo a máquina de estados de status) ao serviço.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.grpc.enabled", havingValue = "true")
+public class PagamentoGrpcService extends PagamentosGrpc.PagamentosImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(PagamentoGrpcService.class);
+    private static final int TAMANHO_PAGINA_PADRAO = 20;
+    /** Ator registrado no histórico para alterações feitas pelo gRPC. */
+    static final String ATOR = "grpc";
+    static final Metadata.Key<String> RETRY_PUSHBACK_MS =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final PagamentoService pagamentoService;
+    private final Validator validator;
+    private final int tamanhoPaginaStream;
+    private final int tamanhoMaximoPagina;
+
+    public PagamentoGrpcService(PagamentoService pagamentoService,
+                                Validator validator,
+                                @Value("${pagamento.grpc.tamanho-pagina-stream:500}") int tamanhoPaginaStream,
+                                @Value("${spring.data.web.pageable.max-page-size:2000}") int tamanhoMaximoPagina) {
+        this.pagamentoService = pagamentoService;
+        this.validator = validator;
+        this.tamanhoPaginaStream = tamanhoPaginaStream;
+        this.tamanhoMaximoPagina = tamanhoMaximoPagina;
+    }
+
+    @Override
+    public void criar(PagamentoRequest request, StreamObserver<PagamentoResponse> observer) {
+        responder(observer, () -> {
+            PagamentoRequestDTO dto = PagamentoGrpcMapper.toRequestDTO(request);
+            validar(dto);
+            return PagamentoGrpcMapper.toResponse(pagamentoService.realizarPagamento(dto));
+        });
+    }
+
+    @Override
+    public void buscar(BuscarPagamentoRequest request, StreamObserver<PagamentoResponse> observer) {
+        responder(observer, () -> PagamentoGrpcMapper.toResponse(pagamentoService.buscarPagamentoPorId(request.getId())));
+    }
+
+    @Override
+    public void listar(ListarPagamentosRequest request, StreamObserver<ListarPagamentosResponse> observer) {
+        responder(observer, () -> {
+            if (request.getPagina() < 0) {
+                throw Status.INVALID_ARGUMENT.withDescription("pagina: deve ser maior ou igual a 0").asRuntimeException();
+            }
+            int tamanho = tamanhoPagina(request, TAMANHO_PAGINA_PADRAO);
+            Page<PagamentoResponseDTO> page = listarPagina(request, PageRequest.of(request.getPagina(), tamanho));
+            ListarPagamentosResponse.Builder builder = ListarPagamentosResponse.newBuilder()
+                    .setTotalElementos(page.getTotalElements())
+                    .setTotalPaginas(page.getTotalPages());
+            page.forEach(dto -> builder.addPagamentos(PagamentoGrpcMapper.toResponse(dto)));
+            return builder.build();
+        });
+    }
+
+    @Override
+    public void listarStream(ListarPagamentosRequest request, StreamObserver<PagamentoResponse> observer) {
+        ServerCallStreamObserver<PagamentoResponse> chamada = (ServerCallStreamObserver<PagamentoResponse>) observer;
+        int tamanho;
+        try {
+            tamanho = tamanhoPagina(request, tamanhoPaginaStream);
+        } catch (RuntimeException e) {
+            chamada.onError(traduzir(e));
+            return;
+        }
+        // Nada é enviado daqui: o gRPC chama o onReadyHandler assim que a chamada fica pronta.
+        chamada.setOnCancelHandler(() -> { });
+        chamada.setOnReadyHandler(new EnvioPaginado(request, chamada, tamanho));
+    }
+
+    @Override
+    public void atualizarStatus(AtualizarStatusRequest request, StreamObserver<PagamentoResponse> observer) {
+        responder(observer, () -> PagamentoGrpcMapper.toResponse(pagamentoService.atualizarStatusPagamento(
+                request.getId(), PagamentoGrpcMapper.toStatus(request.getNovoStatus()), ATOR)));
+    }
+
+    @Override
+    public void excluir(ExcluirPagamentoRequest request, StreamObserver<Empty> observer) {
+        responder(observer, () -> {
+            pagamentoService.excluirPagamentoPendente(request.getId(), ATOR);
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    /** Mesmo tratamento do REST: tamanho ausente usa o padrão e acima do máximo é limitado a ele. */
+    private int tamanhoPagina(ListarPagamentosRequest request, int padrao) {
+        if (request.getTamanho() < 0) {
+            throw Status.INVALID_ARGUMENT.withDescription("tamanho: deve ser maior ou igual a 0").asRuntimeException();
+        }
+        int tamanho = request.getTamanho() > 0 ? request.getTamanho() : padrao;
+        return Math.min(tamanho, tamanhoMaximoPagina);
+    }
+
+    private Page<PagamentoResponseDTO> listarPagina(ListarPagamentosRequest request, PageRequest pageable) {
+        return pagamentoService.listarComFiltros(
+                request.hasCodigoDebito() ? request.getCodigoDebito().getValue() : null,
+                request.getCpfCnpjPagador().isBlank() ? null : request.getCpfCnpjPagador(),
+                PagamentoGrpcMapper.toStatus(request.getStatus()),
+                pageable);
+    }
+
+    private void validar(PagamentoRequestDTO dto) {
+        Set<ConstraintViolation<PagamentoRequestDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            String detalhe = violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            throw Status.INVALID_ARGUMENT.withDescription(detalhe).asRuntimeException();
+        }
+    }
+
+    private <T> void responder(StreamObserver<T> observer, Supplier<T> chamada) {
+        T resposta;
+        try {
+            resposta = chamada.get();
+        } catch (RuntimeException e) {
+            observer.onError(traduzir(e));
+            return;
+        }
+        observer.onNext(resposta);
+        observer.onCompleted();
+    }
+
+    private StatusRuntimeException traduzir(RuntimeException e) {
+        if (e instanceof StatusRuntimeException sre) {
+            return sre;
+        }
+        if (e instanceof IndisponivelException indisponivel) {
+            // Equivalente gRPC do Retry-After: os clientes com política de retry respeitam o pushback.
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_PUSHBACK_MS,
+                    Long.toString(TimeUnit.SECONDS.toMillis(indisponivel.getTentarNovamenteEmSegundos())));
+            return Status.UNAVAILABLE.withDescription(e.getMessage()).asRuntimeException(trailers);
+        }
+        Status status;
+        if (e instanceof NotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (e instanceof ConflictException) {
+            status = Status.ALREADY_EXISTS;
+        } else if (e instanceof RiscoRejeitadoException) {
+            status = Status.PERMISSION_DENIED;
+        } else if (e instanceof BusinessException) {
+            status = Status.FAILED_PRECONDITION;
+        } else {
+            log.error("Erro inesperado em chamada gRPC", e);
+            return Status.INTERNAL.withDescription("Erro interno inesperado.").asRuntimeException();
+        }
+        return status.withDescription(e.getMessage()).asRuntimeException();
+    }
+
+    /**
+     * Envia o stream no ritmo do cliente: a cada {@code onReady} manda enquanto o transporte estiver
+     * pronto ({@code isReady}) e só lê a página seguinte do banco quando a anterior já saiu, em vez de
+     * enfileirar o resultado inteiro em memória. Os callbacks de uma chamada são serializados pelo gRPC.
+     */
+    private final class EnvioPaginado implements Runnable {
+
+        private final ListarPagamentosRequest request;
+        private final ServerCallStreamObserver<PagamentoResponse> chamada;
+        private final int tamanho;
+        private Iterator<PagamentoResponseDTO> pendentes = Collections.emptyIterator();
+        private int proximaPagina;
+        private boolean ultimaPagina;
+        private boolean encerrado;
+
+        EnvioPaginado(ListarPagamentosRequest request, ServerCallStreamObserver<PagamentoResponse> chamada, int tamanho) {
+            this.request = request;
+            this.chamada = chamada;
+            this.tamanho = tamanho;
+        }
+
+        @Override
+        public void run() {
+            if (encerrado) {
+                return;
+            }
+            try {
+                while (!chamada.isCancelled()) {
+                    if (!pendentes.hasNext() && ultimaPagina) {
+                        encerrado = true;
+                        chamada.onCompleted();
+                        return;
+                    }
+                    if (!chamada.isReady()) {
+                        return;
+                    }
+                    if (pendentes.hasNext()) {
+                        chamada.onNext(PagamentoGrpcMapper.toResponse(pendentes.next()));
+                    } else {
+                        carregarProximaPagina();
+                    }
+                }
+                encerrado = true;
+            } catch (RuntimeException e) {
+                encerrado = true;
+                chamada.onError(traduzir(e));
+            }
+        }
+
+        private void carregarProximaPagina() {
+            Page<PagamentoResponseDTO> page;
+            try {
+                page = listarPagina(request, PageRequest.of(proximaPagina++, tamanho, Sort.by("id")));
+            } catch (NotFoundException e) {
+                ultimaPagina = true;
+                return;
+            }
+            pendentes = page.iterator();
+            ultimaPagina = !page.hasNext();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fadesp.pagamento.controller.grpc;
+
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.tenant.ResolvedorTenant;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Equivalente gRPC do {@code TenantFilter}: lê o tenant do metadado {@code x-tenant-id} e o mantém
+ * em {@link ContextoTenant} em cada callback da chamada, que o gRPC pode entregar em threads diferentes.
+ */
+@Component
+@ConditionalOnProperty(name = "pagamento.grpc.enabled", havingValue = "true")
+public class TenantGrpcInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> TENANT = Metadata.Key.of(
+            ResolvedorTenant.CABECALHO.toLowerCase(Locale.ROOT), Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ResolvedorTenant resolvedorTenant;
+
+    public TenantGrpcInterceptor(ResolvedorTenant resolvedorTenant) {
+        this.resolvedorTenant = resolvedorTenant;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        String tenant = resolvedorTenant.resolver(headers.get(TENANT));
+        if (tenant == null) {
+            call.close(Status.INVALID_ARGUMENT.withDescription(
+                    "Metadado " + TENANT.name() + " ausente, inválido ou não reconhecido."), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        ServerCall.Listener<Q> delegado = ContextoTenant.executarComo(tenant, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(delegado) {
+            @Override
+            public void onMessage(Q message) {
+                ContextoTenant.executarComo(tenant, () -> super.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose() {
+                ContextoTenant.executarComo(tenant, () -> super.onHalfClose());
+            }
+
+            @Override
+            public void onCancel() {
+                ContextoTenant.executarComo(tenant, () -> super.onCancel());
+            }
+
+            @Override
+            public void onComplete() {
+                ContextoTenant.executarComo(tenant, () -> super.onComplete());
+            }
+
+            @Override
+            public void onReady() {
+                ContextoTenant.executarComo(tenant, () -> super.onReady());
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.fadesp.pagamento.infrastructure.cache;
+
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.entities.PagamentoArquivado;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "cacheshibernate")
+public class CachesHibernateEndpoint {
+
+    private final Statistics statistics;
+
+    public CachesHibernateEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public List<EstatisticaRegiaoCache> regioes() {
+        return List.of(
+                toEstatistica(Pagamento.REGIAO_CACHE, statistics.getDomainDataRegionStatistics(Pagamento.REGIAO_CACHE)),
+                toEstatistica(PagamentoArquivado.REGIAO_CACHE,
+                        statistics.getDomainDataRegionStatistics(PagamentoArquivado.REGIAO_CACHE)),
+                toEstatistica(PagamentoRepository.REGIAO_CACHE_CONSULTAS,
+                        statistics.getQueryRegionStatistics(PagamentoRepository.REGIAO_CACHE_CONSULTAS))
+        );
+    }
+
+    private static EstatisticaRegiaoCache toEstatistica(String regiao, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return new EstatisticaRegiaoCache(regiao, 0, 0, 0, 0.0);
+        }
+        long acertos = stats.getHitCount();
+        long falhas = stats.getMissCount();
+        long total = acertos + falhas;
+        double taxaAcerto = total == 0 ? 0.0 : (double) acertos / total;
+        return new EstatisticaRegiaoCache(regiao, acertos, falhas, stats.getPutCount(), taxaAcerto);
+    }
+
+    public record EstatisticaRegiaoCache(String regiao, long acertos, long falhas, long insercoes, double taxaAcerto) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.fadesp.pagamento.infrastructure.coalescencia;
+
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Aspect
+@Component
+// Precisa envolver o interceptador de transação: quem aguarda a chamada em andamento não deve segurar conexão.
+// Fica logo abaixo da observação, para que a espera de quem foi coalescido apareça no span.
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "pagamento.coalescencia.enabled", havingValue = "true", matchIfMissing = true)
+public class CoalescenciaAspect {
+
+    private final SingleFlight<List<Object>> singleFlight = new SingleFlight<>();
+    private final Counter executadas;
+    private final Counter coalescidas;
+
+    public CoalescenciaAspect(MeterRegistry meterRegistry) {
+        this.executadas = Counter.builder("pagamento.coalescencia.chamadas")
+                .tag("resultado", "executada")
+                .register(meterRegistry);
+        this.coalescidas = Counter.builder("pagamento.coalescencia.chamadas")
+                .tag("resultado", "coalescida")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.fadesp.pagamento.infrastructure.coalescencia.CoalescerChamadas)")
+    public Object coalescer(ProceedingJoinPoint joinPoint) throws Throwable {
+        // O tenant entra na chave: a mesma consulta de outra instituição tem outro resultado.
+        List<Object> chave = Arrays.asList(ContextoTenant.atual(), joinPoint.getSignature().toLongString(),
+                Arrays.asList(joinPoint.getArgs()));
+        boolean[] lider = {false};
+
+        Object resultado = singleFlight.executar(chave, () -> {
+            lider[0] = true;
+            return joinPoint.proceed();
+        });
+
+        (lider[0] ? executadas : coalescidas).increment();
+        return resultado;
+    }
+}
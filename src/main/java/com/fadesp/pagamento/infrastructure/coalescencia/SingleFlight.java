@@ -0,0 +1,49 @@
+package com.fadesp.pagamento.infrastructure.coalescencia;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class SingleFlight<K> {
+
+    private final ConcurrentMap<K, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface Chamada<T> {
+        T executar() throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executar(K chave, Chamada<T> chamada) throws Throwable {
+        CompletableFuture<Object> proprio = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, proprio);
+
+        if (existente != null) {
+            return (T) aguardar(existente);
+        }
+
+        try {
+            T resultado = chamada.executar();
+            proprio.complete(resultado);
+            return resultado;
+        } catch (Throwable t) {
+            proprio.completeExceptionally(t);
+            throw t;
+        } finally {
+            emAndamento.remove(chave, proprio);
+        }
+    }
+
+    public int chamadasEmAndamento() {
+        return emAndamento.size();
+    }
+
+    private static Object aguardar(CompletableFuture<Object> futuro) throws Throwable {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fadesp.pagamento.infrastructure.cofre;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Primitivas criptográficas do cofre de cartões. A partir de uma chave mestra (256 bits) derivam-se,
+ * via HMAC-SHA256, três subchaves independentes: cifra AES-GCM do PAN, hash com chave (índice de
+ * comparação) e geração determinística de tokens.
+ * <p>
+ * {@link Cipher} e {@link Mac} são caros de instanciar e não são thread-safe; cada thread reaproveita
+ * as suas instâncias, de modo que um lote inteiro é processado sem novas alocações de provedores.
+ */
+public final class CifradorCartao {
+
+    public static final String PREFIXO_TOKEN = "tok_";
+    public static final int TAMANHO_TOKEN = 20;
+
+    private static final String HMAC = "HmacSHA256";
+    private static final String AES_GCM = "AES/GCM/NoPadding";
+    private static final int TAMANHO_IV = 12;
+    private static final int TAMANHO_TAG_BITS = 128;
+    private static final char[] BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final SecretKeySpec chaveCifra;
+    private final SecretKeySpec chaveHash;
+    private final SecretKeySpec chaveToken;
+    private final SecureRandom random = new SecureRandom();
+
+    private final ThreadLocal<Cipher> cifras = ThreadLocal.withInitial(() -> instanciar(() -> Cipher.getInstance(AES_GCM)));
+    private final ThreadLocal<Mac> macHash;
+    private final ThreadLocal<Mac> macToken;
+
+    public CifradorCartao(String chaveMestraBase64) {
+        byte[] mestra = Base64.getDecoder().decode(chaveMestraBase64);
+        if (mestra.length != 32) {
+            throw new IllegalArgumentException("A chave mestra do cofre deve ter 256 bits (32 bytes em Base64).");
+        }
+        SecretKeySpec chaveMestra = new SecretKeySpec(mestra, HMAC);
+        this.chaveCifra = new SecretKeySpec(derivar(chaveMestra, "cofre-cartao/cifra"), "AES");
+        this.chaveHash = new SecretKeySpec(derivar(chaveMestra, "cofre-cartao/hash"), HMAC);
+        this.chaveToken = new SecretKeySpec(derivar(chaveMestra, "cofre-cartao/token"), HMAC);
+        this.macHash = ThreadLocal.withInitial(() -> iniciarMac(chaveHash));
+        this.macToken = ThreadLocal.withInitial(() -> iniciarMac(chaveToken));
+    }
+
+    /** Token estável para o PAN: o mesmo cartão sempre gera o mesmo token. */
+    public String token(String pan) {
+        byte[] digest = macToken.get().doFinal(pan.getBytes(StandardCharsets.US_ASCII));
+        long alto = ByteBuffer.wrap(digest, 0, 8).getLong();
+        long baixo = ByteBuffer.wrap(digest, 8, 8).getLong();
+        char[] token = new char[TAMANHO_TOKEN];
+        PREFIXO_TOKEN.getChars(0, PREFIXO_TOKEN.length(), token, 0);
+        for (int i = PREFIXO_TOKEN.length(); i < TAMANHO_TOKEN; i++) {
+            long fonte = (i & 1) == 0 ? alto : baixo;
+            token[i] = BASE62[(int) Long.remainderUnsigned(fonte, 62)];
+            if ((i & 1) == 0) {
+                alto = Long.divideUnsigned(alto, 62);
+            } else {
+                baixo = Long.divideUnsigned(baixo, 62);
+            }
+        }
+        return new String(token);
+    }
+
+    /** HMAC-SHA256 do PAN, usado para comparar cartões sem decifrá-los. */
+    public byte[] hash(String pan) {
+        return macHash.get().doFinal(pan.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Cifra o PAN com AES-GCM, vinculando o texto cifrado ao token (AAD). Formato: IV || cifrado+tag. */
+    public byte[] cifrar(String pan, String token) {
+        byte[] iv = new byte[TAMANHO_IV];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = cifras.get();
+            cipher.init(Cipher.ENCRYPT_MODE, chaveCifra, new GCMParameterSpec(TAMANHO_TAG_BITS, iv));
+            cipher.updateAAD(token.getBytes(StandardCharsets.US_ASCII));
+            byte[] cifrado = cipher.doFinal(pan.getBytes(StandardCharsets.US_ASCII));
+            return ByteBuffer.allocate(TAMANHO_IV + cifrado.length).put(iv).put(cifrado).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao cifrar número do cartão", e);
+        }
+    }
+
+    public String decifrar(byte[] conteudo, String token) {
+        try {
+            Cipher cipher = cifras.get();
+            cipher.init(Cipher.DECRYPT_MODE, chaveCifra, new GCMParameterSpec(TAMANHO_TAG_BITS, conteudo, 0, TAMANHO_IV));
+            cipher.updateAAD(token.getBytes(StandardCharsets.US_ASCII));
+            byte[] pan = cipher.doFinal(conteudo, TAMANHO_IV, conteudo.length - TAMANHO_IV);
+            return new String(pan, StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao decifrar número do cartão do token " + token, e);
+        }
+    }
+
+    public static boolean isToken(String valor) {
+        return valor != null && valor.length() == TAMANHO_TOKEN && valor.startsWith(PREFIXO_TOKEN);
+    }
+
+    private static byte[] derivar(SecretKeySpec chaveMestra, String rotulo) {
+        return iniciarMac(chaveMestra).doFinal(rotulo.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac iniciarMac(SecretKeySpec chave) {
+        return instanciar(() -> {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(chave);
+            return mac;
+        });
+    }
+
+    private interface Fabrica<T> {
+        T criar() throws GeneralSecurityException;
+    }
+
+    private static <T> T instanciar(Fabrica<T> fabrica) {
+        try {
+            return fabrica.criar();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Provedor criptográfico indisponível", e);
+        }
+    }
+}
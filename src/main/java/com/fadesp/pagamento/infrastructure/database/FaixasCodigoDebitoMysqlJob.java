@@ -0,0 +1,162 @@
+package com.fadesp.pagamento.infrastructure.database;
+
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Mantém uma partição da tabela {@code pagamento} por faixa de código de débito configurada em
+ * {@code pagamento.codigo-debito.faixas.<emissor>=<inicio>-<fim>}. Cada faixa vira a partição
+ * {@code p_<emissor>}; os intervalos entre faixas ficam em {@code p_ate_<inicio>} e o restante em
+ * {@code p_max}. Só cria limites que ainda não existem, dividindo a partição que os contém. No modo
+ * SCHEMA, faz o mesmo na tabela de cada schema de tenant.
+ */
+@Component
+@Profile("mysql")
+public class FaixasCodigoDebitoMysqlJob {
+
+    private static final Logger log = LoggerFactory.getLogger(FaixasCodigoDebitoMysqlJob.class);
+    private static final String TABELA = "pagamento";
+    private static final String PARTICAO_FINAL = "p_max";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VarreduraTenants varreduraTenants;
+    private final List<Faixa> faixas;
+
+    @Autowired
+    public FaixasCodigoDebitoMysqlJob(JdbcTemplate jdbcTemplate, VarreduraTenants varreduraTenants, Environment environment) {
+        this(jdbcTemplate, varreduraTenants, Binder.get(environment)
+                .bind("pagamento.codigo-debito.faixas", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .entrySet().stream()
+                .map(e -> Faixa.de(e.getKey(), e.getValue()))
+                .toList());
+    }
+
+    FaixasCodigoDebitoMysqlJob(JdbcTemplate jdbcTemplate, VarreduraTenants varreduraTenants, List<Faixa> faixas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.varreduraTenants = varreduraTenants;
+        this.faixas = ordenarSemSobreposicao(faixas);
+    }
+
+    public record Faixa(String emissor, long inicio, long fim) {
+
+        public Faixa {
+            if (inicio < 0 || fim < inicio || fim == Long.MAX_VALUE) {
+                throw new IllegalArgumentException("Faixa de códigos de débito inválida para " + emissor);
+            }
+        }
+
+        public static Faixa de(String emissor, String intervalo) {
+            String[] limites = intervalo.strip().split("\\s*-\\s*");
+            if (limites.length != 2) {
+                throw new IllegalArgumentException(
+                        "Faixa de " + emissor + " deve ter o formato <inicio>-<fim>: " + intervalo);
+            }
+            return new Faixa(emissor, Long.parseLong(limites[0]), Long.parseLong(limites[1]));
+        }
+
+        public String particao() {
+            String nome = "p_" + emissor.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+            if (nome.equals(PARTICAO_FINAL) || nome.startsWith("p_ate_")) {
+                throw new IllegalArgumentException("Nome de emissor reservado: " + emissor);
+            }
+            return nome;
+        }
+    }
+
+    private static List<Faixa> ordenarSemSobreposicao(List<Faixa> faixas) {
+        List<Faixa> ordenadas = new ArrayList<>(faixas);
+        ordenadas.sort(Comparator.comparingLong(Faixa::inicio));
+        ordenadas.forEach(Faixa::particao);
+        for (int i = 1; i < ordenadas.size(); i++) {
+            if (ordenadas.get(i).inicio() <= ordenadas.get(i - 1).fim()) {
+                throw new IllegalArgumentException("Faixas de códigos de débito sobrepostas: "
+                        + ordenadas.get(i - 1).emissor() + " e " + ordenadas.get(i).emissor());
+            }
+        }
+        return List.copyOf(ordenadas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void garantirParticoesPorFaixa() {
+        if (faixas.isEmpty()) {
+            return;
+        }
+        varreduraTenants.paraCadaSchema(this::garantirParticoesPorFaixa);
+    }
+
+    /** @param schema schema da tabela, ou {@code null} para o da conexão */
+    private void garantirParticoesPorFaixa(String schema) {
+        NavigableMap<Long, String> limites = new TreeMap<>();
+        jdbcTemplate.query("""
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION
+                  FROM information_schema.PARTITIONS
+                 WHERE TABLE_SCHEMA = COALESCE(?, DATABASE())
+                   AND TABLE_NAME = ?
+                   AND PARTITION_NAME IS NOT NULL
+                """, rs -> {
+            String descricao = rs.getString("PARTITION_DESCRIPTION");
+            if (!"MAXVALUE".equalsIgnoreCase(descricao)) {
+                limites.put(Long.parseLong(descricao), rs.getString("PARTITION_NAME"));
+            }
+        }, schema, TABELA);
+
+        String tabela = schema == null ? TABELA : "`" + schema + "`." + TABELA;
+        for (String comando : planejar(tabela, faixas, limites)) {
+            jdbcTemplate.execute(comando);
+            log.info("Partição por faixa de código de débito criada: {}", comando);
+        }
+    }
+
+    /**
+     * Comandos que criam os limites ausentes de cada faixa, na ordem em que devem rodar.
+     *
+     * @param limites limite superior exclusivo de cada partição existente; atualizado com os novos
+     */
+    public static List<String> planejar(List<Faixa> faixas, NavigableMap<Long, String> limites) {
+        return planejar(TABELA, faixas, limites);
+    }
+
+    static List<String> planejar(String tabela, List<Faixa> faixas, NavigableMap<Long, String> limites) {
+        List<String> comandos = new ArrayList<>();
+        for (Faixa faixa : ordenarSemSobreposicao(faixas)) {
+            if (faixa.inicio() > 1) {
+                dividir(tabela, limites, faixa.inicio(), "p_ate_" + faixa.inicio(), comandos);
+            }
+            dividir(tabela, limites, faixa.fim() + 1, faixa.particao(), comandos);
+        }
+        return comandos;
+    }
+
+    private static void dividir(String tabela, NavigableMap<Long, String> limites, long limite, String nome,
+                                List<String> comandos) {
+        if (limites.containsKey(limite)) {
+            return;
+        }
+        Map.Entry<Long, String> seguinte = limites.higherEntry(limite);
+        String particao = seguinte == null ? PARTICAO_FINAL : seguinte.getValue();
+        String limiteAtual = seguinte == null ? "MAXVALUE" : "(" + seguinte.getKey() + ")";
+        comandos.add("ALTER TABLE " + tabela + " REORGANIZE PARTITION " + particao + " INTO ("
+                + "PARTITION " + nome + " VALUES LESS THAN (" + limite + "), "
+                + "PARTITION " + particao + " VALUES LESS THAN " + limiteAtual + ")");
+        limites.put(limite, nome);
+    }
+}
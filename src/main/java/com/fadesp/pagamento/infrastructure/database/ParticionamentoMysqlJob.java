@@ -0,0 +1,70 @@
+package com.fadesp.pagamento.infrastructure.database;
+
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/** Mantém as partições mensais futuras de {@code pagamento_arquivo}; no modo SCHEMA, em cada schema de tenant. */
+@Component
+@Profile("mysql")
+public class ParticionamentoMysqlJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoMysqlJob.class);
+    private static final DateTimeFormatter NOME_PARTICAO = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String TABELA = "pagamento_arquivo";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VarreduraTenants varreduraTenants;
+    private final int mesesAFrente;
+
+    public ParticionamentoMysqlJob(JdbcTemplate jdbcTemplate,
+                                   VarreduraTenants varreduraTenants,
+                                   @Value("${pagamento.particionamento.meses-a-frente:3}") int mesesAFrente) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.varreduraTenants = varreduraTenants;
+        this.mesesAFrente = mesesAFrente;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${pagamento.particionamento.cron:0 0 2 1 * *}")
+    public void garantirParticoesFuturas() {
+        YearMonth mes = YearMonth.now();
+        varreduraTenants.paraCadaSchema(schema -> {
+            for (int i = 0; i <= mesesAFrente; i++) {
+                criarParticaoSeAusente(schema, mes.plusMonths(i));
+            }
+        });
+    }
+
+    /** @param schema schema da tabela, ou {@code null} para o da conexão */
+    private void criarParticaoSeAusente(String schema, YearMonth mes) {
+        String nome = mes.format(NOME_PARTICAO);
+        Integer existentes = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                  FROM information_schema.PARTITIONS
+                 WHERE TABLE_SCHEMA = COALESCE(?, DATABASE())
+                   AND TABLE_NAME = ?
+                   AND PARTITION_NAME = ?
+                """, Integer.class, schema, TABELA, nome);
+
+        if (existentes != null && existentes > 0) {
+            return;
+        }
+
+        String tabela = schema == null ? TABELA : "`" + schema + "`." + TABELA;
+        jdbcTemplate.execute("ALTER TABLE " + tabela + " REORGANIZE PARTITION p_max INTO ("
+                + "PARTITION " + nome + " VALUES LESS THAN ('" + mes.plusMonths(1).atDay(1) + "'), "
+                + "PARTITION p_max VALUES LESS THAN (MAXVALUE))");
+        log.info("Partição {} criada na tabela {}", nome, tabela);
+    }
+}
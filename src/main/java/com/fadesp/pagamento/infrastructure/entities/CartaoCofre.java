@@ -0,0 +1,100 @@
+package com.fadesp.pagamento.infrastructure.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "cofre_cartao",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cofre_cartao_hash_pan", columnNames = "hash_pan"))
+public class CartaoCofre implements Persistable<String> {
+
+    @Id
+    @Column(name = "token", length = 20)
+    private String token;
+
+    @Column(name = "hash_pan", nullable = false, length = 32)
+    private byte[] hashPan;
+
+    @Column(name = "pan_cifrado", nullable = false, length = 64)
+    private byte[] panCifrado;
+
+    @Column(name = "ultimos_digitos", nullable = false, length = 4)
+    private String ultimosDigitos;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private OffsetDateTime criadoEm;
+
+    @Transient
+    private boolean novo = true;
+
+
+    @Override
+    public String getId() {
+        return token;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public byte[] getHashPan() {
+        return hashPan;
+    }
+
+    public void setHashPan(byte[] hashPan) {
+        this.hashPan = hashPan;
+    }
+
+    public byte[] getPanCifrado() {
+        return panCifrado;
+    }
+
+    public void setPanCifrado(byte[] panCifrado) {
+        this.panCifrado = panCifrado;
+    }
+
+    public String getUltimosDigitos() {
+        return ultimosDigitos;
+    }
+
+    public void setUltimosDigitos(String ultimosDigitos) {
+        this.ultimosDigitos = ultimosDigitos;
+    }
+
+    public OffsetDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CartaoCofre that = (CartaoCofre) o;
+        return Objects.equals(token, that.token);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(token);
+    }
+}
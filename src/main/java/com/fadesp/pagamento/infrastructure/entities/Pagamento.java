@@ -2,35 +2,51 @@ package com.fadesp.pagamento.infrastructure.entities;
 
 import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.TenantId;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Pagamento.REGIAO_CACHE)
 @Table(name = "pagamento",
         indexes = {
                 @Index(name = "idx_pagamento_codigo_debito", columnList = "codigo_debito"),
-                @Index(name = "idx_pagamento_cpf_cnpj", columnList = "cpf_cnpj_pagador"),
-                @Index(name = "idx_pagamento_status", columnList = "status")
+                @Index(name = "idx_pagamento_tenant_cpf_cnpj", columnList = "tenant_id, cpf_cnpj_pagador"),
+                @Index(name = "idx_pagamento_tenant_status", columnList = "tenant_id, status"),
+                @Index(name = "idx_pagamento_ativo_atualizado_em", columnList = "ativo, atualizado_em")
         })
 public class Pagamento implements Serializable {
 
     @Serial
     private static final long serialVersionUID = 1L;
 
+    public static final String REGIAO_CACHE = "pagamento";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Preenchido pelo Hibernate com o tenant da sessão, que também filtra todas as consultas. */
+    @TenantId
+    @Column(name = "tenant_id", length = 64, nullable = false, updatable = false)
+    private String tenant;
+
     @NotNull
     @Positive
     @Column(name = "codigo_debito", unique = true, nullable = false, updatable = false)
-    private Integer codigoDebito;
+    private Long codigoDebito;
 
     @NotBlank
     @Size(min = 11, max = 14)
@@ -42,10 +58,8 @@ public class Pagamento implements Serializable {
     private MetodoPagamentoEnum metodoPagamentoEnum;
 
     @NotNull
-    @DecimalMin("0.01")
-    @Digits(integer = 15, fraction = 2)
     @Column(name = "valor_transacao", nullable = false, precision = 17, scale = 2)
-    private BigDecimal valorTransacao;
+    private Dinheiro valorTransacao;
 
     @Size(max = 20)
     @Column(name = "numero_cartao", length = 20)
@@ -58,6 +72,27 @@ public class Pagamento implements Serializable {
     @Column(name = "ativo", nullable = false)
     private Boolean ativo = Boolean.TRUE;
 
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private OffsetDateTime criadoEm;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private OffsetDateTime atualizadoEm;
+
+
+    @PrePersist
+    void prePersist() {
+        if (tenant == null) {
+            tenant = ContextoTenant.atualOuPadrao();
+        }
+        if (atualizadoEm == null) {
+            registrarAlteracao();
+        }
+    }
+
+    private void registrarAlteracao() {
+        this.atualizadoEm = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 
     public Long getId() {
         return id;
@@ -67,11 +102,19 @@ public class Pagamento implements Serializable {
         this.id = id;
     }
 
-    public @NotNull @Positive Integer getCodigoDebito() {
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public @NotNull @Positive Long getCodigoDebito() {
         return codigoDebito;
     }
 
-    public void setCodigoDebito(@NotNull @Positive Integer codigoDebito) {
+    public void setCodigoDebito(@NotNull @Positive Long codigoDebito) {
         this.codigoDebito = codigoDebito;
     }
 
@@ -91,16 +134,12 @@ public class Pagamento implements Serializable {
         this.metodoPagamentoEnum = metodoPagamentoEnum;
     }
 
-    public @NotNull @DecimalMin("0.01") @Digits(integer = 15, fraction = 2) BigDecimal getValorTransacao() {
+    public @NotNull Dinheiro getValorTransacao() {
         return valorTransacao;
     }
 
-    public void setValorTransacao(BigDecimal valorTransacao) {
-        if (valorTransacao != null) {
-            this.valorTransacao = valorTransacao.setScale(2, RoundingMode.HALF_UP);
-        } else {
-            this.valorTransacao = null;
-        }
+    public void setValorTransacao(Dinheiro valorTransacao) {
+        this.valorTransacao = valorTransacao;
     }
 
     public @Size(max = 20) String getNumeroCartao() {
@@ -116,7 +155,10 @@ public class Pagamento implements Serializable {
     }
 
     public void setStatus(StatusPagamentoEnum status) {
-        this.status = status;
+        if (this.status != status) {
+            this.status = status;
+            registrarAlteracao();
+        }
     }
 
     public Boolean getAtivo() {
@@ -124,7 +166,26 @@ public class Pagamento implements Serializable {
     }
 
     public void setAtivo(Boolean ativo) {
-        this.ativo = ativo;
+        if (!Objects.equals(this.ativo, ativo)) {
+            this.ativo = ativo;
+            registrarAlteracao();
+        }
+    }
+
+    public OffsetDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(OffsetDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public OffsetDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(OffsetDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
     }
 
     @Override
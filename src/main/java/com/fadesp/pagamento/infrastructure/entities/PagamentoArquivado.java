@@ -0,0 +1,196 @@
+package com.fadesp.pagamento.infrastructure.entities;
+
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+@Entity
+@Cacheable
+// Não é imutável: a tokenização de cartões legados ainda reescreve numero_cartao por UPDATE em massa.
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = PagamentoArquivado.REGIAO_CACHE)
+@Table(name = "pagamento_arquivo",
+        indexes = {
+                @Index(name = "idx_pagamento_arquivo_codigo_debito", columnList = "codigo_debito"),
+                @Index(name = "idx_pagamento_arquivo_tenant_cpf_cnpj", columnList = "tenant_id, cpf_cnpj_pagador")
+        })
+public class PagamentoArquivado implements Persistable<Long>, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final String REGIAO_CACHE = "pagamento-arquivo";
+
+    @Id
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", length = 64, nullable = false, updatable = false)
+    private String tenant;
+
+    @Column(name = "codigo_debito", nullable = false, updatable = false)
+    private Long codigoDebito;
+
+    @Column(name = "cpf_cnpj_pagador", length = 14, nullable = false)
+    private String cpfCnpjPagador;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private MetodoPagamentoEnum metodoPagamentoEnum;
+
+    @Column(name = "valor_transacao", nullable = false, precision = 17, scale = 2)
+    private Dinheiro valorTransacao;
+
+    @Column(name = "numero_cartao", length = 20)
+    private String numeroCartao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 40)
+    private StatusPagamentoEnum status;
+
+    @Column(name = "ativo", nullable = false)
+    private Boolean ativo;
+
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private OffsetDateTime criadoEm;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private OffsetDateTime atualizadoEm;
+
+    @Column(name = "arquivado_em", nullable = false, updatable = false)
+    private OffsetDateTime arquivadoEm;
+
+    @Transient
+    private boolean novo = true;
+
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    public Long getCodigoDebito() {
+        return codigoDebito;
+    }
+
+    public void setCodigoDebito(Long codigoDebito) {
+        this.codigoDebito = codigoDebito;
+    }
+
+    public String getCpfCnpjPagador() {
+        return cpfCnpjPagador;
+    }
+
+    public void setCpfCnpjPagador(String cpfCnpjPagador) {
+        this.cpfCnpjPagador = cpfCnpjPagador;
+    }
+
+    public MetodoPagamentoEnum getMetodoPagamentoEnum() {
+        return metodoPagamentoEnum;
+    }
+
+    public void setMetodoPagamentoEnum(MetodoPagamentoEnum metodoPagamentoEnum) {
+        this.metodoPagamentoEnum = metodoPagamentoEnum;
+    }
+
+    public Dinheiro getValorTransacao() {
+        return valorTransacao;
+    }
+
+    public void setValorTransacao(Dinheiro valorTransacao) {
+        this.valorTransacao = valorTransacao;
+    }
+
+    public String getNumeroCartao() {
+        return numeroCartao;
+    }
+
+    public void setNumeroCartao(String numeroCartao) {
+        this.numeroCartao = numeroCartao;
+    }
+
+    public StatusPagamentoEnum getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusPagamentoEnum status) {
+        this.status = status;
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+
+    public OffsetDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(OffsetDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public OffsetDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(OffsetDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    public OffsetDateTime getArquivadoEm() {
+        return arquivadoEm;
+    }
+
+    public void setArquivadoEm(OffsetDateTime arquivadoEm) {
+        this.arquivadoEm = arquivadoEm;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PagamentoArquivado that = (PagamentoArquivado) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,84 @@
+package com.fadesp.pagamento.infrastructure.entities;
+
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Uma transição de um pagamento. A tabela só recebe INSERTs, em lote, pelo {@code GravadorHistorico};
+ * não há chave estrangeira para {@code pagamento}, porque o histórico sobrevive ao arquivamento.
+ */
+@Entity
+@Immutable
+@Table(name = "pagamento_historico",
+        indexes = {
+                @Index(name = "idx_pagamento_historico_pagamento", columnList = "pagamento_id, id"),
+                @Index(name = "idx_pagamento_historico_ocorrido_em", columnList = "ocorrido_em")
+        })
+public class PagamentoHistorico {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", length = 64, nullable = false, updatable = false)
+    private String tenant;
+
+    @Column(name = "pagamento_id", nullable = false)
+    private Long pagamentoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operacao", nullable = false, length = 20)
+    private OperacaoHistoricoEnum operacao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_anterior", nullable = false, length = 40)
+    private StatusPagamentoEnum statusAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_novo", nullable = false, length = 40)
+    private StatusPagamentoEnum statusNovo;
+
+    @Column(name = "ocorrido_em", nullable = false)
+    private OffsetDateTime ocorridoEm;
+
+    @Column(name = "ator", length = 100, nullable = false)
+    private String ator;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public Long getPagamentoId() {
+        return pagamentoId;
+    }
+
+    public OperacaoHistoricoEnum getOperacao() {
+        return operacao;
+    }
+
+    public StatusPagamentoEnum getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public StatusPagamentoEnum getStatusNovo() {
+        return statusNovo;
+    }
+
+    public OffsetDateTime getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public String getAtor() {
+        return ator;
+    }
+}
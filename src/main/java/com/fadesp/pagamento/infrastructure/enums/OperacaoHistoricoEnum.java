@@ -0,0 +1,8 @@
+package com.fadesp.pagamento.infrastructure.enums;
+
+public enum OperacaoHistoricoEnum {
+    /** Mudança de status (PATCH de status ou conciliação). */
+    STATUS,
+    /** Exclusão lógica: o status não muda, o pagamento deixa de estar ativo. */
+    EXCLUSAO
+}
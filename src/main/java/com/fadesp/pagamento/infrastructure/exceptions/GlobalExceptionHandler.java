@@ -1,13 +1,22 @@
 package com.fadesp.pagamento.infrastructure.exceptions;
 
+import com.fadesp.pagamento.infrastructure.validation.ValorMonetario;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import com.fadesp.pagamento.infrastructure.valor.DinheiroJson;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -24,6 +33,8 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
 
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<Problem> handleNotFound(NotFoundException ex, HttpServletRequest req) {
@@ -35,6 +46,12 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.CONFLICT, "Conflito de dados", ex.getMessage(), req.getRequestURI());
     }
 
+    @ExceptionHandler(RiscoRejeitadoException.class)
+    public ResponseEntity<Problem> handleRiscoRejeitado(RiscoRejeitadoException ex, HttpServletRequest req) {
+        return build(HttpStatus.UNPROCESSABLE_ENTITY, "Pagamento recusado pela análise de risco",
+                ex.getMessage(), req.getRequestURI());
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Problem> handleBusiness(BusinessException ex, HttpServletRequest req) {
         return build(HttpStatus.BAD_REQUEST, "Regra de negócio violada", ex.getMessage(), req.getRequestURI());
@@ -91,6 +108,18 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<Problem> handleHttpMessageNotReadable(HttpMessageNotReadableException ex,
                                                                 HttpServletRequest req) {
+        if (ex.getCause() instanceof DinheiroJson.ValorForaDoLimiteException foraDoLimite) {
+            // Mesmo corpo de quando o limite era checado pelo @Digits, depois da leitura.
+            Problem problem = Problem.builder()
+                    .timestamp(OffsetDateTime.now())
+                    .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                    .error("Dados inválidos")
+                    .message("Um ou mais campos estão inválidos.")
+                    .path(req.getRequestURI())
+                    .validationErrors(Map.of(campo(foraDoLimite), List.of(ValorMonetario.MENSAGEM_MAXIMO)))
+                    .build();
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(problem);
+        }
         String detail = "Corpo da requisição inválido ou malformado.";
 
 
@@ -98,11 +127,30 @@ public class GlobalExceptionHandler {
             Object[] accepted = ife.getTargetType().getEnumConstants();
             detail = "Valor inválido: '" + ife.getValue()
                     + "'. Aceitos: " + List.of(accepted);
+        } else if (ex.getCause() instanceof InvalidFormatException ife && ife.getTargetType() == Dinheiro.class) {
+            detail = "Valor monetário inválido: '" + ife.getValue()
+                    + "'. Use um número com no máximo duas casas decimais.";
         }
 
         return build(HttpStatus.BAD_REQUEST, "Formato inválido", detail, req.getRequestURI());
     }
 
+    /** Caminho do campo no corpo, no formato dos erros de validação ({@code valor}, {@code [0].valor}). */
+    private static String campo(JsonMappingException ex) {
+        StringBuilder caminho = new StringBuilder();
+        for (JsonMappingException.Reference referencia : ex.getPath()) {
+            if (referencia.getFieldName() != null) {
+                if (!caminho.isEmpty()) {
+                    caminho.append('.');
+                }
+                caminho.append(referencia.getFieldName());
+            } else {
+                caminho.append('[').append(referencia.getIndex()).append(']');
+            }
+        }
+        return caminho.isEmpty() ? "valor" : caminho.toString();
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Problem> handleTypeMismatch(MethodArgumentTypeMismatchException ex,
                                                       HttpServletRequest req) {
@@ -127,15 +175,39 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Problem> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest req) {
+        log.warn("Violação de integridade em {}: {}", req.getRequestURI(), ex.getMostSpecificCause().getMessage());
         String detail = "Violação de integridade de dados. " +
                 "Verifique unicidade/relacionamentos ou formato dos campos.";
         return build(HttpStatus.CONFLICT, "Integridade de dados", detail, req.getRequestURI());
     }
 
+    /** Sem conexão disponível: pool esgotado, limite de conexões do tenant atingido ou banco fora do ar. */
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<Problem> handleSemConexao(Exception ex, HttpServletRequest req) {
+        log.warn("Sem conexão com o banco em {}: {}", req.getRequestURI(), ex.getMessage());
+        ResponseEntity<Problem> resposta = build(HttpStatus.SERVICE_UNAVAILABLE, "Serviço indisponível",
+                "Banco de dados temporariamente indisponível. Tente novamente em instantes.", req.getRequestURI());
+        return ResponseEntity.status(resposta.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(resposta.getBody());
+    }
+
+
+
+    @ExceptionHandler(IndisponivelException.class)
+    public ResponseEntity<Problem> handleIndisponivel(IndisponivelException ex, HttpServletRequest req) {
+        ResponseEntity<Problem> resposta = build(HttpStatus.SERVICE_UNAVAILABLE, "Serviço indisponível",
+                ex.getMessage(), req.getRequestURI());
+        return ResponseEntity.status(resposta.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getTentarNovamenteEmSegundos()))
+                .body(resposta.getBody());
+    }
+
 
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Problem> handleGeneric(Exception ex, HttpServletRequest req) {
+        log.error("Erro inesperado em {} {}", req.getMethod(), req.getRequestURI(), ex);
         return build(HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno",
                 "Ocorreu um erro inesperado. Tente novamente mais tarde.", req.getRequestURI());
     }
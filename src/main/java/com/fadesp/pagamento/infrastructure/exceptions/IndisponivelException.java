@@ -0,0 +1,20 @@
+package com.fadesp.pagamento.infrastructure.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Recurso temporariamente indisponível: responde 503 com {@code Retry-After}. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IndisponivelException extends RuntimeException {
+
+    private final long tentarNovamenteEmSegundos;
+
+    public IndisponivelException(String message, long tentarNovamenteEmSegundos) {
+        super(message);
+        this.tentarNovamenteEmSegundos = tentarNovamenteEmSegundos;
+    }
+
+    public long getTentarNovamenteEmSegundos() {
+        return tentarNovamenteEmSegundos;
+    }
+}
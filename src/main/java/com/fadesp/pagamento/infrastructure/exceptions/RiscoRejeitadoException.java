@@ -0,0 +1,19 @@
+package com.fadesp.pagamento.infrastructure.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class RiscoRejeitadoException extends RuntimeException {
+
+    private final String regra;
+
+    public RiscoRejeitadoException(String regra, String message) {
+        super(message);
+        this.regra = regra;
+    }
+
+    public String getRegra() {
+        return regra;
+    }
+}
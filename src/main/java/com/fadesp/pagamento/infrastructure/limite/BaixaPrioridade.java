@@ -0,0 +1,17 @@
+package com.fadesp.pagamento.infrastructure.limite;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chamada que o {@link LimiteAdaptativoAspect} pode recusar quando o serviço está acima do limite
+ * de concorrência. As demais chamadas do serviço contam no limite, mas sempre passam.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BaixaPrioridade {
+}
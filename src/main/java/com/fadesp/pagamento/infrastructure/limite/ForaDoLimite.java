@@ -0,0 +1,17 @@
+package com.fadesp.pagamento.infrastructure.limite;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chamada só em memória (microssegundos, sem banco), ignorada pelo {@link LimiteAdaptativoAspect}:
+ * não conta na concorrência nem na latência, que medem o que depende do banco.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ForaDoLimite {
+}
@@ -0,0 +1,123 @@
+package com.fadesp.pagamento.infrastructure.limite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Limite de concorrência que se ajusta à latência observada, no estilo do gradiente: a cada
+ * {@code amostrasPorJanela} chamadas concluídas compara a latência média da janela com a de longo
+ * prazo (média móvel lenta). Se a da janela passou da de longo prazo vezes {@code tolerancia}, o
+ * limite cai na mesma proporção (no máximo pela metade); com threads esperando conexão no pool, cai
+ * pelo {@code fatorReducao}, mesmo sem latência alta. Sem sinal de sobrecarga, sobe de um em um,
+ * mas só quando a janela chegou perto do limite: ociosidade não o infla.
+ * <p>
+ * Chamadas prioritárias sempre entram e contam na concorrência; as demais são recusadas acima do
+ * limite.
+ */
+public class LimiteAdaptativo {
+
+    private static final double SUAVIZACAO_LONGO_PRAZO = 0.05;
+    private static final double GRADIENTE_MINIMO = 0.5;
+    private static final double USO_PARA_CRESCER = 0.8;
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final double fatorReducao;
+    private final int amostrasPorJanela;
+    private final IntSupplier pendentesPool;
+
+    private final AtomicInteger emExecucao = new AtomicInteger();
+    private final AtomicInteger picoJanela = new AtomicInteger();
+    private final AtomicLong amostrasJanela = new AtomicLong();
+    private final AtomicLong somaJanelaNanos = new AtomicLong();
+    private final ReentrantLock recalculo = new ReentrantLock();
+    private volatile int limite;
+    private double latenciaLongoPrazo;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, double tolerancia, double fatorReducao,
+                            int amostrasPorJanela, IntSupplier pendentesPool) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo
+                || tolerancia < 1 || fatorReducao <= 0 || fatorReducao >= 1 || amostrasPorJanela < 1) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o limite adaptativo");
+        }
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.fatorReducao = fatorReducao;
+        this.amostrasPorJanela = amostrasPorJanela;
+        this.pendentesPool = pendentesPool;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmExecucao() {
+        return emExecucao.get();
+    }
+
+    /**
+     * @return {@code false} se a chamada foi recusada; com {@code true}, chamar {@link #liberar(long)} ou
+     * {@link #liberarSemAmostra()} ao fim
+     */
+    public boolean adquirir(boolean prioritaria) {
+        int atual = emExecucao.incrementAndGet();
+        if (!prioritaria && atual > limite) {
+            emExecucao.decrementAndGet();
+            return false;
+        }
+        picoJanela.accumulateAndGet(atual, Math::max);
+        return true;
+    }
+
+    /** Fim de uma chamada atendida sem o banco: deixa a concorrência, mas não entra na janela de latência. */
+    public void liberarSemAmostra() {
+        emExecucao.decrementAndGet();
+    }
+
+    public void liberar(long latenciaNanos) {
+        emExecucao.decrementAndGet();
+        somaJanelaNanos.addAndGet(latenciaNanos);
+        if (amostrasJanela.incrementAndGet() >= amostrasPorJanela && recalculo.tryLock()) {
+            try {
+                recalcular();
+            } finally {
+                recalculo.unlock();
+            }
+        }
+    }
+
+    private void recalcular() {
+        long amostras = amostrasJanela.getAndSet(0);
+        long soma = somaJanelaNanos.getAndSet(0);
+        int pico = picoJanela.getAndSet(0);
+        if (amostras == 0) {
+            return;
+        }
+        double latenciaJanela = Math.max(1, (double) soma / amostras);
+        if (latenciaLongoPrazo == 0) {
+            latenciaLongoPrazo = latenciaJanela;
+        }
+        double gradiente = Math.max(GRADIENTE_MINIMO,
+                Math.min(1.0, tolerancia * latenciaLongoPrazo / latenciaJanela));
+        int pendentes = pendentesPool.getAsInt();
+
+        int atual = limite;
+        int novo;
+        if (pendentes > 0) {
+            novo = (int) (atual * Math.min(gradiente, fatorReducao));
+        } else if (gradiente < 1.0) {
+            novo = (int) (atual * gradiente);
+        } else if (pico >= atual * USO_PARA_CRESCER) {
+            novo = atual + 1;
+        } else {
+            novo = atual;
+        }
+        limite = Math.max(minimo, Math.min(maximo, novo));
+        latenciaLongoPrazo += (latenciaJanela - latenciaLongoPrazo) * SUAVIZACAO_LONGO_PRAZO;
+    }
+}
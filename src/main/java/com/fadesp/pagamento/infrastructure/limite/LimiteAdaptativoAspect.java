@@ -0,0 +1,131 @@
+package com.fadesp.pagamento.infrastructure.limite;
+
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+
+/**
+ * Aplica um {@link LimiteAdaptativo} às chamadas de {@code PagamentoService}, alimentado pela
+ * latência de cada chamada e pelas threads esperando conexão no Hikari. Acima do limite, os métodos
+ * {@link BaixaPrioridade} (listagens) são recusados na hora com 503 e {@code Retry-After}; criação,
+ * mudança de status e exclusão continuam sendo atendidas.
+ * <p>
+ * A latência que ajusta o limite é a das chamadas que vão ao banco: métodos {@link ForaDoLimite} (só
+ * em memória) passam direto, e a chamada atendida da memória chama {@link #dispensarAmostra()} para
+ * não diluir a janela com microssegundos.
+ */
+@Aspect
+@Component
+// Por dentro da coalescência (só a chamada que executa conta) e por fora da transação: a recusa não
+// chega a abrir transação, e a latência medida inclui a espera por conexão.
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(name = "pagamento.limite-adaptativo.enabled", havingValue = "true")
+public class LimiteAdaptativoAspect {
+
+    /** Chamada limitada em andamento na thread: a posição 0 indica que a amostra foi dispensada. */
+    private static final ThreadLocal<boolean[]> CHAMADA = new ThreadLocal<>();
+
+    private final LimiteAdaptativo limite;
+    private final DataSource dataSource;
+    private final long tentarNovamenteEmSegundos;
+    private final Counter recusadas;
+    private volatile HikariPoolMXBean pool;
+
+    public LimiteAdaptativoAspect(DataSource dataSource,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${pagamento.limite-adaptativo.inicial:20}") int inicial,
+                                  @Value("${pagamento.limite-adaptativo.minimo:4}") int minimo,
+                                  @Value("${pagamento.limite-adaptativo.maximo:200}") int maximo,
+                                  @Value("${pagamento.limite-adaptativo.tolerancia:1.5}") double tolerancia,
+                                  @Value("${pagamento.limite-adaptativo.fator-reducao:0.9}") double fatorReducao,
+                                  @Value("${pagamento.limite-adaptativo.amostras-por-janela:50}") int amostrasPorJanela,
+                                  @Value("${pagamento.limite-adaptativo.tentar-novamente-s:1}") long tentarNovamenteEmSegundos) {
+        this.dataSource = dataSource;
+        this.limite = new LimiteAdaptativo(inicial, minimo, maximo, tolerancia, fatorReducao, amostrasPorJanela,
+                this::threadsEsperandoConexao);
+        this.tentarNovamenteEmSegundos = tentarNovamenteEmSegundos;
+        this.recusadas = Counter.builder("pagamento.limite.adaptativo.recusadas").register(meterRegistry);
+        Gauge.builder("pagamento.limite.adaptativo.limite", limite, LimiteAdaptativo::getLimite).register(meterRegistry);
+        Gauge.builder("pagamento.limite.adaptativo.em.execucao", limite, LimiteAdaptativo::getEmExecucao)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Marca a chamada limitada em andamento como atendida sem o banco (ex.: acerto no arquivo mapeado
+     * de finalizados): ela sai da concorrência sem entrar na janela de latência. Sem efeito fora dela.
+     */
+    public static void dispensarAmostra() {
+        boolean[] chamada = CHAMADA.get();
+        if (chamada != null) {
+            chamada[0] = true;
+        }
+    }
+
+    @Around("execution(public * com.fadesp.pagamento.business.service.PagamentoService.*(..))")
+    public Object limitar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (metodo.isAnnotationPresent(ForaDoLimite.class)) {
+            return joinPoint.proceed();
+        }
+        boolean prioritaria = !metodo.isAnnotationPresent(BaixaPrioridade.class);
+        if (!limite.adquirir(prioritaria)) {
+            recusadas.increment();
+            throw new IndisponivelException("Serviço sobrecarregado: consulta recusada para preservar as operações "
+                    + "de pagamento. Tente novamente em instantes.", tentarNovamenteEmSegundos);
+        }
+        boolean[] anterior = CHAMADA.get();
+        boolean[] chamada = new boolean[1];
+        CHAMADA.set(chamada);
+        long inicio = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (chamada[0]) {
+                limite.liberarSemAmostra();
+            } else {
+                limite.liberar(System.nanoTime() - inicio);
+            }
+            if (anterior == null) {
+                CHAMADA.remove();
+            } else {
+                CHAMADA.set(anterior);
+            }
+        }
+    }
+
+    /** Threads na fila do Hikari; 0 se o pool não é Hikari ou ainda não iniciou. */
+    private int threadsEsperandoConexao() {
+        HikariPoolMXBean atual = pool;
+        if (atual == null) {
+            try {
+                if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                    return 0;
+                }
+                atual = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            } catch (SQLException e) {
+                return 0;
+            }
+            if (atual == null) {
+                return 0;
+            }
+            pool = atual;
+        }
+        return atual.getThreadsAwaitingConnection();
+    }
+}
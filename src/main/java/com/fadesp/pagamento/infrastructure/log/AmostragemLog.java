@@ -0,0 +1,18 @@
+package com.fadesp.pagamento.infrastructure.log;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Marcadores de log. Eventos com {@link #AMOSTRAVEL} pertencem ao caminho de sucesso e são
+ * registrados apenas para a fração de requisições definida em {@code pagamento.log.taxa-amostragem};
+ * erros, avisos e transições de status são logados sem o marcador e, portanto, sempre.
+ */
+public final class AmostragemLog {
+
+    public static final Marker AMOSTRAVEL = MarkerFactory.getMarker("AMOSTRAVEL");
+
+    private AmostragemLog() {
+        throw new UnsupportedOperationException("Classe utilitária - não deve ser instanciada.");
+    }
+}
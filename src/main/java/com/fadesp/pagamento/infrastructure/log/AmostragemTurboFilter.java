@@ -0,0 +1,60 @@
+package com.fadesp.pagamento.infrastructure.log;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Descarta, antes de o evento ser criado, os logs marcados com {@link AmostragemLog#AMOSTRAVEL} que
+ * ficaram fora da amostra. A decisão usa o hash do correlation id, de modo que uma requisição
+ * amostrada tem todos os seus logs registrados; sem correlation id, sorteia por evento.
+ * <p>
+ * Roda em toda chamada de log, inclusive as de nível desabilitado: o caminho sem marcador retorna
+ * na primeira comparação.
+ */
+public class AmostragemTurboFilter extends TurboFilter {
+
+    private static final long ESCALA = 1L << 32;
+
+    private long limite = ESCALA;
+
+    /** Fração (0.0 a 1.0) das requisições cujos logs amostráveis são registrados. */
+    public void setTaxa(double taxa) {
+        this.limite = (long) (Math.max(0.0, Math.min(1.0, taxa)) * ESCALA);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || limite >= ESCALA) {
+            return FilterReply.NEUTRAL;
+        }
+        if (marker != AmostragemLog.AMOSTRAVEL && !marker.contains(AmostragemLog.AMOSTRAVEL)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.isGreaterOrEqual(Level.WARN) || t != null) {
+            return FilterReply.NEUTRAL;
+        }
+        return amostrado() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean amostrado() {
+        String correlacao = MDC.get(CorrelacaoFilter.CHAVE_MDC);
+        int h = correlacao != null ? misturar(correlacao.hashCode()) : ThreadLocalRandom.current().nextInt();
+        return (h & 0xFFFFFFFFL) < limite;
+    }
+
+    /** Finalizador do MurmurHash3: espalha os bits de {@code String.hashCode}, que é pouco uniforme. */
+    private static int misturar(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,75 @@
+package com.fadesp.pagamento.infrastructure.log;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Coloca o correlation id da requisição no MDC (chave {@value #CHAVE_MDC}) e o devolve no cabeçalho
+ * {@value #CABECALHO}. Um id recebido do chamador é reaproveitado se for curto e seguro para log;
+ * caso contrário gera-se um novo, sem {@code SecureRandom} (não é um segredo).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelacaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Correlation-Id";
+    public static final String CHAVE_MDC = "correlationId";
+
+    private static final int TAMANHO_MAXIMO = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlacao = request.getHeader(CABECALHO);
+        if (!valido(correlacao)) {
+            correlacao = gerar();
+        }
+        MDC.put(CHAVE_MDC, correlacao);
+        response.setHeader(CABECALHO, correlacao);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(CHAVE_MDC);
+        }
+    }
+
+    static String gerar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[32];
+        escreverHex(random.nextLong(), id, 0);
+        escreverHex(random.nextLong(), id, 16);
+        return new String(id);
+    }
+
+    private static void escreverHex(long valor, char[] destino, int inicio) {
+        for (int i = 15; i >= 0; i--) {
+            destino[inicio + i] = Character.forDigit((int) (valor & 0xF), 16);
+            valor >>>= 4;
+        }
+    }
+
+    private static boolean valido(String valor) {
+        if (valor == null || valor.isEmpty() || valor.length() > TAMANHO_MAXIMO) {
+            return false;
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            boolean permitido = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || c == '-' || c == '_' || c == '.';
+            if (!permitido) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
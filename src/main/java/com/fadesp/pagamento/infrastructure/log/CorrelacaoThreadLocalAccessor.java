@@ -0,0 +1,31 @@
+package com.fadesp.pagamento.infrastructure.log;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+/**
+ * Leva o correlation id do MDC ({@value CorrelacaoFilter#CHAVE_MDC}) para as threads que restauram
+ * um {@code ContextSnapshot} (conciliação, criação agrupada). Registrado via {@code META-INF/services}.
+ */
+public class CorrelacaoThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return CorrelacaoFilter.CHAVE_MDC;
+    }
+
+    @Override
+    public String getValue() {
+        return MDC.get(CorrelacaoFilter.CHAVE_MDC);
+    }
+
+    @Override
+    public void setValue(String valor) {
+        MDC.put(CorrelacaoFilter.CHAVE_MDC, valor);
+    }
+
+    @Override
+    public void setValue() {
+        MDC.remove(CorrelacaoFilter.CHAVE_MDC);
+    }
+}
@@ -0,0 +1,46 @@
+package com.fadesp.pagamento.infrastructure.observabilidade;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Mede a espera por uma conexão do pool: cada {@code getConnection()} vira uma observação
+ * {@value #AQUISICAO}, filha do span do serviço/transação que pediu a conexão. A espera também é
+ * repassada ao {@link MonitorTransacoes}, que a acumula na transação em andamento.
+ */
+public class DataSourceObservado extends DelegatingDataSource {
+
+    public static final String AQUISICAO = "pagamento.jdbc.conexao.aquisicao";
+
+    private final ObservationRegistry observationRegistry;
+
+    public DataSourceObservado(DataSource alvo, ObservationRegistry observationRegistry) {
+        super(alvo);
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = Observation.createNotStarted(AQUISICAO, observationRegistry)
+                .contextualName("aquisicao-conexao")
+                .observeChecked(() -> obtainTargetDataSource().getConnection());
+        MonitorTransacoes.conexaoObtida(System.nanoTime() - inicio);
+        return conexao;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = Observation.createNotStarted(AQUISICAO, observationRegistry)
+                .contextualName("aquisicao-conexao")
+                .observeChecked(() -> obtainTargetDataSource().getConnection(username, password));
+        MonitorTransacoes.conexaoObtida(System.nanoTime() - inicio);
+        return conexao;
+    }
+}
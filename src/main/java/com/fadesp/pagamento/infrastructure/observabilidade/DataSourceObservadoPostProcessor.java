@@ -0,0 +1,27 @@
+package com.fadesp.pagamento.infrastructure.observabilidade;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class DataSourceObservadoPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public DataSourceObservadoPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceObservado)) {
+            return new DataSourceObservado(dataSource,
+                    observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,244 @@
+package com.fadesp.pagamento.infrastructure.observabilidade;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.RecordComponent;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vigia o tempo que cada método {@code @Transactional} dos serviços espera por uma conexão do pool
+ * e o tempo que a mantém até o commit/rollback. Publica histogramas por método
+ * ({@value #ESPERA} e {@value #POSSE}) e registra em WARN, com método e argumentos, as transações
+ * que passam de {@code pagamento.transacao.limite-ms} — ao terminar ou, se ainda estiverem abertas,
+ * na verificação periódica.
+ * <p>
+ * Roda por fora da transação: a posse é medida da primeira aquisição (informada por
+ * {@link DataSourceObservado}) até a volta do método, já depois do commit. Só a transação mais
+ * externa é medida; chamadas aninhadas a outros serviços entram na conta dela.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class MonitorTransacoes {
+
+    public static final String ESPERA = "pagamento.transacao.espera-conexao";
+    public static final String POSSE = "pagamento.transacao.posse-conexao";
+    public static final String LONGAS = "pagamento.transacao.longas";
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorTransacoes.class);
+    private static final ThreadLocal<Transacao> ATUAL = new ThreadLocal<>();
+    private static final int TAMANHO_MAXIMO_ARGUMENTO = 40;
+
+    private final MeterRegistry meterRegistry;
+    private final long limiteNanos;
+    private final Map<String, Medidores> medidores = new ConcurrentHashMap<>();
+    private final Map<Thread, Transacao> ativas = new ConcurrentHashMap<>();
+
+    public MonitorTransacoes(MeterRegistry meterRegistry,
+                             @Value("${pagamento.transacao.limite-ms:500}") long limiteMs) {
+        this.meterRegistry = meterRegistry;
+        this.limiteNanos = TimeUnit.MILLISECONDS.toNanos(limiteMs);
+        Gauge.builder("pagamento.transacao.ativas", ativas, Map::size).register(meterRegistry);
+        Gauge.builder("pagamento.transacao.mais-antiga", this, MonitorTransacoes::segundosDaMaisAntiga)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /** Chamado por {@link DataSourceObservado} a cada conexão obtida do pool. */
+    static void conexaoObtida(long esperaNanos) {
+        Transacao transacao = ATUAL.get();
+        if (transacao != null) {
+            transacao.conexaoObtida(esperaNanos, System.nanoTime());
+        }
+    }
+
+    @Around("execution(public * com.fadesp.pagamento.business.service.*Service.*(..))"
+            + " && (@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional))")
+    public Object monitorar(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ATUAL.get() != null) {
+            return joinPoint.proceed();
+        }
+        Transacao transacao = iniciar(joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint.getSignature().getName(), joinPoint.getArgs());
+        Throwable erro = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            erro = e;
+            throw e;
+        } finally {
+            finalizar(transacao, erro);
+        }
+    }
+
+    Transacao iniciar(String classe, String metodo, Object[] argumentos) {
+        Transacao transacao = new Transacao(classe, metodo, argumentos, Thread.currentThread(), System.nanoTime());
+        ATUAL.set(transacao);
+        ativas.put(transacao.thread, transacao);
+        return transacao;
+    }
+
+    void finalizar(Transacao transacao, Throwable erro) {
+        ATUAL.remove();
+        ativas.remove(transacao.thread);
+        long fim = System.nanoTime();
+        Medidores medidor = medidores.computeIfAbsent(transacao.classe + "." + transacao.metodo,
+                chave -> new Medidores(meterRegistry, transacao.classe, transacao.metodo));
+        medidor.espera.record(transacao.esperaNanos, TimeUnit.NANOSECONDS);
+        if (transacao.inicioPosseNanos == 0) {
+            return;
+        }
+        long posse = fim - transacao.inicioPosseNanos;
+        medidor.posse.record(posse, TimeUnit.NANOSECONDS);
+        if (posse > limiteNanos) {
+            medidor.longas.increment();
+            if (!transacao.alertada) {
+                log.warn("Transação longa: {}.{}({}) manteve a conexão por {} ms (espera {} ms){}",
+                        transacao.classe, transacao.metodo, resumirArgumentos(transacao.argumentos),
+                        TimeUnit.NANOSECONDS.toMillis(posse), TimeUnit.NANOSECONDS.toMillis(transacao.esperaNanos),
+                        erro == null ? "" : ", terminou com " + erro.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /** Avisa uma única vez sobre cada transação que continua aberta além do limite. */
+    @Scheduled(fixedDelayString = "${pagamento.transacao.intervalo-verificacao-ms:1000}")
+    public void verificarTransacoesAbertas() {
+        long agora = System.nanoTime();
+        for (Transacao transacao : ativas.values()) {
+            long inicioPosse = transacao.inicioPosseNanos;
+            if (transacao.alertada || inicioPosse == 0 || agora - inicioPosse <= limiteNanos) {
+                continue;
+            }
+            transacao.alertada = true;
+            log.warn("Transação aberta há {} ms na thread {}: {}.{}({})",
+                    TimeUnit.NANOSECONDS.toMillis(agora - inicioPosse), transacao.thread.getName(),
+                    transacao.classe, transacao.metodo, resumirArgumentos(transacao.argumentos));
+        }
+    }
+
+    private double segundosDaMaisAntiga() {
+        long agora = System.nanoTime();
+        long maisAntiga = 0;
+        for (Transacao transacao : ativas.values()) {
+            maisAntiga = Math.max(maisAntiga, agora - transacao.inicioNanos);
+        }
+        return maisAntiga / 1e9;
+    }
+
+    /**
+     * Resume os argumentos para o log sem expor dados sensíveis: de records só entram componentes
+     * numéricos, booleanos e enums (nada de CPF/CNPJ ou cartão); coleções aparecem pelo tamanho.
+     */
+    public static String resumirArgumentos(Object[] argumentos) {
+        StringJoiner resumo = new StringJoiner(", ");
+        for (Object argumento : argumentos) {
+            resumo.add(resumir(argumento, true));
+        }
+        return resumo.toString();
+    }
+
+    private static String resumir(Object valor, boolean abrirRecord) {
+        if (valor == null || valor instanceof Number || valor instanceof Boolean || valor instanceof Enum<?>) {
+            return String.valueOf(valor);
+        }
+        if (valor instanceof Collection<?> colecao) {
+            return valor.getClass().getSimpleName() + "[" + colecao.size() + "]";
+        }
+        if (valor instanceof Record && abrirRecord) {
+            return resumirRecord((Record) valor);
+        }
+        if (valor instanceof CharSequence) {
+            return "\"…\"";
+        }
+        String texto = valor.toString();
+        return texto.length() > TAMANHO_MAXIMO_ARGUMENTO ? texto.substring(0, TAMANHO_MAXIMO_ARGUMENTO) + "…" : texto;
+    }
+
+    private static String resumirRecord(Record registro) {
+        StringJoiner componentes = new StringJoiner(", ", registro.getClass().getSimpleName() + "[", "]");
+        try {
+            for (RecordComponent componente : registro.getClass().getRecordComponents()) {
+                if (CharSequence.class.isAssignableFrom(componente.getType())) {
+                    continue;
+                }
+                componentes.add(componente.getName() + "=" + resumir(componente.getAccessor().invoke(registro), false));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return registro.getClass().getSimpleName();
+        }
+        return componentes.toString();
+    }
+
+    static final class Transacao {
+
+        private final String classe;
+        private final String metodo;
+        private final Object[] argumentos;
+        private final Thread thread;
+        private final long inicioNanos;
+        private long esperaNanos;
+        private volatile long inicioPosseNanos;
+        private volatile boolean alertada;
+
+        private Transacao(String classe, String metodo, Object[] argumentos, Thread thread, long inicioNanos) {
+            this.classe = classe;
+            this.metodo = metodo;
+            this.argumentos = argumentos;
+            this.thread = thread;
+            this.inicioNanos = inicioNanos;
+        }
+
+        private void conexaoObtida(long esperaNanos, long agora) {
+            this.esperaNanos += esperaNanos;
+            if (inicioPosseNanos == 0) {
+                inicioPosseNanos = agora;
+            }
+        }
+    }
+
+    private static final class Medidores {
+
+        private final Timer espera;
+        private final Timer posse;
+        private final Counter longas;
+
+        private Medidores(MeterRegistry meterRegistry, String classe, String metodo) {
+            this.espera = histograma(meterRegistry, ESPERA, classe, metodo);
+            this.posse = histograma(meterRegistry, POSSE, classe, metodo);
+            this.longas = Counter.builder(LONGAS)
+                    .tag("classe", classe)
+                    .tag("metodo", metodo)
+                    .register(meterRegistry);
+        }
+
+        private static Timer histograma(MeterRegistry meterRegistry, String nome, String classe, String metodo) {
+            return Timer.builder(nome)
+                    .tag("classe", classe)
+                    .tag("metodo", metodo)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.fadesp.pagamento.infrastructure.observabilidade;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Abre uma observação (span + timer) em cada método público dos serviços e dos repositórios.
+ * Roda por fora da coalescência e da transação, de modo que o span do serviço inclui a espera
+ * por uma chamada coalescida e pela conexão; os spans de repositório ficam aninhados nele.
+ * <p>
+ * Os repositórios registram {@value #LINHAS} com a quantidade de linhas devolvidas (ou afetadas,
+ * em consultas de atualização).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ObservacaoAspect {
+
+    public static final String SERVICO = "pagamento.servico";
+    public static final String REPOSITORIO = "pagamento.repositorio";
+    public static final String LINHAS = "pagamento.linhas";
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservacaoAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("execution(public * com.fadesp.pagamento.business.service.*Service.*(..))")
+    public Object observarServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        String classe = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String metodo = joinPoint.getSignature().getName();
+        Observation observacao = Observation.createNotStarted(SERVICO, observationRegistry)
+                .contextualName(classe + "." + metodo)
+                .lowCardinalityKeyValue("classe", classe)
+                .lowCardinalityKeyValue("metodo", metodo);
+        return executar(observacao, joinPoint, false);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository) && execution(public * *(..))"
+            + " && !execution(* java.lang.Object.*(..))")
+    public Object observarRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repositorio = repositorio(joinPoint);
+        String metodo = joinPoint.getSignature().getName();
+        Observation observacao = Observation.createNotStarted(REPOSITORIO, observationRegistry)
+                .contextualName(repositorio + "." + metodo)
+                .lowCardinalityKeyValue("repositorio", repositorio)
+                .lowCardinalityKeyValue("metodo", metodo);
+        return executar(observacao, joinPoint, true);
+    }
+
+    private Object executar(Observation observacao, ProceedingJoinPoint joinPoint, boolean contarLinhas) throws Throwable {
+        observacao.start();
+        try (Observation.Scope ignored = observacao.openScope()) {
+            Object resultado = joinPoint.proceed();
+            if (contarLinhas) {
+                long linhas = linhas(resultado);
+                if (linhas >= 0) {
+                    observacao.highCardinalityKeyValue(LINHAS, Long.toString(linhas));
+                }
+            }
+            return resultado;
+        } catch (Throwable e) {
+            observacao.error(e);
+            throw e;
+        } finally {
+            observacao.stop();
+        }
+    }
+
+    private static String repositorio(ProceedingJoinPoint joinPoint) {
+        for (Class<?> interfaceProxy : joinPoint.getThis().getClass().getInterfaces()) {
+            if (interfaceProxy.getPackageName().startsWith("com.fadesp.pagamento")) {
+                return interfaceProxy.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    private static long linhas(Object resultado) {
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado instanceof Integer afetadas) {
+            return afetadas;
+        }
+        return -1;
+    }
+}
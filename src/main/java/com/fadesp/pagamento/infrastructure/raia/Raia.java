@@ -0,0 +1,81 @@
+package com.fadesp.pagamento.infrastructure.raia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compartimento de requisições: no máximo {@code concorrencia} em execução e {@code fila} esperando
+ * vaga por até {@code esperaMs}; quem encontra a fila cheia ou não consegue vaga a tempo é recusado
+ * na hora, sem ocupar thread nem conexão.
+ */
+public class Raia {
+
+    private final String nome;
+    private final int concorrencia;
+    private final int fila;
+    private final long esperaNanos;
+    private final Semaphore vagas;
+    private final AtomicInteger esperando = new AtomicInteger();
+    private final Counter recusadas;
+
+    public Raia(String nome, int concorrencia, int fila, long esperaMs, MeterRegistry meterRegistry) {
+        if (concorrencia < 1 || fila < 0 || esperaMs < 0) {
+            throw new IllegalArgumentException("Limites inválidos para a raia " + nome);
+        }
+        this.nome = nome;
+        this.concorrencia = concorrencia;
+        this.fila = fila;
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+        this.vagas = new Semaphore(concorrencia);
+        this.recusadas = Counter.builder("pagamento.raia.recusadas").tag("raia", nome).register(meterRegistry);
+        Gauge.builder("pagamento.raia.em.execucao", this, Raia::emExecucao).tag("raia", nome).register(meterRegistry);
+        Gauge.builder("pagamento.raia.fila", esperando, AtomicInteger::get).tag("raia", nome).register(meterRegistry);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getConcorrencia() {
+        return concorrencia;
+    }
+
+    public int emExecucao() {
+        return concorrencia - vagas.availablePermits();
+    }
+
+    /**
+     * Ocupa uma vaga, esperando na fila se preciso. Com {@code true}, a vaga deve ser devolvida em
+     * {@link #sair()}.
+     */
+    public boolean entrar() {
+        if (vagas.tryAcquire()) {
+            return true;
+        }
+        if (esperando.incrementAndGet() > fila) {
+            esperando.decrementAndGet();
+            recusadas.increment();
+            return false;
+        }
+        try {
+            if (vagas.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            esperando.decrementAndGet();
+        }
+        recusadas.increment();
+        return false;
+    }
+
+    public void sair() {
+        vagas.release();
+    }
+}
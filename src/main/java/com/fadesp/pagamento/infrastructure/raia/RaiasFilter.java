@@ -0,0 +1,109 @@
+package com.fadesp.pagamento.infrastructure.raia;
+
+import com.fadesp.pagamento.infrastructure.exceptions.Problem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+
+/**
+ * Separa as requisições de {@code /api/pagamentos} em duas {@link Raia}s: leitura (GET e HEAD) e
+ * escrita (criação, PATCH e DELETE), cada uma com seus limites de concorrência, fila e espera
+ * ({@code pagamento.raias.<leitura|escrita>.*}). Uma rajada de listagens pesadas esgota só a raia de
+ * leitura e passa a receber 503 com {@code Retry-After}; a criação continua com threads do Tomcat
+ * e conexões livres.
+ * <p>
+ * Como a conexão só é tirada do pool no primeiro SQL e cada requisição usa uma por vez, a
+ * concorrência da leitura é também o máximo de conexões que ela ocupa: mantida abaixo de
+ * {@code spring.datasource.hikari.maximum-pool-size}, o restante do pool fica reservado à escrita.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "pagamento.raias.enabled", havingValue = "true")
+public class RaiasFilter extends OncePerRequestFilter {
+
+    static final String PREFIXO = "/api/pagamentos";
+
+    private static final Logger log = LoggerFactory.getLogger(RaiasFilter.class);
+
+    private final Raia leitura;
+    private final Raia escrita;
+    private final long tentarNovamenteEmSegundos;
+    private final ObjectMapper objectMapper;
+
+    public RaiasFilter(ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${pagamento.raias.leitura.concorrencia:6}") int concorrenciaLeitura,
+                       @Value("${pagamento.raias.leitura.fila:20}") int filaLeitura,
+                       @Value("${pagamento.raias.leitura.espera-ms:100}") long esperaLeituraMs,
+                       @Value("${pagamento.raias.escrita.concorrencia:100}") int concorrenciaEscrita,
+                       @Value("${pagamento.raias.escrita.fila:200}") int filaEscrita,
+                       @Value("${pagamento.raias.escrita.espera-ms:2000}") long esperaEscritaMs,
+                       @Value("${pagamento.raias.tentar-novamente-s:1}") long tentarNovamenteEmSegundos,
+                       @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool) {
+        this.objectMapper = objectMapper;
+        this.leitura = new Raia("leitura", concorrenciaLeitura, filaLeitura, esperaLeituraMs, meterRegistry);
+        this.escrita = new Raia("escrita", concorrenciaEscrita, filaEscrita, esperaEscritaMs, meterRegistry);
+        this.tentarNovamenteEmSegundos = tentarNovamenteEmSegundos;
+        if (concorrenciaLeitura >= tamanhoPool) {
+            log.warn("pagamento.raias.leitura.concorrencia ({}) não é menor que o pool de conexões ({}): "
+                    + "a leitura ainda pode ocupar todas as conexões", concorrenciaLeitura, tamanhoPool);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return !(caminho.equals(PREFIXO) || caminho.startsWith(PREFIXO + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Raia raia = raia(request.getMethod());
+        if (!raia.entrar()) {
+            recusar(raia, request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            raia.sair();
+        }
+    }
+
+    Raia raia(String metodo) {
+        return "GET".equals(metodo) || "HEAD".equals(metodo) ? leitura : escrita;
+    }
+
+    private void recusar(Raia raia, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Problem problem = Problem.builder()
+                .timestamp(OffsetDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Serviço indisponível")
+                .message("Limite de requisições de " + raia.getNome() + " atingido; tente novamente em instantes.")
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(tentarNovamenteEmSegundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
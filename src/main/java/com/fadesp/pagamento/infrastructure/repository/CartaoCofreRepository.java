@@ -0,0 +1,21 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.entities.CartaoCofre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CartaoCofreRepository extends JpaRepository<CartaoCofre, String> {
+
+    @Query("SELECT c.token FROM CartaoCofre c WHERE c.token IN :tokens")
+    List<String> buscarTokensExistentes(@Param("tokens") Collection<String> tokens);
+
+    @Query("SELECT c.token FROM CartaoCofre c WHERE c.hashPan = :hashPan")
+    Optional<String> buscarTokenPorHash(@Param("hashPan") byte[] hashPan);
+}
@@ -0,0 +1,58 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unicidade do código de débito entre todos os tenants, nas tabelas quente e de arquivo. A consulta
+ * é SQL nativo, fora do filtro de {@code @TenantId} da sessão da requisição: um código usado ou
+ * arquivado por um tenant não pode ser reaproveitado por outro. No modo SCHEMA, consulta as tabelas
+ * do schema de cada tenant.
+ */
+@Repository
+public class ConsultaCodigosDebito {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final VarreduraTenants varreduraTenants;
+    private volatile String aspas;
+
+    public ConsultaCodigosDebito(NamedParameterJdbcTemplate jdbcTemplate, VarreduraTenants varreduraTenants) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.varreduraTenants = varreduraTenants;
+    }
+
+    /** @return os códigos informados que já constam em {@code pagamento} ou {@code pagamento_arquivo} */
+    public Set<Long> buscarUtilizados(Collection<Long> codigosDebito) {
+        Set<Long> usados = new HashSet<>();
+        if (codigosDebito.isEmpty()) {
+            return usados;
+        }
+        Map<String, Collection<Long>> parametros = Map.of("codigos", codigosDebito);
+        varreduraTenants.paraCadaSchema(schema -> usados.addAll(jdbcTemplate.queryForList(
+                "SELECT codigo_debito FROM " + tabela(schema, "pagamento") + " WHERE codigo_debito IN (:codigos)"
+                        + " UNION SELECT codigo_debito FROM " + tabela(schema, "pagamento_arquivo")
+                        + " WHERE codigo_debito IN (:codigos)",
+                parametros, Long.class)));
+        return usados;
+    }
+
+    private String tabela(String schema, String tabela) {
+        if (schema == null) {
+            return tabela;
+        }
+        String delimitador = aspas;
+        if (delimitador == null) {
+            delimitador = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) conexao ->
+                    conexao.getMetaData().getIdentifierQuoteString().strip());
+            aspas = delimitador;
+        }
+        return delimitador + schema + delimitador + "." + tabela;
+    }
+}
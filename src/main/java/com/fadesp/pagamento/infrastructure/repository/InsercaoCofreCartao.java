@@ -0,0 +1,126 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.entities.CartaoCofre;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.TimeZoneSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Inserção idempotente no cofre ({@code cofre_cartao}): um registro que outra transação já gravou é
+ * ignorado, em vez de falhar. O mesmo PAN sempre gera o mesmo token e o mesmo hash, então a violação
+ * de unicidade só significa que o cartão já está no cofre.
+ * <p>
+ * Roda na conexão da transação em andamento, sob um savepoint: a violação desfaz só a inserção, e a
+ * transação segue válida (no MySQL, o segundo INSERT espera o commit do primeiro antes de falhar).
+ * O SQL é executado na hora, e não no flush do Hibernate, para que a falha nunca apareça no INSERT
+ * do pagamento.
+ */
+@Repository
+public class InsercaoCofreCartao {
+
+    private static final String INSERT = """
+            INSERT INTO cofre_cartao (token, hash_pan, pan_cifrado, ultimos_digitos, criado_em)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+    /** Classe SQLSTATE de violação de integridade. */
+    private static final String VIOLACAO_INTEGRIDADE = "23";
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean fusoNativo;
+
+    public InsercaoCofreCartao(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Mesmo critério do Hibernate para OffsetDateTime (ver GravadorHistorico).
+        this.fusoNativo = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getTimeZoneSupport() == TimeZoneSupport.NATIVE;
+    }
+
+    /**
+     * Grava os registros ausentes. Tenta o lote inteiro; se algum já existir, desfaz o lote e grava
+     * um a um, ignorando os existentes.
+     *
+     * @return quantidade de registros efetivamente inseridos
+     */
+    public int inserirAusentes(List<CartaoCofre> registros) {
+        if (registros.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime agora = OffsetDateTime.now();
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) conexao -> {
+            if (registros.size() > 1) {
+                Integer inseridos = protegido(conexao, () -> {
+                    try (PreparedStatement ps = conexao.prepareStatement(INSERT)) {
+                        for (CartaoCofre registro : registros) {
+                            preencher(ps, registro, agora);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                    return registros.size();
+                });
+                if (inseridos != null) {
+                    return inseridos;
+                }
+            }
+            int inseridos = 0;
+            for (CartaoCofre registro : registros) {
+                Integer inserido = protegido(conexao, () -> {
+                    try (PreparedStatement ps = conexao.prepareStatement(INSERT)) {
+                        preencher(ps, registro, agora);
+                        return ps.executeUpdate();
+                    }
+                });
+                inseridos += inserido == null ? 0 : inserido;
+            }
+            return inseridos;
+        });
+    }
+
+    /** @return o resultado da escrita, ou {@code null} se ela violou a unicidade e foi desfeita */
+    private static Integer protegido(Connection conexao, Escrita escrita) throws SQLException {
+        Savepoint savepoint = conexao.setSavepoint();
+        try {
+            Integer resultado = escrita.executar();
+            conexao.releaseSavepoint(savepoint);
+            return resultado;
+        } catch (SQLException e) {
+            if (e.getSQLState() == null || !e.getSQLState().startsWith(VIOLACAO_INTEGRIDADE)) {
+                throw e;
+            }
+            conexao.rollback(savepoint);
+            return null;
+        }
+    }
+
+    private void preencher(PreparedStatement ps, CartaoCofre registro, OffsetDateTime agora) throws SQLException {
+        ps.setString(1, registro.getToken());
+        ps.setBytes(2, registro.getHashPan());
+        ps.setBytes(3, registro.getPanCifrado());
+        ps.setString(4, registro.getUltimosDigitos());
+        if (fusoNativo) {
+            ps.setObject(5, agora);
+        } else {
+            ps.setTimestamp(5, Timestamp.from(agora.toInstant()), UTC);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Escrita {
+        Integer executar() throws SQLException;
+    }
+}
@@ -0,0 +1,17 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+
+/** Colunas de um pagamento usadas pela foto analítica, sem carregar a entidade. */
+public record PagamentoAnalitico(
+        Long id,
+        String tenant,
+        String cpfCnpjPagador,
+        StatusPagamentoEnum status,
+        MetodoPagamentoEnum metodo,
+        Dinheiro valor,
+        Boolean ativo
+) {
+}
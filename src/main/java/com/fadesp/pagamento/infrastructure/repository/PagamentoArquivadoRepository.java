@@ -0,0 +1,57 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.entities.PagamentoArquivado;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PagamentoArquivadoRepository extends JpaRepository<PagamentoArquivado, Long> {
+
+    @Query("SELECT a.codigoDebito FROM PagamentoArquivado a WHERE a.codigoDebito > :ultimo ORDER BY a.codigoDebito")
+    List<Long> buscarCodigosDebitoApos(@Param("ultimo") Long ultimo, Pageable pageable);
+
+    @Query("SELECT a FROM PagamentoArquivado a WHERE a.codigoDebito IN :codigos")
+    List<PagamentoArquivado> buscarPorCodigosDebito(@Param("codigos") Collection<Long> codigos);
+
+    @Query("SELECT a.atualizadoEm FROM PagamentoArquivado a WHERE a.id = :id")
+    Optional<OffsetDateTime> buscarAtualizadoEm(@Param("id") Long id);
+
+    @Query("""
+        SELECT DISTINCT a.numeroCartao
+          FROM PagamentoArquivado a
+         WHERE a.numeroCartao IS NOT NULL
+           AND SUBSTRING(a.numeroCartao, 1, 4) <> 'tok_'
+        """)
+    List<String> buscarCartoesNaoTokenizados(Pageable pageable);
+
+    @Query("""
+        SELECT new com.fadesp.pagamento.infrastructure.repository.PagamentoFinalizado(
+               a.id, a.tenant, a.codigoDebito, a.cpfCnpjPagador, a.metodoPagamentoEnum, a.valorTransacao,
+               a.ativo, a.atualizadoEm)
+          FROM PagamentoArquivado a
+         WHERE a.status = :status
+           AND a.arquivadoEm >= :desde
+           AND a.id > :ultimoId
+         ORDER BY a.id
+        """)
+    List<PagamentoFinalizado> buscarFinalizados(
+            @Param("status") StatusPagamentoEnum status,
+            @Param("desde") OffsetDateTime desde,
+            @Param("ultimoId") Long ultimoId,
+            Pageable pageable
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PagamentoArquivado a SET a.numeroCartao = :token WHERE a.numeroCartao = :pan")
+    int substituirNumeroCartao(@Param("pan") String pan, @Param("token") String token);
+}
@@ -0,0 +1,19 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+
+import java.time.OffsetDateTime;
+
+/** Colunas de um pagamento finalizado (processado com sucesso) gravadas no arquivo de finalizados. */
+public record PagamentoFinalizado(
+        Long id,
+        String tenant,
+        Long codigoDebito,
+        String cpfCnpjPagador,
+        MetodoPagamentoEnum metodo,
+        Dinheiro valor,
+        Boolean ativo,
+        OffsetDateTime atualizadoEm
+) {
+}
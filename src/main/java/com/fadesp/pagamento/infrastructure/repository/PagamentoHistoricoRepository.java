@@ -0,0 +1,25 @@
+package com.fadesp.pagamento.infrastructure.repository;
+
+import com.fadesp.pagamento.infrastructure.entities.PagamentoHistorico;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PagamentoHistoricoRepository extends JpaRepository<PagamentoHistorico, Long> {
+
+    @Query("""
+        SELECT h
+          FROM PagamentoHistorico h
+         WHERE h.pagamentoId = :pagamentoId
+           AND h.id > :apos
+         ORDER BY h.id
+        """)
+    List<PagamentoHistorico> buscarPagina(@Param("pagamentoId") Long pagamentoId,
+                                          @Param("apos") Long apos,
+                                          Pageable pageable);
+}
@@ -2,16 +2,29 @@ package com.fadesp.pagamento.infrastructure.repository;
 
 import com.fadesp.pagamento.infrastructure.entities.Pagamento;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
 
+    String REGIAO_CACHE_CONSULTAS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("""
         SELECT p
           FROM Pagamento p
@@ -21,9 +34,154 @@ public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
            AND p.ativo = TRUE
         """)
     Page<Pagamento> buscarComFiltros(
-            @Param("codigoDebito") Integer codigoDebito,
+            @Param("codigoDebito") Long codigoDebito,
             @Param("cpfCnpjPagador") String cpfCnpjPagador,
             @Param("status") StatusPagamentoEnum status,
             Pageable pageable
     );
+
+
+    @Query("""
+        SELECT p.id
+          FROM Pagamento p
+         WHERE p.ativo = FALSE
+            OR (p.status = :statusFinal AND p.atualizadoEm < :limite)
+         ORDER BY p.id
+        """)
+    List<Long> buscarIdsParaArquivamento(
+            @Param("statusFinal") StatusPagamentoEnum statusFinal,
+            @Param("limite") OffsetDateTime limite,
+            Pageable pageable
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Pagamento p WHERE p.id IN :ids")
+    int excluirPorIds(@Param("ids") List<Long> ids);
+
+    @Query("SELECT p.atualizadoEm FROM Pagamento p WHERE p.id = :id")
+    Optional<OffsetDateTime> buscarAtualizadoEm(@Param("id") Long id);
+
+    @Query("""
+        SELECT p.id AS id, p.tenant AS tenant, p.cpfCnpjPagador AS cpfCnpjPagador, p.status AS status,
+               p.valorTransacao AS valorTransacao, p.atualizadoEm AS atualizadoEm
+          FROM Pagamento p
+         WHERE p.ativo = TRUE
+           AND p.id > :ultimoId
+         ORDER BY p.id
+        """)
+    List<PagamentoIndexavel> buscarAtivosParaIndice(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("""
+        SELECT p.status AS status, COUNT(p) AS quantidade, SUM(p.valorTransacao) AS valor
+          FROM Pagamento p
+         WHERE p.cpfCnpjPagador = :cpfCnpjPagador
+           AND p.ativo = TRUE
+         GROUP BY p.status
+        """)
+    List<TotalPorStatus> totalizarPorStatus(@Param("cpfCnpjPagador") String cpfCnpjPagador);
+
+    @Query("""
+        SELECT p.id
+          FROM Pagamento p
+         WHERE p.cpfCnpjPagador = :cpfCnpjPagador
+           AND p.status = :status
+           AND p.ativo = TRUE
+         ORDER BY p.id
+        """)
+    List<Long> buscarIdsAtivosPorPagadorEStatus(
+            @Param("cpfCnpjPagador") String cpfCnpjPagador,
+            @Param("status") StatusPagamentoEnum status
+    );
+
+    @Query("""
+        SELECT DISTINCT p.numeroCartao
+          FROM Pagamento p
+         WHERE p.numeroCartao IS NOT NULL
+           AND SUBSTRING(p.numeroCartao, 1, 4) <> 'tok_'
+        """)
+    List<String> buscarCartoesNaoTokenizados(Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pagamento p SET p.numeroCartao = :token WHERE p.numeroCartao = :pan")
+    int substituirNumeroCartao(@Param("pan") String pan, @Param("token") String token);
+
+    @Query("SELECT p.codigoDebito FROM Pagamento p WHERE p.codigoDebito > :ultimo ORDER BY p.codigoDebito")
+    List<Long> buscarCodigosDebitoApos(@Param("ultimo") Long ultimo, Pageable pageable);
+
+    @Query("SELECT p FROM Pagamento p WHERE p.codigoDebito IN :codigos")
+    List<Pagamento> buscarPorCodigosDebito(@Param("codigos") Collection<Long> codigos);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Pagamento p
+           SET p.status = :novoStatus, p.atualizadoEm = :agora
+         WHERE p.id IN :ids
+           AND p.status = :statusAtual
+           AND p.ativo = TRUE
+        """)
+    int atualizarStatusEmLote(
+            @Param("ids") Collection<Long> ids,
+            @Param("statusAtual") StatusPagamentoEnum statusAtual,
+            @Param("novoStatus") StatusPagamentoEnum novoStatus,
+            @Param("agora") OffsetDateTime agora
+    );
+
+
+    @Query("""
+        SELECT new com.fadesp.pagamento.infrastructure.repository.PagamentoAnalitico(
+               p.id, p.tenant, p.cpfCnpjPagador, p.status, p.metodoPagamentoEnum, p.valorTransacao, p.ativo)
+          FROM Pagamento p
+         WHERE p.ativo = TRUE
+           AND p.id > :ultimoId
+         ORDER BY p.id
+        """)
+    List<PagamentoAnalitico> buscarAtivosParaAnalitico(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("""
+        SELECT new com.fadesp.pagamento.infrastructure.repository.PagamentoAnalitico(
+               p.id, p.tenant, p.cpfCnpjPagador, p.status, p.metodoPagamentoEnum, p.valorTransacao, p.ativo)
+          FROM Pagamento p
+         WHERE p.atualizadoEm >= :desde
+           AND p.id > :ultimoId
+         ORDER BY p.id
+        """)
+    List<PagamentoAnalitico> buscarAlteradosParaAnalitico(
+            @Param("desde") OffsetDateTime desde,
+            @Param("ultimoId") Long ultimoId,
+            Pageable pageable
+    );
+
+
+    @Query("""
+        SELECT new com.fadesp.pagamento.infrastructure.repository.PagamentoFinalizado(
+               p.id, p.tenant, p.codigoDebito, p.cpfCnpjPagador, p.metodoPagamentoEnum, p.valorTransacao,
+               p.ativo, p.atualizadoEm)
+          FROM Pagamento p
+         WHERE p.status = :status
+           AND p.atualizadoEm >= :desde
+           AND p.id > :ultimoId
+         ORDER BY p.id
+        """)
+    List<PagamentoFinalizado> buscarFinalizados(
+            @Param("status") StatusPagamentoEnum status,
+            @Param("desde") OffsetDateTime desde,
+            @Param("ultimoId") Long ultimoId,
+            Pageable pageable
+    );
+
+
+    interface PagamentoIndexavel {
+        Long getId();
+        String getTenant();
+        String getCpfCnpjPagador();
+        StatusPagamentoEnum getStatus();
+        Dinheiro getValorTransacao();
+        OffsetDateTime getAtualizadoEm();
+    }
+
+    interface TotalPorStatus {
+        StatusPagamentoEnum getStatus();
+        Long getQuantidade();
+        BigDecimal getValor();
+    }
 }
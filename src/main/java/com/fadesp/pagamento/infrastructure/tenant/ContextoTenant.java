@@ -0,0 +1,75 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Instituição (tenant) da requisição em andamento. É definida por {@link TenantFilter} no HTTP e
+ * pelo interceptador do gRPC, e propagada às threads de {@code ContextExecutorService} por
+ * {@link TenantThreadLocalAccessor}.
+ * <p>
+ * Threads sem tenant (jobs agendados, aquecimentos, testes) abrem sessões como {@link #RAIZ}, que
+ * enxerga todos os tenants no modo DISCRIMINADOR (no modo SCHEMA, ver {@link VarreduraTenants}); o
+ * que elas criam sem tenant explícito vai para {@link #PADRAO}.
+ */
+public final class ContextoTenant {
+
+    public static final String PADRAO = "padrao";
+    /** Identificador das sessões sem tenant. Não passa em {@link #valido(String)}. */
+    public static final String RAIZ = "*";
+
+    private static final int TAMANHO_MAXIMO = 64;
+    private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+    private ContextoTenant() {
+        throw new UnsupportedOperationException("Classe utilitária - não deve ser instanciada.");
+    }
+
+    /** @return o tenant da thread, ou {@code null} fora de uma requisição */
+    public static String atual() {
+        return ATUAL.get();
+    }
+
+    public static String atualOuPadrao() {
+        String tenant = ATUAL.get();
+        return tenant == null ? PADRAO : tenant;
+    }
+
+    public static <T> T executarComo(String tenant, Supplier<T> acao) {
+        String anterior = ATUAL.get();
+        definir(tenant);
+        try {
+            return acao.get();
+        } finally {
+            definir(anterior);
+        }
+    }
+
+    public static void executarComo(String tenant, Runnable acao) {
+        executarComo(tenant, () -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    /** Letras minúsculas, dígitos, {@code -} e {@code _}: o valor vai para logs, chaves e nomes de schema. */
+    public static boolean valido(String tenant) {
+        if (tenant == null || tenant.isEmpty() || tenant.length() > TAMANHO_MAXIMO) {
+            return false;
+        }
+        for (int i = 0; i < tenant.length(); i++) {
+            char c = tenant.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void definir(String tenant) {
+        if (tenant == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(tenant);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Tenant de cada sessão do Hibernate, lido de {@link ContextoTenant} na abertura da sessão. Sessões
+ * sem tenant são {@link ContextoTenant#RAIZ}: o filtro de {@code @TenantId} não se aplica a elas,
+ * e o tenant informado explicitamente em uma entidade é mantido.
+ */
+public class IdentificadorTenantHibernate implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenant = ContextoTenant.atual();
+        return tenant == null ? ContextoTenant.RAIZ : tenant;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenant) {
+        return ContextoTenant.RAIZ.equals(tenant);
+    }
+}
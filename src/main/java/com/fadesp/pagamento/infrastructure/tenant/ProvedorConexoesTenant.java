@@ -0,0 +1,195 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega ao Hibernate as conexões de cada tenant a partir do pool compartilhado.
+ * <p>
+ * Limita quantas conexões cada tenant segura ao mesmo tempo ({@code pagamento.tenant.conexoes.maximo-por-tenant},
+ * com exceções em {@code pagamento.tenant.conexoes.limites.<tenant>}), para que as varreduras de um
+ * tenant pesado não esgotem o pool dos demais; quem passa de {@code espera-ms} na fila do próprio
+ * tenant recebe {@link SQLTransientConnectionException}. Sessões {@link ContextoTenant#RAIZ} (jobs)
+ * não são limitadas.
+ * <p>
+ * No modo {@link Modo#SCHEMA}, cada conexão é apontada para o schema do tenant
+ * ({@code pagamento.tenant.schemas.<tenant>}, por padrão o próprio nome) e devolvida ao schema
+ * original ao ser liberada. No modo {@link Modo#DISCRIMINADOR} todos ficam no mesmo schema e o
+ * isolamento vem só da coluna {@code tenant_id}.
+ */
+@Component
+public class ProvedorConexoesTenant implements MultiTenantConnectionProvider<String> {
+
+    public enum Modo { DISCRIMINADOR, SCHEMA }
+
+    private final DataSource dataSource;
+    private final Modo modo;
+    private final Map<String, String> schemas;
+    private final int maximoPorTenant;
+    private final Map<String, Integer> limites;
+    private final long esperaNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Semaphore> permissoes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> recusas = new ConcurrentHashMap<>();
+    private volatile String schemaOriginal;
+
+    @Autowired
+    public ProvedorConexoesTenant(DataSource dataSource,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${pagamento.tenant.modo:DISCRIMINADOR}") Modo modo,
+                                  @Value("${pagamento.tenant.conexoes.maximo-por-tenant:0}") int maximoPorTenant,
+                                  @Value("${pagamento.tenant.conexoes.espera-ms:1000}") long esperaMs) {
+        this(dataSource, meterRegistry, modo,
+                Binder.get(environment)
+                        .bind("pagamento.tenant.schemas", Bindable.mapOf(String.class, String.class))
+                        .orElse(Map.of()),
+                maximoPorTenant,
+                Binder.get(environment)
+                        .bind("pagamento.tenant.conexoes.limites", Bindable.mapOf(String.class, Integer.class))
+                        .orElse(Map.of()),
+                esperaMs);
+    }
+
+    public ProvedorConexoesTenant(DataSource dataSource, MeterRegistry meterRegistry, Modo modo,
+                                  Map<String, String> schemas, int maximoPorTenant,
+                                  Map<String, Integer> limites, long esperaMs) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.modo = modo;
+        this.schemas = Map.copyOf(schemas);
+        this.maximoPorTenant = maximoPorTenant;
+        this.limites = Map.copyOf(limites);
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    /** Schemas configurados por tenant; os demais usam o próprio nome. */
+    public Map<String, String> getSchemas() {
+        return schemas;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        Semaphore permissao = permissao(tenant);
+        if (permissao != null) {
+            adquirir(tenant, permissao);
+        }
+        Connection conexao = null;
+        try {
+            conexao = dataSource.getConnection();
+            if (modo == Modo.SCHEMA && !ContextoTenant.RAIZ.equals(tenant)) {
+                if (schemaOriginal == null) {
+                    schemaOriginal = conexao.getSchema();
+                }
+                conexao.setSchema(schemas.getOrDefault(tenant, tenant));
+            }
+            return conexao;
+        } catch (SQLException | RuntimeException e) {
+            if (conexao != null) {
+                conexao.close();
+            }
+            if (permissao != null) {
+                permissao.release();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        try {
+            if (modo == Modo.SCHEMA && !ContextoTenant.RAIZ.equals(tenant) && schemaOriginal != null) {
+                connection.setSchema(schemaOriginal);
+            }
+        } finally {
+            try {
+                connection.close();
+            } finally {
+                Semaphore permissao = permissao(tenant);
+                if (permissao != null) {
+                    permissao.release();
+                }
+            }
+        }
+    }
+
+    /** Conexões que o tenant ainda pode abrir, ou -1 se ele não tem limite. */
+    public int disponiveis(String tenant) {
+        Semaphore permissao = permissao(tenant);
+        return permissao == null ? -1 : permissao.availablePermits();
+    }
+
+    private Semaphore permissao(String tenant) {
+        if (ContextoTenant.RAIZ.equals(tenant)) {
+            return null;
+        }
+        int limite = limites.getOrDefault(tenant, maximoPorTenant);
+        if (limite <= 0) {
+            return null;
+        }
+        return permissoes.computeIfAbsent(tenant, t -> new Semaphore(limite, true));
+    }
+
+    private void adquirir(String tenant, Semaphore permissao) throws SQLException {
+        try {
+            if (permissao.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        recusas.computeIfAbsent(tenant, t -> Counter.builder("pagamento.tenant.conexoes.recusadas")
+                .tag("tenant", t)
+                .register(meterRegistry)).increment();
+        throw new SQLTransientConnectionException(
+                "Limite de conexões do tenant " + tenant + " atingido", "08001");
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Não é possível desembrulhar como " + unwrapType.getName());
+    }
+}
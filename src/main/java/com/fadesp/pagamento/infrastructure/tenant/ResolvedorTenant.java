@@ -0,0 +1,40 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Traduz o tenant informado pelo chamador (cabeçalho {@value #CABECALHO} no HTTP, metadado de mesmo
+ * nome no gRPC) no tenant da requisição. Sem o cabeçalho, usa {@link ContextoTenant#PADRAO}, a menos
+ * que {@code pagamento.tenant.obrigatorio} esteja ligado; com {@code pagamento.tenant.conhecidos}
+ * preenchido, só aceita os tenants da lista.
+ */
+@Component
+public class ResolvedorTenant {
+
+    public static final String CABECALHO = "X-Tenant-Id";
+
+    private final boolean obrigatorio;
+    private final Set<String> conhecidos;
+
+    public ResolvedorTenant(@Value("${pagamento.tenant.obrigatorio:false}") boolean obrigatorio,
+                            @Value("${pagamento.tenant.conhecidos:}") List<String> conhecidos) {
+        this.obrigatorio = obrigatorio;
+        this.conhecidos = Set.copyOf(conhecidos);
+    }
+
+    /** @return o tenant da requisição, ou {@code null} quando o valor recebido deve ser recusado */
+    public String resolver(String informado) {
+        if (informado == null || informado.isBlank()) {
+            return obrigatorio ? null : ContextoTenant.PADRAO;
+        }
+        String tenant = informado.strip();
+        if (!ContextoTenant.valido(tenant) || (!conhecidos.isEmpty() && !conhecidos.contains(tenant))) {
+            return null;
+        }
+        return tenant;
+    }
+}
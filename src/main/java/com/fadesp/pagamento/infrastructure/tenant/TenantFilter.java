@@ -0,0 +1,73 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import com.fadesp.pagamento.infrastructure.exceptions.Problem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+
+/**
+ * Define o tenant da requisição antes de qualquer acesso ao banco (a sessão do Hibernate, aberta
+ * depois, é filtrada por ele) e o coloca no MDC (chave {@value #CHAVE_MDC}). Um tenant recusado
+ * pelo {@link ResolvedorTenant} responde 400 sem chegar aos controllers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String CHAVE_MDC = "tenant";
+
+    private final ResolvedorTenant resolvedorTenant;
+    private final ObjectMapper objectMapper;
+
+    public TenantFilter(ResolvedorTenant resolvedorTenant, ObjectMapper objectMapper) {
+        this.resolvedorTenant = resolvedorTenant;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Respostas (e ETags) variam por tenant: caches intermediários não podem misturá-las.
+        response.addHeader(HttpHeaders.VARY, ResolvedorTenant.CABECALHO);
+        String tenant = resolvedorTenant.resolver(request.getHeader(ResolvedorTenant.CABECALHO));
+        if (tenant == null) {
+            recusar(request, response);
+            return;
+        }
+        MDC.put(CHAVE_MDC, tenant);
+        ContextoTenant.definir(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoTenant.definir(null);
+            MDC.remove(CHAVE_MDC);
+        }
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Problem problem = Problem.builder()
+                .timestamp(OffsetDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Tenant inválido")
+                .message("Cabeçalho " + ResolvedorTenant.CABECALHO + " ausente, inválido ou não reconhecido.")
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
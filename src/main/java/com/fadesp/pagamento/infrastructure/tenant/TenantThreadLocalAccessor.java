@@ -0,0 +1,32 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Leva o tenant para as threads que restauram um {@code ContextSnapshot} (conciliação, criação agrupada).
+ * Registrado via {@code META-INF/services}.
+ */
+public class TenantThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    public static final String CHAVE = "pagamento.tenant";
+
+    @Override
+    public Object key() {
+        return CHAVE;
+    }
+
+    @Override
+    public String getValue() {
+        return ContextoTenant.atual();
+    }
+
+    @Override
+    public void setValue(String valor) {
+        ContextoTenant.definir(valor);
+    }
+
+    @Override
+    public void setValue() {
+        ContextoTenant.definir(null);
+    }
+}
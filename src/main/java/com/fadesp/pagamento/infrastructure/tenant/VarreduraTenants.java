@@ -0,0 +1,108 @@
+package com.fadesp.pagamento.infrastructure.tenant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Executa sobre os dados de todos os tenants o trabalho que roda sem tenant (jobs agendados,
+ * arquivamento, aquecimentos).
+ * <p>
+ * No modo {@link ProvedorConexoesTenant.Modo#DISCRIMINADOR} basta uma sessão {@link ContextoTenant#RAIZ},
+ * que enxerga as linhas de todos. No modo {@link ProvedorConexoesTenant.Modo#SCHEMA} a sessão raiz só
+ * enxerga o schema padrão da conexão: o trabalho é repetido como cada tenant de
+ * {@code pagamento.tenant.conhecidos} e de {@code pagamento.tenant.schemas}, além de {@link ContextoTenant#PADRAO}.
+ * Por isso, nesse modo, {@code conhecidos} é obrigatório (sem ele qualquer tenant válido seria aceito
+ * sem ser varrido), e os índices em memória chaveados pelo id do pagamento, que se repete entre
+ * schemas, não podem ser ligados.
+ */
+@Component
+public class VarreduraTenants {
+
+    /** Recursos que assumem ids únicos entre tenants. */
+    private static final List<String> INDICES_POR_ID = List.of(
+            "pagamento.indice-pagador.enabled", "pagamento.finalizados.enabled", "pagamento.analitico.enabled");
+
+    private final ProvedorConexoesTenant.Modo modo;
+    private final Map<String, String> schemas;
+    private final List<String> tenants;
+
+    @Autowired
+    public VarreduraTenants(ProvedorConexoesTenant provedorConexoesTenant,
+                            Environment environment,
+                            @Value("${pagamento.tenant.conhecidos:}") List<String> conhecidos) {
+        this(provedorConexoesTenant.getModo(), provedorConexoesTenant.getSchemas(), conhecidos);
+        if (modo == ProvedorConexoesTenant.Modo.SCHEMA) {
+            for (String propriedade : INDICES_POR_ID) {
+                if (environment.getProperty(propriedade, Boolean.class, false)) {
+                    throw new IllegalStateException(propriedade + " não é suportado com pagamento.tenant.modo=SCHEMA: "
+                            + "os ids de pagamento se repetem entre schemas.");
+                }
+            }
+        }
+    }
+
+    public VarreduraTenants(ProvedorConexoesTenant.Modo modo, Map<String, String> schemas, Collection<String> conhecidos) {
+        if (modo == ProvedorConexoesTenant.Modo.SCHEMA && conhecidos.isEmpty()) {
+            throw new IllegalStateException(
+                    "pagamento.tenant.modo=SCHEMA exige pagamento.tenant.conhecidos com a lista de tenants.");
+        }
+        this.modo = modo;
+        this.schemas = Map.copyOf(schemas);
+        TreeSet<String> todos = new TreeSet<>(conhecidos);
+        todos.addAll(schemas.keySet());
+        todos.add(ContextoTenant.PADRAO);
+        this.tenants = List.copyOf(todos);
+    }
+
+    public boolean porSchema() {
+        return modo == ProvedorConexoesTenant.Modo.SCHEMA;
+    }
+
+    /** Tenants varridos no modo SCHEMA, em ordem alfabética. */
+    public List<String> tenants() {
+        return tenants;
+    }
+
+    /**
+     * Executa a ação uma vez com sessão raiz ou, no modo SCHEMA, uma vez como cada tenant. Cada
+     * transação da ação deve começar dentro dela, já que o tenant da sessão é lido na abertura.
+     */
+    public void paraCada(Runnable acao) {
+        if (!porSchema()) {
+            ContextoTenant.executarComo(null, acao);
+            return;
+        }
+        for (String tenant : tenants) {
+            ContextoTenant.executarComo(tenant, acao);
+        }
+    }
+
+    /**
+     * Executa a ação para cada schema com tabelas de pagamento, para acesso JDBC fora da sessão do
+     * Hibernate: recebe {@code null} (o schema da própria conexão) no modo DISCRIMINADOR e o schema
+     * de cada tenant no modo SCHEMA.
+     */
+    public void paraCadaSchema(Consumer<String> acao) {
+        if (!porSchema()) {
+            acao.accept(null);
+            return;
+        }
+        List<String> visitados = new ArrayList<>(tenants.size());
+        for (String tenant : tenants) {
+            String schema = schemas.getOrDefault(tenant, tenant);
+            if (!visitados.contains(schema)) {
+                visitados.add(schema);
+                acao.accept(schema);
+            }
+        }
+    }
+}
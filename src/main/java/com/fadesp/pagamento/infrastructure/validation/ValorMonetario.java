@@ -0,0 +1,35 @@
+package com.fadesp.pagamento.infrastructure.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.RECORD_COMPONENT;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Equivalente a {@code @DecimalMin("0.01")} + {@code @Digits(integer = 15, fraction = 2)} para
+ * {@link com.fadesp.pagamento.infrastructure.valor.Dinheiro}. As casas decimais já são garantidas pelo tipo.
+ */
+@Documented
+@Target({ FIELD, PARAMETER, RECORD_COMPONENT })
+@Retention(RUNTIME)
+@Constraint(validatedBy = ValorMonetarioValidator.class)
+public @interface ValorMonetario {
+
+    /** Também usada quando o valor nem chega a ser lido (mais de duas casas ou fora de {@code long}). */
+    String MENSAGEM_MAXIMO = "O valor deve ter no máximo 15 dígitos inteiros e 2 decimais";
+
+    String message() default "O valor deve ser maior que zero";
+
+    String messageMaximo() default MENSAGEM_MAXIMO;
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,31 @@
+package com.fadesp.pagamento.infrastructure.validation;
+
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class ValorMonetarioValidator implements ConstraintValidator<ValorMonetario, Dinheiro> {
+
+    private String messageMaximo;
+
+    @Override
+    public void initialize(ValorMonetario constraintAnnotation) {
+        this.messageMaximo = constraintAnnotation.messageMaximo();
+    }
+
+    @Override
+    public boolean isValid(Dinheiro value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        if (!value.isPositivo()) {
+            return false;
+        }
+        if (value.centavos() > Dinheiro.MAXIMO_CENTAVOS) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(messageMaximo).addConstraintViolation();
+            return false;
+        }
+        return true;
+    }
+}
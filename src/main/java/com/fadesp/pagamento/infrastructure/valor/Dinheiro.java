@@ -0,0 +1,139 @@
+package com.fadesp.pagamento.infrastructure.valor;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Valor monetário em centavos ({@code long}). Substitui {@link BigDecimal} no processamento interno:
+ * comparação e soma não alocam, e a escala é sempre 2, sem reescala a cada atribuição.
+ * <p>
+ * Nas bordas o contrato continua decimal: JSON/CBOR via {@link DinheiroJson} e banco via
+ * {@link DinheiroConverter} (coluna {@code DECIMAL(17,2)}).
+ */
+@JsonSerialize(using = DinheiroJson.Serializer.class)
+@JsonDeserialize(using = DinheiroJson.Deserializer.class)
+public record Dinheiro(long centavos) implements Comparable<Dinheiro>, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    /** Maior valor aceito pela coluna: 15 dígitos inteiros e 2 decimais. */
+    public static final long MAXIMO_CENTAVOS = 99_999_999_999_999_99L;
+
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    /**
+     * @throws ArithmeticException se o valor tiver mais de duas casas decimais ou não couber em {@code long}
+     */
+    public static Dinheiro de(BigDecimal valor) {
+        if (valor.scale() > 2) {
+            throw new ArithmeticException("O valor deve ter no máximo duas casas decimais: " + valor);
+        }
+        return deCentavos(valor.movePointRight(2).longValueExact());
+    }
+
+    /**
+     * Lê texto decimal ({@code "250"}, {@code "250.5"}, {@code "-0.01"}) direto para centavos, sem
+     * passar por {@link BigDecimal}. Notação científica cai no caminho {@link #de(BigDecimal)}.
+     *
+     * @throws NumberFormatException se o texto não for um número
+     * @throws ArithmeticException   se tiver mais de duas casas decimais ou estourar {@code long}
+     */
+    public static Dinheiro parse(CharSequence texto) {
+        int tamanho = texto.length();
+        int i = 0;
+        boolean negativo = false;
+        if (tamanho > 0 && (texto.charAt(0) == '-' || texto.charAt(0) == '+')) {
+            negativo = texto.charAt(0) == '-';
+            i++;
+        }
+        long inteiro = 0;
+        int digitos = 0;
+        for (; i < tamanho; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            inteiro = Math.addExact(Math.multiplyExact(inteiro, 10), c - '0');
+            digitos++;
+        }
+        long fracao = 0;
+        int casas = 0;
+        if (i < tamanho && texto.charAt(i) == '.') {
+            for (i++; i < tamanho; i++) {
+                char c = texto.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (++casas > 2) {
+                    throw new ArithmeticException("O valor deve ter no máximo duas casas decimais: " + texto);
+                }
+                fracao = fracao * 10 + (c - '0');
+                digitos++;
+            }
+        }
+        if (i < tamanho) {
+            if (digitos > 0 && (texto.charAt(i) == 'e' || texto.charAt(i) == 'E')) {
+                return de(new BigDecimal(texto.toString()));
+            }
+            throw new NumberFormatException("Valor monetário inválido: " + texto);
+        }
+        if (digitos == 0) {
+            throw new NumberFormatException("Valor monetário inválido: " + texto);
+        }
+        if (casas == 1) {
+            fracao *= 10;
+        }
+        long centavos = Math.addExact(Math.multiplyExact(inteiro, 100), fracao);
+        return deCentavos(negativo ? -centavos : centavos);
+    }
+
+    public Dinheiro somar(Dinheiro outro) {
+        return deCentavos(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro subtrair(Dinheiro outro) {
+        return deCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public boolean isPositivo() {
+        return centavos > 0;
+    }
+
+    public boolean isMaiorQue(Dinheiro outro) {
+        return centavos > outro.centavos;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    /** Texto decimal com duas casas, no mesmo formato de {@code BigDecimal.valueOf(centavos, 2).toPlainString()}. */
+    @Override
+    public String toString() {
+        long absoluto = Math.abs(centavos);
+        StringBuilder sb = new StringBuilder(24);
+        if (centavos < 0) {
+            sb.append('-');
+        }
+        long resto = absoluto % 100;
+        sb.append(absoluto / 100).append('.');
+        if (resto < 10) {
+            sb.append('0');
+        }
+        return sb.append(resto).toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.fadesp.pagamento.infrastructure.valor;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Converter(autoApply = true)
+public class DinheiroConverter implements AttributeConverter<Dinheiro, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Dinheiro valor) {
+        return valor == null ? null : valor.toBigDecimal();
+    }
+
+    @Override
+    public Dinheiro convertToEntityAttribute(BigDecimal coluna) {
+        return coluna == null ? null : Dinheiro.de(coluna.setScale(2, RoundingMode.UNNECESSARY));
+    }
+}
@@ -0,0 +1,87 @@
+package com.fadesp.pagamento.infrastructure.valor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+
+/**
+ * (De)serialização de {@link Dinheiro} como número decimal, mantendo o contrato JSON/CBOR que antes
+ * era de {@code BigDecimal} ({@code "valor": 250.00}).
+ */
+public final class DinheiroJson {
+
+    private DinheiroJson() {
+    }
+
+    public static final class Serializer extends StdScalarSerializer<Dinheiro> {
+
+        public Serializer() {
+            super(Dinheiro.class);
+        }
+
+        @Override
+        public void serialize(Dinheiro valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (gen.canWriteFormattedNumbers()) {
+                gen.writeNumber(valor.toString());
+            } else {
+                gen.writeNumber(valor.toBigDecimal());
+            }
+        }
+    }
+
+    public static final class Deserializer extends StdScalarDeserializer<Dinheiro> {
+
+        public Deserializer() {
+            super(Dinheiro.class);
+        }
+
+        @Override
+        public Dinheiro deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return converter(p, ctxt, () -> Dinheiro.deCentavos(Math.multiplyExact(p.getLongValue(), 100)));
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT && p.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+                return converter(p, ctxt, () -> Dinheiro.de(p.getDecimalValue()));
+            }
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT
+                    || token == JsonToken.VALUE_STRING) {
+                String texto = p.getText().trim();
+                return converter(p, ctxt, () -> Dinheiro.parse(texto));
+            }
+            return (Dinheiro) ctxt.handleUnexpectedToken(Dinheiro.class, p);
+        }
+
+        private Dinheiro converter(JsonParser p, DeserializationContext ctxt, Leitura leitura) throws IOException {
+            try {
+                return leitura.ler();
+            } catch (ArithmeticException e) {
+                throw new ValorForaDoLimiteException(p, e.getMessage(), p.getText());
+            } catch (NumberFormatException e) {
+                throw ctxt.weirdStringException(p.getText(), Dinheiro.class, e.getMessage());
+            }
+        }
+
+        private interface Leitura {
+            Dinheiro ler() throws IOException;
+        }
+    }
+
+    /**
+     * Número bem formado, mas com mais de duas casas decimais ou grande demais: é um valor inválido,
+     * não um corpo malformado, e a API responde como a qualquer outra violação do campo (422).
+     */
+    public static final class ValorForaDoLimiteException extends InvalidFormatException {
+
+        ValorForaDoLimiteException(JsonParser p, String mensagem, Object valor) {
+            super(p, mensagem, valor, Dinheiro.class);
+        }
+    }
+}
@@ -1,30 +1,45 @@
 INSERT INTO pagamento (
+  tenant_id,
   codigo_debito,
   cpf_cnpj_pagador,
   metodo_pagamento_enum,
   numero_cartao,
   valor_transacao,
   status,
-  ativo
+  ativo,
+  criado_em,
+  atualizado_em
 ) VALUES
 
-  (1001, '12345678901', 'PIX',               NULL, 250.00, 'PENDENTE',                 TRUE),
-  (1002, '98765432100', 'PIX',               NULL, 125.75, 'PROCESSADO_COM_SUCESSO',   TRUE),
+  ('padrao', 1001, '12345678901', 'PIX',               NULL, 250.00, 'PENDENTE',                 TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1002, '98765432100', 'PIX',               NULL, 125.75, 'PROCESSADO_COM_SUCESSO',   TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 
-  (1003, '11122233344', 'CARTAO_CREDITO', '5555444433331111', 99.90,  'PENDENTE',               TRUE),
-  (1005, '99988877766', 'CARTAO_CREDITO', '4444333322221111', 350.00, 'PROCESSADO_COM_SUCESSO',  TRUE),
-  (1006, '99988877766', 'CARTAO_CREDITO', '4444333322221111', 120.50, 'PROCESSADO_COM_FALHA',    TRUE),
+  ('padrao', 1003, '11122233344', 'CARTAO_CREDITO', 'tok_ifJkJftDzBNY71G9', 99.90,  'PENDENTE',               TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1005, '99988877766', 'CARTAO_CREDITO', 'tok_5LebwNnFZy18EW76', 350.00, 'PROCESSADO_COM_SUCESSO',  TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1006, '99988877766', 'CARTAO_CREDITO', 'tok_5LebwNnFZy18EW76', 120.50, 'PROCESSADO_COM_FALHA',    TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 
-  (1007, '12312312312', 'CARTAO_DEBITO',  '6666555544443333', 75.00,  'PENDENTE',                TRUE),
-  (1008, '12312312312', 'CARTAO_DEBITO',  '6666555544443333', 88.90,  'PROCESSADO_COM_SUCESSO',  TRUE),
+  ('padrao', 1007, '12312312312', 'CARTAO_DEBITO',  'tok_9GjfWLvh0YjExsog', 75.00,  'PENDENTE',                TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1008, '12312312312', 'CARTAO_DEBITO',  'tok_9GjfWLvh0YjExsog', 88.90,  'PROCESSADO_COM_SUCESSO',  TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 
-  (1004, '22233344455', 'BOLETO',            NULL,  45.00, 'PROCESSADO_COM_FALHA',     TRUE),
-  (1009, '55566677788', 'BOLETO',            NULL,  200.00, 'PENDENTE',                TRUE),
-  (1010, '55566677788', 'BOLETO',            NULL,  340.00, 'PROCESSADO_COM_SUCESSO',  TRUE),
+  ('padrao', 1004, '22233344455', 'BOLETO',            NULL,  45.00, 'PROCESSADO_COM_FALHA',     TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1009, '55566677788', 'BOLETO',            NULL,  200.00, 'PENDENTE',                TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1010, '55566677788', 'BOLETO',            NULL,  340.00, 'PROCESSADO_COM_SUCESSO',  TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 
-  (1011, '77788899900', 'PIX',               NULL,  55.00,  'PENDENTE',                FALSE),
-  (1012, '11122233344', 'CARTAO_DEBITO',  '7777666655554444', 180.00, 'PROCESSADO_COM_SUCESSO', FALSE);
+  ('padrao', 1011, '77788899900', 'PIX',               NULL,  55.00,  'PENDENTE',                FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('padrao', 1012, '11122233344', 'CARTAO_DEBITO',  'tok_BbS4LHwRoenZhYHu', 180.00, 'PROCESSADO_COM_SUCESSO', FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+
+-- Cartões dos pagamentos acima, cifrados com a chave do perfil dev (application-dev.properties).
+INSERT INTO cofre_cartao (token, hash_pan, pan_cifrado, ultimos_digitos, criado_em) VALUES
+  ('tok_ifJkJftDzBNY71G9', X'd08c050cc23a90f368982f64e023faf962a50f260c40922ab6543627e3ebe06b',
+   X'104839c3cc23a2c483f8a43b3c43dfc714b68dc580b11c07b294e27ee33ead61192a2048bae7414fec047d4d', '1111', CURRENT_TIMESTAMP),
+  ('tok_5LebwNnFZy18EW76', X'7f02869dcb348bee96ce144fbab75849e584c34982a44d818ce57a545b99a89b',
+   X'd895061b8366d8e19c3d4c41f200d0132e5497a29718b26102fc1b081480749084ff7172df0585d80d11e7b8', '1111', CURRENT_TIMESTAMP),
+  ('tok_9GjfWLvh0YjExsog', X'c51a3a9d6bceac5688e929dffd0247513c9529693434760d0dd9dfe82530ed57',
+   X'e8cfea2b534dbca79454d6538f395088dafc0c1ecd94aa54bccc40f123881d0337e5fb62739126783b2f4e2f', '3333', CURRENT_TIMESTAMP),
+  ('tok_BbS4LHwRoenZhYHu', X'334e3c3a49712a92feeaf5bd8a3fd866be529832f27232d373b6078ff91f0658',
+   X'c308b35d7075330dc57565b8b50014ec342259e9d970a4accda2908173571757fea25a3758fd95d29a8701ff', '4444', CURRENT_TIMESTAMP);
@@ -0,0 +1,41 @@
+CREATE TABLE IF NOT EXISTS pagamento (
+  id                     BIGINT         NOT NULL AUTO_INCREMENT,
+  codigo_debito          INT            NOT NULL,
+  cpf_cnpj_pagador       VARCHAR(14)    NOT NULL,
+  metodo_pagamento_enum  VARCHAR(255)   NOT NULL,
+  valor_transacao        DECIMAL(17, 2) NOT NULL,
+  numero_cartao          VARCHAR(20)    NULL,
+  status                 VARCHAR(40)    NOT NULL,
+  ativo                  BIT(1)         NOT NULL,
+  criado_em              DATETIME(6)    NOT NULL,
+  atualizado_em          DATETIME(6)    NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_pagamento_codigo_debito UNIQUE (codigo_debito),
+  INDEX idx_pagamento_cpf_cnpj (cpf_cnpj_pagador),
+  INDEX idx_pagamento_status (status),
+  INDEX idx_pagamento_ativo_atualizado_em (ativo, atualizado_em)
+) ENGINE = InnoDB;
+
+-- A tabela quente mantém a unicidade global de codigo_debito, o que impede particioná-la
+-- por data no MySQL (toda chave única precisa conter a coluna de partição). O crescimento
+-- dela é contido pelo arquivamento; quem recebe o particionamento por intervalo é o arquivo.
+CREATE TABLE IF NOT EXISTS pagamento_arquivo (
+  id                     BIGINT         NOT NULL,
+  codigo_debito          INT            NOT NULL,
+  cpf_cnpj_pagador       VARCHAR(14)    NOT NULL,
+  metodo_pagamento_enum  VARCHAR(255)   NOT NULL,
+  valor_transacao        DECIMAL(17, 2) NOT NULL,
+  numero_cartao          VARCHAR(20)    NULL,
+  status                 VARCHAR(40)    NOT NULL,
+  ativo                  BIT(1)         NOT NULL,
+  criado_em              DATETIME(6)    NOT NULL,
+  atualizado_em          DATETIME(6)    NOT NULL,
+  arquivado_em           DATETIME(6)    NOT NULL,
+  PRIMARY KEY (id, arquivado_em),
+  INDEX idx_pagamento_arquivo_id (id),
+  INDEX idx_pagamento_arquivo_codigo_debito (codigo_debito),
+  INDEX idx_pagamento_arquivo_cpf_cnpj (cpf_cnpj_pagador)
+) ENGINE = InnoDB
+PARTITION BY RANGE COLUMNS (arquivado_em) (
+  PARTITION p_max VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,11 @@
+-- Cofre de cartões: pagamento.numero_cartao passa a guardar apenas o token (tok_ + 16 caracteres,
+-- cabe na coluna atual). PANs já gravados em claro são tokenizados na subida da aplicação.
+CREATE TABLE IF NOT EXISTS cofre_cartao (
+  token            VARCHAR(20)    NOT NULL,
+  hash_pan         VARBINARY(32)  NOT NULL,
+  pan_cifrado      VARBINARY(64)  NOT NULL,
+  ultimos_digitos  CHAR(4)        NOT NULL,
+  criado_em        DATETIME(6)    NOT NULL,
+  PRIMARY KEY (token),
+  CONSTRAINT uk_cofre_cartao_hash_pan UNIQUE (hash_pan)
+) ENGINE = InnoDB;
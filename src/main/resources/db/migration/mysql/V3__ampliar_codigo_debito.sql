@@ -0,0 +1,20 @@
+-- codigo_debito passa de INT para BIGINT nas duas tabelas. A troca de tipo reescreve a tabela
+-- (ALGORITHM=COPY, com os dados convertidos na cópia): em bases grandes, aplique em janela de
+-- manutenção ou com uma ferramenta de alteração online.
+ALTER TABLE pagamento_arquivo MODIFY codigo_debito BIGINT NOT NULL;
+
+-- A tabela quente passa a ser particionada por faixas de codigo_debito (uma por emissor, criadas por
+-- FaixasCodigoDebitoMysqlJob a partir de pagamento.codigo-debito.faixas). A chave única continua
+-- global, porque contém a coluna de partição, mas cada faixa tem a sua própria B-tree: inserções e
+-- consultas de unicidade de emissores diferentes não disputam as mesmas páginas do índice.
+-- A chave primária precisa incluir codigo_debito; id continua único pelo AUTO_INCREMENT e, como é o
+-- prefixo da PK, a busca por id consulta a PK de cada partição.
+ALTER TABLE pagamento
+  MODIFY codigo_debito BIGINT NOT NULL,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, codigo_debito);
+
+ALTER TABLE pagamento
+PARTITION BY RANGE (codigo_debito) (
+  PARTITION p_max VALUES LESS THAN MAXVALUE
+);
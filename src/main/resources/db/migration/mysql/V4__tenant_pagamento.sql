@@ -0,0 +1,20 @@
+-- Dimensão de tenant (instituição cliente). As linhas existentes ficam com o tenant padrão; depois
+-- disso a coluna não tem default: quem grava é a aplicação, com o tenant da sessão.
+-- Os índices de consulta por pagador e por status passam a começar por tenant_id, de modo que as
+-- varreduras de um tenant percorrem só o trecho dele na B-tree. A unicidade de codigo_debito
+-- continua global (as faixas por emissor da V3 separam os códigos de cada instituição).
+ALTER TABLE pagamento
+  ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'padrao' AFTER id,
+  DROP INDEX idx_pagamento_cpf_cnpj,
+  DROP INDEX idx_pagamento_status,
+  ADD INDEX idx_pagamento_tenant_cpf_cnpj (tenant_id, cpf_cnpj_pagador),
+  ADD INDEX idx_pagamento_tenant_status (tenant_id, status);
+
+ALTER TABLE pagamento ALTER COLUMN tenant_id DROP DEFAULT;
+
+ALTER TABLE pagamento_arquivo
+  ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'padrao' AFTER id,
+  DROP INDEX idx_pagamento_arquivo_cpf_cnpj,
+  ADD INDEX idx_pagamento_arquivo_tenant_cpf_cnpj (tenant_id, cpf_cnpj_pagador);
+
+ALTER TABLE pagamento_arquivo ALTER COLUMN tenant_id DROP DEFAULT;
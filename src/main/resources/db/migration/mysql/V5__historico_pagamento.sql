@@ -0,0 +1,16 @@
+-- Histórico de transições, só com INSERTs (gravados em lote, na mesma transação da alteração).
+-- Sem chave estrangeira para pagamento: o histórico continua válido depois do arquivamento.
+-- ocorrido_em em UTC, como as demais datas gravadas pelo Hibernate.
+CREATE TABLE pagamento_historico (
+  id               BIGINT        NOT NULL AUTO_INCREMENT,
+  tenant_id        VARCHAR(64)   NOT NULL,
+  pagamento_id     BIGINT        NOT NULL,
+  operacao         VARCHAR(20)   NOT NULL,
+  status_anterior  VARCHAR(40)   NOT NULL,
+  status_novo      VARCHAR(40)   NOT NULL,
+  ocorrido_em      DATETIME(6)   NOT NULL,
+  ator             VARCHAR(100)  NOT NULL,
+  PRIMARY KEY (id),
+  INDEX idx_pagamento_historico_pagamento (pagamento_id, id),
+  INDEX idx_pagamento_historico_ocorrido_em (ocorrido_em)
+) ENGINE = InnoDB;
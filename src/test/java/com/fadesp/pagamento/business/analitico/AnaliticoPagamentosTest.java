@@ -0,0 +1,181 @@
+package com.fadesp.pagamento.business.analitico;
+
+import com.fadesp.pagamento.business.dto.out.AtualizacaoFotoDTO;
+import com.fadesp.pagamento.business.dto.out.DesempenhoMetodoDTO;
+import com.fadesp.pagamento.business.dto.out.FaixaValorDTO;
+import com.fadesp.pagamento.business.dto.out.PagadorVolumeDTO;
+import com.fadesp.pagamento.business.evento.PagamentosArquivadosEvent;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoAnalitico;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnaliticoPagamentosTest {
+
+    private static final String OUTRO_TENANT = "inst-b";
+
+    private final PagamentoRepository pagamentoRepository = mock(PagamentoRepository.class);
+    private final AnaliticoPagamentos analitico =
+            new AnaliticoPagamentos(pagamentoRepository, new SimpleMeterRegistry(), 4, 1000, 5000);
+
+    @AfterEach
+    void encerrar() {
+        analitico.destroy();
+    }
+
+    private static PagamentoAnalitico pagamento(long id, String tenant, String pagador, StatusPagamentoEnum status,
+                                                MetodoPagamentoEnum metodo, long centavos, boolean ativo) {
+        return new PagamentoAnalitico(id, tenant, pagador, status, metodo, Dinheiro.deCentavos(centavos), ativo);
+    }
+
+    /** Simula a paginação por keyset das consultas do repositório sobre a lista informada. */
+    private static List<PagamentoAnalitico> pagina(List<PagamentoAnalitico> todos, long ultimoId, Pageable pageable) {
+        return todos.stream()
+                .filter(p -> p.id() > ultimoId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private void carregar(List<PagamentoAnalitico> ativos) {
+        when(pagamentoRepository.buscarAtivosParaAnalitico(anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> pagina(ativos, inv.getArgument(0), inv.getArgument(1)));
+        analitico.recarregar();
+    }
+
+    @Test
+    @DisplayName("Antes da primeira carga as consultas respondem indisponível")
+    void semFoto_deveLancarIndisponivel() {
+        IndisponivelException ex = assertThrows(IndisponivelException.class, analitico::desempenhoPorMetodo);
+        assertTrue(ex.getTentarNovamenteEmSegundos() > 0);
+    }
+
+    @Test
+    @DisplayName("Histograma em várias fatias confere com a contagem direta e ignora outros tenants")
+    void histograma_deveConferirComContagemDireta() {
+        List<PagamentoAnalitico> ativos = new ArrayList<>();
+        long[] quantidades = new long[3];
+        long[] somas = new long[3];
+        for (long id = 1; id <= 100_000; id++) {
+            String tenant = id % 10 == 0 ? OUTRO_TENANT : ContextoTenant.PADRAO;
+            long centavos = (id * 7919) % 20_000 + 1;
+            StatusPagamentoEnum status = StatusPagamentoEnum.values()[(int) (id % 3)];
+            ativos.add(pagamento(id, tenant, "p" + (id % 500), status, MetodoPagamentoEnum.PIX, centavos, true));
+            if (tenant.equals(ContextoTenant.PADRAO) && status == StatusPagamentoEnum.PENDENTE) {
+                int faixa = centavos < 5_000 ? 0 : centavos < 10_000 ? 1 : 2;
+                quantidades[faixa]++;
+                somas[faixa] += centavos;
+            }
+        }
+        carregar(ativos);
+
+        List<FaixaValorDTO> faixas = analitico.histogramaValores(
+                List.of(new BigDecimal("50"), new BigDecimal("100")), StatusPagamentoEnum.PENDENTE).resultado();
+
+        assertEquals(3, faixas.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(quantidades[i], faixas.get(i).quantidade());
+            assertEquals(Dinheiro.deCentavos(somas[i]), faixas.get(i).valor());
+        }
+        assertEquals(Dinheiro.ZERO, faixas.get(0).de());
+        assertNull(faixas.get(2).ate());
+    }
+
+    @Test
+    @DisplayName("Limites fora de ordem ou com mais de duas casas são recusados")
+    void histograma_limitesInvalidos_deveLancarBusinessException() {
+        carregar(List.of());
+
+        assertThrows(BusinessException.class,
+                () -> analitico.histogramaValores(List.of(new BigDecimal("100"), new BigDecimal("50")), null));
+        assertThrows(BusinessException.class,
+                () -> analitico.histogramaValores(List.of(new BigDecimal("0.001")), null));
+        assertThrows(BusinessException.class, () -> analitico.maioresPagadores(0));
+    }
+
+    @Test
+    @DisplayName("Taxa de sucesso por método considera apenas os processados")
+    void desempenhoPorMetodo_deveCalcularTaxaDeSucesso() {
+        carregar(List.of(
+                pagamento(1, ContextoTenant.PADRAO, "a", StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, MetodoPagamentoEnum.PIX, 100, true),
+                pagamento(2, ContextoTenant.PADRAO, "a", StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, MetodoPagamentoEnum.PIX, 100, true),
+                pagamento(3, ContextoTenant.PADRAO, "b", StatusPagamentoEnum.PROCESSADO_COM_FALHA, MetodoPagamentoEnum.PIX, 100, true),
+                pagamento(4, ContextoTenant.PADRAO, "b", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 100, true),
+                pagamento(5, ContextoTenant.PADRAO, "c", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.BOLETO, 100, true)));
+
+        List<DesempenhoMetodoDTO> metodos = analitico.desempenhoPorMetodo().resultado();
+
+        DesempenhoMetodoDTO pix = metodos.get(MetodoPagamentoEnum.PIX.ordinal());
+        assertEquals(2.0 / 3, pix.taxaSucesso(), 1e-9);
+        assertEquals(1, pix.totaisPorStatus().get(StatusPagamentoEnum.PENDENTE).quantidade());
+        assertNull(metodos.get(MetodoPagamentoEnum.BOLETO.ordinal()).taxaSucesso());
+    }
+
+    @Test
+    @DisplayName("Maiores pagadores ordenados por soma, só do tenant da requisição")
+    void maioresPagadores_deveOrdenarPorSomaDoTenant() {
+        carregar(List.of(
+                pagamento(1, ContextoTenant.PADRAO, "a", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 100, true),
+                pagamento(2, ContextoTenant.PADRAO, "b", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 500, true),
+                pagamento(3, ContextoTenant.PADRAO, "a", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 300, true),
+                pagamento(4, ContextoTenant.PADRAO, "c", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 50, true),
+                pagamento(5, OUTRO_TENANT, "a", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 10_000, true)));
+
+        List<PagadorVolumeDTO> padrao = analitico.maioresPagadores(2).resultado();
+        List<PagadorVolumeDTO> outro = ContextoTenant.executarComo(OUTRO_TENANT,
+                () -> analitico.maioresPagadores(10).resultado());
+
+        assertEquals(List.of(
+                new PagadorVolumeDTO("b", 1, Dinheiro.deCentavos(500)),
+                new PagadorVolumeDTO("a", 2, Dinheiro.deCentavos(400))), padrao);
+        assertEquals(List.of(new PagadorVolumeDTO("a", 1, Dinheiro.deCentavos(10_000))), outro);
+        assertTrue(ContextoTenant.executarComo("sem-pagamentos", () -> analitico.maioresPagadores(10).resultado()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Atualização incremental inclui, substitui e retira pagamentos")
+    void atualizar_deveAplicarAlteracoes() {
+        carregar(List.of(
+                pagamento(1, ContextoTenant.PADRAO, "a", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 100, true),
+                pagamento(2, ContextoTenant.PADRAO, "b", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 200, true),
+                pagamento(3, ContextoTenant.PADRAO, "c", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 300, true),
+                pagamento(4, ContextoTenant.PADRAO, "d", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 400, true)));
+        List<PagamentoAnalitico> alterados = List.of(
+                pagamento(2, ContextoTenant.PADRAO, "b", StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, MetodoPagamentoEnum.PIX, 200, true),
+                pagamento(3, ContextoTenant.PADRAO, "c", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 300, false),
+                pagamento(5, ContextoTenant.PADRAO, "e", StatusPagamentoEnum.PENDENTE, MetodoPagamentoEnum.PIX, 500, true));
+        when(pagamentoRepository.buscarAlteradosParaAnalitico(any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> pagina(alterados, inv.getArgument(1), inv.getArgument(2)));
+        analitico.aoArquivarPagamentos(new PagamentosArquivadosEvent(List.of(4L)));
+
+        AtualizacaoFotoDTO atualizacao = analitico.atualizar();
+
+        assertFalse(atualizacao.completa());
+        assertEquals(3, atualizacao.lidas());
+        assertEquals(2, atualizacao.removidas());
+        assertEquals(3, atualizacao.linhas());
+        List<PagadorVolumeDTO> pagadores = analitico.maioresPagadores(10).resultado();
+        assertEquals(List.of("e", "b", "a"), pagadores.stream().map(PagadorVolumeDTO::cpfCnpjPagador).toList());
+        DesempenhoMetodoDTO pix = analitico.desempenhoPorMetodo().resultado().get(MetodoPagamentoEnum.PIX.ordinal());
+        assertEquals(1, pix.totaisPorStatus().get(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO).quantidade());
+        assertEquals(2, pix.totaisPorStatus().get(StatusPagamentoEnum.PENDENTE).quantidade());
+    }
+}
@@ -0,0 +1,89 @@
+package com.fadesp.pagamento.business.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Compressão é feita pelo Tomcat, que o MockMvc não passa: as requisições vão pela porta real. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CompressaoRespostaTest {
+
+    private static final long CODIGO_INICIAL = 995001L;
+    private static final int QUANTIDADE = 40;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @AfterEach
+    void limpar() {
+        // O pool não usa auto-commit: sem transação o DELETE seria desfeito ao devolver a conexão.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM pagamento_historico WHERE pagamento_id IN "
+                            + "(SELECT id FROM pagamento WHERE codigo_debito BETWEEN ? AND ?)",
+                    CODIGO_INICIAL, CODIGO_INICIAL + QUANTIDADE);
+            jdbcTemplate.update("DELETE FROM pagamento WHERE codigo_debito BETWEEN ? AND ?",
+                    CODIGO_INICIAL, CODIGO_INICIAL + QUANTIDADE);
+        });
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+
+    private void criarLote() throws Exception {
+        StringJoiner pagamentos = new StringJoiner(",", "{\"pagamentos\":[", "]}");
+        for (int i = 0; i < QUANTIDADE; i++) {
+            pagamentos.add("{\"codigoDebito\":" + (CODIGO_INICIAL + i)
+                    + ",\"cpfCnpj\":\"11144477735\",\"metodoPagamento\":\"PIX\",\"valor\":" + (10 + i) + ".50}");
+        }
+        HttpResponse<String> resposta = cliente.send(HttpRequest.newBuilder(uri("/api/pagamentos/lote"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(pagamentos.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, resposta.statusCode(), resposta.body());
+    }
+
+    @Test
+    void listar_respostaGrande_deveVirComprimidaComEtagFraco() throws Exception {
+        criarLote();
+
+        HttpResponse<byte[]> resposta = cliente.send(HttpRequest.newBuilder(uri("/api/pagamentos?size=50"))
+                        .header("Accept", "application/json")
+                        .header("Accept-Encoding", "gzip")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, resposta.statusCode());
+        assertEquals("gzip", resposta.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(resposta.headers().firstValue("ETag").orElseThrow().startsWith("W/\""));
+        try (GZIPInputStream corpo = new GZIPInputStream(new ByteArrayInputStream(resposta.body()))) {
+            String json = new String(corpo.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"content\""), json);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.fadesp.pagamento.business.controller;
+
+import com.fadesp.pagamento.business.converter.PagamentoConverter;
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ResolvedorTenant;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IsolamentoTenantTest {
+
+    private static final long CODIGO = 770001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private PagamentoArquivadoRepository pagamentoArquivadoRepository;
+
+    @AfterEach
+    void limpar() {
+        // O pool não usa auto-commit: sem transação o DELETE seria desfeito ao devolver a conexão.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM pagamento WHERE codigo_debito = ?", CODIGO);
+            jdbcTemplate.update("DELETE FROM pagamento_arquivo WHERE codigo_debito = ?", CODIGO);
+        });
+    }
+
+    private long criarComo(String tenant) throws Exception {
+        String corpo = requisicaoCriacao(tenant)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(corpo).get("id").asLong();
+    }
+
+    private ResultActions requisicaoCriacao(String tenant) throws Exception {
+        return mockMvc.perform(post("/api/pagamentos")
+                        .header(ResolvedorTenant.CABECALHO, tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "codigoDebito": 770001,
+                                  "cpfCnpj": "52998224725",
+                                  "metodoPagamento": "PIX",
+                                  "valor": 45.60
+                                }
+                                """));
+    }
+
+    @Test
+    void pagamentoDeUmTenant_naoDeveSerVistoPorOutro() throws Exception {
+        long id = criarComo("inst-a");
+
+        assertEquals("inst-a", jdbcTemplate.queryForObject(
+                "SELECT tenant_id FROM pagamento WHERE id = ?", String.class, id));
+
+        mockMvc.perform(get("/api/pagamentos/" + id).header(ResolvedorTenant.CABECALHO, "inst-a"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", ResolvedorTenant.CABECALHO));
+        mockMvc.perform(get("/api/pagamentos/" + id).header(ResolvedorTenant.CABECALHO, "inst-b"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/pagamentos/" + id))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, listarComo("inst-a").get("totalElements").asLong());
+        // Lista vazia responde 404 (comportamento do serviço): o pagamento de inst-a não aparece.
+        mockMvc.perform(get("/api/pagamentos")
+                        .header(ResolvedorTenant.CABECALHO, "inst-b")
+                        .param("codigoDebito", String.valueOf(CODIGO)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void codigoArquivadoPorUmTenant_naoDeveSerReaproveitadoPorOutro() throws Exception {
+        long id = criarComo("inst-a");
+        // Arquiva como o job, em sessão sem tenant.
+        transactionTemplate.executeWithoutResult(status -> {
+            Pagamento pagamento = pagamentoRepository.findById(id).orElseThrow();
+            pagamentoArquivadoRepository.save(PagamentoConverter.toArquivado(pagamento, OffsetDateTime.now()));
+            pagamentoRepository.excluirPorIds(List.of(id));
+        });
+
+        requisicaoCriacao("inst-b").andExpect(status().isConflict());
+        requisicaoCriacao("inst-a").andExpect(status().isConflict());
+    }
+
+    @Test
+    void tenantInvalido_deveResponder400() throws Exception {
+        mockMvc.perform(get("/api/pagamentos").header(ResolvedorTenant.CABECALHO, "Inst A"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Tenant inválido"));
+    }
+
+    private JsonNode listarComo(String tenant) throws Exception {
+        String corpo = mockMvc.perform(get("/api/pagamentos")
+                        .header(ResolvedorTenant.CABECALHO, tenant)
+                        .param("codigoDebito", String.valueOf(CODIGO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(corpo);
+    }
+}
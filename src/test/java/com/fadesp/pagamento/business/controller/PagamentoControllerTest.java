@@ -1,18 +1,32 @@
 package com.fadesp.pagamento.business.controller;
 
+import com.fadesp.pagamento.config.SerializacaoBinariaConfig;
 import com.fadesp.pagamento.controller.PagamentoController;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fadesp.pagamento.business.dto.in.PagamentoLoteRequestDTO;
 import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.HistoricoPagamentoDTO;
 import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.dto.out.PaginaHistoricoDTO;
+import com.fadesp.pagamento.business.dto.out.ResumoPagadorDTO;
+import com.fadesp.pagamento.business.dto.out.TotalStatusDTO;
 import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.business.service.HistoricoPagamentoService;
+import com.fadesp.pagamento.business.service.ResumoPagadorService;
 import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.tenant.ResolvedorTenant;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
@@ -20,8 +34,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
@@ -31,6 +49,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PagamentoController.class)
+@Import({SerializacaoBinariaConfig.class, ResolvedorTenant.class})
 class PagamentoControllerTest {
 
     @Autowired
@@ -42,26 +61,35 @@ class PagamentoControllerTest {
     @MockBean
     private PagamentoService pagamentoService;
 
+    @MockBean
+    private ResumoPagadorService resumoPagadorService;
+
+    @MockBean
+    private HistoricoPagamentoService historicoPagamentoService;
+
+    private static final OffsetDateTime ATUALIZADO_EM = OffsetDateTime.parse("2026-01-15T10:30:00.123456Z");
+
 
     private PagamentoRequestDTO novoPagamentoRequest() {
         return new PagamentoRequestDTO(
-                2001,
+                2001L,
                 "52998224725",
                 MetodoPagamentoEnum.PIX,
                 null,
-                new BigDecimal("150.00")
+                Dinheiro.parse("150.00")
         );
     }
 
     private PagamentoResponseDTO resposta(Long id, StatusPagamentoEnum status) {
         return new PagamentoResponseDTO(
                 id,
-                2001,
+                2001L,
                 "52998224725",
                 MetodoPagamentoEnum.PIX,
-                new BigDecimal("150.00"),
+                Dinheiro.parse("150.00"),
                 status,
-                true
+                true,
+                ATUALIZADO_EM
         );
     }
 
@@ -80,6 +108,7 @@ class PagamentoControllerTest {
                         .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isCreated())
                 .andExpect(header().string("Location", "/api/pagamentos/1"))
+                .andExpect(header().string("X-Correlation-Id", matchesPattern("[0-9a-f]{32}")))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.status", is("PENDENTE")));
@@ -93,13 +122,15 @@ class PagamentoControllerTest {
         given(pagamentoService.buscarPagamentoPorId(1L))
                 .willReturn(resposta(1L, StatusPagamentoEnum.PENDENTE));
 
-        mockMvc.perform(get("/api/pagamentos/{id}", 1))
+        mockMvc.perform(get("/api/pagamentos/{id}", 1).header("X-Correlation-Id", "pedido-42"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Correlation-Id", "pedido-42"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.codigoDebito", is(2001)))
                 .andExpect(jsonPath("$.cpfCnpjPagador", is("52998224725")))
-                .andExpect(jsonPath("$.status", is("PENDENTE")));
+                .andExpect(jsonPath("$.status", is("PENDENTE")))
+                .andExpect(content().string(containsString("\"valor\":150.00,")));
 
         verify(pagamentoService, times(1)).buscarPagamentoPorId(1L);
     }
@@ -128,23 +159,76 @@ class PagamentoControllerTest {
                 .andExpect(jsonPath("$.content[0].status", is("PENDENTE")));
 
         verify(pagamentoService, times(1))
-                .listarComFiltros(eq(2001), eq("52998224725"),
+                .listarComFiltros(eq(2001L), eq("52998224725"),
                         eq(StatusPagamentoEnum.PENDENTE), any());
     }
 
+    @Test
+    @DisplayName("GET /api/pagamentos/{id} com If-None-Match atual → 304 sem carregar o pagamento")
+    void buscarPorId_etagAtual_deveRetornar304() throws Exception {
+        given(pagamentoService.buscarPagamentoPorId(1L))
+                .willReturn(resposta(1L, StatusPagamentoEnum.PENDENTE));
+        given(pagamentoService.buscarVersaoPagamento(1L))
+                .willReturn(Optional.of(ATUALIZADO_EM));
+
+        String etag = mockMvc.perform(get("/api/pagamentos/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/pagamentos/{id}", 1).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(pagamentoService, times(1)).buscarPagamentoPorId(1L);
+        verify(pagamentoService, times(1)).buscarVersaoPagamento(1L);
+    }
+
+    @Test
+    @DisplayName("GET /api/pagamentos/{id} com If-None-Match desatualizado → 200 com novo ETag")
+    void buscarPorId_etagDesatualizado_deveRetornar200() throws Exception {
+        given(pagamentoService.buscarPagamentoPorId(1L))
+                .willReturn(resposta(1L, StatusPagamentoEnum.PENDENTE));
+        given(pagamentoService.buscarVersaoPagamento(1L))
+                .willReturn(Optional.of(ATUALIZADO_EM));
+
+        mockMvc.perform(get("/api/pagamentos/{id}", 1).header("If-None-Match", "\"1-0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not("\"1-0.0\"")))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /api/pagamentos com If-None-Match atual → 304")
+    void listar_etagAtual_deveRetornar304() throws Exception {
+        Page<PagamentoResponseDTO> page = new PageImpl<>(List.of(resposta(7L, StatusPagamentoEnum.PENDENTE)));
+        given(pagamentoService.listarComFiltros(any(), any(), any(), ArgumentMatchers.any()))
+                .willReturn(page);
+
+        String etag = mockMvc.perform(get("/api/pagamentos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/pagamentos").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @DisplayName("PATCH /api/pagamentos/{id}/status → 200 OK")
     void atualizarStatus_deveRetornar200() throws Exception {
-        given(pagamentoService.atualizarStatusPagamento(1L, StatusPagamentoEnum.PROCESSADO_COM_SUCESSO))
+        given(pagamentoService.atualizarStatusPagamento(1L, StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, "operador-17"))
                 .willReturn(resposta(1L, StatusPagamentoEnum.PROCESSADO_COM_SUCESSO));
 
         mockMvc.perform(patch("/api/pagamentos/{id}/status", 1L)
+                        .header(PagamentoController.CABECALHO_ATOR, "operador-17")
                         .param("novoStatus", "PROCESSADO_COM_SUCESSO"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status", is("PROCESSADO_COM_SUCESSO")));
 
         verify(pagamentoService, times(1))
-                .atualizarStatusPagamento(1L, StatusPagamentoEnum.PROCESSADO_COM_SUCESSO);
+                .atualizarStatusPagamento(1L, StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, "operador-17");
     }
 
     @Test
@@ -153,7 +237,7 @@ class PagamentoControllerTest {
         mockMvc.perform(delete("/api/pagamentos/{id}", 5L))
                 .andExpect(status().isNoContent());
 
-        verify(pagamentoService, times(1)).excluirPagamentoPendente(5L);
+        verify(pagamentoService, times(1)).excluirPagamentoPendente(5L, PagamentoService.ATOR_SISTEMA);
     }
 
     @Test
@@ -173,4 +257,146 @@ class PagamentoControllerTest {
                 .andExpect(status().isUnprocessableEntity());
         verify(pagamentoService, times(0)).realizarPagamento(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST com valor de três casas decimais ou zero → 422; valor não numérico → 400")
+    void criarPagamento_valorInvalido() throws Exception {
+        String corpo = """
+                {
+                  "codigoDebito": 2001,
+                  "cpfCnpj": "52998224725",
+                  "metodoPagamento": "PIX",
+                  "valor": %s
+                }
+                """;
+
+        mockMvc.perform(post("/api/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted("10.001")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Dados inválidos"))
+                .andExpect(jsonPath("$.validationErrors.valor[0]")
+                        .value("O valor deve ter no máximo 15 dígitos inteiros e 2 decimais"));
+        mockMvc.perform(post("/api/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted("1e20")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.validationErrors.valor").exists());
+        mockMvc.perform(post("/api/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted("\"dez\"")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("dez")));
+        mockMvc.perform(post("/api/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo.formatted("0.00")))
+                .andExpect(status().isUnprocessableEntity());
+        verify(pagamentoService, times(0)).realizarPagamento(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/pagamentos/{id} com Accept: application/cbor → corpo CBOR")
+    void buscarPorId_cbor_deveRetornarCbor() throws Exception {
+        given(pagamentoService.buscarPagamentoPorId(1L))
+                .willReturn(resposta(1L, StatusPagamentoEnum.PENDENTE));
+
+        byte[] corpo = mockMvc.perform(get("/api/pagamentos/{id}", 1).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode json = new CBORMapper().readTree(corpo);
+        assertThat(json.get("id").asLong(), is(1L));
+        assertThat(json.get("status").asText(), is("PENDENTE"));
+        assertThat(json.get("valor").decimalValue(), comparesEqualTo(new BigDecimal("150.00")));
+    }
+
+    @Test
+    @DisplayName("GET /api/pagamentos/{id} em JSON e CBOR → ETags distintos e Vary: Accept")
+    void buscarPorId_jsonECbor_deveTerEtagsDistintos() throws Exception {
+        given(pagamentoService.buscarPagamentoPorId(1L))
+                .willReturn(resposta(1L, StatusPagamentoEnum.PENDENTE));
+        given(pagamentoService.buscarVersaoPagamento(1L))
+                .willReturn(Optional.of(ATUALIZADO_EM));
+
+        String etagJson = mockMvc.perform(get("/api/pagamentos/{id}", 1).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andReturn().getResponse().getHeader("ETag");
+        String etagCbor = mockMvc.perform(get("/api/pagamentos/{id}", 1).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(etagCbor, not(etagJson));
+        mockMvc.perform(get("/api/pagamentos/{id}", 1)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", etagJson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/api/pagamentos/{id}", 1)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", etagCbor))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))));
+    }
+
+    @Test
+    @DisplayName("POST /api/pagamentos/lote com corpo CBOR → 201 Created")
+    void criarLote_cbor_deveRetornar201() throws Exception {
+        given(pagamentoService.realizarPagamentosEmLote(any(PagamentoLoteRequestDTO.class)))
+                .willReturn(List.of(resposta(1L, StatusPagamentoEnum.PENDENTE), resposta(2L, StatusPagamentoEnum.PENDENTE)));
+
+        byte[] corpo = new CBORMapper().writeValueAsBytes(new PagamentoLoteRequestDTO(List.of(novoPagamentoRequest())));
+
+        mockMvc.perform(post("/api/pagamentos/lote")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+    }
+
+    @Test
+    @DisplayName("POST /api/pagamentos/lote vazio → 422 Unprocessable Entity")
+    void criarLote_vazio_deveRetornar422() throws Exception {
+        mockMvc.perform(post("/api/pagamentos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pagamentos\": []}"))
+                .andExpect(status().isUnprocessableEntity());
+        verify(pagamentoService, times(0)).realizarPagamentosEmLote(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/pagamentos/pagadores/{cpfCnpj}/resumo → 200 OK")
+    void resumoPagador_deveRetornar200() throws Exception {
+        given(resumoPagadorService.resumir("52998224725")).willReturn(new ResumoPagadorDTO(
+                "52998224725",
+                Map.of(StatusPagamentoEnum.PENDENTE, new TotalStatusDTO(2, Dinheiro.parse("300.00"))),
+                Dinheiro.parse("300.00"),
+                List.of(1L, 4L)));
+
+        mockMvc.perform(get("/api/pagamentos/pagadores/{cpfCnpj}/resumo", "52998224725"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saldoEmAberto", is(300.00)))
+                .andExpect(jsonPath("$.totaisPorStatus.PENDENTE.quantidade", is(2)))
+                .andExpect(jsonPath("$.idsPendentes", contains(1, 4)));
+    }
+
+    @Test
+    @DisplayName("GET /api/pagamentos/{id}/historico → 200 OK com cursor da próxima página")
+    void historico_deveRetornar200() throws Exception {
+        given(historicoPagamentoService.listar(1L, 10L, 1)).willReturn(new PaginaHistoricoDTO(
+                List.of(new HistoricoPagamentoDTO(11L, OperacaoHistoricoEnum.STATUS, StatusPagamentoEnum.PENDENTE,
+                        StatusPagamentoEnum.PROCESSADO_COM_FALHA, ATUALIZADO_EM, "operador-17")),
+                11L));
+
+        mockMvc.perform(get("/api/pagamentos/{id}/historico", 1L)
+                        .param("apos", "10")
+                        .param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].statusNovo", is("PROCESSADO_COM_FALHA")))
+                .andExpect(jsonPath("$.itens[0].ator", is("operador-17")))
+                .andExpect(jsonPath("$.proximo", is(11)));
+    }
+}
@@ -0,0 +1,213 @@
+package com.fadesp.pagamento.business.controller;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.controller.grpc.PagamentoGrpcService;
+import com.fadesp.pagamento.grpc.*;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PagamentoGrpcServiceTest {
+
+    private final PagamentoService pagamentoService = mock(PagamentoService.class);
+    private Server servidor;
+    private ManagedChannel canal;
+    private PagamentosGrpc.PagamentosBlockingStub stub;
+    private PagamentosGrpc.PagamentosStub stubAssincrono;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String nome = InProcessServerBuilder.generateName();
+        PagamentoGrpcService service = new PagamentoGrpcService(
+                pagamentoService, Validation.buildDefaultValidatorFactory().getValidator(), 2, 10);
+        servidor = InProcessServerBuilder.forName(nome).directExecutor().addService(service).build().start();
+        canal = InProcessChannelBuilder.forName(nome).directExecutor().build();
+        stub = PagamentosGrpc.newBlockingStub(canal);
+        stubAssincrono = PagamentosGrpc.newStub(canal);
+    }
+
+    @AfterEach
+    void tearDown() {
+        canal.shutdownNow();
+        servidor.shutdownNow();
+    }
+
+    private PagamentoResponseDTO resposta(Long id, StatusPagamentoEnum status) {
+        return new PagamentoResponseDTO(id, 2001L, "52998224725", MetodoPagamentoEnum.PIX,
+                Dinheiro.parse("150.00"), status, true, OffsetDateTime.parse("2026-01-15T10:30:00Z"));
+    }
+
+    @Test
+    @DisplayName("Criar - converte centavos e delega ao serviço")
+    void criar_sucesso() {
+        when(pagamentoService.realizarPagamento(any())).thenReturn(resposta(1L, StatusPagamentoEnum.PENDENTE));
+
+        PagamentoResponse resp = stub.criar(PagamentoRequest.newBuilder()
+                .setCodigoDebito(2001L)
+                .setCpfCnpj("52998224725")
+                .setMetodoPagamento(MetodoPagamento.PIX)
+                .setValorCentavos(15000)
+                .build());
+
+        assertEquals(1L, resp.getId());
+        assertEquals(15000, resp.getValorCentavos());
+        assertEquals(StatusPagamento.PENDENTE, resp.getStatus());
+        verify(pagamentoService).realizarPagamento(new PagamentoRequestDTO(
+                2001L, "52998224725", MetodoPagamentoEnum.PIX, null, Dinheiro.parse("150.00")));
+    }
+
+    @Test
+    @DisplayName("Criar - Bean Validation falha → INVALID_ARGUMENT sem chamar o serviço")
+    void criar_invalido() {
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () -> stub.criar(
+                PagamentoRequest.newBuilder().setCodigoDebito(2001L).setCpfCnpj("123").build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+        verifyNoInteractions(pagamentoService);
+    }
+
+    @Test
+    @DisplayName("Buscar/AtualizarStatus - exceções de negócio viram status gRPC")
+    void excecoes_traduzidas() {
+        when(pagamentoService.buscarPagamentoPorId(9L)).thenThrow(new NotFoundException("Pagamento não encontrado: id=9"));
+        when(pagamentoService.atualizarStatusPagamento(1L, StatusPagamentoEnum.PENDENTE, "grpc"))
+                .thenThrow(new BusinessException("Transição inválida"));
+        doThrow(new IndisponivelException("Serviço sobrecarregado", 2))
+                .when(pagamentoService).excluirPagamentoPendente(5L, "grpc");
+
+        StatusRuntimeException naoEncontrado = assertThrows(StatusRuntimeException.class,
+                () -> stub.buscar(BuscarPagamentoRequest.newBuilder().setId(9L).build()));
+        StatusRuntimeException regra = assertThrows(StatusRuntimeException.class,
+                () -> stub.atualizarStatus(AtualizarStatusRequest.newBuilder()
+                        .setId(1L).setNovoStatus(StatusPagamento.PENDENTE).build()));
+        StatusRuntimeException sobrecarga = assertThrows(StatusRuntimeException.class,
+                () -> stub.excluir(ExcluirPagamentoRequest.newBuilder().setId(5L).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, naoEncontrado.getStatus().getCode());
+        assertEquals(Status.Code.FAILED_PRECONDITION, regra.getStatus().getCode());
+        assertEquals(Status.Code.UNAVAILABLE, sobrecarga.getStatus().getCode());
+        assertEquals("2000", sobrecarga.getTrailers().get(
+                Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER)));
+    }
+
+    @Test
+    @DisplayName("ListarStream - percorre todas as páginas")
+    void listarStream_percorrePaginas() {
+        when(pagamentoService.listarComFiltros(isNull(), isNull(), eq(StatusPagamentoEnum.PENDENTE), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    Pageable p = inv.getArgument(3);
+                    List<PagamentoResponseDTO> itens = p.getPageNumber() == 0
+                            ? List.of(resposta(1L, StatusPagamentoEnum.PENDENTE), resposta(2L, StatusPagamentoEnum.PENDENTE))
+                            : List.of(resposta(3L, StatusPagamentoEnum.PENDENTE));
+                    return new PageImpl<>(itens, PageRequest.of(p.getPageNumber(), 2), 3);
+                });
+
+        List<Long> ids = new ArrayList<>();
+        stub.listarStream(ListarPagamentosRequest.newBuilder().setStatus(StatusPagamento.PENDENTE).build())
+                .forEachRemaining(r -> ids.add(r.getId()));
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        verify(pagamentoService, times(2)).listarComFiltros(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Listar - página ou tamanho negativos → INVALID_ARGUMENT; tamanho acima do máximo é limitado")
+    void listar_validaPaginacao() {
+        when(pagamentoService.listarComFiltros(any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(), inv.getArgument(3), 0));
+
+        StatusRuntimeException pagina = assertThrows(StatusRuntimeException.class,
+                () -> stub.listar(ListarPagamentosRequest.newBuilder().setPagina(-1).build()));
+        StatusRuntimeException tamanho = assertThrows(StatusRuntimeException.class,
+                () -> stub.listar(ListarPagamentosRequest.newBuilder().setTamanho(-5).build()));
+        stub.listar(ListarPagamentosRequest.newBuilder().setPagina(3).setTamanho(1_000_000).build());
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, pagina.getStatus().getCode());
+        assertEquals(Status.Code.INVALID_ARGUMENT, tamanho.getStatus().getCode());
+        verify(pagamentoService).listarComFiltros(isNull(), isNull(), isNull(), eq(PageRequest.of(3, 10)));
+    }
+
+    @Test
+    @DisplayName("ListarStream - só lê a próxima página quando o cliente pede mais mensagens")
+    void listarStream_respeitaControleDeFluxo() {
+        when(pagamentoService.listarComFiltros(any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    Pageable p = inv.getArgument(3);
+                    long base = p.getPageNumber() * 2L;
+                    return new PageImpl<>(List.of(resposta(base + 1, StatusPagamentoEnum.PENDENTE),
+                            resposta(base + 2, StatusPagamentoEnum.PENDENTE)), PageRequest.of(p.getPageNumber(), 2), 6);
+                });
+        List<Long> ids = new ArrayList<>();
+        AtomicBoolean concluido = new AtomicBoolean();
+        AtomicReference<ClientCallStreamObserver<ListarPagamentosRequest>> chamada = new AtomicReference<>();
+
+        stubAssincrono.listarStream(ListarPagamentosRequest.getDefaultInstance(),
+                new ClientResponseObserver<ListarPagamentosRequest, PagamentoResponse>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<ListarPagamentosRequest> requestStream) {
+                        chamada.set(requestStream);
+                        requestStream.disableAutoRequestWithInitial(1);
+                    }
+
+                    @Override
+                    public void onNext(PagamentoResponse value) {
+                        ids.add(value.getId());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        fail(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        concluido.set(true);
+                    }
+                });
+
+        assertEquals(List.of(1L), ids);
+        verify(pagamentoService, times(1)).listarComFiltros(any(), any(), any(), any());
+
+        chamada.get().request(2);
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        verify(pagamentoService, times(2)).listarComFiltros(any(), any(), any(), any());
+        assertFalse(concluido.get());
+
+        chamada.get().request(10);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), ids);
+        assertTrue(concluido.get());
+        verify(pagamentoService, times(3)).listarComFiltros(any(), any(), any(), any());
+    }
+}
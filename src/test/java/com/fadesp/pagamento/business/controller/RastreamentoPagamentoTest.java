@@ -0,0 +1,115 @@
+package com.fadesp.pagamento.business.controller;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@Import(RastreamentoPagamentoTest.ExportadorEmMemoria.class)
+class RastreamentoPagamentoTest {
+
+    @TestConfiguration
+    static class ExportadorEmMemoria {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter exportador;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void limpar() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        exportador.reset();
+    }
+
+    private List<SpanData> spans() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return exportador.getFinishedSpanItems();
+    }
+
+    private static SpanData span(List<SpanData> spans, String nome) {
+        return spans.stream()
+                .filter(s -> s.getName().equals(nome))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Span ausente: " + nome + " em "
+                        + spans.stream().map(SpanData::getName).toList()));
+    }
+
+    private static String atributo(SpanData span, String chave) {
+        return span.getAttributes().get(AttributeKey.stringKey(chave));
+    }
+
+    @Test
+    void listarComFiltros_deveGerarSpansDeHttpServicoRepositorioEConexao() throws Exception {
+        mockMvc.perform(get("/api/pagamentos").param("status", "PENDENTE"))
+                .andExpect(status().isOk());
+
+        List<SpanData> spans = spans();
+        SpanData http = span(spans, "http get /api/pagamentos");
+        SpanData servico = span(spans, "pagamento-service.listar-com-filtros");
+        SpanData repositorio = span(spans, "pagamento-repository.buscar-com-filtros");
+        SpanData conexao = span(spans, "aquisicao-conexao");
+
+        for (SpanData s : List.of(servico, repositorio, conexao)) {
+            assertEquals(http.getTraceId(), s.getTraceId(), s.getName());
+        }
+        assertEquals(servico.getSpanId(), repositorio.getParentSpanId());
+        assertEquals("PENDENTE", atributo(servico, "pagamento.filtro.status"));
+        assertNull(atributo(servico, "pagamento.filtro.cpf_cnpj"));
+        assertEquals(atributo(repositorio, "pagamento.linhas"), atributo(servico, "pagamento.linhas"));
+    }
+
+    @Test
+    void realizarPagamento_deveAnotarSpanDoServicoNoTraceDaRequisicao() throws Exception {
+        mockMvc.perform(post("/api/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "codigoDebito": 880001,
+                                  "cpfCnpj": "52998224725",
+                                  "metodoPagamento": "PIX",
+                                  "valor": 12.34
+                                }
+                                """))
+                .andExpect(status().isCreated());
+
+        List<SpanData> spans = spans();
+        SpanData http = span(spans, "http post /api/pagamentos");
+        SpanData servico = span(spans, "pagamento-service.realizar-pagamento");
+
+        assertEquals(http.getTraceId(), servico.getTraceId());
+        assertEquals("880001", atributo(servico, "pagamento.codigo_debito"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.fadesp.pagamento.business.historico;
+
+import com.fadesp.pagamento.business.evento.TransicaoPagamentoEvent;
+import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.controller.PagamentoController;
+import com.fadesp.pagamento.infrastructure.enums.OperacaoHistoricoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.tenant.ResolvedorTenant;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GravadorHistoricoTest {
+
+    private static final long CODIGO = 990001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Long id;
+
+    @AfterEach
+    void limpar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (id != null) {
+                jdbcTemplate.update("DELETE FROM pagamento_historico WHERE pagamento_id = ?", id);
+            }
+            jdbcTemplate.update("DELETE FROM pagamento WHERE codigo_debito = ?", CODIGO);
+        });
+    }
+
+    private long criar() throws Exception {
+        String corpo = mockMvc.perform(post("/api/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "codigoDebito": 990001,
+                                  "cpfCnpj": "52998224725",
+                                  "metodoPagamento": "PIX",
+                                  "valor": 10.00
+                                }
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(corpo).get("id").asLong();
+    }
+
+    private JsonNode historico(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Test
+    void transicoes_devemSerGravadasEmOrdemEPaginadasPorCursor() throws Exception {
+        id = criar();
+        mockMvc.perform(patch("/api/pagamentos/{id}/status", id)
+                        .header(PagamentoController.CABECALHO_ATOR, "operador-17")
+                        .param("novoStatus", "PROCESSADO_COM_FALHA"))
+                .andExpect(status().isOk());
+        // Transição inválida: a transação é desfeita e nada vai para o histórico.
+        mockMvc.perform(patch("/api/pagamentos/{id}/status", id)
+                        .param("novoStatus", "PROCESSADO_COM_SUCESSO"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/pagamentos/{id}/status", id)
+                        .param("novoStatus", "PENDENTE"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/pagamentos/{id}", id)
+                        .header(PagamentoController.CABECALHO_ATOR, "operador-9"))
+                .andExpect(status().isNoContent());
+
+        JsonNode primeira = historico(get("/api/pagamentos/{id}/historico", id).param("tamanho", "2"));
+        assertEquals(2, primeira.get("itens").size());
+        assertEquals("PENDENTE", primeira.get("itens").get(0).get("statusAnterior").asText());
+        assertEquals("PROCESSADO_COM_FALHA", primeira.get("itens").get(0).get("statusNovo").asText());
+        assertEquals("operador-17", primeira.get("itens").get(0).get("ator").asText());
+        assertEquals("sistema", primeira.get("itens").get(1).get("ator").asText());
+
+        JsonNode segunda = historico(get("/api/pagamentos/{id}/historico", id)
+                .param("tamanho", "2")
+                .param("apos", primeira.get("proximo").asText()));
+        assertEquals(1, segunda.get("itens").size());
+        assertEquals("EXCLUSAO", segunda.get("itens").get(0).get("operacao").asText());
+        assertEquals("operador-9", segunda.get("itens").get(0).get("ator").asText());
+        assertTrue(segunda.get("proximo").isNull());
+
+        JsonNode outroTenant = historico(get("/api/pagamentos/{id}/historico", id)
+                .header(ResolvedorTenant.CABECALHO, "inst-b"));
+        assertEquals(0, outroTenant.get("itens").size());
+    }
+
+    @Test
+    void falhaAoGravarOHistorico_deveDesfazerAAlteracao() throws Exception {
+        id = criar();
+
+        // Ator maior que a coluna: o INSERT do histórico falha no commit e leva a alteração junto.
+        assertThrows(DataAccessException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                pagamentoService.atualizarStatusPagamento(id, StatusPagamentoEnum.PROCESSADO_COM_FALHA, "x".repeat(101))));
+
+        assertEquals("PENDENTE", jdbcTemplate.queryForObject(
+                "SELECT status FROM pagamento WHERE id = ?", String.class, id));
+        assertEquals(0, historico(get("/api/pagamentos/{id}/historico", id)).get("itens").size());
+    }
+
+    @Test
+    void transacaoDesfeita_naoDeveGravarHistorico() throws Exception {
+        id = criar();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            pagamentoService.atualizarStatusPagamento(id, StatusPagamentoEnum.PROCESSADO_COM_FALHA, "operador-3");
+            status.setRollbackOnly();
+        });
+        assertEquals(0, historico(get("/api/pagamentos/{id}/historico", id)).get("itens").size());
+
+        transactionTemplate.executeWithoutResult(status ->
+                pagamentoService.atualizarStatusPagamento(id, StatusPagamentoEnum.PROCESSADO_COM_FALHA, "operador-3"));
+        assertEquals(1, historico(get("/api/pagamentos/{id}/historico", id)).get("itens").size());
+    }
+
+    @Test
+    void transicaoForaDeTransacao_deveSerConfirmada() {
+        id = 990099L;
+        eventPublisher.publishEvent(new TransicaoPagamentoEvent(id, ContextoTenant.PADRAO, OperacaoHistoricoEnum.STATUS,
+                StatusPagamentoEnum.PENDENTE, StatusPagamentoEnum.PROCESSADO_COM_FALHA,
+                OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS), "job"));
+
+        // Sem auto-commit no pool, uma escrita sem transação seria desfeita ao devolver a conexão.
+        Integer gravadas = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pagamento_historico WHERE pagamento_id = ?", Integer.class, id));
+        assertEquals(1, gravadas);
+    }
+}
@@ -0,0 +1,92 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.tenant.ProvedorConexoesTenant;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FiltroCodigosDebitoTest {
+
+    private static final VarreduraTenants VARREDURA =
+            new VarreduraTenants(ProvedorConexoesTenant.Modo.DISCRIMINADOR, Map.of(), List.of());
+
+    private final PagamentoRepository pagamentoRepository = mock(PagamentoRepository.class);
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository = mock(PagamentoArquivadoRepository.class);
+
+    @Test
+    @DisplayName("Filtro de Bloom - nunca dá falso negativo e respeita a taxa configurada")
+    void filtroBloom_semFalsoNegativoETaxaProximaDaConfigurada() {
+        FiltroBloom filtro = new FiltroBloom(100_000, 0.01);
+        for (long codigo = 1; codigo <= 100_000; codigo++) {
+            filtro.adicionar(codigo);
+        }
+
+        for (long codigo = 1; codigo <= 100_000; codigo++) {
+            assertTrue(filtro.possivelmenteContem(codigo));
+        }
+        int falsosPositivos = 0;
+        for (long codigo = 1_000_001; codigo <= 1_100_000; codigo++) {
+            if (filtro.possivelmenteContem(codigo)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+        assertEquals(0.01, filtro.taxaFalsoPositivoEstimada(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Antes do aquecimento todo código é tratado como possivelmente presente")
+    void naoPronto_deveMandarConsultarOBanco() {
+        FiltroCodigosDebito filtro = new FiltroCodigosDebito(pagamentoRepository, pagamentoArquivadoRepository,
+                VARREDURA, new SimpleMeterRegistry(), 1000, 0.01, 2);
+
+        assertFalse(filtro.isPronto());
+        assertTrue(filtro.possivelmentePresente(123L));
+    }
+
+    @Test
+    void aquecer_deveCarregarAsDuasTabelasPorChaveERegistrarNovosCodigos() {
+        when(pagamentoRepository.buscarCodigosDebitoApos(eq(Long.MIN_VALUE), any())).thenReturn(List.of(10L, 20L));
+        when(pagamentoRepository.buscarCodigosDebitoApos(eq(20L), any())).thenReturn(List.of(30L));
+        when(pagamentoArquivadoRepository.buscarCodigosDebitoApos(eq(Long.MIN_VALUE), any())).thenReturn(List.of(5L));
+        FiltroCodigosDebito filtro = new FiltroCodigosDebito(pagamentoRepository, pagamentoArquivadoRepository,
+                VARREDURA, new SimpleMeterRegistry(), 1000, 0.001, 2);
+
+        filtro.aquecer();
+
+        assertTrue(filtro.isPronto());
+        assertEquals(List.of(5L, 10L, 20L, 30L), filtro.possivelmentePresentes(List.of(5L, 10L, 20L, 30L)));
+        assertFalse(filtro.possivelmentePresente(40L));
+
+        filtro.registrar(40L);
+        assertTrue(filtro.possivelmentePresente(40L));
+    }
+
+    @Test
+    @DisplayName("No modo SCHEMA o aquecimento lê as tabelas de cada tenant")
+    void aquecer_modoSchema_deveLerCadaTenant() {
+        when(pagamentoRepository.buscarCodigosDebitoApos(eq(Long.MIN_VALUE), any())).thenAnswer(inv ->
+                ContextoTenant.atual().equals("inst-a") ? List.of(7L) : List.of(8L));
+        VarreduraTenants porSchema = new VarreduraTenants(ProvedorConexoesTenant.Modo.SCHEMA, Map.of(), List.of("inst-a"));
+        FiltroCodigosDebito filtro = new FiltroCodigosDebito(pagamentoRepository, pagamentoArquivadoRepository,
+                porSchema, new SimpleMeterRegistry(), 1000, 0.001, 2);
+
+        filtro.aquecer();
+
+        assertEquals(List.of(7L, 8L), filtro.possivelmentePresentes(List.of(7L, 8L)));
+        assertNull(ContextoTenant.atual());
+    }
+}
@@ -0,0 +1,136 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoFinalizado;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceFinalizadosTest {
+
+    private static final OffsetDateTime ATUALIZADO_EM =
+            OffsetDateTime.of(2026, 3, 10, 14, 30, 15, 123_456_000, ZoneOffset.ofHours(-3));
+
+    private final PagamentoRepository pagamentoRepository = mock(PagamentoRepository.class);
+    private final PagamentoArquivadoRepository pagamentoArquivadoRepository = mock(PagamentoArquivadoRepository.class);
+
+    @TempDir
+    Path diretorio;
+
+    private IndiceFinalizados novoIndice() {
+        return new IndiceFinalizados(pagamentoRepository, pagamentoArquivadoRepository, new SimpleMeterRegistry(),
+                diretorio.toString(), 100, 5000);
+    }
+
+    private static PagamentoFinalizado finalizado(long id, String tenant) {
+        return new PagamentoFinalizado(id, tenant, 1_000_000L + id, "12345678909", MetodoPagamentoEnum.PIX,
+                Dinheiro.deCentavos(id * 100 + 1), id % 2 == 0, ATUALIZADO_EM);
+    }
+
+    /** Simula a paginação por keyset das consultas do repositório sobre a lista informada. */
+    private static List<PagamentoFinalizado> pagina(List<PagamentoFinalizado> todos, long ultimoId, Pageable pageable) {
+        return todos.stream()
+                .filter(p -> p.id() > ultimoId)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private void banco(List<PagamentoFinalizado> principal, List<PagamentoFinalizado> arquivados) {
+        when(pagamentoRepository.buscarFinalizados(eq(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO), any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> pagina(principal, inv.getArgument(2), inv.getArgument(3)));
+        when(pagamentoArquivadoRepository.buscarFinalizados(eq(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO), any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> pagina(arquivados, inv.getArgument(2), inv.getArgument(3)));
+    }
+
+    @Test
+    @DisplayName("Busca no arquivo mapeado devolve o mesmo conteúdo lido do banco, de ambas as tabelas")
+    void atualizar_deveServirPagamentosDasDuasTabelas() {
+        List<PagamentoFinalizado> principal = new ArrayList<>();
+        List<PagamentoFinalizado> arquivados = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            (id % 3 == 0 ? arquivados : principal).add(finalizado(id, ContextoTenant.PADRAO));
+        }
+        banco(principal, arquivados);
+        IndiceFinalizados indice = novoIndice();
+
+        assertEquals(1000, indice.atualizar());
+
+        PagamentoFinalizado esperado = finalizado(300, ContextoTenant.PADRAO);
+        PagamentoResponseDTO encontrado = indice.buscar(300);
+        assertEquals(new PagamentoResponseDTO(300L, esperado.codigoDebito(), "12345678909", MetodoPagamentoEnum.PIX,
+                esperado.valor(), StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, true, ATUALIZADO_EM), encontrado);
+        assertNotNull(indice.buscar(1));
+        assertNull(indice.buscar(1001));
+        assertNull(indice.buscar(0));
+    }
+
+    @Test
+    @DisplayName("Pagamento de outro tenant não é servido pelo arquivo")
+    void buscar_outroTenant_deveIrAoBanco() {
+        banco(List.of(finalizado(1, ContextoTenant.PADRAO), finalizado(2, "inst-b")), List.of());
+        IndiceFinalizados indice = novoIndice();
+        indice.atualizar();
+
+        assertNotNull(indice.buscar(1));
+        assertNull(indice.buscar(2));
+        assertNotNull(ContextoTenant.executarComo("inst-b", () -> indice.buscar(2)));
+        assertNull(ContextoTenant.executarComo("inst-b", () -> indice.buscar(1)));
+    }
+
+    @Test
+    @DisplayName("Nova geração intercala o arquivo anterior com os novos finalizados e substitui o arquivo")
+    void atualizar_deveIntercalarComArquivoAnterior() throws Exception {
+        banco(List.of(finalizado(2, ContextoTenant.PADRAO), finalizado(5, ContextoTenant.PADRAO)), List.of());
+        IndiceFinalizados indice = novoIndice();
+        indice.atualizar();
+        Thread.sleep(2);
+
+        banco(List.of(finalizado(3, "inst-b"), finalizado(5, ContextoTenant.PADRAO), finalizado(9, ContextoTenant.PADRAO)),
+                List.of(finalizado(1, ContextoTenant.PADRAO)));
+        assertEquals(5, indice.atualizar());
+
+        for (long id : new long[]{1, 2, 5, 9}) {
+            assertNotNull(indice.buscar(id), "id " + id);
+        }
+        assertNotNull(ContextoTenant.executarComo("inst-b", () -> indice.buscar(3)));
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertEquals(1, arquivos.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Na subida o último arquivo é reaberto sem ler tudo do banco")
+    void reabrir_deveUsarUltimoArquivo() {
+        banco(List.of(finalizado(7, ContextoTenant.PADRAO)), List.of());
+        novoIndice().atualizar();
+
+        IndiceFinalizados reaberto = novoIndice();
+        reaberto.reabrir();
+
+        assertEquals(1, reaberto.quantidade());
+        assertNotNull(reaberto.buscar(7));
+    }
+}
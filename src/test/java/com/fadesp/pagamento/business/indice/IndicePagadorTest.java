@@ -0,0 +1,154 @@
+package com.fadesp.pagamento.business.indice;
+
+import com.fadesp.pagamento.business.dto.out.ResumoPagadorDTO;
+import com.fadesp.pagamento.business.evento.PagamentoAlteradoEvent;
+import com.fadesp.pagamento.business.evento.PagamentosArquivadosEvent;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository.PagamentoIndexavel;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndicePagadorTest {
+
+    private static final String PAGADOR = "52998224725";
+    private static final String TENANT = "padrao";
+    private static final OffsetDateTime CARGA = OffsetDateTime.parse("2026-03-01T10:00:00Z");
+
+    private final PagamentoRepository pagamentoRepository = mock(PagamentoRepository.class);
+    private IndicePagador indice;
+
+    private static PagamentoIndexavel indexavel(long id, String doc, StatusPagamentoEnum status, String valor) {
+        return indexavel(id, TENANT, doc, status, valor);
+    }
+
+    private static PagamentoIndexavel indexavel(long id, String tenant, String doc, StatusPagamentoEnum status,
+                                                String valor) {
+        return new PagamentoIndexavel() {
+            public Long getId() { return id; }
+            public String getTenant() { return tenant; }
+            public String getCpfCnpjPagador() { return doc; }
+            public StatusPagamentoEnum getStatus() { return status; }
+            public Dinheiro getValorTransacao() { return Dinheiro.parse(valor); }
+            public OffsetDateTime getAtualizadoEm() { return CARGA; }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndicePagador(pagamentoRepository, new SimpleMeterRegistry(), 2);
+        when(pagamentoRepository.buscarAtivosParaIndice(eq(0L), any())).thenReturn(List.of(
+                indexavel(1, PAGADOR, StatusPagamentoEnum.PENDENTE, "100.00"),
+                indexavel(2, PAGADOR, StatusPagamentoEnum.PROCESSADO_COM_FALHA, "20.50")));
+        when(pagamentoRepository.buscarAtivosParaIndice(eq(2L), any())).thenReturn(List.of(
+                indexavel(3, PAGADOR, StatusPagamentoEnum.PENDENTE, "0.01")));
+    }
+
+    @Test
+    @DisplayName("Antes do aquecimento o índice não responde")
+    void naoProntoAntesDoAquecimento() {
+        assertTrue(indice.resumo(TENANT, PAGADOR).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Aquecimento percorre os lotes por keyset e totaliza em centavos")
+    void aquecimento() {
+        indice.aquecer();
+
+        ResumoPagadorDTO resumo = indice.resumo(TENANT, PAGADOR).orElseThrow();
+        assertEquals(List.of(1L, 3L), resumo.idsPendentes());
+        assertEquals(Dinheiro.parse("100.01"), resumo.totaisPorStatus().get(StatusPagamentoEnum.PENDENTE).valor());
+        assertEquals(Dinheiro.parse("120.51"), resumo.saldoEmAberto());
+        assertEquals(0, indice.resumo(TENANT, "11144477735").orElseThrow().idsPendentes().size());
+    }
+
+    @Test
+    @DisplayName("Eventos movem o pagamento entre status, inativam e arquivam")
+    void eventos() {
+        indice.aquecer();
+
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(1L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, Dinheiro.parse("100.00"), true, CARGA.plusSeconds(1)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(3L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("0.01"), false, CARGA.plusSeconds(1)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(9L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("5.00"), true, CARGA.plusSeconds(1)));
+
+        ResumoPagadorDTO resumo = indice.resumo(TENANT, PAGADOR).orElseThrow();
+        assertEquals(List.of(9L), resumo.idsPendentes());
+        assertEquals(1, resumo.totaisPorStatus().get(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO).quantidade());
+        assertEquals(Dinheiro.parse("25.50"), resumo.saldoEmAberto());
+
+        indice.aoArquivarPagamentos(new PagamentosArquivadosEvent(List.of(1L)));
+        assertEquals(0, indice.resumo(TENANT, PAGADOR).orElseThrow()
+                .totaisPorStatus().get(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO).quantidade());
+    }
+
+    @Test
+    @DisplayName("Aquecimento não sobrescreve pagamento alterado por evento durante a carga")
+    void eventoDuranteAquecimentoPrevalece() {
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(1L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("100.00"), false, CARGA.plusSeconds(1)));
+
+        indice.aquecer();
+
+        assertEquals(List.of(3L), indice.resumo(TENANT, PAGADOR).orElseThrow().idsPendentes());
+    }
+
+    @Test
+    @DisplayName("O mesmo pagador em outro tenant tem resumo próprio")
+    void isolamentoPorTenant() {
+        when(pagamentoRepository.buscarAtivosParaIndice(eq(3L), any())).thenReturn(List.of(
+                indexavel(4, "outro", PAGADOR, StatusPagamentoEnum.PENDENTE, "7.00")));
+        indice = new IndicePagador(pagamentoRepository, new SimpleMeterRegistry(), 1);
+        when(pagamentoRepository.buscarAtivosParaIndice(eq(0L), any())).thenReturn(List.of(
+                indexavel(1, PAGADOR, StatusPagamentoEnum.PENDENTE, "100.00")));
+        when(pagamentoRepository.buscarAtivosParaIndice(eq(1L), any())).thenReturn(List.of(
+                indexavel(3, PAGADOR, StatusPagamentoEnum.PENDENTE, "0.01")));
+
+        indice.aquecer();
+
+        assertEquals(List.of(1L, 3L), indice.resumo(TENANT, PAGADOR).orElseThrow().idsPendentes());
+        assertEquals(List.of(4L), indice.resumo("outro", PAGADOR).orElseThrow().idsPendentes());
+    }
+
+    @Test
+    @DisplayName("Evento mais antigo que o estado indexado é descartado, inclusive após a inativação")
+    void eventoAtrasadoDescartado() {
+        indice.aquecer();
+
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(1L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, Dinheiro.parse("100.00"), true, CARGA.plusSeconds(2)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(1L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("100.00"), true, CARGA.plusSeconds(1)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(3L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("0.01"), false, CARGA.plusSeconds(2)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(3L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("0.01"), true, CARGA.plusSeconds(1)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(2L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PENDENTE, Dinheiro.parse("20.50"), true, CARGA.minusSeconds(1)));
+
+        ResumoPagadorDTO resumo = indice.resumo(TENANT, PAGADOR).orElseThrow();
+        assertEquals(List.of(), resumo.idsPendentes());
+        assertEquals(1, resumo.totaisPorStatus().get(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO).quantidade());
+        assertEquals(1, resumo.totaisPorStatus().get(StatusPagamentoEnum.PROCESSADO_COM_FALHA).quantidade());
+
+        indice.aoArquivarPagamentos(new PagamentosArquivadosEvent(List.of(1L)));
+        indice.aoAlterarPagamento(new PagamentoAlteradoEvent(1L, TENANT, PAGADOR,
+                StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, Dinheiro.parse("100.00"), true, CARGA.plusSeconds(3)));
+        assertEquals(0, indice.resumo(TENANT, PAGADOR).orElseThrow()
+                .totaisPorStatus().get(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO).quantidade());
+    }
+}
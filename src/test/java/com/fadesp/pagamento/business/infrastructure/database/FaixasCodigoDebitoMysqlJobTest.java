@@ -0,0 +1,54 @@
+package com.fadesp.pagamento.business.infrastructure.database;
+
+import com.fadesp.pagamento.infrastructure.database.FaixasCodigoDebitoMysqlJob;
+import com.fadesp.pagamento.infrastructure.database.FaixasCodigoDebitoMysqlJob.Faixa;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaixasCodigoDebitoMysqlJobTest {
+
+    @Test
+    void planejar_deveDividirAPartirDeP_maxNaOrdemDasFaixas() {
+        List<String> comandos = FaixasCodigoDebitoMysqlJob.planejar(List.of(
+                Faixa.de("emissor-b", "2000000-2999999"),
+                Faixa.de("EMISSOR_A", "1-999999")), new TreeMap<>());
+
+        assertEquals(List.of(
+                "ALTER TABLE pagamento REORGANIZE PARTITION p_max INTO ("
+                        + "PARTITION p_emissor_a VALUES LESS THAN (1000000), PARTITION p_max VALUES LESS THAN MAXVALUE)",
+                "ALTER TABLE pagamento REORGANIZE PARTITION p_max INTO ("
+                        + "PARTITION p_ate_2000000 VALUES LESS THAN (2000000), PARTITION p_max VALUES LESS THAN MAXVALUE)",
+                "ALTER TABLE pagamento REORGANIZE PARTITION p_max INTO ("
+                        + "PARTITION p_emissor_b VALUES LESS THAN (3000000), PARTITION p_max VALUES LESS THAN MAXVALUE)"),
+                comandos);
+    }
+
+    @Test
+    void planejar_deveIgnorarLimitesExistentesEDividirAParticaoQueContemONovo() {
+        NavigableMap<Long, String> limites = new TreeMap<>();
+        limites.put(1000000L, "p_emissor_a");
+        limites.put(3000000L, "p_emissor_b");
+
+        List<String> comandos = FaixasCodigoDebitoMysqlJob.planejar(List.of(
+                Faixa.de("emissor_a", "1-999999"),
+                Faixa.de("emissor_c", "1000000-1499999")), limites);
+
+        assertEquals(List.of("ALTER TABLE pagamento REORGANIZE PARTITION p_emissor_b INTO ("
+                + "PARTITION p_emissor_c VALUES LESS THAN (1500000), PARTITION p_emissor_b VALUES LESS THAN (3000000))"),
+                comandos);
+    }
+
+    @Test
+    void faixas_invalidasOuSobrepostas_devemSerRejeitadas() {
+        assertThrows(IllegalArgumentException.class, () -> Faixa.de("a", "10"));
+        assertThrows(IllegalArgumentException.class, () -> Faixa.de("a", "10-5"));
+        assertThrows(IllegalArgumentException.class, () -> Faixa.de("max", "1-5").particao());
+        assertThrows(IllegalArgumentException.class, () -> FaixasCodigoDebitoMysqlJob.planejar(
+                List.of(Faixa.de("a", "1-100"), Faixa.de("b", "100-200")), new TreeMap<>()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.fadesp.pagamento.business.infrastructure.limite;
+
+import com.fadesp.pagamento.infrastructure.limite.LimiteAdaptativo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteAdaptativoTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AtomicInteger pendentes = new AtomicInteger();
+
+    private LimiteAdaptativo novoLimite(int inicial) {
+        return new LimiteAdaptativo(inicial, 2, 100, 1.5, 0.9, 10, pendentes::get);
+    }
+
+    /** Executa uma janela com {@code concorrencia} chamadas simultâneas de {@code latenciaNanos} cada. */
+    private static void janela(LimiteAdaptativo limite, int concorrencia, long latenciaNanos) {
+        for (int rodada = 0; rodada < 10; rodada += concorrencia) {
+            int entraram = 0;
+            for (int i = 0; i < concorrencia; i++) {
+                if (limite.adquirir(true)) {
+                    entraram++;
+                }
+            }
+            for (int i = 0; i < entraram; i++) {
+                limite.liberar(latenciaNanos);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Acima do limite só as chamadas prioritárias entram")
+    void adquirir_acimaDoLimite_deveRecusarApenasBaixaPrioridade() {
+        LimiteAdaptativo limite = novoLimite(2);
+
+        assertTrue(limite.adquirir(false));
+        assertTrue(limite.adquirir(false));
+        assertFalse(limite.adquirir(false));
+        assertTrue(limite.adquirir(true));
+        assertEquals(3, limite.getEmExecucao());
+
+        limite.liberar(MS);
+        limite.liberar(MS);
+        assertTrue(limite.adquirir(false));
+    }
+
+    @Test
+    @DisplayName("Latência estável com demanda no limite faz o limite crescer")
+    void latenciaEstavelComDemanda_deveAumentarLimite() {
+        LimiteAdaptativo limite = novoLimite(5);
+
+        for (int i = 0; i < 5; i++) {
+            janela(limite, 5 + i, 10 * MS);
+        }
+
+        assertTrue(limite.getLimite() > 5, "limite: " + limite.getLimite());
+    }
+
+    @Test
+    @DisplayName("Ociosidade não infla o limite")
+    void ociosidade_naoDeveAumentarLimite() {
+        LimiteAdaptativo limite = novoLimite(20);
+
+        for (int i = 0; i < 5; i++) {
+            janela(limite, 1, 10 * MS);
+        }
+
+        assertEquals(20, limite.getLimite());
+    }
+
+    @Test
+    @DisplayName("Latência acima da tolerância reduz o limite na proporção do aumento")
+    void latenciaAlta_deveReduzirLimite() {
+        LimiteAdaptativo limite = novoLimite(40);
+        janela(limite, 1, 10 * MS);
+
+        janela(limite, 1, 30 * MS);
+
+        assertEquals(20, limite.getLimite());
+    }
+
+    @Test
+    @DisplayName("Threads esperando conexão reduzem o limite mesmo sem aumento de latência, até o mínimo")
+    void poolSaturado_deveReduzirAteOMinimo() {
+        LimiteAdaptativo limite = novoLimite(40);
+        pendentes.set(3);
+
+        janela(limite, 1, 10 * MS);
+        assertEquals(36, limite.getLimite());
+
+        for (int i = 0; i < 100; i++) {
+            janela(limite, 1, 10 * MS);
+        }
+        assertEquals(2, limite.getLimite());
+    }
+
+    @Test
+    @DisplayName("Chamadas atendidas sem o banco saem da concorrência sem contar na janela")
+    void liberarSemAmostra_naoDeveDiluirALatenciaDaJanela() {
+        LimiteAdaptativo limite = novoLimite(20);
+        for (int i = 0; i < 20; i++) {
+            janela(limite, 10, 10 * MS);
+        }
+        int estavel = limite.getLimite();
+
+        // Acertos em memória não fecham janela nem puxam a latência de longo prazo para baixo.
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limite.adquirir(true));
+            limite.liberarSemAmostra();
+        }
+        assertEquals(0, limite.getEmExecucao());
+        assertEquals(estavel, limite.getLimite());
+
+        janela(limite, 10, 40 * MS);
+
+        assertTrue(limite.getLimite() < estavel);
+    }
+}
@@ -0,0 +1,58 @@
+package com.fadesp.pagamento.business.infrastructure.log;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.fadesp.pagamento.infrastructure.log.AmostragemLog;
+import com.fadesp.pagamento.infrastructure.log.AmostragemTurboFilter;
+import com.fadesp.pagamento.infrastructure.log.CorrelacaoFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmostragemTurboFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("teste");
+    private final AmostragemTurboFilter filtro = new AmostragemTurboFilter();
+
+    @AfterEach
+    void limparMdc() {
+        MDC.clear();
+    }
+
+    private FilterReply decidir(Level nivel, Throwable erro) {
+        return filtro.decide(AmostragemLog.AMOSTRAVEL, logger, nivel, "msg", null, erro);
+    }
+
+    @Test
+    void semMarcador_nuncaDescarta() {
+        filtro.setTaxa(0.0);
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, logger, Level.INFO, "msg", null, null));
+    }
+
+    @Test
+    void taxaZero_descartaSucessoMasMantemAvisosEErros() {
+        filtro.setTaxa(0.0);
+        assertEquals(FilterReply.DENY, decidir(Level.INFO, null));
+        assertEquals(FilterReply.NEUTRAL, decidir(Level.WARN, null));
+        assertEquals(FilterReply.NEUTRAL, decidir(Level.INFO, new IllegalStateException()));
+    }
+
+    @Test
+    void mesmaRequisicao_recebeSempreAMesmaDecisao() {
+        filtro.setTaxa(0.5);
+        int amostradas = 0;
+        for (int i = 0; i < 2000; i++) {
+            MDC.put(CorrelacaoFilter.CHAVE_MDC, "req-" + i);
+            FilterReply primeira = decidir(Level.INFO, null);
+            assertEquals(primeira, decidir(Level.DEBUG, null));
+            if (primeira == FilterReply.NEUTRAL) {
+                amostradas++;
+            }
+        }
+        assertTrue(amostradas > 850 && amostradas < 1150, "amostradas=" + amostradas);
+    }
+}
@@ -0,0 +1,91 @@
+package com.fadesp.pagamento.business.infrastructure.observabilidade;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.ConflictException;
+import com.fadesp.pagamento.infrastructure.observabilidade.MonitorTransacoes;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "pagamento.transacao.limite-ms=0")
+class MonitorTransacoesTest {
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer timer(String nome, String metodo) {
+        return meterRegistry.get(nome).tag("classe", "PagamentoService").tag("metodo", metodo).timer();
+    }
+
+    private double longas(String metodo) {
+        return meterRegistry.get(MonitorTransacoes.LONGAS)
+                .tag("classe", "PagamentoService").tag("metodo", metodo).counter().count();
+    }
+
+    @Test
+    void realizarPagamento_deveRegistrarEsperaEPossePorMetodo() {
+        long antes = meterRegistry.find(MonitorTransacoes.POSSE).tag("metodo", "realizarPagamento").timers()
+                .stream().mapToLong(Timer::count).sum();
+
+        pagamentoService.realizarPagamento(new PagamentoRequestDTO(
+                770001L, "52998224725", MetodoPagamentoEnum.PIX, null, Dinheiro.parse("10.00")));
+
+        Timer posse = timer(MonitorTransacoes.POSSE, "realizarPagamento");
+        assertEquals(antes + 1, posse.count());
+        assertTrue(posse.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(timer(MonitorTransacoes.ESPERA, "realizarPagamento").count() >= 1);
+        assertTrue(longas("realizarPagamento") >= 1);
+    }
+
+    @Test
+    void transacaoComErro_tambemDeveSerMedida() {
+        PagamentoRequestDTO dto = new PagamentoRequestDTO(
+                770002L, "52998224725", MetodoPagamentoEnum.BOLETO, null, Dinheiro.parse("5.00"));
+        pagamentoService.realizarPagamento(dto);
+        long antes = timer(MonitorTransacoes.POSSE, "realizarPagamento").count();
+
+        assertThrows(ConflictException.class, () -> pagamentoService.realizarPagamento(dto));
+
+        assertEquals(antes + 1, timer(MonitorTransacoes.POSSE, "realizarPagamento").count());
+    }
+
+    @Test
+    void chamadaAninhada_deveContarSoNaTransacaoExterna() {
+        pagamentoService.realizarPagamento(new PagamentoRequestDTO(
+                770003L, "52998224725", MetodoPagamentoEnum.CARTAO_CREDITO, "4000000000000010", Dinheiro.parse("7.00")));
+
+        assertNull(meterRegistry.find(MonitorTransacoes.POSSE).tag("classe", "CofreCartaoService")
+                .tag("metodo", "tokenizar").timer());
+    }
+
+    @Test
+    void resumirArgumentos_naoDeveExporDocumentoNemCartao() {
+        String resumo = MonitorTransacoes.resumirArgumentos(new Object[]{
+                new PagamentoRequestDTO(123L, "52998224725", MetodoPagamentoEnum.CARTAO_DEBITO,
+                        "5555444433331111", Dinheiro.parse("1.50")),
+                List.of(1, 2, 3),
+                42L,
+                "52998224725",
+                PageRequest.of(0, 20)});
+
+        assertTrue(resumo.startsWith(
+                "PagamentoRequestDTO[codigoDebito=123, metodoPagamento=CARTAO_DEBITO, valor=1.50], List"), resumo);
+        assertTrue(resumo.contains("[3], 42, "), resumo);
+        assertFalse(resumo.contains("52998224725"), resumo);
+        assertFalse(resumo.contains("5555444433331111"), resumo);
+    }
+}
@@ -0,0 +1,103 @@
+package com.fadesp.pagamento.business.infrastructure.raia;
+
+import com.fadesp.pagamento.infrastructure.raia.Raia;
+import com.fadesp.pagamento.infrastructure.raia.RaiasFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RaiasFilterTest {
+
+    @Test
+    @DisplayName("Raia recusa quando a concorrência e a fila estão cheias e volta a aceitar ao liberar")
+    void raia_deveRecusarAcimaDoLimite() {
+        Raia raia = new Raia("teste", 2, 0, 0, new SimpleMeterRegistry());
+
+        assertTrue(raia.entrar());
+        assertTrue(raia.entrar());
+        assertFalse(raia.entrar());
+        assertEquals(2, raia.emExecucao());
+
+        raia.sair();
+        assertTrue(raia.entrar());
+    }
+
+    @Test
+    @DisplayName("Na fila, a requisição espera a vaga liberada dentro do prazo")
+    void raia_deveEsperarNaFila() throws Exception {
+        Raia raia = new Raia("teste", 1, 1, 5_000, new SimpleMeterRegistry());
+        assertTrue(raia.entrar());
+
+        Thread liberar = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            raia.sair();
+        });
+        liberar.start();
+
+        assertTrue(raia.entrar());
+        liberar.join();
+    }
+
+    @Test
+    @DisplayName("Leitura esgotada responde 503 com Retry-After sem afetar a escrita")
+    void filtro_leituraEsgotada_naoBloqueiaEscrita() throws Exception {
+        RaiasFilter filtro = new RaiasFilter(new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry(), 1, 0, 0, 1, 0, 0, 2, 10);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread listagem = new Thread(() -> {
+            try {
+                filtro.doFilter(requisicao("GET", "/api/pagamentos"), new MockHttpServletResponse(), (req, res) -> {
+                    dentro.countDown();
+                    try {
+                        liberar.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        listagem.start();
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse leitura = new MockHttpServletResponse();
+        filtro.doFilter(requisicao("GET", "/api/pagamentos/1"), leitura, new MockFilterChain());
+        AtomicInteger escritas = new AtomicInteger();
+        MockHttpServletResponse escrita = new MockHttpServletResponse();
+        filtro.doFilter(requisicao("POST", "/api/pagamentos"), escrita, (req, res) -> escritas.incrementAndGet());
+        MockHttpServletResponse outroCaminho = new MockHttpServletResponse();
+        filtro.doFilter(requisicao("GET", "/actuator/health"), outroCaminho, new MockFilterChain());
+
+        liberar.countDown();
+        listagem.join();
+
+        assertEquals(503, leitura.getStatus());
+        assertEquals("2", leitura.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(leitura.getContentAsString().contains("leitura"));
+        assertEquals(200, escrita.getStatus());
+        assertEquals(1, escritas.get());
+        assertEquals(200, outroCaminho.getStatus());
+    }
+
+    private static MockHttpServletRequest requisicao(String metodo, String caminho) {
+        return new MockHttpServletRequest(metodo, caminho);
+    }
+}
@@ -0,0 +1,75 @@
+package com.fadesp.pagamento.business.infrastructure.tenant;
+
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.tenant.ProvedorConexoesTenant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProvedorConexoesTenantTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:provedor_tenant;DB_CLOSE_DELAY=-1");
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.execute("CREATE SCHEMA IF NOT EXISTS \"inst_a\"");
+        }
+    }
+
+    @Test
+    void limitePorTenant_deveRecusarAlemDoMaximoELiberarNaDevolucao() throws Exception {
+        ProvedorConexoesTenant provedor = new ProvedorConexoesTenant(dataSource, registry,
+                ProvedorConexoesTenant.Modo.DISCRIMINADOR, Map.of(), 1, Map.of(), 20);
+
+        Connection primeira = provedor.getConnection("inst-a");
+        assertEquals(0, provedor.disponiveis("inst-a"));
+        assertThrows(SQLTransientConnectionException.class, () -> provedor.getConnection("inst-a"));
+        assertEquals(1.0, registry.get("pagamento.tenant.conexoes.recusadas").tag("tenant", "inst-a").counter().count());
+
+        // Outro tenant e as sessões raiz não disputam as permissões de inst-a.
+        Connection outra = provedor.getConnection("inst-b");
+        Connection raiz = provedor.getConnection(ContextoTenant.RAIZ);
+        assertEquals(-1, provedor.disponiveis(ContextoTenant.RAIZ));
+
+        provedor.releaseConnection("inst-a", primeira);
+        assertEquals(1, provedor.disponiveis("inst-a"));
+        provedor.releaseConnection("inst-a", provedor.getConnection("inst-a"));
+        provedor.releaseConnection("inst-b", outra);
+        provedor.releaseConnection(ContextoTenant.RAIZ, raiz);
+    }
+
+    @Test
+    void limiteEspecifico_deveSobreporOMaximoGeral() throws Exception {
+        ProvedorConexoesTenant provedor = new ProvedorConexoesTenant(dataSource, registry,
+                ProvedorConexoesTenant.Modo.DISCRIMINADOR, Map.of(), 0, Map.of("inst-a", 2), 20);
+
+        assertEquals(2, provedor.disponiveis("inst-a"));
+        assertEquals(-1, provedor.disponiveis("inst-b"));
+    }
+
+    @Test
+    void modoSchema_deveApontarParaOSchemaDoTenant() throws Exception {
+        ProvedorConexoesTenant provedor = new ProvedorConexoesTenant(dataSource, registry,
+                ProvedorConexoesTenant.Modo.SCHEMA, Map.of("inst-a", "inst_a"), 0, Map.of(), 20);
+
+        Connection conexao = provedor.getConnection("inst-a");
+        assertEquals("inst_a", conexao.getSchema());
+        provedor.releaseConnection("inst-a", conexao);
+
+        Connection raiz = provedor.getConnection(ContextoTenant.RAIZ);
+        assertEquals("PUBLIC", raiz.getSchema());
+        provedor.releaseConnection(ContextoTenant.RAIZ, raiz);
+    }
+}
@@ -0,0 +1,50 @@
+package com.fadesp.pagamento.business.infrastructure.tenant;
+
+import com.fadesp.pagamento.infrastructure.tenant.ContextoTenant;
+import com.fadesp.pagamento.infrastructure.tenant.ProvedorConexoesTenant;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VarreduraTenantsTest {
+
+    @Test
+    void modoDiscriminador_deveExecutarUmaVezComSessaoRaiz() {
+        VarreduraTenants varredura = new VarreduraTenants(ProvedorConexoesTenant.Modo.DISCRIMINADOR, Map.of(), List.of());
+        List<String> vistos = new ArrayList<>();
+        List<String> schemas = new ArrayList<>();
+
+        ContextoTenant.executarComo("inst-a", () -> varredura.paraCada(() -> vistos.add(ContextoTenant.atual())));
+        varredura.paraCadaSchema(schemas::add);
+
+        assertEquals(Arrays.asList((String) null), vistos);
+        assertEquals(Arrays.asList((String) null), schemas);
+    }
+
+    @Test
+    void modoSchema_deveExecutarComoCadaTenantEVisitarCadaSchemaUmaVez() {
+        VarreduraTenants varredura = new VarreduraTenants(ProvedorConexoesTenant.Modo.SCHEMA,
+                Map.of("inst-a", "inst_a", "inst-c", "inst_a"), List.of("inst-b", "inst-a"));
+        List<String> vistos = new ArrayList<>();
+        List<String> schemas = new ArrayList<>();
+
+        varredura.paraCada(() -> vistos.add(ContextoTenant.atual()));
+        varredura.paraCadaSchema(schemas::add);
+
+        assertEquals(List.of("inst-a", "inst-b", "inst-c", ContextoTenant.PADRAO), vistos);
+        assertEquals(List.of("inst_a", "inst-b", ContextoTenant.PADRAO), schemas);
+        assertNull(ContextoTenant.atual());
+    }
+
+    @Test
+    void modoSchema_semTenantsConhecidos_deveFalharNaSubida() {
+        assertThrows(IllegalStateException.class,
+                () -> new VarreduraTenants(ProvedorConexoesTenant.Modo.SCHEMA, Map.of(), List.of()));
+    }
+}
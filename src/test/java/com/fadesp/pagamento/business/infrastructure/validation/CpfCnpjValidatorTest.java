@@ -2,24 +2,32 @@ package com.fadesp.pagamento.business.infrastructure.validation;
 
 import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
 import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.indice.FiltroCodigosDebito;
+import com.fadesp.pagamento.business.indice.IndiceFinalizados;
+import com.fadesp.pagamento.business.risco.AvaliadorRisco;
+import com.fadesp.pagamento.business.service.CofreCartaoService;
 import com.fadesp.pagamento.business.service.PagamentoService;
 import com.fadesp.pagamento.infrastructure.entities.Pagamento;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
 import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
 import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +44,27 @@ public class CpfCnpjValidatorTest {
     @Mock
     private PagamentoRepository pagamentoRepository;
 
+    @Mock
+    private PagamentoArquivadoRepository pagamentoArquivadoRepository;
+
+    @Mock
+    private AvaliadorRisco avaliadorRisco;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CofreCartaoService cofreCartaoService;
+
+    @Mock
+    private ObservationRegistry observationRegistry;
+
+    @Mock
+    private ObjectProvider<FiltroCodigosDebito> filtroCodigosDebito;
+
+    @Mock
+    private ObjectProvider<IndiceFinalizados> indiceFinalizados;
+
     @InjectMocks
     private PagamentoService pagamentoService;
 
@@ -45,18 +74,18 @@ public class CpfCnpjValidatorTest {
     @BeforeEach
     void setUp() {
         requestValido = new PagamentoRequestDTO(
-                123,
+                123L,
                 "12345678909",
                 com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum.CARTAO_CREDITO,
                 "1234567890123456",
-                new BigDecimal("100.00")
+                Dinheiro.parse("100.00")
         );
 
         pagamentoPendente = new Pagamento();
         pagamentoPendente.setId(1L);
-        pagamentoPendente.setCodigoDebito(123);
+        pagamentoPendente.setCodigoDebito(123L);
         pagamentoPendente.setCpfCnpjPagador("12345678909");
-        pagamentoPendente.setValorTransacao(new BigDecimal("100.00"));
+        pagamentoPendente.setValorTransacao(Dinheiro.parse("100.00"));
         pagamentoPendente.setAtivo(true);
         pagamentoPendente.setStatus(com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum.PENDENTE);
     }
@@ -67,11 +96,11 @@ public class CpfCnpjValidatorTest {
     @Test
     void realizarPagamento_deveLancarBusinessException_quandoValorInvalido() {
         PagamentoRequestDTO invalido = new PagamentoRequestDTO(
-                123,
+                123L,
                 "12345678909",
                 com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum.PIX,
                 null,
-                new BigDecimal("0.00")
+                Dinheiro.parse("0.00")
         );
     }
 
@@ -103,7 +132,7 @@ public class CpfCnpjValidatorTest {
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getContent().size());
-        assertEquals(123, result.getContent().get(0).codigoDebito());
+        assertEquals(123L, result.getContent().get(0).codigoDebito());
     }
 
     @Test
@@ -0,0 +1,81 @@
+package com.fadesp.pagamento.business.infrastructure.valor;
+
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import com.fadesp.pagamento.infrastructure.valor.DinheiroConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinheiroTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @CsvSource({
+            "250, 25000",
+            "250.5, 25050",
+            "250.05, 25005",
+            "0.01, 1",
+            "-3.10, -310",
+            "+7, 700",
+            ".5, 50",
+            "1E+2, 10000"
+    })
+    void parse_deveLerTextoDecimalEmCentavos(String texto, long centavos) {
+        assertEquals(centavos, Dinheiro.parse(texto).centavos());
+        assertEquals(Dinheiro.parse(texto), Dinheiro.de(new BigDecimal(texto)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.001", "0.000", "92233720368547758.08"})
+    void parse_deveRejeitarMaisDeDuasCasasOuEstouro(String texto) {
+        assertThrows(ArithmeticException.class, () -> Dinheiro.parse(texto));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", ".", "1,00", "12a", "R$1"})
+    void parse_deveRejeitarTextoNaoNumerico(String texto) {
+        assertThrows(NumberFormatException.class, () -> Dinheiro.parse(texto));
+    }
+
+    @Test
+    void toString_deveTerSempreDuasCasas() {
+        for (long centavos : new long[]{0, 1, 10, 99, 100, 25050, -1, -310, Dinheiro.MAXIMO_CENTAVOS}) {
+            assertEquals(BigDecimal.valueOf(centavos, 2).toPlainString(), Dinheiro.deCentavos(centavos).toString());
+        }
+    }
+
+    @Test
+    void aritmetica_naoDeveEstourarSilenciosamente() {
+        assertEquals(Dinheiro.deCentavos(350), Dinheiro.parse("1.50").somar(Dinheiro.parse("2")));
+        assertEquals(Dinheiro.deCentavos(-50), Dinheiro.parse("1.50").subtrair(Dinheiro.parse("2")));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.deCentavos(Long.MAX_VALUE).somar(Dinheiro.deCentavos(1)));
+    }
+
+    @Test
+    @DisplayName("JSON - mesmo formato que BigDecimal com escala 2")
+    void json_deveSerNumeroDecimal() throws Exception {
+        assertEquals("250.00", mapper.writeValueAsString(Dinheiro.parse("250")));
+        assertEquals(Dinheiro.parse("10.5"), mapper.readValue("10.5", Dinheiro.class));
+        assertEquals(Dinheiro.parse("10"), mapper.readValue("10", Dinheiro.class));
+        assertEquals(Dinheiro.parse("10.25"), mapper.readValue("\"10.25\"", Dinheiro.class));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("10.255", Dinheiro.class));
+    }
+
+    @Test
+    void converterJpa_deveIrEVoltarComEscala2() {
+        DinheiroConverter converter = new DinheiroConverter();
+
+        assertEquals(new BigDecimal("73.40"), converter.convertToDatabaseColumn(Dinheiro.parse("73.4")));
+        assertEquals(Dinheiro.parse("73.4"), converter.convertToEntityAttribute(new BigDecimal("73.4000")));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,212 @@
+package com.fadesp.pagamento.business.risco;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.RiscoRejeitadoException;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvaliadorRiscoTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Object> eventos = new ArrayList<>();
+
+    private AvaliadorRisco avaliador(AvaliadorRisco.ModoFallback modo, RegraRisco... regras) {
+        return avaliador(modo, 50, regras);
+    }
+
+    private AvaliadorRisco avaliador(AvaliadorRisco.ModoFallback modo, long orcamentoMs, RegraRisco... regras) {
+        return new AvaliadorRisco(List.of(regras), registry, eventos::add, true, modo, orcamentoMs);
+    }
+
+    private static PagamentoRequestDTO pix(String cpf, String valor) {
+        return new PagamentoRequestDTO(1L, cpf, MetodoPagamentoEnum.PIX, null, Dinheiro.parse(valor));
+    }
+
+    private static PagamentoRequestDTO cartao(String cpf, String numero) {
+        return new PagamentoRequestDTO(1L, cpf, MetodoPagamentoEnum.CARTAO_CREDITO, numero, Dinheiro.parse("10.00"));
+    }
+
+    @Test
+    @DisplayName("Velocidade - recusa o pagamento que excede o máximo da janela")
+    void velocidade_excedida() {
+        AvaliadorRisco avaliador = avaliador(AvaliadorRisco.ModoFallback.RECUSAR, new RegraVelocidadePagador(60, 2));
+
+        avaliador.avaliar(pix("529.982.247-25", "10.00"));
+        avaliador.avaliar(pix("52998224725", "10.00"));
+        RiscoRejeitadoException ex = assertThrows(RiscoRejeitadoException.class,
+                () -> avaliador.avaliar(pix("52998224725", "10.00")));
+
+        assertEquals("velocidade-pagador", ex.getRegra());
+        avaliador.avaliar(pix("12345678909", "10.00"));
+    }
+
+    @Test
+    @DisplayName("Limite por método - recusa valor acima do configurado")
+    void limite_por_metodo() {
+        AvaliadorRisco avaliador = avaliador(AvaliadorRisco.ModoFallback.RECUSAR,
+                new RegraLimiteValorPorMetodo(Map.of(MetodoPagamentoEnum.PIX, Dinheiro.parse("1000.00"))));
+
+        avaliador.avaliar(pix("52998224725", "1000.00"));
+        assertThrows(RiscoRejeitadoException.class, () -> avaliador.avaliar(pix("52998224725", "1000.01")));
+    }
+
+    @Test
+    @DisplayName("Cartão compartilhado - recusa o cartão usado por muitos pagadores")
+    void cartao_compartilhado() {
+        AvaliadorRisco avaliador = avaliador(AvaliadorRisco.ModoFallback.RECUSAR, new RegraCartaoCompartilhado(24, 2));
+        String numero = "5555444433331111";
+
+        avaliador.avaliar(cartao("52998224725", numero));
+        avaliador.avaliar(cartao("12345678909", numero));
+        avaliador.avaliar(cartao("52998224725", numero));
+        assertThrows(RiscoRejeitadoException.class, () -> avaliador.avaliar(cartao("11144477735", numero)));
+        avaliador.avaliar(cartao("11144477735", "4111111111111111"));
+    }
+
+    @Test
+    @DisplayName("Reserva desfeita (transação não confirmada) libera a vaga na janela")
+    void reserva_desfeita_liberaVaga() {
+        AvaliadorRisco avaliador = avaliador(AvaliadorRisco.ModoFallback.RECUSAR, new RegraVelocidadePagador(60, 1));
+
+        ReservaRisco reserva = avaliador.avaliar(pix("52998224725", "10.00"));
+        assertEquals(List.of(reserva), eventos);
+        assertThrows(RiscoRejeitadoException.class, () -> avaliador.avaliar(pix("52998224725", "10.00")));
+
+        avaliador.aoDesfazerTransacao(reserva);
+        avaliador.aoDesfazerTransacao(reserva);
+        avaliador.avaliar(pix("52998224725", "10.00"));
+        assertThrows(RiscoRejeitadoException.class, () -> avaliador.avaliar(pix("52998224725", "10.00")));
+    }
+
+    @Test
+    @DisplayName("Recusa por uma regra desfaz a reserva já feita pelas anteriores")
+    void recusa_desfazReservasAnteriores() {
+        AvaliadorRisco avaliador = avaliador(AvaliadorRisco.ModoFallback.RECUSAR,
+                new RegraVelocidadePagador(60, 1),
+                new RegraLimiteValorPorMetodo(Map.of(MetodoPagamentoEnum.PIX, Dinheiro.parse("100.00"))));
+
+        assertThrows(RiscoRejeitadoException.class, () -> avaliador.avaliar(pix("52998224725", "100.01")));
+        avaliador.avaliar(pix("52998224725", "100.00"));
+    }
+
+    @Test
+    @DisplayName("Velocidade - chamadas simultâneas não ultrapassam o máximo da janela")
+    void velocidade_concorrente_respeitaMaximo() throws Exception {
+        AvaliadorRisco avaliador = avaliador(AvaliadorRisco.ModoFallback.RECUSAR, new RegraVelocidadePagador(60, 10));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 64; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        avaliador.avaliar(pix("52998224725", "10.00"));
+                        return true;
+                    } catch (RiscoRejeitadoException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+            int aceitos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(5, TimeUnit.SECONDS)) {
+                    aceitos++;
+                }
+            }
+            assertEquals(10, aceitos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Falha de regra - aplica o modo de fallback")
+    void falha_aplicaFallback() {
+        RegraRisco quebrada = new RegraRisco() {
+            @Override
+            public String nome() {
+                return "quebrada";
+            }
+
+            @Override
+            public Optional<String> reservar(ContextoRisco contexto) {
+                throw new IllegalStateException("estado corrompido");
+            }
+        };
+
+        RiscoRejeitadoException ex = assertThrows(RiscoRejeitadoException.class,
+                () -> avaliador(AvaliadorRisco.ModoFallback.RECUSAR, quebrada).avaliar(pix("52998224725", "10.00")));
+        assertEquals("indisponivel", ex.getRegra());
+
+        avaliador(AvaliadorRisco.ModoFallback.PERMITIR, quebrada).avaliar(pix("52998224725", "10.00"));
+        assertEquals(2.0, registry.counter("pagamento.risco.avaliacoes", "resultado", "falha").count());
+    }
+
+    @Test
+    @DisplayName("Orçamento excedido - aplica o fallback e desfaz as reservas já feitas")
+    void orcamentoExcedido_aplicaFallback() {
+        RegraRisco lenta = new RegraRisco() {
+            @Override
+            public String nome() {
+                return "lenta";
+            }
+
+            @Override
+            public Optional<String> reservar(ContextoRisco contexto) {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Optional.empty();
+            }
+        };
+        RegraVelocidadePagador velocidade = new RegraVelocidadePagador(60, 1);
+
+        RiscoRejeitadoException ex = assertThrows(RiscoRejeitadoException.class,
+                () -> avaliador(AvaliadorRisco.ModoFallback.RECUSAR, 10, velocidade, lenta)
+                        .avaliar(pix("52998224725", "10.00")));
+        assertEquals("indisponivel", ex.getRegra());
+
+        assertSame(ReservaRisco.VAZIA, avaliador(AvaliadorRisco.ModoFallback.PERMITIR, 10, velocidade, lenta)
+                .avaliar(pix("52998224725", "10.00")));
+        assertEquals(2.0, registry.counter("pagamento.risco.avaliacoes", "resultado", "orcamento-excedido").count());
+
+        // As duas avaliações desfizeram a vaga reservada pela regra de velocidade.
+        avaliador(AvaliadorRisco.ModoFallback.RECUSAR, 1000, velocidade, lenta).avaliar(pix("52998224725", "10.00"));
+        assertThrows(RiscoRejeitadoException.class,
+                () -> avaliador(AvaliadorRisco.ModoFallback.RECUSAR, velocidade).avaliar(pix("52998224725", "10.00")));
+    }
+
+    @Test
+    @DisplayName("Contador de janela - baldes expirados deixam de contar")
+    void contador_expira() {
+        ContadorJanelaDeslizante<String> contador = new ContadorJanelaDeslizante<>(1000, 10);
+        contador.incrementar("a", 0);
+        contador.incrementar("a", 450);
+
+        assertEquals(2, contador.contar("a", 900));
+        assertEquals(1, contador.contar("a", 1050));
+        assertEquals(0, contador.contar("a", 1500));
+
+        contador.expirar(1500);
+        assertEquals(0, contador.chaves());
+    }
+}
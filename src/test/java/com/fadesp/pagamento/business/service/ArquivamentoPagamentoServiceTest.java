@@ -0,0 +1,58 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ArquivamentoPagamentoServiceTest {
+
+    @Autowired
+    private ArquivamentoPagamentoService arquivamentoPagamentoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private PagamentoArquivadoRepository pagamentoArquivadoRepository;
+
+    @Test
+    void arquivar_deveMoverInativosEFinalizadosAntigos_eBuscaPorIdDeveContinuarFuncionando() {
+        long quentesAntes = pagamentoRepository.count();
+
+        int movidos = arquivamentoPagamentoService.arquivar(OffsetDateTime.now().plusDays(1));
+
+        assertEquals(6, movidos, "2 inativos + 4 processados com sucesso do data.sql");
+        assertEquals(quentesAntes - movidos, pagamentoRepository.count());
+        assertEquals(movidos, pagamentoArquivadoRepository.count());
+
+        Long idArquivado = pagamentoArquivadoRepository.findAll().get(0).getId();
+        assertTrue(pagamentoRepository.findById(idArquivado).isEmpty());
+
+        PagamentoResponseDTO response = pagamentoService.buscarPagamentoPorId(idArquivado);
+        assertEquals(idArquivado, response.id());
+    }
+
+    @Test
+    void arquivar_naoDeveMoverFinalizadosRecentes() {
+        int movidos = arquivamentoPagamentoService.arquivar(OffsetDateTime.now().minusDays(30));
+
+        assertEquals(2, movidos, "apenas os inativos do data.sql");
+        assertTrue(pagamentoArquivadoRepository.findAll().stream()
+                .allMatch(a -> Boolean.FALSE.equals(a.getAtivo())
+                        || a.getStatus() != StatusPagamentoEnum.PROCESSADO_COM_SUCESSO));
+    }
+}
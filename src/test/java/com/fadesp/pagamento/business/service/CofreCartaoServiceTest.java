@@ -0,0 +1,164 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.infrastructure.cofre.CifradorCartao;
+import com.fadesp.pagamento.infrastructure.entities.CartaoCofre;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.CartaoCofreRepository;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class CofreCartaoServiceTest {
+
+    @Autowired
+    private CofreCartaoService cofreCartaoService;
+
+    @Autowired
+    private CartaoCofreRepository cartaoCofreRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${pagamento.cofre.chave-mestra}")
+    private String chaveMestra;
+
+    @Test
+    void cargaInicial_deveEstarCifradaComAChaveConfigurada() {
+        CifradorCartao cifrador = new CifradorCartao(chaveMestra);
+
+        for (String[] cartao : new String[][]{
+                {"tok_ifJkJftDzBNY71G9", "5555444433331111"}, {"tok_5LebwNnFZy18EW76", "4444333322221111"}}) {
+            CartaoCofre registro = cartaoCofreRepository.findById(cartao[0]).orElseThrow();
+            assertEquals(cartao[1], cifrador.decifrar(registro.getPanCifrado(), cartao[0]));
+        }
+    }
+
+    @Test
+    void tokenizar_deveGravarUmaVezEReaproveitarOToken() {
+        long antes = cartaoCofreRepository.count();
+
+        String token = cofreCartaoService.tokenizar("4111111111111111");
+
+        assertTrue(CifradorCartao.isToken(token));
+        assertEquals(CifradorCartao.TAMANHO_TOKEN, token.length());
+        assertEquals(token, cofreCartaoService.tokenizar("4111111111111111"));
+        assertEquals(antes + 1, cartaoCofreRepository.count());
+
+        CartaoCofre registro = cartaoCofreRepository.findById(token).orElseThrow();
+        assertEquals("1111", registro.getUltimosDigitos());
+        assertEquals(token, cofreCartaoService.localizarToken("4111111111111111").orElseThrow());
+    }
+
+    @Test
+    void tokenizarEmLote_deveManterAOrdemEIgnorarCartoesVazios() {
+        long antes = cartaoCofreRepository.count();
+
+        List<String> tokens = cofreCartaoService.tokenizarEmLote(
+                Arrays.asList("4000000000000002", null, "5555444433331111", "4000000000000002"));
+
+        assertEquals(4, tokens.size());
+        assertNull(tokens.get(1));
+        assertEquals("tok_ifJkJftDzBNY71G9", tokens.get(2));
+        assertEquals(tokens.get(0), tokens.get(3));
+        assertEquals(antes + 1, cartaoCofreRepository.count());
+    }
+
+    @Test
+    void tokenizar_transacaoDesfeita_deveGravarNovamenteNaProximaChamada() {
+        TransactionTemplate novaTransacao = new TransactionTemplate(transactionManager);
+        novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        String token = novaTransacao.execute(status -> {
+            String gerado = cofreCartaoService.tokenizar("4012888888881881");
+            status.setRollbackOnly();
+            return gerado;
+        });
+
+        assertFalse(cartaoCofreRepository.existsById(token));
+        assertEquals(token, cofreCartaoService.tokenizar("4012888888881881"));
+        assertTrue(cartaoCofreRepository.existsById(token));
+    }
+
+    @Test
+    void revelar_deveDevolverOPanDoTokenEIgnorarDesconhecidos() {
+        String token = cofreCartaoService.tokenizar("4000056655665556");
+
+        assertEquals("4000056655665556", cofreCartaoService.revelar(token).orElseThrow());
+        assertEquals("5555444433331111", cofreCartaoService.revelar("tok_ifJkJftDzBNY71G9").orElseThrow());
+        assertTrue(cofreCartaoService.revelar("tok_AAAAAAAAAAAAAAAA").isEmpty());
+        assertTrue(cofreCartaoService.revelar("5555444433331111").isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void mesmoCartaoNovoEmPagamentosSimultaneos_naoDeveGerarConflito() throws Exception {
+        String pan = "5105105105105100";
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch gravadoPelaPrimeira = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // A primeira transação grava o cartão e segura o commit enquanto a segunda tenta gravá-lo.
+            Future<String> primeira = executor.submit(() -> transacao.execute(status -> {
+                String token = cofreCartaoService.tokenizar(pan);
+                gravadoPelaPrimeira.countDown();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return token;
+            }));
+            assertTrue(gravadoPelaPrimeira.await(10, TimeUnit.SECONDS));
+
+            PagamentoResponseDTO segundo = pagamentoService.realizarPagamento(new PagamentoRequestDTO(
+                    880001L, "52998224725", MetodoPagamentoEnum.CARTAO_CREDITO, pan, Dinheiro.parse("10.00")));
+
+            String token = primeira.get(10, TimeUnit.SECONDS);
+            assertNotNull(segundo.id());
+            assertEquals(1, cartaoCofreRepository.findAllById(List.of(token)).size());
+            assertEquals(pan, cofreCartaoService.revelar(token).orElseThrow());
+        } finally {
+            executor.shutdownNow();
+            transacao.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM pagamento WHERE codigo_debito = 880001");
+                jdbcTemplate.update("DELETE FROM cofre_cartao WHERE ultimos_digitos = '5100'");
+            });
+        }
+    }
+
+    @Test
+    void decifrar_comTokenDiferente_deveFalhar() {
+        CifradorCartao cifrador = new CifradorCartao(chaveMestra);
+        byte[] cifrado = cifrador.cifrar("5555444433331111", "tok_ifJkJftDzBNY71G9");
+
+        assertEquals("5555444433331111", cifrador.decifrar(cifrado, "tok_ifJkJftDzBNY71G9"));
+        assertThrows(IllegalStateException.class, () -> cifrador.decifrar(cifrado, "tok_5LebwNnFZy18EW76"));
+    }
+}
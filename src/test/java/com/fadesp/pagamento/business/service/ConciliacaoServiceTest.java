@@ -0,0 +1,190 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.infrastructure.entities.Pagamento;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.tenant.VarreduraTenants;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ConciliacaoServiceTest {
+
+    private static final List<Long> CODIGOS = List.of(660001L, 660002L, 660003L);
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private PagamentoArquivadoRepository pagamentoArquivadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private VarreduraTenants varreduraTenants;
+
+    @TempDir
+    Path diretorio;
+
+    private ConciliacaoService conciliacaoService;
+
+    @BeforeEach
+    void criarPagamentos() {
+        conciliacaoService = new ConciliacaoService(pagamentoRepository, pagamentoArquivadoRepository,
+                transactionTemplate, eventPublisher, varreduraTenants, diretorio.toString(), 2, 3);
+        for (int i = 0; i < CODIGOS.size(); i++) {
+            pagamentoService.realizarPagamento(new PagamentoRequestDTO(
+                    CODIGOS.get(i), "52998224725", MetodoPagamentoEnum.BOLETO, null,
+                    Dinheiro.deCentavos((i + 1) * 1000L)));
+        }
+    }
+
+    @AfterEach
+    void removerPagamentos() {
+        pagamentoRepository.deleteAll(pagamentoRepository.buscarPorCodigosDebito(CODIGOS));
+    }
+
+    private Map<Long, StatusPagamentoEnum> status() {
+        return pagamentoRepository.buscarPorCodigosDebito(CODIGOS).stream()
+                .collect(Collectors.toMap(Pagamento::getCodigoDebito, Pagamento::getStatus));
+    }
+
+    private Path arquivo(String... linhas) throws Exception {
+        return Files.write(diretorio.resolve("liquidacao.csv"), List.of(linhas));
+    }
+
+    @Test
+    void conciliar_deveAplicarTransicoesEmLoteERelatarDivergencias() throws Exception {
+        Path arquivo = arquivo(
+                "codigoDebito;valor;resultado",
+                "660001;10.00;SUCESSO",
+                "660002;21.00;SUCESSO",
+                "660003;30.00;falha",
+                "1002;125.75;PROCESSADO_COM_SUCESSO",
+                "1006;120.50;SUCESSO",
+                "999999;1.00;SUCESSO",
+                "abc;1.00;SUCESSO");
+
+        ConciliacaoService.Resultado resultado = conciliacaoService.conciliar(arquivo);
+
+        assertEquals(new ConciliacaoService.Resultado(7, 2, 1, 4, 0), resultado);
+        assertEquals(Map.of(
+                660001L, StatusPagamentoEnum.PROCESSADO_COM_SUCESSO,
+                660002L, StatusPagamentoEnum.PENDENTE,
+                660003L, StatusPagamentoEnum.PROCESSADO_COM_FALHA), status());
+
+        Map<String, String> motivos = Files.readAllLines(diretorio.resolve("liquidacao.csv.divergencias.csv"))
+                .stream().skip(1)
+                .map(l -> l.split(";"))
+                .collect(Collectors.toMap(c -> c[1], c -> c[2]));
+        assertEquals(Map.of(
+                "660002", "VALOR_DIVERGENTE",
+                "1006", "TRANSICAO_INVALIDA",
+                "999999", "NAO_ENCONTRADO",
+                "abc", "LINHA_INVALIDA"), motivos);
+    }
+
+    @Test
+    void conciliar_deveRetomarDoCheckpointSemReprocessarBlocosConcluidos() throws Exception {
+        Path arquivo = arquivo("660001;10.00;SUCESSO", "660002;20.00;SUCESSO", "660003;30.00;SUCESSO");
+        Files.writeString(diretorio.resolve("liquidacao.csv.checkpoint"), "tamanho-bloco=2\n0\n");
+
+        ConciliacaoService.Resultado resultado = conciliacaoService.conciliar(arquivo);
+
+        assertEquals(new ConciliacaoService.Resultado(1, 1, 0, 0, 1), resultado);
+        assertEquals(StatusPagamentoEnum.PENDENTE, status().get(660001L));
+        assertEquals(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, status().get(660003L));
+
+        ConciliacaoService.Resultado repeticao = conciliacaoService.conciliar(arquivo);
+        assertEquals(new ConciliacaoService.Resultado(0, 0, 0, 0, 2), repeticao);
+    }
+
+    @Test
+    void conciliar_codigoRepetidoEmOutroBloco_deveSerRelatadoComoDuplicado() throws Exception {
+        Path arquivo = arquivo("660001;10.00;SUCESSO", "660002;20.00;SUCESSO", "660001;10.00;FALHA", "660003;30.00;FALHA");
+
+        ConciliacaoService.Resultado resultado = conciliacaoService.conciliar(arquivo);
+
+        assertEquals(new ConciliacaoService.Resultado(4, 3, 0, 1, 0), resultado);
+        assertEquals(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, status().get(660001L));
+        List<String> relatorio = Files.readAllLines(diretorio.resolve("liquidacao.csv.divergencias.csv"));
+        assertEquals(List.of("3;660001;DUPLICADO_NO_ARQUIVO;"), relatorio.subList(1, relatorio.size()));
+    }
+
+    @Test
+    void conciliar_checkpointVazioOuTruncado_deveSerTratadoComoInexistente() throws Exception {
+        Path arquivo = arquivo("660001;10.00;SUCESSO", "660002;20.00;SUCESSO", "660003;30.00;SUCESSO");
+        Path checkpoint = diretorio.resolve("liquidacao.csv.checkpoint");
+        Files.writeString(checkpoint, "");
+
+        assertEquals(new ConciliacaoService.Resultado(3, 3, 0, 0, 0), conciliacaoService.conciliar(arquivo));
+
+        Files.writeString(checkpoint, "tamanho-bl");
+        assertEquals(new ConciliacaoService.Resultado(3, 0, 3, 0, 0), conciliacaoService.conciliar(arquivo));
+
+        // Queda no meio da confirmação do bloco 1: a linha incompleta não conta.
+        Files.writeString(checkpoint, "tamanho-bloco=2\n0\n1");
+        assertEquals(new ConciliacaoService.Resultado(1, 0, 1, 0, 1), conciliacaoService.conciliar(arquivo));
+        assertEquals("tamanho-bloco=2\n0\n1\n", Files.readString(checkpoint));
+    }
+
+    @Test
+    void conciliar_quedaEntreRelatorioECheckpoint_naoDeveDuplicarDivergencias() throws Exception {
+        Path arquivo = arquivo("660001;11.00;SUCESSO", "660002;20.00;SUCESSO");
+        Files.writeString(diretorio.resolve("liquidacao.csv.checkpoint"), "tamanho-bloco=2\n");
+        // O bloco 0 chegou a relatar a divergência (e a começar outra linha), mas não foi confirmado.
+        Path relatorio = diretorio.resolve("liquidacao.csv.divergencias.csv");
+        Files.writeString(relatorio, "linha;codigoDebito;motivo;detalhe\n1;660001;VALOR_DIVERGENTE;esperado 10.00\n2;6600");
+
+        assertEquals(new ConciliacaoService.Resultado(2, 1, 0, 1, 0), conciliacaoService.conciliar(arquivo));
+
+        List<String> linhas = Files.readAllLines(relatorio);
+        assertEquals(2, linhas.size(), linhas::toString);
+        assertTrue(linhas.get(1).startsWith("1;660001;VALOR_DIVERGENTE;"));
+    }
+
+    @Test
+    void semDiretorioConfigurado_deveFalharNaCriacao() {
+        assertThrows(IllegalStateException.class, () -> new ConciliacaoService(pagamentoRepository,
+                pagamentoArquivadoRepository, transactionTemplate, eventPublisher, varreduraTenants, " ", 2, 3));
+    }
+
+    @Test
+    void conciliarPendentes_deveMoverArquivoConcluidoParaProcessados() throws Exception {
+        arquivo("660001;10.00;FALHA");
+
+        conciliacaoService.conciliarPendentes();
+
+        assertEquals(StatusPagamentoEnum.PROCESSADO_COM_FALHA, status().get(660001L));
+        Path processados = diretorio.resolve("processados");
+        assertTrue(Files.exists(processados.resolve("liquidacao.csv")));
+        assertTrue(Files.exists(processados.resolve("liquidacao.csv.divergencias.csv")));
+        assertFalse(Files.exists(diretorio.resolve("liquidacao.csv")));
+        assertFalse(Files.exists(diretorio.resolve("liquidacao.csv.checkpoint")));
+    }
+}
@@ -0,0 +1,64 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.IndisponivelException;
+import com.fadesp.pagamento.infrastructure.repository.ConsultaCodigosDebito;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Espera limitada do chamador: a fila só é esvaziada depois que a espera máxima já se esgotou. */
+@SpringBootTest(properties = {
+        "pagamento.criacao-agrupada.enabled=true",
+        "pagamento.criacao-agrupada.particoes=1",
+        "pagamento.criacao-agrupada.tamanho-grupo=50",
+        "pagamento.criacao-agrupada.intervalo-ms=800",
+        "pagamento.criacao-agrupada.espera-maxima-ms=100",
+        "pagamento.risco.velocidade.maximo=1"
+})
+class CriacaoAgrupadaEsperaTest {
+
+    private static final String PAGADOR = "11144477735";
+
+    @Autowired
+    private CriacaoAgrupadaService criacaoAgrupadaService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private ConsultaCodigosDebito consultaCodigosDebito;
+
+    @AfterEach
+    void removerPagamentos() {
+        pagamentoRepository.deleteAll(pagamentoRepository.buscarPorCodigosDebito(List.of(560001L, 560002L)));
+    }
+
+    private static PagamentoRequestDTO pix(long codigoDebito) {
+        return new PagamentoRequestDTO(codigoDebito, PAGADOR, MetodoPagamentoEnum.PIX, null, Dinheiro.parse("3.00"));
+    }
+
+    @Test
+    void esperaEsgotadaComPagamentoNaFila_deveDescartaloEDesfazerAReserva() throws InterruptedException {
+        long inicio = System.nanoTime();
+        assertThrows(IndisponivelException.class, () -> criacaoAgrupadaService.criar(pix(560001)));
+        assertTrue(System.nanoTime() - inicio < 700_000_000L, "o chamador não deve esperar o grupo");
+
+        // Com máximo de 1 por janela, só passa se a reserva do pagamento descartado foi desfeita.
+        pagamentoService.realizarPagamento(pix(560002));
+
+        Thread.sleep(1_200);
+        assertEquals(List.of(560002L), List.copyOf(consultaCodigosDebito.buscarUtilizados(List.of(560001L, 560002L))));
+    }
+}
@@ -0,0 +1,158 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.evento.PagamentoAlteradoEvent;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.ConflictException;
+import com.fadesp.pagamento.infrastructure.log.CorrelacaoFilter;
+import com.fadesp.pagamento.infrastructure.repository.ConsultaCodigosDebito;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "pagamento.criacao-agrupada.enabled=true",
+        "pagamento.criacao-agrupada.particoes=2",
+        "pagamento.criacao-agrupada.tamanho-grupo=8",
+        "pagamento.criacao-agrupada.intervalo-ms=50"
+})
+@Import(CriacaoAgrupadaServiceTest.CapturaContexto.class)
+class CriacaoAgrupadaServiceTest {
+
+    /** Registra, para cada pagamento publicado, a thread e o correlation id vistos pelo ouvinte. */
+    @TestConfiguration
+    static class CapturaContexto {
+
+        final Map<Long, String> correlacoes = new ConcurrentHashMap<>();
+        final Map<Long, String> threads = new ConcurrentHashMap<>();
+
+        @EventListener
+        void aoAlterar(PagamentoAlteradoEvent evento) {
+            String correlacao = MDC.get(CorrelacaoFilter.CHAVE_MDC);
+            if (correlacao != null) {
+                correlacoes.put(evento.id(), correlacao);
+            }
+            threads.put(evento.id(), Thread.currentThread().getName());
+        }
+    }
+
+    @Autowired
+    private CriacaoAgrupadaService criacaoAgrupadaService;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private ConsultaCodigosDebito consultaCodigosDebito;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CapturaContexto capturaContexto;
+
+    private final List<Long> criados = new ArrayList<>();
+
+    @AfterEach
+    void removerPagamentos() {
+        pagamentoRepository.deleteAll(pagamentoRepository.buscarPorCodigosDebito(criados));
+    }
+
+    private static PagamentoRequestDTO pix(long codigoDebito) {
+        return new PagamentoRequestDTO(codigoDebito, "39053344705", MetodoPagamentoEnum.PIX, null, Dinheiro.parse("3.00"));
+    }
+
+    private List<CompletableFuture<PagamentoResponseDTO>> criarEmParalelo(List<Long> codigos) {
+        criados.addAll(codigos);
+        ExecutorService executor = Executors.newFixedThreadPool(codigos.size());
+        try {
+            return codigos.stream()
+                    .map(codigo -> CompletableFuture.supplyAsync(() -> {
+                        MDC.put(CorrelacaoFilter.CHAVE_MDC, "corr-" + codigo);
+                        try {
+                            return criacaoAgrupadaService.criar(pix(codigo));
+                        } finally {
+                            MDC.remove(CorrelacaoFilter.CHAVE_MDC);
+                        }
+                    }, executor))
+                    .toList();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void criar_deveGravarEmGruposEDevolverUmIdParaCadaChamador() {
+        DistributionSummary grupos = meterRegistry.get("pagamento.criacao-agrupada.grupo").summary();
+        long gruposAntes = grupos.count();
+
+        List<CompletableFuture<PagamentoResponseDTO>> respostas =
+                criarEmParalelo(LongStream.rangeClosed(550001, 550016).boxed().toList());
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < respostas.size(); i++) {
+            PagamentoResponseDTO resposta = respostas.get(i).join();
+            assertEquals(550001L + i, resposta.codigoDebito());
+            ids.add(resposta.id());
+        }
+        assertEquals(16, ids.size());
+        assertEquals(16, consultaCodigosDebito.buscarUtilizados(criados).size());
+        assertTrue(grupos.count() - gruposAntes < 16, "ao menos um commit deve ter agrupado pagamentos");
+    }
+
+    @Test
+    void criar_codigoRepetidoOuJaUsado_deveReceberConflitoSemDerrubarOGrupo() {
+        List<CompletableFuture<PagamentoResponseDTO>> respostas =
+                criarEmParalelo(List.of(550101L, 550101L, 550102L));
+
+        List<PagamentoResponseDTO> gravados = respostas.stream()
+                .map(r -> r.exceptionally(e -> null).join())
+                .filter(r -> r != null)
+                .toList();
+        long conflitos = respostas.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+
+        assertEquals(2, gravados.size());
+        assertEquals(1, conflitos);
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> respostas.stream().filter(CompletableFuture::isCompletedExceptionally).findFirst().orElseThrow().join());
+        assertInstanceOf(ConflictException.class, erro.getCause());
+
+        assertThrows(ConflictException.class, () -> criacaoAgrupadaService.criar(pix(1001)));
+    }
+
+    @Test
+    void criar_devePublicarCadaPagamentoNoContextoDoSeuChamador() {
+        List<CompletableFuture<PagamentoResponseDTO>> respostas =
+                criarEmParalelo(LongStream.rangeClosed(550201, 550212).boxed().toList());
+
+        for (int i = 0; i < respostas.size(); i++) {
+            PagamentoResponseDTO resposta = respostas.get(i).join();
+            assertTrue(capturaContexto.threads.get(resposta.id()).startsWith("criacao-agrupada-"));
+            assertEquals("corr-" + (550201 + i), capturaContexto.correlacoes.get(resposta.id()));
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.fadesp.pagamento.business.service;
 
 
+import com.fadesp.pagamento.business.dto.in.PagamentoLoteRequestDTO;
 import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
 import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.converter.PagamentoConverter;
+import com.fadesp.pagamento.business.indice.FiltroCodigosDebito;
+import com.fadesp.pagamento.business.indice.IndiceFinalizados;
+import com.fadesp.pagamento.business.risco.AvaliadorRisco;
 import com.fadesp.pagamento.infrastructure.entities.Pagamento;
 import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.exceptions.BusinessException;
 import com.fadesp.pagamento.infrastructure.exceptions.ConflictException;
 import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import com.fadesp.pagamento.infrastructure.exceptions.RiscoRejeitadoException;
+import com.fadesp.pagamento.infrastructure.repository.ConsultaCodigosDebito;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoArquivadoRepository;
 import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -19,12 +29,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
-import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +49,30 @@ class PagamentoServiceTest {
     @Mock
     private PagamentoRepository pagamentoRepository;
 
+    @Mock
+    private PagamentoArquivadoRepository pagamentoArquivadoRepository;
+
+    @Mock
+    private ConsultaCodigosDebito consultaCodigosDebito;
+
+    @Mock
+    private AvaliadorRisco avaliadorRisco;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CofreCartaoService cofreCartaoService;
+
+    @Mock
+    private ObservationRegistry observationRegistry;
+
+    @Mock
+    private ObjectProvider<FiltroCodigosDebito> filtroCodigosDebito;
+
+    @Mock
+    private ObjectProvider<IndiceFinalizados> indiceFinalizados;
+
     @InjectMocks
     private PagamentoService pagamentoService;
 
@@ -44,20 +82,20 @@ class PagamentoServiceTest {
     @BeforeEach
     void setUp() {
         dtoPixValido = new PagamentoRequestDTO(
-                2001,
+                2001L,
                 "529.982.247-25",
                 MetodoPagamentoEnum.PIX,
                 null,
-                new BigDecimal("150.00")
+                Dinheiro.parse("150.00")
         );
 
         entidadePendente = new Pagamento();
         entidadePendente.setId(1L);
-        entidadePendente.setCodigoDebito(2001);
+        entidadePendente.setCodigoDebito(2001L);
         entidadePendente.setCpfCnpjPagador("52998224725");
         entidadePendente.setMetodoPagamentoEnum(MetodoPagamentoEnum.PIX);
         entidadePendente.setNumeroCartao(null);
-        entidadePendente.setValorTransacao(new BigDecimal("150.00"));
+        entidadePendente.setValorTransacao(Dinheiro.parse("150.00"));
         entidadePendente.setStatus(StatusPagamentoEnum.PENDENTE);
         entidadePendente.setAtivo(true);
     }
@@ -77,10 +115,10 @@ class PagamentoServiceTest {
 
         assertNotNull(resp);
         assertEquals(1L, resp.id());
-        assertEquals(2001, resp.codigoDebito());
+        assertEquals(2001L, resp.codigoDebito());
         assertEquals("52998224725", resp.cpfCnpjPagador());
         assertEquals(MetodoPagamentoEnum.PIX, resp.metodoPagamento());
-        assertEquals(new BigDecimal("150.00"), resp.valor());
+        assertEquals(Dinheiro.parse("150.00"), resp.valor());
         assertEquals(StatusPagamentoEnum.PENDENTE, resp.status());
 
 
@@ -98,62 +136,107 @@ class PagamentoServiceTest {
         assertThrows(ConflictException.class, () -> pagamentoService.realizarPagamento(dtoPixValido));
     }
 
+    @Test
+    @DisplayName("realizarPagamento - deve lançar ConflictException quando código já está no arquivo")
+    void realizarPagamento_conflitoComArquivo() {
+        when(consultaCodigosDebito.buscarUtilizados(List.of(2001L))).thenReturn(Set.of(2001L));
+
+        assertThrows(ConflictException.class, () -> pagamentoService.realizarPagamento(dtoPixValido));
+        verify(pagamentoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("realizarPagamento - recusa da análise de risco impede a persistência")
+    void realizarPagamento_recusadoPeloRisco() {
+        doThrow(new RiscoRejeitadoException("velocidade-pagador", "Limite excedido"))
+                .when(avaliadorRisco).avaliar(dtoPixValido);
+
+        assertThrows(RiscoRejeitadoException.class, () -> pagamentoService.realizarPagamento(dtoPixValido));
+        verify(pagamentoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("realizarPagamentosEmLote - deve salvar todos em uma única chamada")
+    void realizarPagamentosEmLote_sucesso() {
+        PagamentoRequestDTO outro = new PagamentoRequestDTO(
+                2002L, "52998224725", MetodoPagamentoEnum.BOLETO, null, Dinheiro.parse("10.00"));
+        when(cofreCartaoService.tokenizarEmLote(anyList())).thenReturn(Arrays.asList(null, null));
+        when(pagamentoRepository.saveAllAndFlush(anyList())).thenAnswer(inv -> {
+            List<Pagamento> lista = inv.getArgument(0);
+            for (int i = 0; i < lista.size(); i++) {
+                lista.get(i).setId(i + 1L);
+            }
+            return lista;
+        });
+
+        List<PagamentoResponseDTO> resp = pagamentoService.realizarPagamentosEmLote(
+                new PagamentoLoteRequestDTO(List.of(dtoPixValido, outro)));
+
+        assertEquals(2, resp.size());
+        assertEquals(2002L, resp.get(1).codigoDebito());
+        verify(pagamentoRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @DisplayName("realizarPagamentosEmLote - deve lançar ConflictException com código repetido no lote")
+    void realizarPagamentosEmLote_codigoRepetido() {
+        PagamentoLoteRequestDTO lote = new PagamentoLoteRequestDTO(List.of(dtoPixValido, dtoPixValido));
+
+        assertThrows(ConflictException.class, () -> pagamentoService.realizarPagamentosEmLote(lote));
+        verify(pagamentoRepository, never()).saveAllAndFlush(anyList());
+    }
+
     @Nested
     @DisplayName("realizarPagamento - validações")
     class ValidacoesCriacao {
         @Test
         void codigoDebitoInvalido() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(0, "123", MetodoPagamentoEnum.PIX, null, new BigDecimal("1.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(0L, "123", MetodoPagamentoEnum.PIX, null, Dinheiro.parse("1.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void cpfCnpjVazio() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "", MetodoPagamentoEnum.PIX, null, new BigDecimal("1.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "", MetodoPagamentoEnum.PIX, null, Dinheiro.parse("1.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void metodoPagamentoNulo() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", null, null, new BigDecimal("1.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "12345678901", null, null, Dinheiro.parse("1.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void cartaoSemNumero() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", MetodoPagamentoEnum.CARTAO_CREDITO, null, new BigDecimal("1.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "12345678901", MetodoPagamentoEnum.CARTAO_CREDITO, null, Dinheiro.parse("1.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void cartaoNumeroInvalido() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", MetodoPagamentoEnum.CARTAO_DEBITO, "12345", new BigDecimal("1.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "12345678901", MetodoPagamentoEnum.CARTAO_DEBITO, "12345", Dinheiro.parse("1.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void pixComNumeroCartaoInformado() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", MetodoPagamentoEnum.PIX, "5555", new BigDecimal("1.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "12345678901", MetodoPagamentoEnum.PIX, "5555", Dinheiro.parse("1.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void valorNulo() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", MetodoPagamentoEnum.PIX, null, null);
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "12345678901", MetodoPagamentoEnum.PIX, null, null);
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
         @Test
         void valorMenorQueMinimo() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", MetodoPagamentoEnum.PIX, null, new BigDecimal("0.00"));
+            PagamentoRequestDTO dto = new PagamentoRequestDTO(1L, "12345678901", MetodoPagamentoEnum.PIX, null, Dinheiro.parse("0.00"));
             assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
         }
 
-        @Test
-        void valorComMaisDeDuasCasas() {
-            PagamentoRequestDTO dto = new PagamentoRequestDTO(1, "12345678901", MetodoPagamentoEnum.PIX, null, new BigDecimal("1.001"));
-            assertThrows(BusinessException.class, () -> pagamentoService.realizarPagamento(dto));
-        }
     }
 
 
@@ -168,6 +251,19 @@ class PagamentoServiceTest {
         assertEquals(StatusPagamentoEnum.PENDENTE, resp.status());
     }
 
+    @Test
+    void buscarPagamentoPorId_arquivado_deveRetornarDoArquivo() {
+        entidadePendente.setStatus(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO);
+        when(pagamentoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(pagamentoArquivadoRepository.findById(1L))
+                .thenReturn(Optional.of(PagamentoConverter.toArquivado(entidadePendente, OffsetDateTime.now())));
+
+        PagamentoResponseDTO resp = pagamentoService.buscarPagamentoPorId(1L);
+
+        assertEquals(1L, resp.id());
+        assertEquals(StatusPagamentoEnum.PROCESSADO_COM_SUCESSO, resp.status());
+    }
+
     @Test
     void buscarPagamentoPorId_notFound() {
         when(pagamentoRepository.findById(99L)).thenReturn(Optional.empty());
@@ -202,11 +298,11 @@ class PagamentoServiceTest {
     void listarComFiltros_sucesso_normalizaCpf() {
         Pageable pageable = PageRequest.of(0, 5);
         Page<Pagamento> page = new PageImpl<>(List.of(entidadePendente));
-        when(pagamentoRepository.buscarComFiltros(eq(2001), eq("52998224725"),
+        when(pagamentoRepository.buscarComFiltros(eq(2001L), eq("52998224725"),
                 eq(StatusPagamentoEnum.PENDENTE), eq(pageable))).thenReturn(page);
 
         Page<PagamentoResponseDTO> resp = pagamentoService.listarComFiltros(
-                2001, "529.982.247-25", StatusPagamentoEnum.PENDENTE, pageable);
+                2001L, "529.982.247-25", StatusPagamentoEnum.PENDENTE, pageable);
 
         assertEquals(1, resp.getTotalElements());
         assertEquals("52998224725", resp.getContent().get(0).cpfCnpjPagador());
@@ -0,0 +1,38 @@
+package com.fadesp.pagamento.business.service;
+
+import com.fadesp.pagamento.business.indice.IndicePagador;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "pagamento.indice-pagador.enabled=true")
+class ResumoPagadorServiceTest {
+
+    @Autowired
+    private ResumoPagadorService resumoPagadorService;
+
+    @Autowired
+    private IndicePagador indicePagador;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Test
+    void resumoDoIndice_deveCoincidirComOBanco() throws InterruptedException {
+        for (int i = 0; i < 100 && !indicePagador.isPronto(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(indicePagador.isPronto());
+
+        ResumoPagadorService somenteBanco = new ResumoPagadorService(pagamentoRepository,
+                new DefaultListableBeanFactory().getBeanProvider(IndicePagador.class));
+
+        for (String pagador : new String[]{"12345678901", "999.888.777-66", "00000000000"}) {
+            assertEquals(somenteBanco.resumir(pagador), resumoPagadorService.resumir(pagador), pagador);
+        }
+    }
+}
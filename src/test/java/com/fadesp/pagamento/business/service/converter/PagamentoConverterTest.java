@@ -6,9 +6,9 @@ import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
 import com.fadesp.pagamento.infrastructure.entities.Pagamento;
 import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
 import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.valor.Dinheiro;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,23 +18,23 @@ class PagamentoConverterTest {
     void toEntity_devePreencherCamposENormalizarDocumento() {
 
         PagamentoRequestDTO dto = new PagamentoRequestDTO(
-                321,
+                321L,
                 "123.456.789-09",
                 MetodoPagamentoEnum.CARTAO_CREDITO,
                 "5555444433331111",
-                new BigDecimal("100.10")
+                Dinheiro.parse("100.10")
         );
 
-        Pagamento entity = PagamentoConverter.toEntity(dto);
+        Pagamento entity = PagamentoConverter.toEntity(dto, "tok_ifJkJftDzBNY71G9");
 
 
         assertNotNull(entity);
-        assertEquals(321, entity.getCodigoDebito());
+        assertEquals(321L, entity.getCodigoDebito());
 
         assertEquals("12345678909", entity.getCpfCnpjPagador());
         assertEquals(MetodoPagamentoEnum.CARTAO_CREDITO, entity.getMetodoPagamentoEnum());
-        assertEquals("5555444433331111", entity.getNumeroCartao());
-        assertEquals(new BigDecimal("100.10"), entity.getValorTransacao());
+        assertEquals("tok_ifJkJftDzBNY71G9", entity.getNumeroCartao(), "A entidade guarda o token, nunca o PAN");
+        assertEquals(Dinheiro.parse("100.10"), entity.getValorTransacao());
         assertEquals(StatusPagamentoEnum.PENDENTE, entity.getStatus());
         assertTrue(entity.getAtivo(), "Pagamento novo deve iniciar ativo=true");
     }
@@ -42,19 +42,19 @@ class PagamentoConverterTest {
     @Test
     void toEntity_pixSemCartao_deveManterNumeroCartaoNull() {
         PagamentoRequestDTO dto = new PagamentoRequestDTO(
-                999,
+                999L,
                 "11222333000181",
                 MetodoPagamentoEnum.PIX,
                 null,
-                new BigDecimal("250.00")
+                Dinheiro.parse("250.00")
         );
 
-        Pagamento entity = PagamentoConverter.toEntity(dto);
+        Pagamento entity = PagamentoConverter.toEntity(dto, null);
 
         assertNull(entity.getNumeroCartao());
         assertEquals(MetodoPagamentoEnum.PIX, entity.getMetodoPagamentoEnum());
         assertEquals("11222333000181", entity.getCpfCnpjPagador());
-        assertEquals(new BigDecimal("250.00"), entity.getValorTransacao());
+        assertEquals(Dinheiro.parse("250.00"), entity.getValorTransacao());
         assertEquals(StatusPagamentoEnum.PENDENTE, entity.getStatus());
         assertTrue(entity.getAtivo());
     }
@@ -64,11 +64,11 @@ class PagamentoConverterTest {
 
         Pagamento p = new Pagamento();
         p.setId(7L);
-        p.setCodigoDebito(777);
+        p.setCodigoDebito(777L);
         p.setCpfCnpjPagador("12345678909");
         p.setMetodoPagamentoEnum(MetodoPagamentoEnum.CARTAO_DEBITO);
-        p.setNumeroCartao("4444333322221111");
-        p.setValorTransacao(new BigDecimal("73.45"));
+        p.setNumeroCartao("tok_5LebwNnFZy18EW76");
+        p.setValorTransacao(Dinheiro.parse("73.45"));
         p.setStatus(StatusPagamentoEnum.PROCESSADO_COM_FALHA);
         p.setAtivo(true);
 
@@ -78,10 +78,10 @@ class PagamentoConverterTest {
 
         assertNotNull(dto);
         assertEquals(7L, dto.id());
-        assertEquals(777, dto.codigoDebito());
+        assertEquals(777L, dto.codigoDebito());
         assertEquals("12345678909", dto.cpfCnpjPagador());
         assertEquals(MetodoPagamentoEnum.CARTAO_DEBITO, dto.metodoPagamento());
-        assertEquals(new BigDecimal("73.45"), dto.valor());
+        assertEquals(Dinheiro.parse("73.45"), dto.valor());
         assertEquals(StatusPagamentoEnum.PROCESSADO_COM_FALHA, dto.status());
         assertTrue(dto.ativo());
     }
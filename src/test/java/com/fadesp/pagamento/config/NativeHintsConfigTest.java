@@ -0,0 +1,35 @@
+package com.fadesp.pagamento.config;
+
+import com.fadesp.pagamento.business.dto.in.PagamentoRequestDTO;
+import com.fadesp.pagamento.infrastructure.enums.MetodoPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.validation.CpfCnpjValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.PagamentoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void deveRegistrarFabricasJsonCreatorDosEnums() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(MetodoPagamentoEnum.class.getMethod("fromString", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(StatusPagamentoEnum.class.getMethod("fromString", String.class)).test(hints));
+    }
+
+    @Test
+    void deveRegistrarValidadorEDtos() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CpfCnpjValidator.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PagamentoRequestDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+    }
+}
@@ -0,0 +1,55 @@
+package com.fadesp.pagamento.infrastructure.cache;
+
+import com.fadesp.pagamento.business.dto.out.PagamentoResponseDTO;
+import com.fadesp.pagamento.business.service.PagamentoService;
+import com.fadesp.pagamento.infrastructure.enums.StatusPagamentoEnum;
+import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import com.fadesp.pagamento.infrastructure.repository.PagamentoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CachesHibernateEndpointTest {
+
+    private static final String PAGADOR = "12345678901";
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private CachesHibernateEndpoint endpoint;
+
+    @Test
+    void consultaRepetidaUsaCache_eMudancaDeStatusInvalidaResultados() {
+        PageRequest pagina = PageRequest.of(0, 10);
+        long acertosAntes = acertosFiltros();
+
+        PagamentoResponseDTO pendente = pagamentoService
+                .listarComFiltros(null, PAGADOR, StatusPagamentoEnum.PENDENTE, pagina).getContent().get(0);
+        pagamentoService.listarComFiltros(null, PAGADOR, StatusPagamentoEnum.PENDENTE, pagina);
+
+        assertTrue(acertosFiltros() > acertosAntes, "segunda consulta idêntica deve vir do cache de consultas");
+
+        try {
+            pagamentoService.atualizarStatusPagamento(pendente.id(), StatusPagamentoEnum.PROCESSADO_COM_FALHA);
+
+            assertThrows(NotFoundException.class, () ->
+                    pagamentoService.listarComFiltros(null, PAGADOR, StatusPagamentoEnum.PENDENTE, pagina));
+            assertEquals(StatusPagamentoEnum.PROCESSADO_COM_FALHA,
+                    pagamentoService.buscarPagamentoPorId(pendente.id()).status());
+        } finally {
+            pagamentoService.atualizarStatusPagamento(pendente.id(), StatusPagamentoEnum.PENDENTE);
+        }
+    }
+
+    private long acertosFiltros() {
+        return endpoint.regioes().stream()
+                .filter(r -> r.regiao().equals(PagamentoRepository.REGIAO_CACHE_CONSULTAS))
+                .mapToLong(CachesHibernateEndpoint.EstatisticaRegiaoCache::acertos)
+                .sum();
+    }
+}
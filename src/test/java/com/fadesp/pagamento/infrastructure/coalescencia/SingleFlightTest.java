@@ -0,0 +1,98 @@
+package com.fadesp.pagamento.infrastructure.coalescencia;
+
+import com.fadesp.pagamento.infrastructure.exceptions.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void chamadasSimultaneasComMesmaChave_devemExecutarUmaUnicaVez() throws Exception {
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liderExecutando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        int seguidores = 7;
+        ExecutorService executor = Executors.newFixedThreadPool(seguidores + 1);
+        SingleFlight.Chamada<String> chamada = () -> {
+            execucoes.incrementAndGet();
+            liderExecutando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return "pagamento-1";
+        };
+
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            resultados.add(executor.submit(() -> buscar("id:1", chamada)));
+            assertTrue(liderExecutando.await(5, TimeUnit.SECONDS));
+
+            // Cada seguidor se registra antes de entrar; o líder só é liberado quando todos estão
+            // parados esperando o resultado dele.
+            List<Thread> threadsSeguidores = new CopyOnWriteArrayList<>();
+            CountDownLatch registrados = new CountDownLatch(seguidores);
+            for (int i = 0; i < seguidores; i++) {
+                resultados.add(executor.submit(() -> {
+                    threadsSeguidores.add(Thread.currentThread());
+                    registrados.countDown();
+                    return buscar("id:1", chamada);
+                }));
+            }
+            assertTrue(registrados.await(5, TimeUnit.SECONDS));
+            long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!threadsSeguidores.stream().allMatch(t -> t.getState() == Thread.State.WAITING)) {
+                assertTrue(System.nanoTime() < prazo, "seguidores não chegaram à espera");
+                Thread.onSpinWait();
+            }
+            liberar.countDown();
+
+            for (Future<String> resultado : resultados) {
+                assertEquals("pagamento-1", resultado.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, execucoes.get());
+            assertEquals(0, singleFlight.chamadasEmAndamento());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void falhaDaChamada_devePropagarMesmaExcecao_eLiberarChave() {
+        assertThrows(NotFoundException.class, () -> singleFlight.executar("id:99", () -> {
+            throw new NotFoundException("Pagamento não encontrado: id=99");
+        }));
+
+        assertEquals(0, singleFlight.chamadasEmAndamento());
+    }
+
+    @Test
+    void chamadasSequenciais_naoDevemReaproveitarResultado() throws Throwable {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        singleFlight.executar("id:1", execucoes::incrementAndGet);
+        singleFlight.executar("id:1", execucoes::incrementAndGet);
+
+        assertEquals(2, execucoes.get());
+    }
+
+    private String buscar(String chave, SingleFlight.Chamada<String> chamada) throws Exception {
+        try {
+            return singleFlight.executar(chave, chamada);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
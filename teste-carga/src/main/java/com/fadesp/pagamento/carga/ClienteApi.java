@@ -0,0 +1,77 @@
+package com.fadesp.pagamento.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ClienteApi {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final String base;
+
+    public record Resposta(int status, String corpo) {
+        public long id() {
+            Matcher matcher = ID.matcher(corpo);
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        }
+    }
+
+    public ClienteApi(String url) {
+        this.base = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public Resposta criar(String json) {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/pagamentos"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    public Resposta buscar(long id) {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/pagamentos/" + id)).GET());
+    }
+
+    public Resposta listar(String cpfCnpj, String status, int tamanhoPagina) {
+        StringBuilder query = new StringBuilder("?page=0&size=").append(tamanhoPagina)
+                .append("&cpfCnpjPagador=").append(URLEncoder.encode(cpfCnpj, StandardCharsets.UTF_8));
+        if (status != null) {
+            query.append("&status=").append(status);
+        }
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/pagamentos" + query)).GET());
+    }
+
+    public Resposta atualizarStatus(long id, String novoStatus) {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/pagamentos/" + id + "/status?novoStatus=" + novoStatus))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public Resposta excluir(long id) {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/pagamentos/" + id)).DELETE());
+    }
+
+    private Resposta enviar(HttpRequest.Builder builder) {
+        try {
+            HttpResponse<String> response = httpClient.send(builder.timeout(TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return new Resposta(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Resposta(-1, e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Resposta(-1, "interrompido");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fadesp.pagamento.carga;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record ConfiguracaoCarga(
+        String url,
+        Duration duracao,
+        Duration aquecimento,
+        int usuarios,
+        double taxaPorSegundo,
+        Map<Operacao, Integer> mix,
+        Map<String, Integer> metodos,
+        int pagadores,
+        double expoenteZipf,
+        double proporcaoCnpj,
+        int semente,
+        long codigoDebitoInicial,
+        long sementeAleatoria
+) {
+
+    public static ConfiguracaoCarga deArgumentos(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (use --chave=valor)");
+            }
+            int separador = arg.indexOf('=');
+            valores.put(arg.substring(2, separador), arg.substring(separador + 1));
+        }
+
+        long sementeAleatoria = Long.parseLong(valores.getOrDefault("semente-aleatoria", "42"));
+        return new ConfiguracaoCarga(
+                valores.getOrDefault("url", "http://localhost:8080"),
+                Duration.ofSeconds(Long.parseLong(valores.getOrDefault("duracao", "60"))),
+                Duration.ofSeconds(Long.parseLong(valores.getOrDefault("aquecimento", "10"))),
+                Integer.parseInt(valores.getOrDefault("usuarios", "32")),
+                Double.parseDouble(valores.getOrDefault("taxa", "0")),
+                mix(valores.getOrDefault("mix", "CRIAR=15,BUSCAR=50,LISTAR=25,ATUALIZAR_STATUS=7,EXCLUIR=3")),
+                pesos(valores.getOrDefault("metodos", "PIX=45,BOLETO=15,CARTAO_CREDITO=30,CARTAO_DEBITO=10")),
+                Integer.parseInt(valores.getOrDefault("pagadores", "10000")),
+                Double.parseDouble(valores.getOrDefault("zipf", "1.1")),
+                Double.parseDouble(valores.getOrDefault("proporcao-cnpj", "0.3")),
+                Integer.parseInt(valores.getOrDefault("semente", "5000")),
+                Long.parseLong(valores.getOrDefault("codigo-inicial",
+                        String.valueOf(100_000_000L + Math.floorMod(sementeAleatoria * 7_777_777L, 1_000_000_000L)))),
+                sementeAleatoria
+        );
+    }
+
+    private static Map<Operacao, Integer> mix(String texto) {
+        Map<Operacao, Integer> mix = new EnumMap<>(Operacao.class);
+        pesos(texto).forEach((chave, peso) -> mix.put(Operacao.valueOf(chave), peso));
+        return mix;
+    }
+
+    private static Map<String, Integer> pesos(String texto) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String par : texto.split(",")) {
+            String[] partes = par.trim().split("=");
+            pesos.put(partes[0].trim().toUpperCase(), Integer.parseInt(partes[1].trim()));
+        }
+        return pesos;
+    }
+}
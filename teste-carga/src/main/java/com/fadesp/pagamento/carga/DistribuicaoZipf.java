@@ -0,0 +1,34 @@
+package com.fadesp.pagamento.carga;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class DistribuicaoZipf {
+
+    private final double[] acumulada;
+
+    public DistribuicaoZipf(int elementos, double expoente) {
+        if (elementos <= 0) {
+            throw new IllegalArgumentException("A distribuição precisa de pelo menos um elemento.");
+        }
+        this.acumulada = new double[elementos];
+        double soma = 0.0;
+        for (int k = 1; k <= elementos; k++) {
+            soma += 1.0 / Math.pow(k, expoente);
+            acumulada[k - 1] = soma;
+        }
+        for (int i = 0; i < elementos; i++) {
+            acumulada[i] /= soma;
+        }
+    }
+
+    public int elementos() {
+        return acumulada.length;
+    }
+
+    public int sortear(Random random) {
+        int posicao = Arrays.binarySearch(acumulada, random.nextDouble());
+        int indice = posicao >= 0 ? posicao : -posicao - 1;
+        return Math.min(indice, acumulada.length - 1);
+    }
+}
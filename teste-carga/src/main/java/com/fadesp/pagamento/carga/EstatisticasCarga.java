@@ -0,0 +1,80 @@
+package com.fadesp.pagamento.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EstatisticasCarga {
+
+    private static final long MAXIMO_REGISTRAVEL_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Operacao, Histogram> latencias = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, Map<Integer, LongAdder>> statusPorOperacao = new EnumMap<>(Operacao.class);
+    private final Map<Operacao, LongAdder> ignoradas = new EnumMap<>(Operacao.class);
+
+    public EstatisticasCarga() {
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new ConcurrentHistogram(MAXIMO_REGISTRAVEL_MICROS, 3));
+            statusPorOperacao.put(operacao, new ConcurrentHashMap<>());
+            ignoradas.put(operacao, new LongAdder());
+        }
+    }
+
+    public void registrar(Operacao operacao, long latenciaNanos, int status) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), MAXIMO_REGISTRAVEL_MICROS);
+        latencias.get(operacao).recordValue(Math.max(1, micros));
+        statusPorOperacao.get(operacao).computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    public void ignorar(Operacao operacao) {
+        ignoradas.get(operacao).increment();
+    }
+
+    public void imprimir(PrintStream saida, double segundosMedidos) {
+        saida.printf("%-36s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "req", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "status");
+        long totalGeral = 0;
+        for (Operacao operacao : Operacao.values()) {
+            Histogram h = latencias.get(operacao);
+            long total = h.getTotalCount();
+            totalGeral += total;
+            if (total == 0) {
+                continue;
+            }
+            saida.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    operacao.getEndpoint(),
+                    total,
+                    total / segundosMedidos,
+                    ms(h.getValueAtPercentile(50)),
+                    ms(h.getValueAtPercentile(90)),
+                    ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)),
+                    ms(h.getMaxValue()),
+                    status(operacao));
+        }
+        saida.printf("%-36s %9d %9.1f%n", "TOTAL", totalGeral, totalGeral / segundosMedidos);
+        for (Operacao operacao : Operacao.values()) {
+            long total = ignoradas.get(operacao).sum();
+            if (total > 0) {
+                saida.printf("%-36s %9d ignoradas (sem ids criados)%n", operacao.getEndpoint(), total);
+            }
+        }
+    }
+
+    private Map<Integer, Long> status(Operacao operacao) {
+        Map<Integer, Long> ordenado = new TreeMap<>();
+        statusPorOperacao.get(operacao).forEach((status, contador) -> ordenado.put(status, contador.sum()));
+        return ordenado;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
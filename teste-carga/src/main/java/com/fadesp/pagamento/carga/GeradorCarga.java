@@ -0,0 +1,159 @@
+package com.fadesp.pagamento.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class GeradorCarga {
+
+    private static final String[] STATUS_FILTRO = {null, "PENDENTE", "PROCESSADO_COM_SUCESSO", "PROCESSADO_COM_FALHA"};
+
+    private final ConfiguracaoCarga config;
+    private final ClienteApi cliente;
+    private final MassaDados massa;
+    private final SorteioPonderado<Operacao> mix;
+    private final EstatisticasCarga estatisticas = new EstatisticasCarga();
+
+    public GeradorCarga(ConfiguracaoCarga config) {
+        this.config = config;
+        this.cliente = new ClienteApi(config.url());
+        this.massa = new MassaDados(config);
+        this.mix = new SorteioPonderado<>(config.mix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga config = ConfiguracaoCarga.deArgumentos(args);
+        new GeradorCarga(config).executar();
+    }
+
+    public void executar() throws Exception {
+        System.out.printf("Alvo: %s | usuários: %d | taxa: %s | duração: %ds (+%ds aquecimento) | mix: %s%n",
+                config.url(), config.usuarios(),
+                config.taxaPorSegundo() > 0 ? config.taxaPorSegundo() + " req/s" : "malha fechada",
+                config.duracao().toSeconds(), config.aquecimento().toSeconds(), config.mix());
+
+        semear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.usuarios());
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + config.aquecimento().toNanos();
+        long fim = inicioMedicao + config.duracao().toNanos();
+
+        List<Future<?>> usuarios = new ArrayList<>();
+        for (int u = 0; u < config.usuarios(); u++) {
+            Random random = new Random(config.sementeAleatoria() * 31 + u);
+            usuarios.add(executor.submit(() -> usuario(random, inicio, inicioMedicao, fim)));
+        }
+        for (Future<?> usuario : usuarios) {
+            usuario.get();
+        }
+        // Vazão sobre o tempo de fato medido: as últimas requisições terminam depois do fim previsto.
+        long medido = System.nanoTime() - inicioMedicao;
+        executor.shutdown();
+
+        estatisticas.imprimir(System.out, medido / 1e9);
+    }
+
+    private void semear() throws Exception {
+        if (config.semente() <= 0) {
+            return;
+        }
+        System.out.printf("Semeando %d pagamentos...%n", config.semente());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(config.usuarios(), 16));
+        AtomicInteger restantes = new AtomicInteger(config.semente());
+        AtomicInteger falhas = new AtomicInteger();
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < Math.min(config.usuarios(), 16); t++) {
+            Random random = new Random(config.sementeAleatoria() * 17 + t);
+            tarefas.add(executor.submit(() -> {
+                while (restantes.getAndDecrement() > 0) {
+                    ClienteApi.Resposta criado = cliente.criar(massa.novoPagamentoJson(random));
+                    if (criado.status() != 201) {
+                        falhas.incrementAndGet();
+                        continue;
+                    }
+                    long id = criado.id();
+                    massa.registrarId(id);
+                    double sorteio = random.nextDouble();
+                    if (sorteio < 0.6) {
+                        cliente.atualizarStatus(id, "PROCESSADO_COM_SUCESSO");
+                    } else if (sorteio < 0.7) {
+                        cliente.atualizarStatus(id, "PROCESSADO_COM_FALHA");
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.printf("Semente concluída: %d ids disponíveis, %d falhas.%n", massa.totalIds(), falhas.get());
+    }
+
+    private void usuario(Random random, long inicio, long inicioMedicao, long fim) {
+        long intervalo = config.taxaPorSegundo() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * config.usuarios() / config.taxaPorSegundo())
+                : 0;
+        long previsto = inicio + (intervalo > 0 ? (long) (random.nextDouble() * intervalo) : 0);
+
+        while (true) {
+            if (intervalo > 0) {
+                long espera = previsto - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+            } else {
+                previsto = System.nanoTime();
+            }
+            if (previsto >= fim) {
+                return;
+            }
+
+            Operacao operacao = mix.sortear(random);
+            OptionalLong id = operacao.isExigeId() ? massa.idRecente(random) : OptionalLong.empty();
+            if (operacao.isExigeId() && id.isEmpty()) {
+                // Sem nenhum pagamento criado ainda não há o que buscar, alterar ou excluir.
+                if (previsto >= inicioMedicao) {
+                    estatisticas.ignorar(operacao);
+                }
+                previsto += intervalo;
+                continue;
+            }
+            int status = executar(operacao, id, random);
+            long concluido = System.nanoTime();
+
+            // Com taxa fixa a latência parte do instante previsto, evitando a omissão coordenada.
+            if (previsto >= inicioMedicao) {
+                estatisticas.registrar(operacao, concluido - previsto, status);
+            }
+            previsto += intervalo;
+        }
+    }
+
+    private int executar(Operacao operacao, OptionalLong id, Random random) {
+        return switch (operacao) {
+            case CRIAR -> {
+                ClienteApi.Resposta resposta = cliente.criar(massa.novoPagamentoJson(random));
+                if (resposta.status() == 201) {
+                    massa.registrarId(resposta.id());
+                }
+                yield resposta.status();
+            }
+            case BUSCAR -> cliente.buscar(id.getAsLong()).status();
+            case LISTAR -> cliente.listar(massa.pagador(random),
+                    STATUS_FILTRO[random.nextInt(STATUS_FILTRO.length)], 20).status();
+            case ATUALIZAR_STATUS -> cliente.atualizarStatus(id.getAsLong(),
+                    random.nextDouble() < 0.75 ? "PROCESSADO_COM_SUCESSO" : "PROCESSADO_COM_FALHA").status();
+            case EXCLUIR -> cliente.excluir(id.getAsLong()).status();
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.fadesp.pagamento.carga;
+
+public final class GeradorDocumentos {
+
+    private GeradorDocumentos() {
+        throw new UnsupportedOperationException("Classe utilitária - não deve ser instanciada.");
+    }
+
+    public static String cpf(long semente) {
+        int[] d = new int[11];
+        long base = 100_000_000L + Math.floorMod(semente * 7_919L, 899_999_999L);
+        for (int i = 8; i >= 0; i--) {
+            d[i] = (int) (base % 10);
+            base /= 10;
+        }
+        d[9] = digitoCpf(d, 9);
+        d[10] = digitoCpf(d, 10);
+        return juntar(d);
+    }
+
+    public static String cnpj(long semente) {
+        int[] d = new int[14];
+        long base = 10_000_000L + Math.floorMod(semente * 104_729L, 89_999_999L);
+        for (int i = 7; i >= 0; i--) {
+            d[i] = (int) (base % 10);
+            base /= 10;
+        }
+        d[8] = 0;
+        d[9] = 0;
+        d[10] = 0;
+        d[11] = 1;
+        d[12] = digitoCnpj(d, 12);
+        d[13] = digitoCnpj(d, 13);
+        return juntar(d);
+    }
+
+    public static String cartao(long semente) {
+        int[] d = new int[16];
+        d[0] = 4 + (int) Math.floorMod(semente, 2L);
+        long corpo = Math.floorMod(semente * 6_364_136_223_846_793_005L, 100_000_000_000_000L);
+        for (int i = 14; i >= 1; i--) {
+            d[i] = (int) (corpo % 10);
+            corpo /= 10;
+        }
+        int soma = 0;
+        for (int i = 14; i >= 0; i--) {
+            int v = d[i];
+            if ((14 - i) % 2 == 0) {
+                v *= 2;
+                if (v > 9) v -= 9;
+            }
+            soma += v;
+        }
+        d[15] = (10 - soma % 10) % 10;
+        return juntar(d);
+    }
+
+    private static int digitoCpf(int[] d, int tamanho) {
+        int soma = 0;
+        for (int i = 0; i < tamanho; i++) {
+            soma += d[i] * (tamanho + 1 - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static int digitoCnpj(int[] d, int tamanho) {
+        int soma = 0;
+        int peso = tamanho == 12 ? 5 : 6;
+        for (int i = 0; i < tamanho; i++) {
+            soma += d[i] * peso;
+            peso = peso == 2 ? 9 : peso - 1;
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static String juntar(int[] digitos) {
+        StringBuilder sb = new StringBuilder(digitos.length);
+        for (int digito : digitos) {
+            sb.append(digito);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package com.fadesp.pagamento.carga;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class MassaDados {
+
+    private static final int BITS_BLOCO = 12;
+    private static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MAXIMO_BLOCOS = 1 << 16;
+
+    private final String[] pagadores;
+    private final DistribuicaoZipf zipfPagadores;
+    private final SorteioPonderado<String> metodos;
+    private final AtomicLong proximoCodigoDebito;
+    private final double expoenteZipf;
+
+    // Ids em blocos alocados sob demanda: a inclusão reserva a posição com um incremento atômico e
+    // nunca copia o que já foi gravado. Posição ainda com 0 está reservada, mas não gravada.
+    private final AtomicReferenceArray<AtomicLongArray> blocos = new AtomicReferenceArray<>(MAXIMO_BLOCOS);
+    private final AtomicInteger totalIds = new AtomicInteger();
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+    private final Executor reconstrucao;
+    private volatile DistribuicaoZipf zipfIds;
+
+    public MassaDados(ConfiguracaoCarga config) {
+        this(config, Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "massa-zipf");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param reconstrucao onde a distribuição sobre os ids é refeita quando o total dobra, fora dos
+     *                     usuários virtuais; até lá eles sorteiam na distribuição anterior
+     */
+    MassaDados(ConfiguracaoCarga config, Executor reconstrucao) {
+        this.reconstrucao = reconstrucao;
+        Random random = new Random(config.sementeAleatoria());
+        this.pagadores = new String[config.pagadores()];
+        for (int i = 0; i < pagadores.length; i++) {
+            pagadores[i] = random.nextDouble() < config.proporcaoCnpj()
+                    ? GeradorDocumentos.cnpj(i)
+                    : GeradorDocumentos.cpf(i);
+        }
+        this.zipfPagadores = new DistribuicaoZipf(pagadores.length, config.expoenteZipf());
+        this.metodos = new SorteioPonderado<>(config.metodos());
+        this.proximoCodigoDebito = new AtomicLong(config.codigoDebitoInicial());
+        this.expoenteZipf = config.expoenteZipf();
+    }
+
+    public String pagador(Random random) {
+        return pagadores[zipfPagadores.sortear(random)];
+    }
+
+    public String novoPagamentoJson(Random random) {
+        String metodo = metodos.sortear(random);
+        String cartao = metodo.startsWith("CARTAO")
+                ? "\"" + GeradorDocumentos.cartao(random.nextLong()) + "\""
+                : "null";
+        return String.format(Locale.ROOT,
+                "{\"codigoDebito\":%d,\"cpfCnpj\":\"%s\",\"metodoPagamento\":\"%s\",\"numeroCartao\":%s,\"valor\":%s}",
+                proximoCodigoDebito.getAndIncrement(), pagador(random), metodo, cartao, valor(random));
+    }
+
+    public void registrarId(long id) {
+        int posicao = totalIds.getAndIncrement();
+        if (posicao >= MAXIMO_BLOCOS * TAMANHO_BLOCO) {
+            throw new IllegalStateException("Limite de ids registrados atingido: " + posicao);
+        }
+        bloco(posicao >>> BITS_BLOCO).set(posicao & (TAMANHO_BLOCO - 1), id);
+        agendarReconstrucao(posicao + 1);
+    }
+
+    /**
+     * Sorteia um id já criado, com preferência Zipf pelos mais recentes.
+     *
+     * @return vazio enquanto nenhum id foi registrado
+     */
+    public OptionalLong idRecente(Random random) {
+        int total = totalIds.get();
+        if (total == 0) {
+            return OptionalLong.empty();
+        }
+        DistribuicaoZipf zipf = zipfIds;
+        int posicao = zipf == null ? 0 : Math.min(zipf.sortear(random), total - 1);
+        // As posições mais novas podem estar reservadas e ainda não gravadas: recua até uma gravada.
+        for (int i = total - 1 - posicao; i >= 0; i--) {
+            long id = lerId(i);
+            if (id != 0) {
+                return OptionalLong.of(id);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    public int totalIds() {
+        return totalIds.get();
+    }
+
+    private AtomicLongArray bloco(int indice) {
+        AtomicLongArray bloco = blocos.get(indice);
+        if (bloco == null) {
+            blocos.compareAndSet(indice, null, new AtomicLongArray(TAMANHO_BLOCO));
+            bloco = blocos.get(indice);
+        }
+        return bloco;
+    }
+
+    private long lerId(int posicao) {
+        AtomicLongArray bloco = blocos.get(posicao >>> BITS_BLOCO);
+        return bloco == null ? 0 : bloco.get(posicao & (TAMANHO_BLOCO - 1));
+    }
+
+    private void agendarReconstrucao(int total) {
+        DistribuicaoZipf atual = zipfIds;
+        int tamanhoAtual = atual == null ? 0 : atual.elementos();
+        if (total < tamanhoAtual * 2 || !reconstruindo.compareAndSet(false, true)) {
+            return;
+        }
+        reconstrucao.execute(() -> {
+            try {
+                zipfIds = new DistribuicaoZipf(totalIds.get(), expoenteZipf);
+            } finally {
+                reconstruindo.set(false);
+            }
+        });
+    }
+
+    private static String valor(Random random) {
+        double bruto = Math.exp(4.0 + random.nextGaussian() * 1.2);
+        double limitado = Math.max(1.0, Math.min(bruto, 50_000.0));
+        return BigDecimal.valueOf(limitado).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
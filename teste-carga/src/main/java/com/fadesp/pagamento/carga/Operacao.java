@@ -0,0 +1,25 @@
+package com.fadesp.pagamento.carga;
+
+public enum Operacao {
+    CRIAR("POST /api/pagamentos", false),
+    BUSCAR("GET /api/pagamentos/{id}", true),
+    LISTAR("GET /api/pagamentos?filtros", false),
+    ATUALIZAR_STATUS("PATCH /api/pagamentos/{id}/status", true),
+    EXCLUIR("DELETE /api/pagamentos/{id}", true);
+
+    private final String endpoint;
+    private final boolean exigeId;
+
+    Operacao(String endpoint, boolean exigeId) {
+        this.endpoint = endpoint;
+        this.exigeId = exigeId;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public boolean isExigeId() {
+        return exigeId;
+    }
+}
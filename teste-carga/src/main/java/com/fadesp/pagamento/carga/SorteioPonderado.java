@@ -0,0 +1,41 @@
+package com.fadesp.pagamento.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class SorteioPonderado<T> {
+
+    private final List<T> itens = new ArrayList<>();
+    private final int[] acumulado;
+    private final int total;
+
+    public SorteioPonderado(Map<T, Integer> pesos) {
+        this.acumulado = new int[pesos.size()];
+        int soma = 0;
+        int i = 0;
+        for (Map.Entry<T, Integer> peso : pesos.entrySet()) {
+            if (peso.getValue() < 0) {
+                throw new IllegalArgumentException("Peso negativo para " + peso.getKey());
+            }
+            soma += peso.getValue();
+            itens.add(peso.getKey());
+            acumulado[i++] = soma;
+        }
+        if (soma == 0) {
+            throw new IllegalArgumentException("A soma dos pesos deve ser maior que zero: " + pesos);
+        }
+        this.total = soma;
+    }
+
+    public T sortear(Random random) {
+        int alvo = random.nextInt(total);
+        for (int i = 0; i < acumulado.length; i++) {
+            if (alvo < acumulado[i]) {
+                return itens.get(i);
+            }
+        }
+        return itens.get(itens.size() - 1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.fadesp.pagamento.carga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistribuicaoZipfTest {
+
+    @Test
+    @DisplayName("Frequências seguem 1/k^s: o primeiro elemento domina e a razão entre postos confere")
+    void frequencias_devemSeguirALeiDeZipf() {
+        int elementos = 100;
+        DistribuicaoZipf zipf = new DistribuicaoZipf(elementos, 1.0);
+        Random random = new Random(7);
+        int[] contagem = new int[elementos];
+        int sorteios = 200_000;
+        for (int i = 0; i < sorteios; i++) {
+            contagem[zipf.sortear(random)]++;
+        }
+
+        double harmonico = 0;
+        for (int k = 1; k <= elementos; k++) {
+            harmonico += 1.0 / k;
+        }
+        assertEquals(1.0 / harmonico, contagem[0] / (double) sorteios, 0.01);
+        assertEquals(2.0, contagem[0] / (double) contagem[1], 0.1);
+        assertEquals(10.0, contagem[0] / (double) contagem[9], 1.0);
+    }
+
+    @Test
+    @DisplayName("Sorteio fica sempre dentro dos limites, inclusive com um único elemento")
+    void sortear_deveFicarDentroDosLimites() {
+        Random random = new Random(3);
+        DistribuicaoZipf unico = new DistribuicaoZipf(1, 1.1);
+        DistribuicaoZipf dez = new DistribuicaoZipf(10, 1.1);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0, unico.sortear(random));
+            int indice = dez.sortear(random);
+            assertTrue(indice >= 0 && indice < 10);
+        }
+        assertEquals(10, dez.elementos());
+    }
+
+    @Test
+    @DisplayName("Distribuição vazia é recusada")
+    void semElementos_deveFalhar() {
+        assertThrows(IllegalArgumentException.class, () -> new DistribuicaoZipf(0, 1.1));
+    }
+}
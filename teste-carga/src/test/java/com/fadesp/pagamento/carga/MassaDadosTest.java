@@ -0,0 +1,101 @@
+package com.fadesp.pagamento.carga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MassaDadosTest {
+
+    private final ConfiguracaoCarga config = ConfiguracaoCarga.deArgumentos(new String[]{"--pagadores=50"});
+
+    @Test
+    @DisplayName("Sem ids registrados não há id a sortear")
+    void semIds_deveDevolverVazio() {
+        MassaDados massa = new MassaDados(config, Runnable::run);
+
+        assertEquals(OptionalLong.empty(), massa.idRecente(new Random(1)));
+        assertEquals(0, massa.totalIds());
+    }
+
+    @Test
+    @DisplayName("Ids recentes são os mais sorteados e a distribuição acompanha o crescimento")
+    void idRecente_devePreferirOsMaisNovos() {
+        MassaDados massa = new MassaDados(config, Runnable::run);
+        for (long id = 1; id <= 10_000; id++) {
+            massa.registrarId(id);
+        }
+        Random random = new Random(5);
+        int ultimo = 0;
+        Set<Long> sorteados = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = massa.idRecente(random).orElseThrow();
+            assertTrue(id >= 1 && id <= 10_000);
+            sorteados.add(id);
+            if (id == 10_000) {
+                ultimo++;
+            }
+        }
+
+        assertEquals(10_000, massa.totalIds());
+        assertTrue(ultimo > 20_000 * 0.1, "o id mais novo deveria dominar: " + ultimo);
+        assertTrue(sorteados.stream().anyMatch(id -> id < 9_000), "ids antigos também devem sair");
+    }
+
+    @Test
+    @DisplayName("Registros concorrentes não se perdem e a reconstrução da distribuição fica fora dos usuários")
+    void registrosConcorrentes_naoDevemSePerder() throws Exception {
+        List<Runnable> reconstrucoes = new ArrayList<>();
+        MassaDados massa = new MassaDados(config, tarefa -> {
+            synchronized (reconstrucoes) {
+                reconstrucoes.add(tarefa);
+            }
+        });
+        int threads = 8;
+        int porThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * porThread;
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                Random random = new Random(base);
+                for (long i = 1; i <= porThread; i++) {
+                    massa.registrarId(base + i);
+                    assertTrue(massa.idRecente(random).isPresent());
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * porThread, massa.totalIds());
+        // A primeira reconstrução ainda não rodou: só uma foi agendada, e os sorteios seguiram sem ela.
+        assertEquals(1, reconstrucoes.size());
+        reconstrucoes.get(0).run();
+
+        Random random = new Random(9);
+        Set<Long> sorteados = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            sorteados.add(massa.idRecente(random).orElseThrow());
+        }
+        assertTrue(sorteados.stream().allMatch(id -> id >= 1 && id <= (long) threads * porThread));
+        assertTrue(sorteados.size() > 100);
+    }
+}
@@ -0,0 +1,43 @@
+package com.fadesp.pagamento.carga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SorteioPonderadoTest {
+
+    @Test
+    @DisplayName("Cada item sai na proporção do seu peso e peso zero nunca sai")
+    void sortear_deveRespeitarOsPesos() {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        pesos.put("A", 50);
+        pesos.put("B", 30);
+        pesos.put("C", 0);
+        pesos.put("D", 20);
+        SorteioPonderado<String> sorteio = new SorteioPonderado<>(pesos);
+        Random random = new Random(11);
+        Map<String, Integer> contagem = new HashMap<>();
+        int sorteios = 100_000;
+        for (int i = 0; i < sorteios; i++) {
+            contagem.merge(sorteio.sortear(random), 1, Integer::sum);
+        }
+
+        assertEquals(0.5, contagem.get("A") / (double) sorteios, 0.01);
+        assertEquals(0.3, contagem.get("B") / (double) sorteios, 0.01);
+        assertEquals(0.2, contagem.get("D") / (double) sorteios, 0.01);
+        assertFalse(contagem.containsKey("C"));
+    }
+
+    @Test
+    @DisplayName("Pesos negativos ou todos zerados são recusados")
+    void pesosInvalidos_devemFalhar() {
+        assertThrows(IllegalArgumentException.class, () -> new SorteioPonderado<>(Map.of("A", -1, "B", 2)));
+        assertThrows(IllegalArgumentException.class, () -> new SorteioPonderado<>(Map.of("A", 0)));
+    }
+}